@@ -0,0 +1,115 @@
+package com.legacykeep.notification.benchmark;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.model.EmailAttachment;
+import com.legacykeep.notification.model.HtmlBody;
+import com.legacykeep.notification.service.EmailDeliveryService;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap cost of sending one large attachment to many recipients.
+ *
+ * Each operation builds and writes the message of every recipient, as the
+ * transport would. Run with the GC profiler and compare
+ * {@code gc.alloc.rate.norm}: a file or mapped attachment shared by all
+ * messages allocates only encoding buffers, while reading the file into a byte
+ * array per recipient allocates the whole attachment every time.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class AttachmentFanOutBenchmark {
+
+    @Param({"FILE", "MAPPED", "HEAP_PER_RECIPIENT"})
+    private String source;
+
+    @Param({"8388608"})
+    private int attachmentSize;
+
+    @Param({"50"})
+    private int recipients;
+
+    private EmailDeliveryService emailDeliveryService;
+    private Path file;
+    private List<EmailAttachment> shared;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        emailDeliveryService = new EmailDeliveryService(new JavaMailSenderImpl(), new NotificationConfig());
+
+        byte[] content = new byte[attachmentSize];
+        new Random(42).nextBytes(content);
+        file = Files.createTempFile("attachment-fan-out", ".pdf");
+        Files.write(file, content);
+
+        shared = switch (source) {
+            case "FILE" -> List.of(EmailAttachment.ofFile(file));
+            case "MAPPED" -> List.of(EmailAttachment.mapped(file));
+            default -> null;
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long fanOut() throws Exception {
+        CountingOutputStream wire = new CountingOutputStream();
+        for (int i = 0; i < recipients; i++) {
+            List<EmailAttachment> attachments = shared != null
+                    ? shared
+                    : List.of(EmailAttachment.of("report.pdf", Files.readAllBytes(file)));
+            MimeMessage message = emailDeliveryService.createHtmlMessage(null, "user" + i + "@example.com",
+                    "Your family tree", HtmlBody.of("<p>Your family tree is attached.</p>"), null, attachments);
+            message.writeTo(wire);
+        }
+        return wire.count;
+    }
+
+    /**
+     * Transport stand-in that only counts the bytes written
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.legacykeep.notification.benchmark;
+
+import com.legacykeep.notification.model.DkimBodyHash;
+import com.legacykeep.notification.model.DkimSigner;
+import com.legacykeep.notification.model.HtmlBody;
+import jakarta.mail.Message;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.io.OutputStream;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of DKIM signing next to rendering and writing the same email.
+ *
+ * {@code render} renders a digest-sized template and writes the message as the
+ * transport would; {@code renderAndSign} adds signing, so the difference between
+ * the two is the signing overhead per email. {@code renderAndHashBody} adds only
+ * the streamed body hash, separating it from the fixed cost of the RSA operation.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DkimSigningBenchmark {
+
+    private static final String TEMPLATE = "<html><body><h1 th:text=\"${title}\">Title</h1><ul>"
+            + "<li th:each=\"item : ${items}\"><strong th:text=\"${item}\">Item</strong> "
+            + "shared a new story with your family. Open LegacyKeep to read it and add your memories.</li>"
+            + "</ul></body></html>";
+
+    @Param({"20", "200"})
+    private int items;
+
+    private final SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+    private Session session;
+    private InternetAddress from;
+    private DkimSigner signer;
+    private Context context;
+    private MessageDigest digest;
+
+    @Setup
+    public void setUp() throws Exception {
+        session = Session.getInstance(new Properties());
+        from = new InternetAddress("noreply@legacykeep.com", "LegacyKeep");
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        signer = new DkimSigner("legacykeep.com", "notify", generator.generateKeyPair().getPrivate(),
+                List.of("from", "to", "subject", "date", "message-id", "mime-version", "content-type"));
+
+        digest = MessageDigest.getInstance("SHA-256");
+
+        context = new Context();
+        context.setVariable("title", "Your daily digest");
+        context.setVariable("items", IntStream.range(0, items)
+                .mapToObj(i -> "Relative " + i).toList());
+    }
+
+    @Benchmark
+    public long render() throws Exception {
+        MimeMessage message = message();
+        return write(message);
+    }
+
+    @Benchmark
+    public long renderAndSign() throws Exception {
+        MimeMessage message = message();
+        signer.sign(message);
+        return write(message);
+    }
+
+    @Benchmark
+    public byte[] renderAndHashBody() throws Exception {
+        MimeMessage message = message();
+        message.saveChanges();
+        DkimBodyHash bodyHash = DkimBodyHash.ofMessage(digest);
+        message.writeTo(bodyHash);
+        return bodyHash.digest();
+    }
+
+    private MimeMessage message() throws Exception {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(from);
+        message.setRecipients(Message.RecipientType.TO, "user@example.com");
+        message.setSubject("Your daily digest", "UTF-8");
+        HtmlBody.of(templateEngine.process(TEMPLATE, context)).applyTo(message);
+        return message;
+    }
+
+    private long write(MimeMessage message) throws Exception {
+        CountingOutputStream wire = new CountingOutputStream();
+        message.writeTo(wire);
+        return wire.count;
+    }
+
+    /**
+     * Transport stand-in that only counts the bytes written
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
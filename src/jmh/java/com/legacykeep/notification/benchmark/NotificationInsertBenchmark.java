@@ -0,0 +1,194 @@
+package com.legacykeep.notification.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification inserts per second with identity and pooled sequence IDs.
+ *
+ * {@code identity} is what Hibernate does with {@code GenerationType.IDENTITY}:
+ * one {@code INSERT ... RETURNING id} round trip per row. {@code pooledBatch}
+ * takes one {@code nextval} per block of 50 IDs and sends the rows as a JDBC batch,
+ * as Hibernate does with a pooled sequence and {@code hibernate.jdbc.batch_size}.
+ * {@code unnest} inserts the whole batch with one statement, like the delivery
+ * repository. Needs a PostgreSQL database, set with {@code -p url=...}; the rows
+ * go to temporary tables.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NotificationInsertBenchmark {
+
+    private static final int ROWS = 500;
+    private static final int BLOCK_SIZE = 50;
+
+    private static final String TABLE_COLUMNS =
+            "event_id VARCHAR(255) NOT NULL, recipient_id BIGINT NOT NULL, subject VARCHAR(255), " +
+            "content TEXT, status VARCHAR(20) NOT NULL, created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP";
+
+    @Param("jdbc:postgresql://localhost:5432/notification_db?reWriteBatchedInserts=true")
+    private String url;
+
+    @Param("legacykeep")
+    private String user;
+
+    @Param("password")
+    private String password;
+
+    private Connection connection;
+    private String content;
+    private long sequence;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(url, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE bench_identity (id BIGSERIAL PRIMARY KEY, " + TABLE_COLUMNS + ")");
+            statement.execute("CREATE TEMP SEQUENCE bench_pooled_seq INCREMENT BY " + BLOCK_SIZE + " START WITH " + BLOCK_SIZE);
+            statement.execute("CREATE TEMP TABLE bench_pooled (id BIGINT PRIMARY KEY, " + TABLE_COLUMNS + ")");
+        }
+        connection.setAutoCommit(false);
+        content = "<html><body>" + "Someone in your family shared a new story. ".repeat(20) + "</body></html>";
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE bench_identity, bench_pooled");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identity() throws SQLException {
+        long last = 0;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO bench_identity (event_id, recipient_id, subject, content, status) " +
+                "VALUES (?, ?, ?, ?, ?) RETURNING id")) {
+            for (int i = 0; i < ROWS; i++) {
+                bind(statement, 1, i);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    last = rs.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int pooledBatch() throws SQLException {
+        long next = 1;
+        long blockEnd = 0;
+        int inserted = 0;
+        try (PreparedStatement nextval = connection.prepareStatement("SELECT nextval('bench_pooled_seq')");
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO bench_pooled (id, event_id, recipient_id, subject, content, status) " +
+                     "VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                if (next > blockEnd) {
+                    try (ResultSet rs = nextval.executeQuery()) {
+                        rs.next();
+                        blockEnd = rs.getLong(1);
+                    }
+                    next = blockEnd - BLOCK_SIZE + 1;
+                }
+                statement.setLong(1, next++);
+                bind(statement, 2, i);
+                statement.addBatch();
+                if ((i + 1) % BLOCK_SIZE == 0) {
+                    inserted += statement.executeBatch().length;
+                }
+            }
+            inserted += statement.executeBatch().length;
+        }
+        connection.commit();
+        return inserted;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int unnest() throws SQLException {
+        Long[] ids = new Long[ROWS];
+        String[] eventIds = new String[ROWS];
+        Long[] recipientIds = new Long[ROWS];
+        String[] subjects = new String[ROWS];
+        String[] contents = new String[ROWS];
+        String[] statuses = new String[ROWS];
+        try (PreparedStatement nextval = connection.prepareStatement(
+                "SELECT nextval('bench_pooled_seq') FROM generate_series(1, ?)")) {
+            nextval.setInt(1, (ROWS + BLOCK_SIZE - 1) / BLOCK_SIZE);
+            int i = 0;
+            try (ResultSet rs = nextval.executeQuery()) {
+                while (rs.next()) {
+                    for (long id = rs.getLong(1) - BLOCK_SIZE + 1; id <= rs.getLong(1) && i < ROWS; id++) {
+                        ids[i] = id;
+                        eventIds[i] = "event-" + id;
+                        recipientIds[i] = (long) i;
+                        subjects[i] = "New story from your family";
+                        contents[i] = content;
+                        statuses[i] = "PENDING";
+                        i++;
+                    }
+                }
+            }
+        }
+
+        int inserted;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO bench_pooled (id, event_id, recipient_id, subject, content, status) " +
+                "SELECT * FROM unnest(?::bigint[], ?::text[], ?::bigint[], ?::text[], ?::text[], ?::text[])")) {
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setArray(2, connection.createArrayOf("text", eventIds));
+            statement.setArray(3, connection.createArrayOf("bigint", recipientIds));
+            statement.setArray(4, connection.createArrayOf("text", subjects));
+            statement.setArray(5, connection.createArrayOf("text", contents));
+            statement.setArray(6, connection.createArrayOf("text", statuses));
+            inserted = statement.executeUpdate();
+        }
+        connection.commit();
+        return inserted;
+    }
+
+    private void bind(PreparedStatement statement, int index, int row) throws SQLException {
+        statement.setString(index, "event-" + (++sequence));
+        statement.setLong(index + 1, row);
+        statement.setString(index + 2, "New story from your family");
+        statement.setString(index + 3, content);
+        statement.setString(index + 4, "PENDING");
+    }
+}
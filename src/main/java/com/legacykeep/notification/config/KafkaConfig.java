@@ -1,19 +1,24 @@
 package com.legacykeep.notification.config;
 
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 /**
  * Kafka Configuration for Notification Service.
@@ -64,6 +69,27 @@ public class KafkaConfig {
         return factory;
     }
 
+    /**
+     * Listener container factory for consumers that commit a record only once its
+     * effects are persisted. Listeners acknowledge from any thread and out of order;
+     * offsets are committed up to the first unacknowledged record, and the consumer
+     * pauses until every record of the previous poll is acknowledged.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> manualAckKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(3);
+        Properties consumerProperties = new Properties();
+        consumerProperties.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setKafkaConsumerProperties(consumerProperties);
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setAsyncAcks(true);
+        return factory;
+    }
+
     /**
      * Configure Kafka producer factory.
      */
@@ -89,4 +115,66 @@ public class KafkaConfig {
     public KafkaTemplate<String, Object> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    /**
+     * Compacted topic carrying the latest preference change per user.
+     */
+    @Bean
+    public NewTopic preferenceInvalidationTopic(NotificationConfig notificationConfig) {
+        return TopicBuilder.name(notificationConfig.getPreference().getInvalidationTopic())
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+
+    /**
+     * Compacted topic carrying the latest device change per user.
+     */
+    @Bean
+    public NewTopic deviceInvalidationTopic(NotificationConfig notificationConfig) {
+        return TopicBuilder.name(notificationConfig.getDevice().getInvalidationTopic())
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+
+    /**
+     * Topic broadcasting stored inbox items to the streams of every instance.
+     * Items are only of use while fresh; reconnecting clients reload the inbox.
+     */
+    @Bean
+    public NewTopic inboxStreamTopic(NotificationConfig notificationConfig) {
+        return TopicBuilder.name(notificationConfig.getStream().getTopic())
+                .partitions(3)
+                .replicas(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, "3600000")
+                .build();
+    }
+
+    /**
+     * Topic broadcasting delivery confirmations to the fallback cascades of every instance.
+     * A confirmation is only of use within the budget of the step awaiting it.
+     */
+    @Bean
+    public NewTopic deliveryConfirmationTopic(NotificationConfig notificationConfig) {
+        return TopicBuilder.name(notificationConfig.getFallback().getConfirmationTopic())
+                .partitions(3)
+                .replicas(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, "3600000")
+                .build();
+    }
+
+    /**
+     * Compacted topic carrying the latest contact details per user.
+     */
+    @Bean
+    public NewTopic contactTopic(NotificationConfig notificationConfig) {
+        return TopicBuilder.name(notificationConfig.getContact().getTopic())
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
 }
@@ -1,5 +1,8 @@
 package com.legacykeep.notification.config;
 
+import com.legacykeep.notification.entity.NotificationPriority;
+import com.legacykeep.notification.model.DkimSigner;
+import com.legacykeep.notification.service.DkimSigningMailSender;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -8,11 +11,18 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import org.thymeleaf.templateresolver.StringTemplateResolver;
 
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.Executor;
 
@@ -28,6 +38,7 @@ import java.util.concurrent.Executor;
 @Slf4j
 @Configuration
 @EnableAsync
+@EnableScheduling
 @ConfigurationProperties(prefix = "notification")
 @Data
 public class NotificationConfig {
@@ -62,12 +73,120 @@ public class NotificationConfig {
 
     private RateLimitConfig rateLimit = new RateLimitConfig();
 
+    // =============================================================================
+    // Retry Configuration
+    // =============================================================================
+
+    private RetryConfig retry = new RetryConfig();
+
     // =============================================================================
     // Template Configuration
     // =============================================================================
 
     private TemplateConfig template = new TemplateConfig();
 
+    // =============================================================================
+    // Preference Configuration
+    // =============================================================================
+
+    private PreferenceConfig preference = new PreferenceConfig();
+
+    // =============================================================================
+    // Quiet Hours Deferral Configuration
+    // =============================================================================
+
+    private DeferralConfig deferral = new DeferralConfig();
+
+    // =============================================================================
+    // Daily Digest Configuration
+    // =============================================================================
+
+    private DigestConfig digest = new DigestConfig();
+
+    // =============================================================================
+    // Coalescing Configuration
+    // =============================================================================
+
+    private CoalescingConfig coalescing = new CoalescingConfig();
+
+    // =============================================================================
+    // Relationship Delivery Configuration
+    // =============================================================================
+
+    private RelationshipDeliveryConfig relationship = new RelationshipDeliveryConfig();
+
+    // =============================================================================
+    // Recipient Contact Configuration
+    // =============================================================================
+
+    private ContactConfig contact = new ContactConfig();
+
+    // =============================================================================
+    // Push Configuration
+    // =============================================================================
+
+    private PushConfig push = new PushConfig();
+
+    // =============================================================================
+    // Device Registry Configuration
+    // =============================================================================
+
+    private DeviceConfig device = new DeviceConfig();
+
+    // =============================================================================
+    // In-App Inbox Configuration
+    // =============================================================================
+
+    private InboxConfig inbox = new InboxConfig();
+
+    // =============================================================================
+    // Real-Time Stream Configuration
+    // =============================================================================
+
+    private StreamConfig stream = new StreamConfig();
+
+    // =============================================================================
+    // Unread Counter Configuration
+    // =============================================================================
+
+    private UnreadConfig unread = new UnreadConfig();
+
+    // =============================================================================
+    // SMS Configuration
+    // =============================================================================
+
+    private SmsConfig sms = new SmsConfig();
+
+    // =============================================================================
+    // Channel Fan-Out Configuration
+    // =============================================================================
+
+    private FanOutConfig fanOut = new FanOutConfig();
+
+    // =============================================================================
+    // Channel Fallback Configuration
+    // =============================================================================
+
+    private FallbackConfig fallback = new FallbackConfig();
+
+    // =============================================================================
+    // Template Registry Configuration
+    // =============================================================================
+
+    private TemplateRegistryConfig templateRegistry = new TemplateRegistryConfig();
+
+    // =============================================================================
+    // Template Version Configuration
+    // =============================================================================
+
+    private TemplateVersionConfig templateVersions = new TemplateVersionConfig();
+
+    // =============================================================================
+    // Partition Configuration
+    // =============================================================================
+
+    private PartitionConfig partitions = new PartitionConfig();
+
     // =============================================================================
     // Bean Configurations
     // =============================================================================
@@ -77,7 +196,9 @@ public class NotificationConfig {
      */
     @Bean
     public JavaMailSender javaMailSender() {
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        JavaMailSenderImpl mailSender = email.getDkim().isEnabled()
+                ? new DkimSigningMailSender(dkimSigner(email.getDkim()))
+                : new JavaMailSenderImpl();
         
         // Set basic properties
         mailSender.setHost(email.getSmtp().getHost());
@@ -103,6 +224,17 @@ public class NotificationConfig {
         return mailSender;
     }
 
+    private DkimSigner dkimSigner(DkimConfig dkim) {
+        try {
+            DkimSigner signer = DkimSigner.fromPemFile(dkim.getDomain(), dkim.getSelector(),
+                    Path.of(dkim.getPrivateKeyPath()), dkim.getSignedHeaders());
+            log.info("DKIM signing enabled: domain={}, selector={}", dkim.getDomain(), dkim.getSelector());
+            return signer;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to load DKIM private key from " + dkim.getPrivateKeyPath(), e);
+        }
+    }
+
     /**
      * Configure TemplateEngine for dynamic template processing.
      */
@@ -142,6 +274,58 @@ public class NotificationConfig {
         return executor;
     }
 
+    /**
+     * Configure the executor writing to inbox streams. Writes to slow clients block,
+     * so they get their own bounded pool; tasks beyond its queue are rejected and
+     * shed by the stream service instead of running on the caller.
+     */
+    @Bean("inboxStreamExecutor")
+    public Executor inboxStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(stream.getWriterThreads());
+        executor.setMaxPoolSize(stream.getWriterThreads());
+        executor.setQueueCapacity(stream.getWriterQueueCapacity());
+        executor.setThreadNamePrefix("inbox-stream-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        log.info("Inbox stream executor configured: threads={}, queue={}",
+                stream.getWriterThreads(), stream.getWriterQueueCapacity());
+
+        return executor;
+    }
+
+    /**
+     * Configure the HTTP/2 client shared by all push requests, so sends are
+     * multiplexed over pooled connections instead of opening one per request.
+     */
+    @Bean("pushHttpClient")
+    public HttpClient pushHttpClient() {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(push.getConnectTimeoutMs()))
+                .build();
+
+        log.info("Push HTTP client configured: endpoint={}", push.getEndpoint());
+
+        return client;
+    }
+
+    /**
+     * Configure the HTTP client shared by all SMS provider requests. Requests in
+     * flight are bounded by the SMS delivery service, not by the client.
+     */
+    @Bean("smsHttpClient")
+    public HttpClient smsHttpClient() {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(sms.getConnectTimeoutMs()))
+                .build();
+
+        log.info("SMS HTTP client configured: provider={}, endpoint={}", sms.getProvider(), sms.getEndpoint());
+
+        return client;
+    }
+
     // =============================================================================
     // Inner Configuration Classes
     // =============================================================================
@@ -156,6 +340,7 @@ public class NotificationConfig {
         private TemplateConfig template = new TemplateConfig();
         private RateLimitConfig rateLimit = new RateLimitConfig();
         private AttachmentConfig attachment = new AttachmentConfig();
+        private DkimConfig dkim = new DkimConfig();
     }
 
     /**
@@ -210,6 +395,17 @@ public class NotificationConfig {
         private String storageType = "REDIS"; // REDIS, MEMORY
     }
 
+    /**
+     * Retry configuration properties shared by delivery channels.
+     */
+    @Data
+    public static class RetryConfig {
+        private int maxAttempts = 3;
+        private long initialDelay = 1000;
+        private double multiplier = 2.0;
+        private long maxDelay = 10000;
+    }
+
     /**
      * Email attachment configuration properties.
      */
@@ -220,6 +416,19 @@ public class NotificationConfig {
         private String[] allowedTypes = {"pdf", "doc", "docx", "txt", "jpg", "jpeg", "png"};
     }
 
+    /**
+     * DKIM signing configuration properties.
+     */
+    @Data
+    public static class DkimConfig {
+        private boolean enabled = false;
+        private String domain = "legacykeep.com";
+        private String selector = "notify";
+        private String privateKeyPath = ""; // PKCS#8 PEM
+        private List<String> signedHeaders = List.of(
+                "from", "to", "cc", "reply-to", "subject", "date", "message-id", "mime-version", "content-type");
+    }
+
     /**
      * Kafka configuration properties.
      */
@@ -271,6 +480,214 @@ public class NotificationConfig {
         private int keepAliveSeconds = 60;
     }
 
+    /**
+     * User preference cache configuration properties.
+     */
+    @Data
+    public static class PreferenceConfig {
+        private long cacheMaximumSize = 100000;
+        private int cacheExpireAfterWriteMinutes = 30;
+        private String invalidationTopic = "notification.preferences.changed";
+    }
+
+    /**
+     * Quiet hours deferral configuration properties.
+     */
+    @Data
+    public static class DeferralConfig {
+        private boolean enabled = true;
+        private long releaseCheckIntervalMs = 1000;
+        private int claimBatchSize = 5000;
+        private int staleClaimMinutes = 10;
+        private long sweepIntervalMs = 60000;
+        private long sweepGraceMs = 60000; // Entries overdue this long were left by another instance
+    }
+
+    /**
+     * Daily digest configuration properties.
+     */
+    @Data
+    public static class DigestConfig {
+        private boolean enabled = true;
+        private int sendHour = 8; // Recipient local hour
+        private NotificationPriority maxPriority = NotificationPriority.NORMAL;
+        private int maxRecentItems = 10;
+        private int batchSize = 200;
+        private int staleClaimMinutes = 30; // Claims older than this were abandoned mid-send
+    }
+
+    /**
+     * Relationship notification coalescing configuration properties.
+     */
+    @Data
+    public static class CoalescingConfig {
+        private boolean enabled = true;
+        private long windowMs = 5000;
+        private int maxBatchSize = 20;
+        private int maxPendingRecipients = 50000;
+        private long flushCheckIntervalMs = 250;
+    }
+
+    /**
+     * Relationship notification delivery configuration properties.
+     */
+    @Data
+    public static class RelationshipDeliveryConfig {
+        private long dispatchIntervalMs = 200;
+        private int batchSize = 500;
+        private int maxDeliveryAttempts = 5;
+        private long sweepIntervalMs = 60000;
+        private int stalePendingMinutes = 10; // Pending this long without a deferral means the dispatch was lost
+        private int sweepMaxAgeHours = 24;
+    }
+
+    /**
+     * Recipient contact cache configuration properties.
+     */
+    @Data
+    public static class ContactConfig {
+        private long cacheMaximumSize = 200000;
+        private int cacheExpireAfterWriteMinutes = 60;
+        private String topic = "notification.contacts";
+        private String storageDirectory = "./data/contacts";
+        private long snapshotIntervalMs = 300000;
+        private double compactionGarbageRatio = 0.5;
+    }
+
+    /**
+     * Push delivery configuration properties.
+     */
+    @Data
+    public static class PushConfig {
+        private boolean enabled = true;
+        private String endpoint = "https://fcm.googleapis.com";
+        private int maxConcurrentRequests = 100; // Requests in flight per send, one token each
+        private int connectTimeoutMs = 5000;
+        private int requestTimeoutMs = 10000;
+    }
+
+    /**
+     * Device registry configuration properties.
+     */
+    @Data
+    public static class DeviceConfig {
+        private long cacheMaximumSize = 200000;
+        private int cacheExpireAfterWriteMinutes = 60;
+        private long pruneIntervalMs = 5000;
+        private int pruneBatchSize = 1000;
+        private String invalidationTopic = "notification.devices.changed";
+    }
+
+    /**
+     * In-app inbox configuration properties.
+     */
+    @Data
+    public static class InboxConfig {
+        private int defaultPageSize = 20;
+        private int maxPageSize = 100;
+    }
+
+    /**
+     * Real-time inbox stream configuration properties.
+     */
+    @Data
+    public static class StreamConfig {
+        private int maxConnections = 50000; // Per node
+        private int maxConnectionsPerUser = 5;
+        private int bufferSize = 64; // Items per connection before it is shed
+        private long connectionTimeoutMs = 1800000;
+        private long heartbeatIntervalMs = 25000;
+        private int heartbeatBatchSize = 1000; // Connections per heartbeat task
+        private String topic = "notification.inbox.stored";
+        private int writerThreads = 16;
+        private int writerQueueCapacity = 10000; // Write tasks queued before new ones are shed
+        private long writeTimeoutMs = 10000; // A write blocked this long means the client is gone
+        private long writeCheckIntervalMs = 5000;
+    }
+
+    /**
+     * Unread counter configuration properties.
+     */
+    @Data
+    public static class UnreadConfig {
+        private long checkpointIntervalMs = 1000;
+        private long cacheMaximumSize = 200000;
+        private int cacheExpireAfterWriteSeconds = 30;
+        private int maxBatchSize = 1000; // User IDs per count request
+        private long reconcileIntervalMs = 60000;
+        private int driftSettleMinutes = 5; // Negative this long without a delta means the counter drifted
+        private int reconcileBatchSize = 1000;
+    }
+
+    /**
+     * SMS configuration properties.
+     */
+    @Data
+    public static class SmsConfig {
+        private boolean enabled = false; // Requires a provider endpoint
+        private String provider = "http"; // http, fake
+        private String endpoint = "";
+        private String apiKey = "";
+        private String senderId = "LegacyKeep";
+        private int maxBatchSize = 100; // Messages per provider submission
+        private int maxSegmentsPerMessage = 3;
+        private int maxConcurrentRequests = 16;
+        private int connectTimeoutMs = 5000;
+        private int requestTimeoutMs = 10000;
+        private RateLimitConfig rateLimit = new RateLimitConfig();
+    }
+
+    /**
+     * Channel fan-out configuration properties.
+     */
+    @Data
+    public static class FanOutConfig {
+        private long channelTimeoutMs = 30000; // A slower channel send is recorded as failed
+    }
+
+    /**
+     * Channel fallback configuration properties.
+     */
+    @Data
+    public static class FallbackConfig {
+        private long defaultStepBudgetMs = 10000; // Budget of steps without their own
+        private int policyCacheExpireAfterWriteSeconds = 300;
+        private String confirmationTopic = "notification.deliveries.confirmed"; // Broadcast to every instance
+    }
+
+    /**
+     * Template registry configuration properties.
+     */
+    @Data
+    public static class TemplateRegistryConfig {
+        private long reloadIntervalMs = 30000;
+        private long reloadOverlapMs = 5000; // Rows committed this late are still reloaded
+        private String defaultLanguage = "en"; // Language of the stored template text
+        private List<String> supportedLanguages = List.of("en", "es", "fr");
+        private String messagesBasename = "i18n/templates";
+    }
+
+    /**
+     * Template version routing configuration properties.
+     */
+    @Data
+    public static class TemplateVersionConfig {
+        private long reloadIntervalMs = 60000;
+        private long flushIntervalMs = 10000; // A/B test send counts
+    }
+
+    /**
+     * Monthly partition maintenance configuration properties.
+     */
+    @Data
+    public static class PartitionConfig {
+        private String maintenanceCron = "0 30 3 * * *";
+        private int monthsAhead = 3;
+        private int retentionMonths = 6; // notifications and deliveries
+        private int eventRetentionMonths = 3;
+        private int purgeBatchSize = 5000; // rows of unpartitioned tables deleted per statement
+    }
+
     // =============================================================================
     // Configuration Validation Methods
     // =============================================================================
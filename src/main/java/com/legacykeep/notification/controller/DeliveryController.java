@@ -0,0 +1,48 @@
+package com.legacykeep.notification.controller;
+
+import com.legacykeep.notification.dto.ApiResponse;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.service.FallbackCascadeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Delivery Controller
+ * 
+ * Receives delivery confirmations from client devices, which let a fallback
+ * cascade stop at the channel that reached the user.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/deliveries")
+@RequiredArgsConstructor
+@Tag(name = "Delivery", description = "APIs for delivery confirmation")
+public class DeliveryController {
+
+    private final FallbackCascadeService fallbackCascadeService;
+
+    /**
+     * Confirm receipt of a notification
+     */
+    @Operation(
+        summary = "Confirm Delivery",
+        description = "Confirms that a device received the notification on the given channel. Returns whether a fallback step on this instance was waiting for it; otherwise the confirmation is forwarded to the other instances."
+    )
+    @PostMapping("/{notificationId}/confirm")
+    public ResponseEntity<ApiResponse<Boolean>> confirm(
+            @PathVariable Long notificationId,
+            @Parameter(description = "Channel the notification arrived on")
+            @RequestParam(defaultValue = "PUSH") NotificationChannel channel) {
+        boolean awaited = fallbackCascadeService.confirmDelivery(notificationId, channel);
+        return ResponseEntity.ok(ApiResponse.success(awaited,
+                awaited ? "Delivery confirmed" : "Delivery confirmation forwarded"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.legacykeep.notification.controller;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.dto.ApiResponse;
+import com.legacykeep.notification.dto.InboxPage;
+import com.legacykeep.notification.dto.MarkReadRequest;
+import com.legacykeep.notification.service.InboxService;
+import com.legacykeep.notification.service.InboxStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-App Inbox Controller
+ * 
+ * Provides cursor-paginated access to a user's in-app notifications, a
+ * Server-Sent Events stream of new ones, batch unread badge counts, and bulk
+ * mark-as-read operations.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@RestController
+@RequestMapping("/inbox")
+@RequiredArgsConstructor
+@Tag(name = "In-App Inbox", description = "APIs for reading and acknowledging in-app notifications")
+public class InboxController {
+
+    private final InboxService inboxService;
+    private final InboxStreamService inboxStreamService;
+    private final NotificationConfig notificationConfig;
+
+    /**
+     * Get unread counts of a batch of users
+     */
+    @Operation(
+        summary = "Get Unread Counts",
+        description = "Returns the unread badge count of each given user, served from incremental counters"
+    )
+    @GetMapping("/unread-counts")
+    public ResponseEntity<ApiResponse<Map<Long, Long>>> getUnreadCounts(
+            @Parameter(description = "User IDs")
+            @RequestParam List<Long> userIds) {
+        int maxBatchSize = notificationConfig.getUnread().getMaxBatchSize();
+        if (userIds.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(
+                "Too many user IDs",
+                "BATCH_TOO_LARGE",
+                "At most " + maxBatchSize + " user IDs per request"
+            ));
+        }
+        Map<Long, Long> counts = inboxService.getUnreadCounts(userIds);
+        return ResponseEntity.ok(ApiResponse.success(counts, "Unread counts retrieved"));
+    }
+
+    /**
+     * Get a page of the user's inbox
+     */
+    @Operation(
+        summary = "Get Inbox Page",
+        description = "Returns the user's in-app notifications newest first. Pass the nextCursor of a page to get the following one."
+    )
+    @GetMapping("/{userId}")
+    public ResponseEntity<ApiResponse<InboxPage>> getPage(
+            @PathVariable Long userId,
+            @Parameter(description = "Cursor returned with the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of items")
+            @RequestParam(defaultValue = "0") int limit) {
+        try {
+            InboxPage page = inboxService.getPage(userId, cursor, limit);
+            return ResponseEntity.ok(ApiResponse.success(page, "Inbox page retrieved"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(
+                "Invalid cursor",
+                "INVALID_CURSOR",
+                e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Stream new inbox items
+     */
+    @Operation(
+        summary = "Stream Inbox",
+        description = "Opens a Server-Sent Events stream of the user's new inbox items. After a reconnect, fetch the first inbox page to catch up."
+    )
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable Long userId) {
+        return inboxStreamService.connect(userId);
+    }
+
+    /**
+     * Mark items as read
+     */
+    @Operation(
+        summary = "Mark Items As Read",
+        description = "Marks the given inbox items of the user as read and returns how many were unread"
+    )
+    @PostMapping("/{userId}/read")
+    public ResponseEntity<ApiResponse<Integer>> markRead(
+            @PathVariable Long userId,
+            @Valid @RequestBody MarkReadRequest request) {
+        int marked = inboxService.markRead(userId, request.getItemIds());
+        return ResponseEntity.ok(ApiResponse.success(marked, "Items marked as read"));
+    }
+
+    /**
+     * Mark all items as read
+     */
+    @Operation(
+        summary = "Mark All As Read",
+        description = "Marks every inbox item of the user as read and returns how many were unread"
+    )
+    @PostMapping("/{userId}/read-all")
+    public ResponseEntity<ApiResponse<Integer>> markAllRead(@PathVariable Long userId) {
+        int marked = inboxService.markAllRead(userId);
+        return ResponseEntity.ok(ApiResponse.success(marked, "All items marked as read"));
+    }
+}
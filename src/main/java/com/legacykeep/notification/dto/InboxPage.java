@@ -0,0 +1,37 @@
+package com.legacykeep.notification.dto;
+
+import com.legacykeep.notification.entity.InboxItem;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a user's in-app inbox, newest first.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxPage {
+
+    /**
+     * Items on this page
+     */
+    private List<InboxItem> items;
+
+    /**
+     * Cursor for the next page, or null when this is the last page
+     */
+    private String nextCursor;
+
+    /**
+     * Number of unread items in the whole inbox
+     */
+    private long unreadCount;
+}
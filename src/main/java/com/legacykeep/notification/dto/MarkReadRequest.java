@@ -0,0 +1,28 @@
+package com.legacykeep.notification.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request to mark inbox items as read.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarkReadRequest {
+
+    /**
+     * IDs of the items to mark as read
+     */
+    @NotEmpty(message = "Item IDs are required")
+    @Size(max = 1000, message = "At most 1000 items can be marked at once")
+    private List<Long> itemIds;
+}
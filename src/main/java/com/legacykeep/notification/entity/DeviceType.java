@@ -0,0 +1,15 @@
+package com.legacykeep.notification.entity;
+
+/**
+ * Device Type Enum
+ * 
+ * Defines the platforms a user device can be registered from.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public enum DeviceType {
+    IOS,            // Apple iOS devices
+    ANDROID,        // Android devices
+    WEB             // Web push subscriptions
+}
@@ -0,0 +1,101 @@
+package com.legacykeep.notification.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Inbox Item Entity
+ * 
+ * Represents an in-app notification in a user's inbox. Items are read newest
+ * first with keyset pagination on (recipient_id, created_at, id).
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "inbox_items", indexes = {
+    @Index(name = "idx_inbox_items_recipient_page", columnList = "recipient_id, created_at DESC, id DESC")
+})
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class InboxItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @NotBlank(message = "Event ID is required")
+    @Column(name = "event_id", unique = true, nullable = false)
+    private String eventId;
+
+    @NotNull(message = "Recipient ID is required")
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @NotBlank(message = "Category is required")
+    @Column(name = "category", nullable = false, length = 50)
+    private String category;
+
+    @NotBlank(message = "Title is required")
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "action_url", length = 500)
+    private String actionUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", nullable = false, length = 20)
+    private NotificationPriority priority = NotificationPriority.NORMAL;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // =============================================================================
+    // Constructors
+    // =============================================================================
+
+    public InboxItem(String eventId, Long recipientId, String category, String title) {
+        this.eventId = eventId;
+        this.recipientId = recipientId;
+        this.category = category;
+        this.title = title;
+        this.priority = NotificationPriority.NORMAL;
+    }
+
+    // =============================================================================
+    // Business Methods
+    // =============================================================================
+
+    /**
+     * Check if the item has been read
+     */
+    public boolean isRead() {
+        return readAt != null;
+    }
+
+    /**
+     * Stamp creation time at database precision, so cursors built from a saved
+     * item match the stored row exactly.
+     */
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+}
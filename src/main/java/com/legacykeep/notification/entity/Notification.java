@@ -43,8 +43,14 @@ import java.util.Objects;
 @ToString(exclude = {"content", "templateData", "metadata"})
 public class Notification {
 
+    /**
+     * IDs are allocated in blocks of this size, one sequence call per block
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_id_seq")
+    @SequenceGenerator(name = "notification_id_seq", sequenceName = "notifications_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -81,6 +87,10 @@ public class Notification {
     @JsonIgnore
     private String content;
 
+    @Column(name = "text_content", columnDefinition = "TEXT")
+    @JsonIgnore
+    private String textContent; // Plain-text version for push, SMS and in-app
+
     @Column(name = "template_data", columnDefinition = "JSONB")
     @org.hibernate.annotations.JdbcTypeCode(org.hibernate.type.SqlTypes.JSON)
     private String templateData; // JSON string for template variables
@@ -198,6 +208,14 @@ public class Notification {
         this.status = NotificationStatus.CANCELLED;
     }
 
+    /**
+     * Get the content for channels that cannot render HTML
+     */
+    @JsonIgnore
+    public String getPlainTextContent() {
+        return textContent != null ? textContent : content;
+    }
+
     /**
      * Get the appropriate recipient identifier based on notification type
      */
@@ -36,8 +36,14 @@ import java.time.LocalDateTime;
 @ToString(exclude = {"deliveryMetadata"})
 public class NotificationDelivery {
 
+    /**
+     * IDs are allocated in blocks of this size, one sequence call per block
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_delivery_id_seq")
+    @SequenceGenerator(name = "notification_delivery_id_seq", sequenceName = "notification_deliveries_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     @EqualsAndHashCode.Include
     private Long id;
 
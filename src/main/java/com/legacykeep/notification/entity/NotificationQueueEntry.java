@@ -0,0 +1,83 @@
+package com.legacykeep.notification.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification Queue Entry Entity
+ * 
+ * Represents a notification held back until a scheduled time, e.g. deferred
+ * until the end of the recipient's quiet hours.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "notification_queue", indexes = {
+    @Index(name = "idx_notification_queue_scheduled_at", columnList = "scheduled_at"),
+    @Index(name = "idx_notification_queue_status", columnList = "status"),
+    @Index(name = "idx_notification_queue_priority", columnList = "priority"),
+    @Index(name = "idx_notification_queue_created_at", columnList = "created_at")
+})
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class NotificationQueueEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @NotNull(message = "Notification ID is required")
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    @NotNull(message = "Scheduled time is required")
+    @Column(name = "scheduled_at", nullable = false)
+    private LocalDateTime scheduledAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", length = 20)
+    private NotificationPriority priority = NotificationPriority.NORMAL;
+
+    @Column(name = "retry_count", nullable = false)
+    private Integer retryCount = 0;
+
+    @Column(name = "max_retries", nullable = false)
+    private Integer maxRetries = 3;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private NotificationQueueStatus status = NotificationQueueStatus.QUEUED;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // =============================================================================
+    // Constructors
+    // =============================================================================
+
+    public NotificationQueueEntry(Long notificationId, LocalDateTime scheduledAt, NotificationPriority priority) {
+        this.notificationId = notificationId;
+        this.scheduledAt = scheduledAt;
+        this.priority = priority != null ? priority : NotificationPriority.NORMAL;
+        this.status = NotificationQueueStatus.QUEUED;
+        this.retryCount = 0;
+        this.maxRetries = 3;
+    }
+}
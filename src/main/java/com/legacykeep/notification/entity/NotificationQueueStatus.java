@@ -0,0 +1,16 @@
+package com.legacykeep.notification.entity;
+
+/**
+ * Notification Queue Status Enum
+ * 
+ * Defines the lifecycle of an entry in the scheduled notification queue.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public enum NotificationQueueStatus {
+    QUEUED,         // Waiting for its scheduled release time
+    PROCESSING,     // Claimed by an instance for release
+    COMPLETED,      // Released to the delivery pipeline
+    FAILED          // Release failed permanently
+}
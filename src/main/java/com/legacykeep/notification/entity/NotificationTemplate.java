@@ -32,7 +32,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
-@ToString(exclude = {"subjectTemplate", "contentTemplate", "htmlTemplate", "variables"})
+@ToString(exclude = {"subjectTemplate", "contentTemplate", "htmlTemplate", "variables", "metadata"})
 public class NotificationTemplate {
 
     @Id
@@ -76,6 +76,10 @@ public class NotificationTemplate {
     @Column(name = "variables", columnDefinition = "JSONB")
     private String variables; // JSON string for template variables definition
 
+    @Column(name = "metadata", columnDefinition = "JSONB")
+    @org.hibernate.annotations.JdbcTypeCode(org.hibernate.type.SqlTypes.JSON)
+    private String metadata; // JSON string for delivery metadata, e.g. the fallback policy
+
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
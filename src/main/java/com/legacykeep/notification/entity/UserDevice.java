@@ -0,0 +1,91 @@
+package com.legacykeep.notification.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * User Device Entity
+ * 
+ * Represents a device registered by a user to receive push notifications.
+ * Tokens reported invalid by the push provider are deactivated, not deleted.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "user_devices", indexes = {
+    @Index(name = "idx_user_devices_user_id", columnList = "user_id"),
+    @Index(name = "idx_user_devices_token", columnList = "device_token"),
+    @Index(name = "idx_user_devices_active", columnList = "is_active"),
+    @Index(name = "idx_user_devices_type", columnList = "device_type")
+})
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class UserDevice {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @NotNull(message = "User ID is required")
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @NotBlank(message = "Device token is required")
+    @Column(name = "device_token", nullable = false, length = 500)
+    private String deviceToken;
+
+    @NotNull(message = "Device type is required")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "device_type", nullable = false, length = 20)
+    private DeviceType deviceType;
+
+    @Column(name = "device_name")
+    private String deviceName;
+
+    @Column(name = "device_model")
+    private String deviceModel;
+
+    @Column(name = "os_version", length = 50)
+    private String osVersion;
+
+    @Column(name = "app_version", length = 50)
+    private String appVersion;
+
+    @Column(name = "is_active")
+    private Boolean isActive = true;
+
+    @Column(name = "last_used_at")
+    private LocalDateTime lastUsedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // =============================================================================
+    // Constructors
+    // =============================================================================
+
+    public UserDevice(Long userId, String deviceToken, DeviceType deviceType) {
+        this.userId = userId;
+        this.deviceToken = deviceToken;
+        this.deviceType = deviceType;
+        this.isActive = true;
+    }
+}
@@ -1,5 +1,8 @@
 package com.legacykeep.notification.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.legacykeep.notification.model.PreferenceFlags;
+import com.legacykeep.notification.model.QuietHours;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -9,8 +12,10 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 
 /**
  * User Notification Preferences Entity
@@ -121,6 +126,34 @@ public class UserNotificationPreferences {
         }
     }
 
+    /**
+     * Check if notifications should be held back at an instant, evaluated in the user's timezone
+     */
+    public boolean isWithinQuietHours(Instant now) {
+        return !getNextAllowedSendTime(now).equals(now);
+    }
+
+    /**
+     * Get the earliest instant at or after now that is outside the user's quiet hours
+     */
+    @JsonIgnore
+    public Instant getNextAllowedSendTime(Instant now) {
+        if (!Boolean.TRUE.equals(quietHoursEnabled)) {
+            return now;
+        }
+        return QuietHours.nextAllowed(now, getZoneId(),
+                PreferenceFlags.minuteOfDay(quietHoursStart, PreferenceFlags.DEFAULT_QUIET_START),
+                PreferenceFlags.minuteOfDay(quietHoursEnd, PreferenceFlags.DEFAULT_QUIET_END));
+    }
+
+    /**
+     * Get the user's timezone, falling back to UTC when unset or invalid
+     */
+    @JsonIgnore
+    public ZoneId getZoneId() {
+        return QuietHours.zoneOf(timezone);
+    }
+
     /**
      * Check if marketing emails are allowed
      */
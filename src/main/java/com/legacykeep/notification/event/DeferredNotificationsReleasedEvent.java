@@ -0,0 +1,28 @@
+package com.legacykeep.notification.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Application event published when a wake-up bucket of deferred notifications is released.
+ * Listeners in the delivery pipeline pick the notifications up for dispatch.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public class DeferredNotificationsReleasedEvent {
+
+    /**
+     * Release instant shared by every notification in the bucket
+     */
+    private final Instant releaseAt;
+
+    /**
+     * IDs of the released notifications
+     */
+    private final long[] notificationIds;
+}
@@ -0,0 +1,24 @@
+package com.legacykeep.notification.event;
+
+import com.legacykeep.notification.entity.InboxItem;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Application event published when new items have been stored in users' inboxes.
+ * The real-time gateway forwards them to the recipients' open connections.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public class InboxItemsStoredEvent {
+
+    /**
+     * Newly stored items, possibly for many recipients
+     */
+    private final List<InboxItem> items;
+}
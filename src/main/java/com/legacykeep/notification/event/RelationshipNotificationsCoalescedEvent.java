@@ -0,0 +1,63 @@
+package com.legacykeep.notification.event;
+
+import com.legacykeep.notification.model.RelationshipNotification;
+import com.legacykeep.notification.model.RelationshipNotificationKind;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Application event published when the coalescing window of a recipient closes.
+ * One event carries every relationship notification of one kind that arrived for
+ * the recipient within the window, to be delivered as a single combined message.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Getter
+public class RelationshipNotificationsCoalescedEvent {
+
+    private final Long recipientUserId;
+
+    private final RelationshipNotificationKind kind;
+
+    /**
+     * Coalesced notifications in arrival order
+     */
+    private final List<RelationshipNotification> notifications;
+
+    /**
+     * Delivery attempts that failed so far
+     */
+    private int failedAttempts;
+
+    public RelationshipNotificationsCoalescedEvent(Long recipientUserId, RelationshipNotificationKind kind,
+                                                   List<RelationshipNotification> notifications) {
+        this.recipientUserId = recipientUserId;
+        this.kind = kind;
+        this.notifications = notifications;
+    }
+
+    /**
+     * Combined summary line, e.g. "3 new relationship requests"
+     */
+    public String getSummary() {
+        return kind.summary(notifications.size());
+    }
+
+    /**
+     * Count a failed delivery attempt.
+     *
+     * @return Failed attempts including this one
+     */
+    public int recordFailedAttempt() {
+        return ++failedAttempts;
+    }
+
+    /**
+     * Acknowledge the source records of every coalesced notification.
+     */
+    public void acknowledge() {
+        notifications.forEach(RelationshipNotification::acknowledge);
+    }
+}
@@ -0,0 +1,76 @@
+package com.legacykeep.notification.event.consumer;
+
+import com.legacykeep.notification.model.RecipientContact;
+import com.legacykeep.notification.service.ContactDirectoryService;
+import com.legacykeep.notification.service.RecipientContactService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Kafka Consumer for the compacted contacts topic.
+ *
+ * Every instance joins with its own consumer group and materializes the whole
+ * topic into its local contact directory. On assignment, each partition is
+ * positioned right after the offset recorded in the restored snapshot, or at
+ * the beginning when there is no snapshot. Each applied record evicts the user
+ * from this instance's contact cache.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContactDirectoryConsumer implements ConsumerSeekAware {
+
+    private final ContactDirectoryService contactDirectory;
+    private final RecipientContactService recipientContactService;
+
+    /**
+     * Handle contact updated events and tombstones.
+     */
+    @KafkaListener(
+        topics = "${notification.contact.topic:notification.contacts}",
+        groupId = "${spring.kafka.consumer.group-id:notification-service-group}-contacts-${random.uuid}",
+        properties = "auto.offset.reset=earliest"
+    )
+    public void handleContactUpdated(
+            @Payload(required = false) Map<String, Object> eventMap,
+            @Header(KafkaHeaders.RECEIVED_KEY) String key,
+            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+            @Header(KafkaHeaders.OFFSET) long offset) {
+        try {
+            long userId = Long.parseLong(key);
+            RecipientContact contact = eventMap == null ? null
+                    : new RecipientContact(userId, (String) eventMap.get("email"), (String) eventMap.get("fullName"));
+            contactDirectory.apply(contact, userId, partition, offset);
+            recipientContactService.evict(userId);
+        } catch (Exception e) {
+            log.error("Failed to apply contact update for key {} at partition {}, offset {}", key, partition, offset, e);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Map<Integer, Long> appliedOffsets = contactDirectory.getAppliedOffsets();
+        for (TopicPartition partition : assignments.keySet()) {
+            Long applied = appliedOffsets.get(partition.partition());
+            if (applied != null) {
+                callback.seek(partition.topic(), partition.partition(), applied + 1);
+            } else {
+                callback.seekToBeginning(partition.topic(), partition.partition());
+            }
+        }
+        log.info("Contact directory consumer assigned {} partitions, restored offsets {}",
+                assignments.size(), appliedOffsets);
+    }
+}
@@ -0,0 +1,47 @@
+package com.legacykeep.notification.event.consumer;
+
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.service.FallbackCascadeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Kafka Consumer for delivery confirmations.
+ *
+ * Every instance joins with its own consumer group so that a confirmation
+ * received by any instance reaches the one whose fallback cascade awaits it.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeliveryConfirmationConsumer {
+
+    private final FallbackCascadeService fallbackCascadeService;
+
+    /**
+     * Handle delivery confirmed events.
+     */
+    @KafkaListener(
+        topics = "${notification.fallback.confirmation-topic:notification.deliveries.confirmed}",
+        groupId = "${spring.kafka.consumer.group-id:notification-service-group}-confirmations-${random.uuid}",
+        properties = "auto.offset.reset=latest"
+    )
+    public void handleDeliveryConfirmed(Map<String, Object> eventMap) {
+        try {
+            Long notificationId = ((Number) eventMap.get("notificationId")).longValue();
+            NotificationChannel channel = NotificationChannel.valueOf((String) eventMap.get("channel"));
+            if (fallbackCascadeService.completeConfirmation(notificationId, channel)) {
+                log.debug("Confirmed {} delivery of notification {}", channel, notificationId);
+            }
+        } catch (Exception e) {
+            log.error("Failed to process delivery confirmed event: {}", eventMap.get("eventId"), e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.legacykeep.notification.event.consumer;
+
+import com.legacykeep.notification.entity.DeviceType;
+import com.legacykeep.notification.entity.UserDevice;
+import com.legacykeep.notification.service.DeviceRegistryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Kafka Consumer for device registration events.
+ *
+ * Registrations are persisted once through the shared consumer group, which then
+ * publishes a device change once the write is committed. Every instance listens
+ * to those changes with its own group and evicts the cached devices of the user,
+ * so push fan-out sees the change everywhere without waiting for expiry.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeviceEventsConsumer {
+
+    private final DeviceRegistryService deviceRegistry;
+
+    /**
+     * Handle device registered events.
+     */
+    @KafkaListener(
+        topics = "${kafka.topics.user-device-registered:user.device.registered}",
+        groupId = "${spring.kafka.consumer.group-id:notification-service-group}"
+    )
+    public void handleDeviceRegistered(Map<String, Object> eventMap) {
+        try {
+            UserDevice device = new UserDevice(
+                    ((Number) eventMap.get("userId")).longValue(),
+                    (String) eventMap.get("deviceToken"),
+                    DeviceType.valueOf((String) eventMap.get("deviceType")));
+            device.setDeviceName((String) eventMap.get("deviceName"));
+            device.setDeviceModel((String) eventMap.get("deviceModel"));
+            device.setOsVersion((String) eventMap.get("osVersion"));
+            device.setAppVersion((String) eventMap.get("appVersion"));
+
+            deviceRegistry.registerDevice(device);
+            log.info("Device registered for user: {}", device.getUserId());
+        } catch (Exception e) {
+            log.error("Failed to process device registered event: {}", eventMap.get("eventId"), e);
+        }
+    }
+
+    /**
+     * Handle device unregistered events.
+     */
+    @KafkaListener(
+        topics = "${kafka.topics.user-device-unregistered:user.device.unregistered}",
+        groupId = "${spring.kafka.consumer.group-id:notification-service-group}"
+    )
+    public void handleDeviceUnregistered(Map<String, Object> eventMap) {
+        try {
+            Long userId = ((Number) eventMap.get("userId")).longValue();
+            deviceRegistry.unregisterDevice(userId, (String) eventMap.get("deviceToken"));
+            log.info("Device unregistered for user: {}", userId);
+        } catch (Exception e) {
+            log.error("Failed to process device unregistered event: {}", eventMap.get("eventId"), e);
+        }
+    }
+
+    /**
+     * Evict the cached devices of the user on this instance for a committed device change.
+     */
+    @KafkaListener(
+        topics = "${notification.device.invalidation-topic:notification.devices.changed}",
+        groupId = "${spring.kafka.consumer.group-id:notification-service-group}-devices-${random.uuid}",
+        properties = "auto.offset.reset=latest"
+    )
+    public void handleDeviceChanged(Map<String, Object> eventMap) {
+        try {
+            Object userId = eventMap.get("userId");
+            if (userId == null) {
+                log.warn("Ignoring device change event without userId: {}", eventMap.get("eventId"));
+                return;
+            }
+
+            deviceRegistry.evict(((Number) userId).longValue());
+            log.debug("Evicted cached devices for user: {}", userId);
+        } catch (Exception e) {
+            log.error("Failed to process device change event: {}", eventMap.get("eventId"), e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.legacykeep.notification.event.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legacykeep.notification.entity.InboxItem;
+import com.legacykeep.notification.service.InboxStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Kafka Consumer for stored inbox items.
+ *
+ * Every instance joins with its own consumer group so that each one sees all
+ * stored items and forwards them to the open streams of their recipients on
+ * that instance.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InboxStreamConsumer {
+
+    private final InboxStreamService streamService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Handle stored inbox items.
+     */
+    @KafkaListener(
+        topics = "${notification.stream.topic:notification.inbox.stored}",
+        groupId = "${spring.kafka.consumer.group-id:notification-service-group}-inbox-stream-${random.uuid}",
+        properties = "auto.offset.reset=latest"
+    )
+    public void handleInboxItemStored(Map<String, Object> eventMap) {
+        try {
+            streamService.deliver(objectMapper.convertValue(eventMap, InboxItem.class));
+        } catch (Exception e) {
+            log.error("Failed to stream inbox item: {}", eventMap.get("eventId"), e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.legacykeep.notification.event.consumer;
+
+import com.legacykeep.notification.service.NotificationPreferenceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Kafka Consumer for preference change events.
+ *
+ * Every instance joins with its own consumer group so that each one sees all
+ * invalidations and evicts its local preference cache entry.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PreferenceInvalidationConsumer {
+
+    private final NotificationPreferenceService preferenceService;
+
+    /**
+     * Handle user preference changed events.
+     * Evicts the cached preferences of the user on this instance.
+     */
+    @KafkaListener(
+        topics = "${notification.preference.invalidation-topic:notification.preferences.changed}",
+        groupId = "${spring.kafka.consumer.group-id:notification-service-group}-preferences-${random.uuid}",
+        properties = "auto.offset.reset=latest"
+    )
+    public void handlePreferencesChanged(Map<String, Object> eventMap) {
+        try {
+            Object userId = eventMap.get("userId");
+            if (userId == null) {
+                log.warn("Ignoring preference change event without userId: {}", eventMap.get("eventId"));
+                return;
+            }
+
+            preferenceService.evict(((Number) userId).longValue());
+            log.debug("Evicted cached preferences for user: {}", userId);
+        } catch (Exception e) {
+            log.error("Failed to process preference change event: {}", eventMap.get("eventId"), e);
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.legacykeep.notification.event.dto.UserEmailVerifiedEvent;
 import com.legacykeep.notification.event.dto.UserPasswordResetRequestedEvent;
 import com.legacykeep.notification.event.dto.UserRegisteredEvent;
 import com.legacykeep.notification.event.dto.UserOtpVerificationRequestedEvent;
+import com.legacykeep.notification.model.RecipientContact;
 import com.legacykeep.notification.service.EmailTemplateService;
+import com.legacykeep.notification.service.RecipientContactService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -27,6 +29,7 @@ import java.util.Map;
 public class UserEventsConsumer {
 
     private final EmailTemplateService emailTemplateService;
+    private final RecipientContactService contactService;
 
     /**
      * Handle user registration events.
@@ -53,6 +56,8 @@ public class UserEventsConsumer {
                 .eventType((String) eventMap.get("eventType"))
                 .build();
             
+            contactService.updateContact(new RecipientContact(event.getUserId(), event.getEmail(), event.getFullName()));
+            
             // Note: Welcome email will be sent after email verification
             log.info("User registration processed successfully for user: {}", event.getEmail());
         } catch (Exception e) {
@@ -91,6 +96,8 @@ public class UserEventsConsumer {
                 .eventType((String) eventMap.get("eventType"))
                 .build();
             
+            contactService.updateContact(new RecipientContact(event.getUserId(), event.getEmail(), event.getFullName()));
+            
             // Send OTP email using Thymeleaf template
             emailTemplateService.sendOtpVerificationEmail(event);
             
@@ -113,6 +120,8 @@ public class UserEventsConsumer {
         try {
             log.info("Received user password reset request event: {}", event.getEventId());
             
+            contactService.updateContact(new RecipientContact(event.getUserId(), event.getEmail(), event.getFullName()));
+            
             // Send password reset email using Thymeleaf template
             emailTemplateService.sendPasswordResetEmail(event);
             
@@ -0,0 +1,61 @@
+package com.legacykeep.notification.event.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event DTO for recipient contact updates.
+ * Published to the compacted contacts topic keyed by user ID, so the topic
+ * always holds the latest contact details of every user.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContactUpdatedEvent {
+
+    /**
+     * Unique identifier for the event
+     */
+    private String eventId;
+
+    /**
+     * User whose contact details changed
+     */
+    private Long userId;
+
+    /**
+     * Email address
+     */
+    private String email;
+
+    /**
+     * Full name
+     */
+    private String fullName;
+
+    /**
+     * Update timestamp
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Source service
+     */
+    private String sourceService;
+
+    /**
+     * Event type
+     */
+    @Builder.Default
+    private String eventType = "CONTACT_UPDATED";
+}
@@ -0,0 +1,56 @@
+package com.legacykeep.notification.event.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event DTO for a device confirming receipt of a notification.
+ * This event is broadcast to every instance, so the one running the fallback
+ * cascade of the notification can stop at the confirmed channel.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryConfirmedEvent {
+
+    /**
+     * Unique identifier for the event
+     */
+    private String eventId;
+
+    /**
+     * ID of the confirmed notification
+     */
+    private Long notificationId;
+
+    /**
+     * Channel the notification arrived on
+     */
+    private String channel;
+
+    /**
+     * Timestamp when the device confirmed receipt
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime confirmedAt;
+
+    /**
+     * Source service that published this event
+     */
+    private String sourceService;
+
+    /**
+     * Event type identifier
+     */
+    @Builder.Default
+    private String eventType = "DELIVERY_CONFIRMED";
+}
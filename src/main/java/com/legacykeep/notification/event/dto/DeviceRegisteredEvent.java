@@ -0,0 +1,80 @@
+package com.legacykeep.notification.event.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event DTO for device registration events.
+ * This event is published when a user registers a device for push notifications.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceRegisteredEvent {
+
+    /**
+     * Unique identifier for the event
+     */
+    private String eventId;
+
+    /**
+     * User ID of the device owner
+     */
+    private Long userId;
+
+    /**
+     * Push token of the device
+     */
+    private String deviceToken;
+
+    /**
+     * Device platform (IOS, ANDROID, WEB)
+     */
+    private String deviceType;
+
+    /**
+     * Device name
+     */
+    private String deviceName;
+
+    /**
+     * Device model
+     */
+    private String deviceModel;
+
+    /**
+     * Operating system version
+     */
+    private String osVersion;
+
+    /**
+     * App version
+     */
+    private String appVersion;
+
+    /**
+     * Timestamp when the device was registered
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime registeredAt;
+
+    /**
+     * Source service
+     */
+    private String sourceService;
+
+    /**
+     * Event type
+     */
+    @Builder.Default
+    private String eventType = "DEVICE_REGISTERED";
+}
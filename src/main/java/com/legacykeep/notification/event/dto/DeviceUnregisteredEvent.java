@@ -0,0 +1,55 @@
+package com.legacykeep.notification.event.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event DTO for device unregistration events.
+ * This event is published when a user signs out of a device or disables push on it.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceUnregisteredEvent {
+
+    /**
+     * Unique identifier for the event
+     */
+    private String eventId;
+
+    /**
+     * User ID of the device owner
+     */
+    private Long userId;
+
+    /**
+     * Push token of the device
+     */
+    private String deviceToken;
+
+    /**
+     * Timestamp when the device was unregistered
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime unregisteredAt;
+
+    /**
+     * Source service
+     */
+    private String sourceService;
+
+    /**
+     * Event type
+     */
+    @Builder.Default
+    private String eventType = "DEVICE_UNREGISTERED";
+}
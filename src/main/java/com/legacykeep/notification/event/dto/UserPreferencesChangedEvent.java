@@ -0,0 +1,51 @@
+package com.legacykeep.notification.event.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event DTO for user notification preference changes.
+ * This event is published to a compacted topic keyed by user ID whenever
+ * preferences are updated, so every instance can invalidate its cached copy.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPreferencesChangedEvent {
+
+    /**
+     * Unique identifier for the event
+     */
+    private String eventId;
+
+    /**
+     * User ID whose preferences changed
+     */
+    private Long userId;
+
+    /**
+     * Timestamp when the preferences were updated
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Source service that published this event
+     */
+    private String sourceService;
+
+    /**
+     * Event type identifier
+     */
+    @Builder.Default
+    private String eventType = "USER_PREFERENCES_CHANGED";
+}
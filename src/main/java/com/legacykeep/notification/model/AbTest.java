@@ -0,0 +1,19 @@
+package com.legacykeep.notification.model;
+
+import lombok.Value;
+
+/**
+ * A running A/B test between two versions of a template, from
+ * {@code template_ab_test_results}.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class AbTest {
+
+    String testId;
+    String templateId;
+    String versionA;
+    String versionB;
+}
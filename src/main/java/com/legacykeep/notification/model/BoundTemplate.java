@@ -0,0 +1,104 @@
+package com.legacykeep.notification.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A {@link CompiledTemplate} with its recipient-independent variables already
+ * substituted.
+ *
+ * The shared text between the remaining per-recipient variables is kept both as
+ * strings and as prebuilt UTF-8 bytes, so rendering for a recipient only copies
+ * the segments and encodes the recipient's own values.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class BoundTemplate {
+
+    private final String[] segments; // One more than slots: text before, between and after them
+    private final byte[][] segmentBytes;
+    private final String[][] slots; // Names of each slot in order of preference
+    private final boolean escapeHtml;
+    private final int segmentLength;
+    private final int segmentByteLength;
+
+    BoundTemplate(String[] segments, String[][] slots, boolean escapeHtml) {
+        this.segments = segments;
+        this.slots = slots;
+        this.escapeHtml = escapeHtml;
+        this.segmentBytes = new byte[segments.length][];
+        int length = 0;
+        int byteLength = 0;
+        for (int i = 0; i < segments.length; i++) {
+            segmentBytes[i] = segments[i].getBytes(StandardCharsets.UTF_8);
+            length += segments[i].length();
+            byteLength += segmentBytes[i].length;
+        }
+        this.segmentLength = length;
+        this.segmentByteLength = byteLength;
+    }
+
+    /**
+     * Render for one recipient.
+     *
+     * @param values Per-recipient variable values by name
+     * @return Rendered text
+     */
+    public String render(Map<String, ?> values) {
+        StringBuilder out = new StringBuilder(segmentLength + slots.length * 16);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(segments[i]);
+            CompiledTemplate.appendValue(out, CompiledTemplate.lookup(values, slots[i]), escapeHtml);
+        }
+        return out.append(segments[slots.length]).toString();
+    }
+
+    /**
+     * Render for one recipient as UTF-8 bytes, copying the prebuilt shared segments.
+     *
+     * @param values Per-recipient variable values by name
+     * @return Rendered UTF-8 bytes
+     */
+    public byte[] renderBytes(Map<String, ?> values) {
+        if (slots.length == 0) {
+            return segmentBytes[0].clone();
+        }
+        byte[][] encoded = new byte[slots.length][];
+        int length = segmentByteLength;
+        for (int i = 0; i < slots.length; i++) {
+            encoded[i] = encode(CompiledTemplate.lookup(values, slots[i]));
+            length += encoded[i].length;
+        }
+
+        byte[] out = new byte[length];
+        int position = 0;
+        for (int i = 0; i < slots.length; i++) {
+            System.arraycopy(segmentBytes[i], 0, out, position, segmentBytes[i].length);
+            position += segmentBytes[i].length;
+            System.arraycopy(encoded[i], 0, out, position, encoded[i].length);
+            position += encoded[i].length;
+        }
+        System.arraycopy(segmentBytes[slots.length], 0, out, position, segmentBytes[slots.length].length);
+        return out;
+    }
+
+    /**
+     * Number of variables left to substitute per recipient
+     */
+    public int getSlotCount() {
+        return slots.length;
+    }
+
+    private byte[] encode(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (!escapeHtml) {
+            return value.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        StringBuilder escaped = new StringBuilder();
+        CompiledTemplate.appendValue(escaped, value, true);
+        return escaped.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
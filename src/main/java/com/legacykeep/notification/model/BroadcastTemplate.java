@@ -0,0 +1,41 @@
+package com.legacykeep.notification.model;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * A {@link RegisteredTemplate} prepared for one broadcast: the content shared
+ * by every recipient is rendered once, leaving only per-recipient fields.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class BroadcastTemplate {
+
+    String templateId;
+    BoundTemplate subject;
+    BoundTemplate body;
+    String viewName;
+    boolean html;
+    BoundTemplate text; // Null when the body is text or there is no alternative
+
+    public RenderedTemplate render(Map<String, ?> recipientValues) {
+        String renderedBody = body != null ? body.render(recipientValues) : null;
+        return new RenderedTemplate(
+                templateId,
+                subject != null ? subject.render(recipientValues) : null,
+                renderedBody,
+                viewName,
+                html,
+                text != null ? text.render(recipientValues) : html ? null : renderedBody);
+    }
+
+    /**
+     * Render the body for one recipient as UTF-8 bytes
+     */
+    public byte[] renderBodyBytes(Map<String, ?> recipientValues) {
+        return body != null ? body.renderBytes(recipientValues) : new byte[0];
+    }
+}
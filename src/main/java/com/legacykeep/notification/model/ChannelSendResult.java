@@ -0,0 +1,22 @@
+package com.legacykeep.notification.model;
+
+import lombok.Value;
+
+/**
+ * Outcome of sending one notification through one channel.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class ChannelSendResult {
+
+    public static final ChannelSendResult SENT = new ChannelSendResult(true, null);
+
+    boolean sent;
+    String failureReason;
+
+    public static ChannelSendResult failed(String reason) {
+        return new ChannelSendResult(false, reason);
+    }
+}
@@ -0,0 +1,170 @@
+package com.legacykeep.notification.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Memory-bounded coalescing buffer that groups items by key for a fixed window.
+ *
+ * A group opens with the first item for its key and closes when the window expires,
+ * when it reaches {@code maxBatchSize}, or when the number of open groups exceeds
+ * {@code maxOpenGroups} and it is the oldest one. Because the window is fixed,
+ * groups expire in the order they were opened, so the expiry check only looks at
+ * the head of a FIFO queue.
+ *
+ * Closed groups are returned to the caller as {@link Batch}es; this class never
+ * dispatches anything itself.
+ *
+ * @param <K> Group key
+ * @param <T> Item type
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class CoalescingBuffer<K, T> {
+
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final int maxOpenGroups;
+
+    private final ConcurrentHashMap<K, Group<K, T>> groups = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Group<K, T>> openOrder = new ConcurrentLinkedQueue<>();
+
+    public CoalescingBuffer(long windowNanos, int maxBatchSize, int maxOpenGroups) {
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxOpenGroups = Math.max(1, maxOpenGroups);
+    }
+
+    /**
+     * Add an item to the open group of its key.
+     *
+     * @param key Group key
+     * @param item Item to add
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return Batches closed by this call because of the size or memory bound, usually empty
+     */
+    public List<Batch<K, T>> add(K key, T item, long nowNanos) {
+        List<Batch<K, T>> closed = new ArrayList<>(0);
+        while (true) {
+            Group<K, T> group = groups.computeIfAbsent(key, k -> {
+                Group<K, T> opened = new Group<>(k, nowNanos + windowNanos);
+                openOrder.add(opened);
+                return opened;
+            });
+            int size = group.add(item);
+            if (size < 0) {
+                // Closed concurrently; wait for it to leave the map and open a fresh group
+                groups.remove(key, group);
+                continue;
+            }
+            if (size >= maxBatchSize) {
+                close(group, closed);
+            }
+            break;
+        }
+
+        while (groups.size() > maxOpenGroups) {
+            Group<K, T> oldest = openOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            close(oldest, closed);
+        }
+        return closed;
+    }
+
+    /**
+     * Close every group whose window has expired.
+     *
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return Expired batches in the order their groups were opened
+     */
+    public List<Batch<K, T>> pollExpired(long nowNanos) {
+        List<Batch<K, T>> closed = new ArrayList<>();
+        Group<K, T> head;
+        while ((head = openOrder.peek()) != null && (head.isClosed() || head.deadlineNanos - nowNanos <= 0)) {
+            if (openOrder.remove(head)) {
+                close(head, closed);
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Close every open group, e.g. on shutdown
+     */
+    public List<Batch<K, T>> drainAll() {
+        List<Batch<K, T>> closed = new ArrayList<>();
+        Group<K, T> group;
+        while ((group = openOrder.poll()) != null) {
+            close(group, closed);
+        }
+        return closed;
+    }
+
+    /**
+     * Number of open groups
+     */
+    public int openGroupCount() {
+        return groups.size();
+    }
+
+    private void close(Group<K, T> group, List<Batch<K, T>> closed) {
+        List<T> items = group.close();
+        groups.remove(group.key, group);
+        if (items != null) {
+            closed.add(new Batch<>(group.key, items));
+        }
+    }
+
+    /**
+     * Items coalesced under one key
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Batch<K, T> {
+        private final K key;
+        private final List<T> items;
+    }
+
+    private static final class Group<K, T> {
+
+        private final K key;
+        private final long deadlineNanos;
+        private List<T> items = new ArrayList<>(4);
+
+        private Group(K key, long deadlineNanos) {
+            this.key = key;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * @return New group size, or -1 when the group is already closed
+         */
+        private synchronized int add(T item) {
+            if (items == null) {
+                return -1;
+            }
+            items.add(item);
+            return items.size();
+        }
+
+        /**
+         * @return Items of the group, or null when it was already closed
+         */
+        private synchronized List<T> close() {
+            List<T> closedItems = items;
+            items = null;
+            return closedItems;
+        }
+
+        private synchronized boolean isClosed() {
+            return items == null;
+        }
+    }
+}
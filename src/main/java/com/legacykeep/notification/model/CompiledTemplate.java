@@ -0,0 +1,172 @@
+package com.legacykeep.notification.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Template with {@code {{variable}}} placeholders, parsed once into literal and
+ * variable parts.
+ *
+ * Rendering only appends the parts to a presized builder, with no parsing or
+ * regular expression work. Unknown variables render as empty text. A placeholder
+ * may list fallbacks, {@code {{fullName|username}}}, rendering the first variable
+ * that has a value.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class CompiledTemplate {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{\\s*([\\w.-]+(?:\\s*\\|\\s*[\\w.-]+)*)\\s*}}");
+    private static final Pattern ALTERNATIVES = Pattern.compile("\\s*\\|\\s*");
+
+    private final String[] literals; // One more than variables: text before, between and after them
+    private final String[][] variables; // Names of each placeholder in order of preference
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, String[][] variables) {
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parse a template source.
+     *
+     * @param source Template text
+     * @return Compiled template
+     */
+    public static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String[]> variables = new ArrayList<>();
+        Matcher matcher = VARIABLE.matcher(source);
+        int position = 0;
+        while (matcher.find()) {
+            literals.add(source.substring(position, matcher.start()));
+            variables.add(ALTERNATIVES.split(matcher.group(1)));
+            position = matcher.end();
+        }
+        literals.add(source.substring(position));
+        return new CompiledTemplate(literals.toArray(String[]::new), variables.toArray(String[][]::new));
+    }
+
+    /**
+     * Render with the given variables.
+     *
+     * @param values Variable values by name
+     * @param escapeHtml Whether values are HTML-escaped, for HTML bodies
+     * @return Rendered text
+     */
+    public String render(Map<String, ?> values, boolean escapeHtml) {
+        StringBuilder out = new StringBuilder(literalLength + variables.length * 16);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            appendValue(out, lookup(values, variables[i]), escapeHtml);
+        }
+        return out.append(literals[variables.length]).toString();
+    }
+
+    /**
+     * Substitute the recipient-independent variables once, leaving the others
+     * to be filled per recipient.
+     *
+     * @param shared Values shared by every recipient; only these names are bound
+     * @param escapeHtml Whether values are HTML-escaped, for HTML bodies
+     * @return Template with only the per-recipient variables left
+     */
+    public BoundTemplate bind(Map<String, ?> shared, boolean escapeHtml) {
+        List<String> segments = new ArrayList<>();
+        List<String[]> slots = new ArrayList<>();
+        StringBuilder segment = new StringBuilder(literalLength);
+        for (int i = 0; i < variables.length; i++) {
+            segment.append(literals[i]);
+            if (isBound(shared, variables[i])) {
+                appendValue(segment, lookup(shared, variables[i]), escapeHtml);
+            } else {
+                segments.add(segment.toString());
+                slots.add(variables[i]);
+                segment.setLength(0);
+            }
+        }
+        segments.add(segment.append(literals[variables.length]).toString());
+        return new BoundTemplate(segments.toArray(String[]::new), slots.toArray(String[][]::new), escapeHtml);
+    }
+
+    /**
+     * Names of the variables used, in order of first use
+     */
+    public Set<String> getVariableNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (String[] alternatives : variables) {
+            Collections.addAll(names, alternatives);
+        }
+        return names;
+    }
+
+    static Object lookup(Map<String, ?> values, String[] alternatives) {
+        Object value = values.get(alternatives[0]);
+        for (int i = 1; value == null && i < alternatives.length; i++) {
+            value = values.get(alternatives[i]);
+        }
+        return value;
+    }
+
+    // A placeholder is fully known once a shared value is found before any unknown name
+    private static boolean isBound(Map<String, ?> shared, String[] alternatives) {
+        for (String name : alternatives) {
+            if (!shared.containsKey(name)) {
+                return false;
+            }
+            if (shared.get(name) != null) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    static void appendValue(StringBuilder out, Object value, boolean escapeHtml) {
+        if (value == null) {
+            return;
+        }
+        if (escapeHtml) {
+            appendEscaped(out, value.toString());
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                case '\'':
+                    out.append("&#39;");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+    }
+}
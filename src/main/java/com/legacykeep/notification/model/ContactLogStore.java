@@ -0,0 +1,513 @@
+package com.legacykeep.notification.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Disk-backed contact directory: an append-only record log plus an in-memory
+ * index from user ID to record offset.
+ *
+ * Only the index (16 bytes per user) lives on the heap; contact records are read
+ * from the log, where the OS page cache keeps the hot part in memory. Updates append
+ * a new record and repoint the index, and the log is compacted when dead records
+ * outweigh live ones.
+ *
+ * A snapshot stores the index, the valid log length and the last applied source
+ * offset per partition, written atomically. On open, the log is truncated to the
+ * snapshot length so replaying from the snapshot offsets never applies a record twice.
+ * Without a snapshot the store starts empty and the source must be replayed in full.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class ContactLogStore implements Closeable {
+
+    static final String LOG_FILE = "contacts.log";
+    static final String SNAPSHOT_FILE = "contacts.snapshot";
+
+    private static final int SNAPSHOT_MAGIC = 0x4C4B4353;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES;
+
+    private final Path directory;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Long> appliedOffsets = new HashMap<>();
+    private FileChannel log;
+    private OffsetIndex index;
+    private long logLength;
+    private long liveBytes;
+
+    private ContactLogStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Open the store in a directory, restoring the latest snapshot if there is one.
+     *
+     * @param directory Storage directory, created if missing
+     * @return Opened store
+     * @throws IOException if the log cannot be opened
+     */
+    public static ContactLogStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        ContactLogStore store = new ContactLogStore(directory);
+        store.log = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (!store.restoreSnapshot()) {
+            store.index = new OffsetIndex(1024);
+            store.logLength = 0;
+            store.liveBytes = 0;
+            store.appliedOffsets.clear();
+        }
+        store.log.truncate(store.logLength);
+        return store;
+    }
+
+    /**
+     * Insert or replace a contact.
+     *
+     * @param contact Contact with user ID and email
+     * @param partition Source partition
+     * @param offset Source offset of the update
+     */
+    public void put(RecipientContact contact, int partition, long offset) throws IOException {
+        ByteBuffer record = encode(contact);
+        lock.writeLock().lock();
+        try {
+            long position = logLength;
+            int recordBytes = record.remaining();
+            while (record.hasRemaining()) {
+                log.write(record, position + (recordBytes - record.remaining()));
+            }
+            logLength += recordBytes;
+            long previous = index.put(contact.getUserId(), position);
+            if (previous >= 0) {
+                liveBytes -= recordLength(previous);
+            }
+            liveBytes += recordBytes;
+            appliedOffsets.put(partition, offset);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Delete a contact.
+     *
+     * @param userId User ID
+     * @param partition Source partition
+     * @param offset Source offset of the tombstone
+     */
+    public void remove(long userId, int partition, long offset) throws IOException {
+        lock.writeLock().lock();
+        try {
+            long previous = index.remove(userId);
+            if (previous >= 0) {
+                liveBytes -= recordLength(previous);
+            }
+            appliedOffsets.put(partition, offset);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get one contact, or null when unknown
+     */
+    public RecipientContact get(long userId) throws IOException {
+        lock.readLock().lock();
+        try {
+            long position = index.get(userId);
+            return position < 0 ? null : read(position);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get many contacts, reading records in log order.
+     *
+     * @param userIds User IDs
+     * @return Contacts by user ID; unknown users are absent
+     */
+    public Map<Long, RecipientContact> getAll(Collection<Long> userIds) throws IOException {
+        lock.readLock().lock();
+        try {
+            long[] positions = new long[userIds.size()];
+            int found = 0;
+            for (Long userId : userIds) {
+                long position = userId != null ? index.get(userId) : -1;
+                if (position >= 0) {
+                    positions[found++] = position;
+                }
+            }
+            Arrays.sort(positions, 0, found);
+
+            Map<Long, RecipientContact> contacts = new HashMap<>(found * 2);
+            for (int i = 0; i < found; i++) {
+                RecipientContact contact = read(positions[i]);
+                contacts.put(contact.getUserId(), contact);
+            }
+            return contacts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Last applied source offset per partition
+     */
+    public Map<Integer, Long> getAppliedOffsets() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(appliedOffsets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compact the log if dead records exceed {@code maxGarbageRatio} of it, then
+     * write a snapshot atomically.
+     *
+     * @param maxGarbageRatio Dead fraction of the log that triggers compaction
+     */
+    public synchronized void snapshot(double maxGarbageRatio) throws IOException {
+        long[] keys;
+        long[] positions;
+        long length;
+        long live;
+        Map<Integer, Long> offsets;
+
+        lock.writeLock().lock();
+        try {
+            if (logLength > 0 && (logLength - liveBytes) > maxGarbageRatio * logLength) {
+                compact();
+            }
+            log.force(false);
+            keys = index.keys.clone();
+            positions = index.values.clone();
+            length = logLength;
+            live = liveBytes;
+            offsets = new HashMap<>(appliedOffsets);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Path tmp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(length);
+            out.writeLong(live);
+            int entries = 0;
+            for (long position : positions) {
+                if (position >= 0) {
+                    entries++;
+                }
+            }
+            out.writeInt(entries);
+            for (int i = 0; i < keys.length; i++) {
+                if (positions[i] >= 0) {
+                    out.writeLong(keys[i]);
+                    out.writeLong(positions[i]);
+                }
+            }
+            out.writeInt(offsets.size());
+            for (Map.Entry<Integer, Long> entry : offsets.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+        }
+        Files.move(tmp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Number of contacts
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Current log length in bytes, including dead records
+     */
+    public long logLength() {
+        lock.readLock().lock();
+        try {
+            return logLength;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            log.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean restoreSnapshot() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(directory.resolve(SNAPSHOT_FILE)), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                return false;
+            }
+            long length = in.readLong();
+            long live = in.readLong();
+            if (length > log.size()) {
+                return false;
+            }
+            int entries = in.readInt();
+            OffsetIndex restored = new OffsetIndex(entries);
+            for (int i = 0; i < entries; i++) {
+                restored.put(in.readLong(), in.readLong());
+            }
+            int partitions = in.readInt();
+            Map<Integer, Long> offsets = new HashMap<>();
+            for (int i = 0; i < partitions; i++) {
+                offsets.put(in.readInt(), in.readLong());
+            }
+
+            index = restored;
+            logLength = length;
+            appliedOffsets.clear();
+            appliedOffsets.putAll(offsets);
+            liveBytes = live;
+            return true;
+        } catch (NoSuchFileException | EOFException e) {
+            return false;
+        }
+    }
+
+    private void compact() throws IOException {
+        Path compacted = directory.resolve(LOG_FILE + ".compact");
+        OffsetIndex compactedIndex = new OffsetIndex(index.size);
+        long position = 0;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < index.keys.length; i++) {
+                if (index.values[i] < 0) {
+                    continue;
+                }
+                ByteBuffer record = readRaw(index.values[i]);
+                int recordBytes = record.remaining();
+                while (record.hasRemaining()) {
+                    out.write(record, position + (recordBytes - record.remaining()));
+                }
+                compactedIndex.put(index.keys[i], position);
+                position += recordBytes;
+            }
+            out.force(false);
+        }
+
+        // The old snapshot points into the old log; drop it first so a crash here means a full replay
+        Files.deleteIfExists(directory.resolve(SNAPSHOT_FILE));
+        log.close();
+        Files.move(compacted, directory.resolve(LOG_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = compactedIndex;
+        logLength = position;
+        liveBytes = position;
+    }
+
+    private int recordLength(long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(header, position);
+        return HEADER_BYTES + header.getInt(0);
+    }
+
+    private RecipientContact read(long position) throws IOException {
+        ByteBuffer record = readRaw(position);
+        record.position(HEADER_BYTES);
+        long userId = record.getLong();
+        String email = readString(record);
+        String fullName = readString(record);
+        return new RecipientContact(userId, email, fullName);
+    }
+
+    private ByteBuffer readRaw(long position) throws IOException {
+        int length = recordLength(position);
+        ByteBuffer record = ByteBuffer.allocate(length);
+        readFully(record, position);
+        record.flip();
+        return record;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long start = position;
+        while (buffer.hasRemaining()) {
+            if (log.read(buffer, start + buffer.position()) < 0) {
+                throw new EOFException("Contact record at " + position + " is truncated");
+            }
+        }
+    }
+
+    private static ByteBuffer encode(RecipientContact contact) {
+        byte[] email = bytes(contact.getEmail());
+        byte[] fullName = bytes(contact.getFullName());
+        int bodyLength = Long.BYTES + Short.BYTES + length(email) + Short.BYTES + length(fullName);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+        record.putInt(bodyLength);
+        record.putLong(contact.getUserId());
+        putString(record, email);
+        putString(record, fullName);
+        record.flip();
+        return record;
+    }
+
+    private static byte[] bytes(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Contact field exceeds " + Short.MAX_VALUE + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    /**
+     * Open-addressing map from user ID to log position with linear probing.
+     * A negative value marks an empty slot.
+     */
+    private static final class OffsetIndex {
+
+        private long[] keys;
+        private long[] values;
+        private int size;
+
+        private OffsetIndex(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+            keys = new long[capacity];
+            values = new long[capacity];
+            Arrays.fill(values, -1);
+        }
+
+        private long get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; values[slot] >= 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        private long put(long key, long value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (values[slot] >= 0) {
+                if (keys[slot] == key) {
+                    long previous = values[slot];
+                    values[slot] = value;
+                    return previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+            return -1;
+        }
+
+        private long remove(long key) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (values[slot] >= 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] < 0) {
+                return -1;
+            }
+            long previous = values[slot];
+            values[slot] = -1;
+            size--;
+
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            int hole = slot;
+            for (int next = (hole + 1) & mask; values[next] >= 0; next = (next + 1) & mask) {
+                int home = mix(keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    values[next] = -1;
+                    hole = next;
+                }
+            }
+            return previous;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new long[oldValues.length * 2];
+            Arrays.fill(values, -1);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] >= 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
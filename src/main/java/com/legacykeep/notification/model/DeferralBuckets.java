@@ -0,0 +1,130 @@
+package com.legacykeep.notification.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory wake-up buckets for deferred notifications, keyed by release instant.
+ *
+ * Every recipient whose quiet hours end at the same instant (same zone offset and
+ * end time) lands in the same bucket, so a morning release is one map removal and
+ * one bulk claim per bucket rather than a scan over individual queue rows.
+ * Checking for due work only peeks at the earliest key.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class DeferralBuckets {
+
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+
+    /**
+     * Add a deferred queue entry to the bucket of its release instant
+     */
+    public void add(Instant releaseAt, long queueEntryId, long notificationId) {
+        long key = releaseAt.getEpochSecond();
+        // A bucket released concurrently is sealed; retry so the entry lands in a fresh one
+        while (!buckets.computeIfAbsent(key, second -> new Bucket(Instant.ofEpochSecond(second)))
+                .add(queueEntryId, notificationId)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Get the earliest pending release instant, or null when nothing is deferred
+     */
+    public Instant nextReleaseAt() {
+        Map.Entry<Long, Bucket> first = buckets.firstEntry();
+        return first != null ? first.getValue().getReleaseAt() : null;
+    }
+
+    /**
+     * Remove and return every bucket due at or before {@code now}
+     */
+    public List<Bucket> pollDue(Instant now) {
+        ConcurrentNavigableMap<Long, Bucket> due = buckets.headMap(now.getEpochSecond(), true);
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        List<Bucket> released = new ArrayList<>(due.size());
+        Map.Entry<Long, Bucket> entry;
+        while ((entry = due.pollFirstEntry()) != null) {
+            released.add(entry.getValue().seal());
+        }
+        return released;
+    }
+
+    /**
+     * Total number of deferred entries across all buckets
+     */
+    public long size() {
+        long total = 0;
+        for (Bucket bucket : buckets.values()) {
+            total += bucket.size();
+        }
+        return total;
+    }
+
+    /**
+     * Number of distinct wake-up instants
+     */
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Deferred entries sharing one release instant, held in growable primitive arrays.
+     */
+    public static final class Bucket {
+
+        private final Instant releaseAt;
+        private long[] queueEntryIds = new long[16];
+        private long[] notificationIds = new long[16];
+        private int size;
+        private boolean sealed;
+
+        private Bucket(Instant releaseAt) {
+            this.releaseAt = releaseAt;
+        }
+
+        private synchronized boolean add(long queueEntryId, long notificationId) {
+            if (sealed) {
+                return false;
+            }
+            if (size == queueEntryIds.length) {
+                queueEntryIds = Arrays.copyOf(queueEntryIds, size * 2);
+                notificationIds = Arrays.copyOf(notificationIds, size * 2);
+            }
+            queueEntryIds[size] = queueEntryId;
+            notificationIds[size] = notificationId;
+            size++;
+            return true;
+        }
+
+        private synchronized Bucket seal() {
+            sealed = true;
+            return this;
+        }
+
+        public Instant getReleaseAt() {
+            return releaseAt;
+        }
+
+        public synchronized int size() {
+            return size;
+        }
+
+        public synchronized long[] getQueueEntryIds() {
+            return Arrays.copyOf(queueEntryIds, size);
+        }
+
+        public synchronized long[] getNotificationIds() {
+            return Arrays.copyOf(notificationIds, size);
+        }
+    }
+}
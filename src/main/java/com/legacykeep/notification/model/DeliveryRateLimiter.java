@@ -0,0 +1,93 @@
+package com.legacykeep.notification.model;
+
+import com.legacykeep.notification.config.NotificationConfig;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Non-blocking rate limiter for a delivery channel.
+ *
+ * Holds one token bucket per configured window (minute, hour, day), each refilled
+ * continuously at its limit per window. Callers never wait inside the limiter:
+ * {@link #tryAcquire(int)} either takes the permits or returns how long to wait
+ * before trying again, so the caller can reschedule instead of parking a thread.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public class DeliveryRateLimiter {
+
+    private final boolean enabled;
+    private final Bucket[] buckets;
+    private final LongSupplier nanoTime;
+
+    public DeliveryRateLimiter(NotificationConfig.RateLimitConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    DeliveryRateLimiter(NotificationConfig.RateLimitConfig config, LongSupplier nanoTime) {
+        this.enabled = config.isEnabled();
+        this.nanoTime = nanoTime;
+        long now = nanoTime.getAsLong();
+        this.buckets = new Bucket[]{
+                new Bucket(config.getMaxPerMinute(), TimeUnit.MINUTES.toNanos(1), now),
+                new Bucket(config.getMaxPerHour(), TimeUnit.HOURS.toNanos(1), now),
+                new Bucket(config.getMaxPerDay(), TimeUnit.DAYS.toNanos(1), now)
+        };
+    }
+
+    /**
+     * Take permits from every window if all of them have enough.
+     *
+     * A request larger than a window's limit is granted once that window is full,
+     * leaving it in debt, so large batches are slowed down instead of stuck.
+     *
+     * @param permits Number of permits, e.g. messages in a batch
+     * @return Zero if the permits were taken, otherwise milliseconds to wait
+     */
+    public synchronized long tryAcquire(int permits) {
+        if (!enabled) {
+            return 0;
+        }
+
+        long now = nanoTime.getAsLong();
+        long waitNanos = 0;
+        for (Bucket bucket : buckets) {
+            bucket.refill(now);
+            waitNanos = Math.max(waitNanos, bucket.nanosUntil(permits));
+        }
+        if (waitNanos > 0) {
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+        for (Bucket bucket : buckets) {
+            bucket.tokens -= permits;
+        }
+        return 0;
+    }
+
+    private static final class Bucket {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(int limit, long windowNanos, long now) {
+            this.capacity = limit;
+            this.tokensPerNano = (double) limit / windowNanos;
+            this.tokens = limit;
+            this.lastRefill = now;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+
+        private long nanosUntil(int permits) {
+            double needed = Math.min(permits, capacity) - tokens;
+            return needed <= 0 ? 0 : (long) Math.ceil(needed / tokensPerNano);
+        }
+    }
+}
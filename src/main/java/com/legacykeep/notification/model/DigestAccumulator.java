@@ -0,0 +1,81 @@
+package com.legacykeep.notification.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory digest buckets keyed by recipient user ID.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class DigestAccumulator {
+
+    private final ConcurrentHashMap<Long, DigestBucket> buckets = new ConcurrentHashMap<>();
+    private final int maxRecentItems;
+
+    public DigestAccumulator(int maxRecentItems) {
+        this.maxRecentItems = maxRecentItems;
+    }
+
+    /**
+     * Add a stored event to the recipient's bucket
+     */
+    public void add(long itemId, long userId, String email, String name, DigestCategory category,
+                    String summary, Instant occurredAt) {
+        // A bucket drained concurrently is sealed; retry so the event lands in the next digest
+        while (!buckets.computeIfAbsent(userId, id -> new DigestBucket(id, maxRecentItems))
+                .add(itemId, email, name, category, summary, occurredAt)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Put a drained bucket back, merged with any events that arrived since it was drained
+     */
+    public void requeue(DigestBucket drained) {
+        buckets.compute(drained.getUserId(), (userId, current) -> {
+            DigestBucket bucket = current != null ? current : new DigestBucket(userId, maxRecentItems);
+            bucket.merge(drained);
+            return bucket;
+        });
+    }
+
+    /**
+     * Remove and return the buckets of the given users
+     */
+    public List<DigestBucket> drain(Collection<Long> userIds) {
+        List<DigestBucket> drained = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            DigestBucket bucket = buckets.remove(userId);
+            if (bucket != null) {
+                drained.add(bucket.seal());
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Users that currently have pending digest events
+     */
+    public List<Long> userIds() {
+        return new ArrayList<>(buckets.keySet());
+    }
+
+    /**
+     * Get a user's pending bucket, or null
+     */
+    public DigestBucket get(long userId) {
+        return buckets.get(userId);
+    }
+
+    /**
+     * Number of users with pending digest events
+     */
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,198 @@
+package com.legacykeep.notification.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Per-user digest accumulator.
+ *
+ * Keeps an exact count per {@link DigestCategory} and only the most recent
+ * summaries in a fixed-size ring, so a very active family costs the same
+ * memory as a quiet one, apart from the IDs of the stored items, which are kept
+ * so exactly those rows are deleted once the digest is sent. A bucket is sealed
+ * when drained for sending; later events go to a fresh bucket for the next digest.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class DigestBucket {
+
+    private static final DigestCategory[] CATEGORIES = DigestCategory.values();
+
+    private final long userId;
+    private final int[] counts = new int[CATEGORIES.length];
+    private final byte[] recentCategories;
+    private final String[] recentSummaries;
+    private final long[] recentTimes;
+    private long[] itemIds = new long[4];
+    private int itemCount;
+    private int next;
+    private int total;
+    private String recipientEmail;
+    private String recipientName;
+    private boolean sealed;
+
+    public DigestBucket(long userId, int maxRecentItems) {
+        this.userId = userId;
+        this.recentCategories = new byte[maxRecentItems];
+        this.recentSummaries = new String[maxRecentItems];
+        this.recentTimes = new long[maxRecentItems];
+    }
+
+    /**
+     * Add an event to the bucket.
+     *
+     * @param itemId ID of the stored digest item
+     * @return false when the bucket was sealed by a concurrent drain
+     */
+    public synchronized boolean add(long itemId, String email, String name, DigestCategory category,
+                                    String summary, Instant occurredAt) {
+        if (sealed) {
+            return false;
+        }
+        if (email != null) {
+            recipientEmail = email;
+        }
+        if (name != null) {
+            recipientName = name;
+        }
+        counts[category.ordinal()]++;
+        remember(category, summary, occurredAt.getEpochSecond());
+        addItemId(itemId);
+        total++;
+        return true;
+    }
+
+    /**
+     * Fold a drained bucket of the same user back in, e.g. after its digest failed to send.
+     * The most recent summaries of both buckets are kept.
+     */
+    synchronized void merge(DigestBucket other) {
+        if (recipientEmail == null) {
+            recipientEmail = other.getRecipientEmail();
+        }
+        if (recipientName == null) {
+            recipientName = other.getRecipientName();
+        }
+        for (DigestCategory category : CATEGORIES) {
+            counts[category.ordinal()] += other.getCount(category);
+        }
+
+        List<Item> items = new ArrayList<>(other.getRecentItems());
+        items.addAll(getRecentItems());
+        items.sort(Comparator.comparing(Item::getOccurredAt));
+        Arrays.fill(recentSummaries, null);
+        next = 0;
+        for (Item item : items) {
+            remember(item.getCategory(), item.getSummary(), item.getOccurredAt().getEpochSecond());
+        }
+
+        for (long itemId : other.getItemIds()) {
+            addItemId(itemId);
+        }
+        total += other.getTotal();
+    }
+
+    private void remember(DigestCategory category, String summary, long occurredAtSecond) {
+        if (recentSummaries.length > 0) {
+            recentCategories[next] = (byte) category.ordinal();
+            recentSummaries[next] = summary;
+            recentTimes[next] = occurredAtSecond;
+            next = (next + 1) % recentSummaries.length;
+        }
+    }
+
+    private void addItemId(long itemId) {
+        if (itemCount == itemIds.length) {
+            itemIds = Arrays.copyOf(itemIds, itemCount * 2);
+        }
+        itemIds[itemCount++] = itemId;
+    }
+
+    synchronized DigestBucket seal() {
+        sealed = true;
+        return this;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public synchronized int getTotal() {
+        return total;
+    }
+
+    public synchronized int getCount(DigestCategory category) {
+        return counts[category.ordinal()];
+    }
+
+    /**
+     * IDs of the stored digest items in this bucket
+     */
+    public synchronized long[] getItemIds() {
+        return Arrays.copyOf(itemIds, itemCount);
+    }
+
+    public synchronized String getRecipientEmail() {
+        return recipientEmail;
+    }
+
+    public synchronized String getRecipientName() {
+        return recipientName;
+    }
+
+    /**
+     * Non-empty categories with their counts, in declaration order
+     */
+    public synchronized List<CategoryCount> getCategoryCounts() {
+        List<CategoryCount> result = new ArrayList<>();
+        for (DigestCategory category : CATEGORIES) {
+            if (counts[category.ordinal()] > 0) {
+                result.add(new CategoryCount(category, category.getLabel(), counts[category.ordinal()]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Most recent summaries, newest first
+     */
+    public synchronized List<Item> getRecentItems() {
+        int retained = Math.min(total, recentSummaries.length);
+        List<Item> items = new ArrayList<>(retained);
+        for (int i = 1; i <= retained; i++) {
+            int slot = Math.floorMod(next - i, recentSummaries.length);
+            items.add(new Item(CATEGORIES[recentCategories[slot]], recentSummaries[slot],
+                    Instant.ofEpochSecond(recentTimes[slot])));
+        }
+        return items;
+    }
+
+    /**
+     * Event count for one category
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class CategoryCount {
+        private final DigestCategory category;
+        private final String label;
+        private final int count;
+    }
+
+    /**
+     * One retained digest line
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Item {
+        private final DigestCategory category;
+        private final String summary;
+        private final Instant occurredAt;
+    }
+}
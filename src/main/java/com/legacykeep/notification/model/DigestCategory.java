@@ -0,0 +1,28 @@
+package com.legacykeep.notification.model;
+
+/**
+ * Digest Category Enum
+ *
+ * Groups low-priority events in the daily digest email.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public enum DigestCategory {
+    RELATIONSHIP_REQUEST("New relationship requests"),
+    RELATIONSHIP_ACCEPTED("Accepted relationships"),
+    RELATIONSHIP_REJECTED("Declined relationships"),
+    STORY("New family stories"),
+    MEMORY("New memories"),
+    OTHER("Other updates");
+
+    private final String label;
+
+    DigestCategory(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
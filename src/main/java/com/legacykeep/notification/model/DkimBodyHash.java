@@ -0,0 +1,170 @@
+package com.legacykeep.notification.model;
+
+import java.io.OutputStream;
+import java.security.MessageDigest;
+
+/**
+ * DKIM body hash of a message written to this stream.
+ *
+ * The header block is skipped and the body is fed to the digest under relaxed
+ * body canonicalization (RFC 6376, section 3.4.4) as it is written: whitespace
+ * runs become one space, trailing whitespace is dropped and line breaks are held
+ * back until more content follows, so trailing empty lines are ignored. Only a
+ * small chunk buffer is used, whatever the size of the body.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class DkimBodyHash extends OutputStream {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final MessageDigest digest;
+    private final byte[] chunk = new byte[8192];
+    private int chunkLength;
+
+    private boolean inHeader;
+    private int headerEndMatched;
+    private boolean afterCr;
+    private boolean pendingSpace;
+    private int pendingLineBreaks;
+    private boolean hasContent;
+
+    private DkimBodyHash(MessageDigest digest, boolean inHeader) {
+        this.digest = digest;
+        this.inHeader = inHeader;
+        digest.reset();
+    }
+
+    /**
+     * Hash of the body of a whole message written to the stream
+     */
+    public static DkimBodyHash ofMessage(MessageDigest digest) {
+        return new DkimBodyHash(digest, true);
+    }
+
+    /**
+     * Hash of a body written to the stream on its own
+     */
+    public static DkimBodyHash ofBody(MessageDigest digest) {
+        return new DkimBodyHash(digest, false);
+    }
+
+    @Override
+    public void write(int b) {
+        if (inHeader) {
+            skipHeader(b);
+            return;
+        }
+        // Bare CR and LF end a line, as the SMTP transport turns both into CRLF
+        if (b == '\r') {
+            endLine();
+            afterCr = true;
+            return;
+        }
+        if (b == '\n') {
+            if (!afterCr) {
+                endLine();
+            }
+            afterCr = false;
+            return;
+        }
+        afterCr = false;
+        content(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        int end = off + len;
+        int i = off;
+        while (i < end) {
+            if (inHeader || !isPlain(b[i])) {
+                write(b[i++]);
+                continue;
+            }
+            // Runs without whitespace or line breaks go to the digest as they are
+            int start = i;
+            while (i < end && isPlain(b[i])) {
+                i++;
+            }
+            afterCr = false;
+            flushPending();
+            appendAll(b, start, i - start);
+            hasContent = true;
+        }
+    }
+
+    /**
+     * Finish the body and return its hash. The stream must not be written afterwards.
+     */
+    public byte[] digest() {
+        // A non-empty body ends with exactly one line break
+        if (hasContent) {
+            append('\r');
+            append('\n');
+        }
+        digest.update(chunk, 0, chunkLength);
+        chunkLength = 0;
+        return digest.digest();
+    }
+
+    private void skipHeader(int b) {
+        int expected = CRLF[headerEndMatched % 2];
+        headerEndMatched = b == expected ? headerEndMatched + 1 : (b == '\r' ? 1 : 0);
+        if (headerEndMatched == 4) {
+            inHeader = false;
+        }
+    }
+
+    private void content(int b) {
+        if (b == ' ' || b == '\t') {
+            pendingSpace = true;
+            return;
+        }
+        flushPending();
+        append(b);
+        hasContent = true;
+    }
+
+    private void flushPending() {
+        for (; pendingLineBreaks > 0; pendingLineBreaks--) {
+            append('\r');
+            append('\n');
+        }
+        if (pendingSpace) {
+            pendingSpace = false;
+            append(' ');
+        }
+    }
+
+    private void endLine() {
+        // Whitespace at the end of a line is dropped
+        pendingSpace = false;
+        pendingLineBreaks++;
+    }
+
+    private static boolean isPlain(byte b) {
+        return b != '\r' && b != '\n' && b != ' ' && b != '\t';
+    }
+
+    private void appendAll(byte[] b, int off, int len) {
+        if (len > chunk.length - chunkLength) {
+            digest.update(chunk, 0, chunkLength);
+            chunkLength = 0;
+            if (len > chunk.length) {
+                digest.update(b, off, len);
+                return;
+            }
+        }
+        System.arraycopy(b, off, chunk, chunkLength, len);
+        chunkLength += len;
+    }
+
+    private void append(int b) {
+        if (chunkLength == chunk.length) {
+            digest.update(chunk, 0, chunkLength);
+            chunkLength = 0;
+        }
+        chunk[chunkLength++] = (byte) b;
+    }
+}
@@ -0,0 +1,162 @@
+package com.legacykeep.notification.model;
+
+import jakarta.activation.DataHandler;
+import jakarta.activation.DataSource;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeBodyPart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Email attachment read while the transport writes the message.
+ *
+ * An attachment is either a file, opened anew for every message written, or a
+ * read-only buffer, typically a memory-mapped file. Neither is copied onto the
+ * heap: the content is base64-encoded in small chunks as it is read. Attachments
+ * are immutable, so one instance can be attached to the messages of every
+ * recipient; a mapped file is then paged in once and shared by all of them.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class EmailAttachment implements DataSource {
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final String name;
+    private final String contentType;
+    private final long size;
+    private final Path path;
+    private final ByteBuffer content;
+
+    private EmailAttachment(String name, long size, Path path, ByteBuffer content) {
+        this.name = name;
+        this.contentType = contentTypeOf(name);
+        this.size = size;
+        this.path = path;
+        this.content = content;
+    }
+
+    /**
+     * Attachment streamed from a file each time a message is written
+     */
+    public static EmailAttachment ofFile(Path path) throws IOException {
+        return new EmailAttachment(path.getFileName().toString(), Files.size(path), path, null);
+    }
+
+    /**
+     * Attachment read from a memory-mapped file, mapped once for all messages
+     */
+    public static EmailAttachment mapped(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new EmailAttachment(path.getFileName().toString(), mapped.remaining(), null, mapped);
+        }
+    }
+
+    /**
+     * Attachment of content already in memory
+     */
+    public static EmailAttachment of(String name, byte[] content) {
+        return new EmailAttachment(name, content.length, null, ByteBuffer.wrap(content).asReadOnlyBuffer());
+    }
+
+    /**
+     * Build a base64 attachment part. The transfer encoding is set up front so the
+     * content is not read once just to choose one.
+     */
+    public MimeBodyPart toBodyPart() throws MessagingException {
+        MimeBodyPart part = new MimeBodyPart();
+        part.setDataHandler(new DataHandler(this));
+        part.setFileName(name);
+        part.setDisposition(Part.ATTACHMENT);
+        part.setHeader("Content-Transfer-Encoding", "base64");
+        return part;
+    }
+
+    /**
+     * Lower-case file name extension, or empty if there is none
+     */
+    public String getExtension() {
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Size of the content in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return path != null ? Files.newInputStream(path) : new BufferInputStream(content.duplicate());
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        throw new IOException("Attachment is read-only");
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    private static String contentTypeOf(String name) {
+        String type = URLConnection.guessContentTypeFromName(name);
+        return type != null ? type : DEFAULT_CONTENT_TYPE;
+    }
+
+    /**
+     * Stream over a private view of the shared buffer
+     */
+    private static final class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.legacykeep.notification.model;
+
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.NotificationDelivery;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Result of running a notification through its fallback cascade.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class FallbackOutcome {
+
+    NotificationChannel deliveredChannel; // Null when every step failed
+    int deliveredStep; // 1-based, 0 when every step failed
+    long elapsedMs; // Time to first successful delivery, or until the cascade gave up
+    List<NotificationDelivery> deliveries; // One per step attempted
+
+    public boolean isDelivered() {
+        return deliveredChannel != null;
+    }
+}
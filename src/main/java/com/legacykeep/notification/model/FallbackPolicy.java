@@ -0,0 +1,36 @@
+package com.legacykeep.notification.model;
+
+import com.legacykeep.notification.entity.NotificationChannel;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Ordered channels to try for a template until one delivers.
+ *
+ * Each step has a latency budget. A step that fails, or is not done within its
+ * budget, escalates to the next one. A step marked for confirmation only counts
+ * as delivered once the recipient's device confirms receipt within the budget.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class FallbackPolicy {
+
+    List<Step> steps;
+
+    public static FallbackPolicy single(NotificationChannel channel, long budgetMs) {
+        return new FallbackPolicy(List.of(new Step(channel, budgetMs, false)));
+    }
+
+    /**
+     * One channel attempt of the cascade
+     */
+    @Value
+    public static class Step {
+        NotificationChannel channel;
+        long budgetMs;
+        boolean confirmationRequired;
+    }
+}
@@ -0,0 +1,81 @@
+package com.legacykeep.notification.model;
+
+import jakarta.activation.DataHandler;
+import jakarta.activation.DataSource;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Part;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single-part {@code text/html} email body.
+ *
+ * The body is encoded as quoted-printable while the transport writes the
+ * message, straight from the rendered bytes. The transfer encoding is set up
+ * front so the body is not scanned to choose one, and no multipart tree is
+ * built for emails without attachments.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class HtmlBody implements DataSource {
+
+    public static final String CONTENT_TYPE = "text/html; charset=UTF-8";
+
+    private final RenderBuffer buffer;
+    private final String html;
+
+    private HtmlBody(RenderBuffer buffer, String html) {
+        this.buffer = buffer;
+        this.html = html;
+    }
+
+    /**
+     * Body read from a render buffer, which must stay unreleased until sent
+     */
+    public static HtmlBody of(RenderBuffer buffer) {
+        return new HtmlBody(buffer, null);
+    }
+
+    /**
+     * Body of an already rendered string, encoded only while being written
+     */
+    public static HtmlBody of(String html) {
+        return new HtmlBody(null, html);
+    }
+
+    /**
+     * Make this the whole content of a message or part.
+     */
+    public void applyTo(Part part) throws MessagingException {
+        part.setDataHandler(new DataHandler(this));
+        part.setHeader("Content-Type", CONTENT_TYPE);
+        part.setHeader("Content-Transfer-Encoding", "quoted-printable");
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return buffer != null
+                ? buffer.getInputStream()
+                : new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        throw new IOException("HTML body is read-only");
+    }
+
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public String getName() {
+        return "body.html";
+    }
+}
@@ -0,0 +1,123 @@
+package com.legacykeep.notification.model;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Derives a plain-text template from an HTML email template, once at load time.
+ *
+ * Markup is dropped, block elements become line breaks and links become
+ * {@code label: url}. {@code {{variable}}} placeholders are kept as they are, and
+ * Thymeleaf {@code th:text} / {@code th:href} attributes with plain variable
+ * expressions, including {@code ${a ?: b}}, become placeholders. Templates using
+ * any other Thymeleaf attribute, e.g. loops or conditions, are not converted.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class HtmlTextConverter {
+
+    private static final Pattern IGNORED = Pattern.compile(
+            "<!--.*?-->|<head\\b.*?</head>|<style\\b.*?</style>|<script\\b.*?</script>",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern TH_TEXT = Pattern.compile(
+            "<(\\w+)\\b[^>]*?\\bth:text=\"\\$\\{([^}]*)}\"[^>]*>.*?</\\1>", Pattern.DOTALL);
+    private static final Pattern LINK = Pattern.compile("<a\\b([^>]*)>(.*?)</a>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern TH_HREF = Pattern.compile("\\bth:href=\"\\$\\{([^}]*)}\"");
+    private static final Pattern HREF = Pattern.compile("\\bhref=\"([^\"]*)\"", Pattern.CASE_INSENSITIVE);
+    private static final Pattern THYMELEAF_ATTRIBUTE = Pattern.compile("\\bth:\\w+=");
+    private static final Pattern EXPRESSION = Pattern.compile("\\s*[\\w.]+\\s*(\\?:\\s*[\\w.]+\\s*)*");
+    private static final Pattern LIST_ITEM = Pattern.compile("<li\\b[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BLOCK = Pattern.compile(
+            "<br\\s*/?>|</?(p|div|h[1-6]|tr|table|ul|ol|li|blockquote)\\b[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TAG = Pattern.compile("<[^>]+>");
+    private static final Pattern SPACES = Pattern.compile("[ \\t\\x0B\\f\\r]+");
+    private static final Pattern BLANK_LINES = Pattern.compile("\\n{3,}");
+
+    private HtmlTextConverter() {
+    }
+
+    /**
+     * Convert an HTML template into a plain-text template.
+     *
+     * @param html HTML template source
+     * @return Text template source, empty if the template cannot be converted
+     */
+    public static Optional<String> toTextTemplate(String html) {
+        String text = IGNORED.matcher(html).replaceAll("");
+
+        StringBuilder converted = new StringBuilder(text.length());
+        Matcher matcher = TH_TEXT.matcher(text);
+        while (matcher.find()) {
+            String placeholder = placeholder(matcher.group(2));
+            if (placeholder == null) {
+                return Optional.empty();
+            }
+            matcher.appendReplacement(converted, Matcher.quoteReplacement(placeholder));
+        }
+        matcher.appendTail(converted);
+
+        text = replaceLinks(converted.toString());
+        if (text == null || THYMELEAF_ATTRIBUTE.matcher(text).find()) {
+            return Optional.empty();
+        }
+
+        text = LIST_ITEM.matcher(text).replaceAll("\n- ");
+        text = BLOCK.matcher(text).replaceAll("\n");
+        text = unescape(TAG.matcher(text).replaceAll(""));
+
+        StringBuilder out = new StringBuilder(text.length());
+        for (String line : text.split("\n", -1)) {
+            out.append(SPACES.matcher(line).replaceAll(" ").trim()).append('\n');
+        }
+        return Optional.of(BLANK_LINES.matcher(out).replaceAll("\n\n").trim());
+    }
+
+    private static String replaceLinks(String html) {
+        StringBuilder out = new StringBuilder(html.length());
+        Matcher matcher = LINK.matcher(html);
+        while (matcher.find()) {
+            String attributes = matcher.group(1);
+            String label = TAG.matcher(matcher.group(2)).replaceAll("").trim();
+            String url = null;
+            Matcher thHref = TH_HREF.matcher(attributes);
+            if (thHref.find()) {
+                url = placeholder(thHref.group(1));
+                if (url == null) {
+                    return null;
+                }
+                attributes = thHref.replaceAll("");
+            } else {
+                Matcher href = HREF.matcher(attributes);
+                if (href.find() && !href.group(1).startsWith("mailto:") && !href.group(1).startsWith("#")) {
+                    url = href.group(1);
+                }
+            }
+            String replacement = url == null || url.equals(label) ? label
+                    : label.isEmpty() ? url
+                    : label + ": " + url;
+            matcher.appendReplacement(out, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(out);
+        return out.toString();
+    }
+
+    // ${a ?: b} -> {{a|b}}; null for expressions that are not plain variables
+    private static String placeholder(String expression) {
+        if (!EXPRESSION.matcher(expression).matches()) {
+            return null;
+        }
+        return "{{" + String.join("|", expression.trim().split("\\s*\\?:\\s*")) + "}}";
+    }
+
+    private static String unescape(String text) {
+        return text.replace("&nbsp;", " ")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&#39;", "'")
+                .replace("&copy;", "©")
+                .replace("&amp;", "&");
+    }
+}
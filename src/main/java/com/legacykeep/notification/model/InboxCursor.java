@@ -0,0 +1,54 @@
+package com.legacykeep.notification.model;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for inbox pages: the (createdAt, id) position of the last
+ * item returned. The next page starts strictly after it.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class InboxCursor {
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    LocalDateTime createdAt;
+    long id;
+
+    /**
+     * Encode the cursor as a URL-safe token.
+     */
+    public String encode() {
+        long micros = createdAt.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + createdAt.getNano() / 1000;
+        String raw = micros + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static InboxCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int separator = raw.indexOf(':');
+            long micros = Long.parseLong(raw.substring(0, separator));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(
+                    Math.floorDiv(micros, MICROS_PER_SECOND),
+                    (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1000,
+                    ZoneOffset.UTC);
+            return new InboxCursor(createdAt, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid inbox cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.legacykeep.notification.model;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A template compiled once per supported language.
+ *
+ * Every supported language has an entry, sharing the default variant when the
+ * template has no translation, so selecting by a recipient's stored language is
+ * a single map lookup. Regional tags such as {@code es-MX} fall back to their
+ * primary language, and unknown languages to the default variant.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class LocalizedTemplate {
+
+    private final RegisteredTemplate defaultVariant;
+    private final Map<String, RegisteredTemplate> byLanguage;
+
+    public LocalizedTemplate(RegisteredTemplate defaultVariant, Map<String, RegisteredTemplate> byLanguage) {
+        this.defaultVariant = defaultVariant;
+        this.byLanguage = Map.copyOf(byLanguage);
+    }
+
+    /**
+     * Select the variant for a language.
+     *
+     * @param language Language tag, e.g. {@code es}; null for the default
+     * @return Variant to render
+     */
+    public RegisteredTemplate select(String language) {
+        if (language == null) {
+            return defaultVariant;
+        }
+        RegisteredTemplate variant = byLanguage.get(language);
+        if (variant != null) {
+            return variant;
+        }
+        // Slow path for tags not stored as lowercase primary languages
+        String normalized = language.toLowerCase(Locale.ROOT);
+        int separator = normalized.indexOf('-') >= 0 ? normalized.indexOf('-') : normalized.indexOf('_');
+        if (separator > 0) {
+            normalized = normalized.substring(0, separator);
+        }
+        return byLanguage.getOrDefault(normalized, defaultVariant);
+    }
+
+    public RegisteredTemplate getDefaultVariant() {
+        return defaultVariant;
+    }
+
+    public String getTemplateId() {
+        return defaultVariant.getTemplateId();
+    }
+
+    public String getVersion() {
+        return defaultVariant.getVersion();
+    }
+}
@@ -0,0 +1,87 @@
+package com.legacykeep.notification.model;
+
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+
+import java.time.LocalTime;
+
+/**
+ * Bit layout for packed user notification preferences.
+ *
+ * Packs the boolean switches of {@link UserNotificationPreferences} into a single int
+ * so that bulk recipient filtering is a mask test instead of wrapper unboxing.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class PreferenceFlags {
+
+    public static final int EMAIL = 1;
+    public static final int PUSH = 1 << 1;
+    public static final int SMS = 1 << 2;
+    public static final int IN_APP = 1 << 3;
+    public static final int MARKETING_EMAILS = 1 << 4;
+    public static final int DAILY_DIGEST = 1 << 5;
+    public static final int QUIET_HOURS = 1 << 6;
+
+    /**
+     * Flags of a user without stored preferences (matches the entity defaults).
+     */
+    public static final int DEFAULTS = EMAIL | PUSH | IN_APP | DAILY_DIGEST;
+
+    /**
+     * Default quiet hours as minutes of day (22:00 - 08:00).
+     */
+    public static final int DEFAULT_QUIET_START = 22 * 60;
+    public static final int DEFAULT_QUIET_END = 8 * 60;
+
+    private PreferenceFlags() {
+    }
+
+    /**
+     * Get the flag bit for a channel
+     */
+    public static int channelMask(NotificationChannel channel) {
+        switch (channel) {
+            case EMAIL:
+                return EMAIL;
+            case PUSH:
+                return PUSH;
+            case SMS:
+                return SMS;
+            case IN_APP:
+                return IN_APP;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Check if all bits of a mask are set
+     */
+    public static boolean has(int flags, int mask) {
+        return (flags & mask) == mask;
+    }
+
+    /**
+     * Pack the switches of a preferences entity
+     */
+    public static int pack(UserNotificationPreferences preferences) {
+        int flags = 0;
+        if (Boolean.TRUE.equals(preferences.getEmailEnabled())) flags |= EMAIL;
+        if (Boolean.TRUE.equals(preferences.getPushEnabled())) flags |= PUSH;
+        if (Boolean.TRUE.equals(preferences.getSmsEnabled())) flags |= SMS;
+        if (Boolean.TRUE.equals(preferences.getInAppEnabled())) flags |= IN_APP;
+        if (Boolean.TRUE.equals(preferences.getMarketingEmailsEnabled())) flags |= MARKETING_EMAILS;
+        if (Boolean.TRUE.equals(preferences.getDailyDigestEnabled())) flags |= DAILY_DIGEST;
+        if (Boolean.TRUE.equals(preferences.getQuietHoursEnabled())) flags |= QUIET_HOURS;
+        return flags;
+    }
+
+    /**
+     * Convert a time to minutes since midnight, or the fallback when absent
+     */
+    public static int minuteOfDay(LocalTime time, int fallback) {
+        return time != null ? time.getHour() * 60 + time.getMinute() : fallback;
+    }
+}
@@ -0,0 +1,274 @@
+package com.legacykeep.notification.model;
+
+import com.legacykeep.notification.entity.NotificationChannel;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, immutable snapshot of notification preferences for a set of users.
+ *
+ * Preferences are held in parallel primitive arrays behind an open-addressing
+ * {@code long userId -> slot} table: packed {@link PreferenceFlags}, quiet hours as
+ * minutes of day and an index into a table of interned zone IDs. A user costs
+ * roughly 36 bytes instead of a full entity, and filtering a large fan-out by
+ * channel is a single pass over the recipient array.
+ *
+ * Users missing from the snapshot resolve to {@link PreferenceFlags#DEFAULTS}.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class PreferenceSnapshot {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long[] keys;
+    private final int[] flags;
+    private final short[] quietStart;
+    private final short[] quietEnd;
+    private final short[] zoneIndex;
+    private final ZoneId[] zones;
+    private final int mask;
+    private final int size;
+
+    private PreferenceSnapshot(long[] keys, int[] flags, short[] quietStart, short[] quietEnd,
+                               short[] zoneIndex, ZoneId[] zones, int size) {
+        this.keys = keys;
+        this.flags = flags;
+        this.quietStart = quietStart;
+        this.quietEnd = quietEnd;
+        this.zoneIndex = zoneIndex;
+        this.zones = zones;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Number of users with stored preferences in this snapshot
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if the snapshot holds stored preferences for a user
+     */
+    public boolean contains(long userId) {
+        return slotOf(userId) >= 0;
+    }
+
+    /**
+     * Get the packed flags of a user
+     */
+    public int flags(long userId) {
+        int slot = slotOf(userId);
+        return slot >= 0 ? flags[slot] : PreferenceFlags.DEFAULTS;
+    }
+
+    /**
+     * Check if a channel is enabled for a user
+     */
+    public boolean isChannelEnabled(long userId, NotificationChannel channel) {
+        return PreferenceFlags.has(flags(userId), PreferenceFlags.channelMask(channel));
+    }
+
+    /**
+     * Get the quiet hours start of a user as minutes of day
+     */
+    public int quietHoursStart(long userId) {
+        int slot = slotOf(userId);
+        return slot >= 0 ? quietStart[slot] : PreferenceFlags.DEFAULT_QUIET_START;
+    }
+
+    /**
+     * Get the quiet hours end of a user as minutes of day
+     */
+    public int quietHoursEnd(long userId) {
+        int slot = slotOf(userId);
+        return slot >= 0 ? quietEnd[slot] : PreferenceFlags.DEFAULT_QUIET_END;
+    }
+
+    /**
+     * Get the time zone of a user
+     */
+    public ZoneId zone(long userId) {
+        int slot = slotOf(userId);
+        return slot >= 0 ? zones[zoneIndex[slot]] : ZoneOffset.UTC;
+    }
+
+    /**
+     * Get the earliest instant a non-urgent notification may be sent to a user
+     */
+    public Instant nextAllowedSendTime(long userId, Instant now) {
+        int slot = slotOf(userId);
+        if (slot < 0 || !PreferenceFlags.has(flags[slot], PreferenceFlags.QUIET_HOURS)) {
+            return now;
+        }
+        return QuietHours.nextAllowed(now, zones[zoneIndex[slot]], quietStart[slot], quietEnd[slot]);
+    }
+
+    /**
+     * Copy the recipients that accept a channel into {@code out}.
+     *
+     * @param userIds Candidate recipients
+     * @param channel Channel to filter on
+     * @param out Destination array, at least as long as {@code userIds}
+     * @return Number of recipients written to {@code out}
+     */
+    public int filterByChannel(long[] userIds, NotificationChannel channel, long[] out) {
+        int channelMask = PreferenceFlags.channelMask(channel);
+        int count = 0;
+        for (long userId : userIds) {
+            if ((flags(userId) & channelMask) != 0) {
+                out[count++] = userId;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the recipients that accept a channel.
+     */
+    public long[] filterByChannel(long[] userIds, NotificationChannel channel) {
+        long[] out = new long[userIds.length];
+        int count = filterByChannel(userIds, channel, out);
+        return count == out.length ? out : Arrays.copyOf(out, count);
+    }
+
+    private int slotOf(long userId) {
+        int slot = hash(userId) & mask;
+        while (true) {
+            long key = keys[slot];
+            if (key == userId) {
+                return slot;
+            }
+            if (key == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // =============================================================================
+    // Builder
+    // =============================================================================
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * Accumulates rows and builds the lookup table once all users are known.
+     * Zone IDs are interned so each distinct zone is parsed and stored once.
+     */
+    public static final class Builder {
+
+        private long[] userIds;
+        private int[] rowFlags;
+        private short[] rowQuietStart;
+        private short[] rowQuietEnd;
+        private short[] rowZone;
+        private int count;
+
+        private final Map<String, Short> zoneIndexes = new HashMap<>();
+        private final List<ZoneId> zoneTable = new ArrayList<>();
+
+        private Builder(int expectedSize) {
+            int initial = Math.max(16, expectedSize);
+            userIds = new long[initial];
+            rowFlags = new int[initial];
+            rowQuietStart = new short[initial];
+            rowQuietEnd = new short[initial];
+            rowZone = new short[initial];
+            zoneTable.add(ZoneOffset.UTC);
+            zoneIndexes.put("UTC", (short) 0);
+        }
+
+        /**
+         * Add the preferences of a user; a later row for the same user wins.
+         */
+        public Builder put(long userId, int flags, int quietStartMinute, int quietEndMinute, String timezone) {
+            if (userId == EMPTY) {
+                throw new IllegalArgumentException("Unsupported user ID: " + userId);
+            }
+            if (count == userIds.length) {
+                grow();
+            }
+            userIds[count] = userId;
+            rowFlags[count] = flags;
+            rowQuietStart[count] = (short) quietStartMinute;
+            rowQuietEnd[count] = (short) quietEndMinute;
+            rowZone[count] = intern(timezone);
+            count++;
+            return this;
+        }
+
+        public PreferenceSnapshot build() {
+            int capacity = Integer.highestOneBit(Math.max(16, count * 2 - 1)) << 1;
+            int tableMask = capacity - 1;
+            long[] keys = new long[capacity];
+            int[] flags = new int[capacity];
+            short[] quietStart = new short[capacity];
+            short[] quietEnd = new short[capacity];
+            short[] zoneIndex = new short[capacity];
+            Arrays.fill(keys, EMPTY);
+
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                int slot = hash(userIds[i]) & tableMask;
+                while (keys[slot] != EMPTY && keys[slot] != userIds[i]) {
+                    slot = (slot + 1) & tableMask;
+                }
+                if (keys[slot] == EMPTY) {
+                    distinct++;
+                }
+                keys[slot] = userIds[i];
+                flags[slot] = rowFlags[i];
+                quietStart[slot] = rowQuietStart[i];
+                quietEnd[slot] = rowQuietEnd[i];
+                zoneIndex[slot] = rowZone[i];
+            }
+            return new PreferenceSnapshot(keys, flags, quietStart, quietEnd, zoneIndex,
+                    zoneTable.toArray(new ZoneId[0]), distinct);
+        }
+
+        private short intern(String timezone) {
+            if (timezone == null || timezone.isBlank()) {
+                return 0;
+            }
+            Short index = zoneIndexes.get(timezone);
+            if (index != null) {
+                return index;
+            }
+            ZoneId zone = QuietHours.zoneOf(timezone);
+            int position = zoneTable.indexOf(zone);
+            if (position < 0) {
+                position = zoneTable.size();
+                zoneTable.add(zone);
+            }
+            zoneIndexes.put(timezone, (short) position);
+            return (short) position;
+        }
+
+        private void grow() {
+            int capacity = userIds.length * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            rowFlags = Arrays.copyOf(rowFlags, capacity);
+            rowQuietStart = Arrays.copyOf(rowQuietStart, capacity);
+            rowQuietEnd = Arrays.copyOf(rowQuietEnd, capacity);
+            rowZone = Arrays.copyOf(rowZone, capacity);
+        }
+    }
+}
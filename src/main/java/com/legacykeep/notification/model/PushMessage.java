@@ -0,0 +1,25 @@
+package com.legacykeep.notification.model;
+
+import com.legacykeep.notification.entity.NotificationPriority;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Push notification payload, sent unchanged to every targeted device.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+@Builder
+public class PushMessage {
+
+    String title;
+    String body;
+    Map<String, String> data;
+
+    @Builder.Default
+    NotificationPriority priority = NotificationPriority.NORMAL;
+}
@@ -0,0 +1,37 @@
+package com.legacykeep.notification.model;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a push send across one or more multicast requests.
+ *
+ * Failed tokens may succeed on a later attempt; invalid tokens were rejected
+ * by the provider as unregistered and must not be used again.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class PushSendResult {
+
+    public static final PushSendResult EMPTY = new PushSendResult(0, List.of(), List.of());
+
+    int successCount;
+    List<String> failedTokens;
+    List<String> invalidTokens;
+
+    public int getFailureCount() {
+        return failedTokens.size() + invalidTokens.size();
+    }
+
+    public PushSendResult merge(PushSendResult other) {
+        List<String> failed = new ArrayList<>(failedTokens);
+        failed.addAll(other.failedTokens);
+        List<String> invalid = new ArrayList<>(invalidTokens);
+        invalid.addAll(other.invalidTokens);
+        return new PushSendResult(successCount + other.successCount, failed, invalid);
+    }
+}
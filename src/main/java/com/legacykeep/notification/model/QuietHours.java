@@ -0,0 +1,76 @@
+package com.legacykeep.notification.model;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * Quiet hours arithmetic on minutes of day, evaluated in the recipient's time zone.
+ *
+ * A window whose start is after its end spans midnight (e.g. 22:00 - 08:00).
+ * The start minute is inside the window and the end minute is outside, so a
+ * deferred notification is released exactly at the configured end time.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class QuietHours {
+
+    private QuietHours() {
+    }
+
+    /**
+     * Check if a minute of day falls inside a quiet window
+     */
+    public static boolean isWithin(int startMinute, int endMinute, int minuteOfDay) {
+        if (startMinute == endMinute) {
+            return false;
+        }
+        if (startMinute > endMinute) {
+            return minuteOfDay >= startMinute || minuteOfDay < endMinute;
+        }
+        return minuteOfDay >= startMinute && minuteOfDay < endMinute;
+    }
+
+    /**
+     * Get the earliest instant at or after {@code now} that is outside the quiet window.
+     *
+     * @param now Current instant
+     * @param zone Recipient time zone
+     * @param startMinute Quiet hours start as minutes of day
+     * @param endMinute Quiet hours end as minutes of day
+     * @return {@code now} when not in quiet hours, otherwise the local end of quiet hours
+     */
+    public static Instant nextAllowed(Instant now, ZoneId zone, int startMinute, int endMinute) {
+        ZonedDateTime local = now.atZone(zone);
+        int minuteOfDay = local.getHour() * 60 + local.getMinute();
+        if (!isWithin(startMinute, endMinute, minuteOfDay)) {
+            return now;
+        }
+
+        LocalDate releaseDate = local.toLocalDate();
+        if (startMinute > endMinute && minuteOfDay >= startMinute) {
+            releaseDate = releaseDate.plusDays(1);
+        }
+        LocalTime releaseTime = LocalTime.of(endMinute / 60, endMinute % 60);
+        return ZonedDateTime.of(releaseDate, releaseTime, zone).toInstant();
+    }
+
+    /**
+     * Resolve a stored time zone, falling back to UTC for blank or unknown IDs
+     */
+    public static ZoneId zoneOf(String timezone) {
+        if (timezone == null || timezone.isBlank()) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            return ZoneOffset.UTC;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.legacykeep.notification.model;
+
+import lombok.Value;
+
+/**
+ * Contact details used to address a notification recipient.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class RecipientContact {
+
+    Long userId;
+
+    String email;
+
+    String fullName;
+
+    /**
+     * Name to greet the recipient with, falling back to the email address
+     */
+    public String getDisplayName() {
+        return fullName != null && !fullName.isBlank() ? fullName : email;
+    }
+}
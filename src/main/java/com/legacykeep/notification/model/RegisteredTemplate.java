@@ -0,0 +1,123 @@
+package com.legacykeep.notification.model;
+
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.NotificationTemplate;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A {@link NotificationTemplate} row compiled for rendering without the database.
+ *
+ * The body is the row's {@link NotificationTemplate#getTemplateContent()} for its
+ * channel. An HTML template holding a classpath view name such as
+ * {@code email/auth/welcome} instead of markup is kept as a view to render with
+ * Thymeleaf, and the text content is used as the body.
+ *
+ * HTML bodies get a plain-text alternative compiled alongside them: the text
+ * content when there is one, otherwise text derived from the HTML.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class RegisteredTemplate {
+
+    private static final Pattern VIEW_NAME = Pattern.compile("[\\w-]+(/[\\w-]+)+");
+
+    String templateId;
+    NotificationChannel channel;
+    String version;
+    LocalDateTime updatedAt;
+    CompiledTemplate subject;
+    CompiledTemplate body;
+    String viewName;
+    boolean html;
+    CompiledTemplate text; // Same as body when the body is text
+
+    public static RegisteredTemplate compile(NotificationTemplate template) {
+        return compile(template.getTemplateId(), template.getChannel(), template.getVersion(), template.getUpdatedAt(),
+                template.getSubjectTemplate(), template.getContentTemplate(), template.getHtmlTemplate());
+    }
+
+    public static RegisteredTemplate compile(String templateId, NotificationChannel channel, String version,
+                                             LocalDateTime updatedAt, String subjectTemplate,
+                                             String contentTemplate, String htmlTemplate) {
+        boolean hasHtml = htmlTemplate != null && !htmlTemplate.trim().isEmpty();
+        boolean html = channel == NotificationChannel.EMAIL && hasHtml;
+        String content = html ? htmlTemplate : contentTemplate;
+        String viewName = null;
+        if (html && VIEW_NAME.matcher(htmlTemplate.trim()).matches()) {
+            viewName = htmlTemplate.trim();
+            content = contentTemplate;
+            html = false;
+        }
+        boolean hasSubject = subjectTemplate != null && !subjectTemplate.trim().isEmpty();
+        CompiledTemplate body = content != null ? CompiledTemplate.compile(content) : null;
+        CompiledTemplate text = body;
+        if (html) {
+            boolean hasText = contentTemplate != null && !contentTemplate.trim().isEmpty();
+            text = hasText
+                    ? CompiledTemplate.compile(contentTemplate)
+                    : HtmlTextConverter.toTextTemplate(htmlTemplate).map(CompiledTemplate::compile).orElse(null);
+        }
+        return new RegisteredTemplate(
+                templateId,
+                channel,
+                version,
+                updatedAt,
+                hasSubject ? CompiledTemplate.compile(subjectTemplate) : null,
+                body,
+                viewName,
+                html,
+                text);
+    }
+
+    public RenderedTemplate render(Map<String, ?> variables) {
+        String renderedBody = body != null ? body.render(variables, html) : null;
+        return new RenderedTemplate(
+                templateId,
+                subject != null ? subject.render(variables, false) : null,
+                renderedBody,
+                viewName,
+                html,
+                text == body ? renderedBody : text != null ? text.render(variables, false) : null);
+    }
+
+    /**
+     * Render the variables shared by every recipient of a broadcast once.
+     *
+     * @param shared Recipient-independent values
+     * @return Template left with the per-recipient variables
+     */
+    public BroadcastTemplate bind(Map<String, ?> shared) {
+        return new BroadcastTemplate(
+                templateId,
+                subject != null ? subject.bind(shared, false) : null,
+                body != null ? body.bind(shared, html) : null,
+                viewName,
+                html,
+                text == body || text == null ? null : text.bind(shared, false));
+    }
+
+    /**
+     * Names of the variables used by the subject, body and text alternative
+     */
+    public Set<String> getVariableNames() {
+        Set<String> names = new LinkedHashSet<>();
+        if (subject != null) {
+            names.addAll(subject.getVariableNames());
+        }
+        if (body != null) {
+            names.addAll(body.getVariableNames());
+        }
+        if (text != null) {
+            names.addAll(text.getVariableNames());
+        }
+        return names;
+    }
+}
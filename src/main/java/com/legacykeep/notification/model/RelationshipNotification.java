@@ -0,0 +1,64 @@
+package com.legacykeep.notification.model;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.Value;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending relationship notification, normalized from the relationship event DTOs.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+@Builder
+public class RelationshipNotification {
+
+    /**
+     * Source event ID
+     */
+    String eventId;
+
+    RelationshipNotificationKind kind;
+
+    /**
+     * User who receives the notification
+     */
+    Long recipientUserId;
+
+    /**
+     * User who sent, accepted or rejected the request
+     */
+    Long actorUserId;
+
+    Long relationshipId;
+
+    String relationshipTypeName;
+
+    /**
+     * Optional request or response message
+     */
+    String message;
+
+    LocalDateTime occurredAt;
+
+    /**
+     * Commits the source record once the notification is persisted; null when not consumed from Kafka
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    Acknowledgment acknowledgment;
+
+    /**
+     * Acknowledge the source record, if any
+     */
+    public void acknowledge() {
+        if (acknowledgment != null) {
+            acknowledgment.acknowledge();
+        }
+    }
+}
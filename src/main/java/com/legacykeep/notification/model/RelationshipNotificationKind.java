@@ -0,0 +1,51 @@
+package com.legacykeep.notification.model;
+
+import com.legacykeep.notification.entity.NotificationPriority;
+
+/**
+ * Relationship Notification Kind Enum
+ *
+ * Defines the relationship events that notify a user.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public enum RelationshipNotificationKind {
+    REQUEST_SENT("New relationship request", "%d new relationship requests",
+            NotificationPriority.HIGH, DigestCategory.RELATIONSHIP_REQUEST),
+    REQUEST_ACCEPTED("Your relationship request was accepted", "%d of your relationship requests were accepted",
+            NotificationPriority.NORMAL, DigestCategory.RELATIONSHIP_ACCEPTED),
+    REQUEST_REJECTED("Your relationship request was declined", "%d of your relationship requests were declined",
+            NotificationPriority.LOW, DigestCategory.RELATIONSHIP_REJECTED);
+
+    private final String singleSummary;
+    private final String combinedSummary;
+    private final NotificationPriority priority;
+    private final DigestCategory digestCategory;
+
+    RelationshipNotificationKind(String singleSummary, String combinedSummary,
+                                 NotificationPriority priority, DigestCategory digestCategory) {
+        this.singleSummary = singleSummary;
+        this.combinedSummary = combinedSummary;
+        this.priority = priority;
+        this.digestCategory = digestCategory;
+    }
+
+    /**
+     * Get the summary line for a number of coalesced notifications
+     */
+    public String summary(int count) {
+        return count == 1 ? singleSummary : String.format(combinedSummary, count);
+    }
+
+    /**
+     * Pending requests need an answer, so they are sent right away; outcomes may wait for the digest
+     */
+    public NotificationPriority getPriority() {
+        return priority;
+    }
+
+    public DigestCategory getDigestCategory() {
+        return digestCategory;
+    }
+}
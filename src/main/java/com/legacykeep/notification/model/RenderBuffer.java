@@ -0,0 +1,83 @@
+package com.legacykeep.notification.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that a thread reuses for every email it renders.
+ *
+ * A template is rendered straight into the buffer as UTF-8 and the transport
+ * reads it back through {@link #getInputStream()} without copying, so an email
+ * in flight holds one byte array instead of the rendered string, its encoded
+ * copy and a multipart tree. Buffers that grew past the retention limit for an
+ * unusually large email are dropped on release instead of being kept.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class RenderBuffer extends OutputStream {
+
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+    private static final ThreadLocal<RenderBuffer> CURRENT = ThreadLocal.withInitial(RenderBuffer::new);
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int count;
+    private boolean inUse;
+
+    /**
+     * Take the calling thread's buffer, empty. Nested use gets a fresh buffer.
+     */
+    public static RenderBuffer acquire() {
+        RenderBuffer buffer = CURRENT.get();
+        if (buffer.inUse) {
+            buffer = new RenderBuffer();
+        }
+        buffer.inUse = true;
+        buffer.count = 0;
+        return buffer;
+    }
+
+    /**
+     * Give the buffer back once the message using it is sent.
+     */
+    public void release() {
+        inUse = false;
+        count = 0;
+        if (bytes.length > MAX_RETAINED_CAPACITY) {
+            bytes = new byte[INITIAL_CAPACITY];
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        bytes[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, bytes, count, len);
+        count += len;
+    }
+
+    /**
+     * Read the written bytes without copying them
+     */
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(bytes, 0, count);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.legacykeep.notification.model;
+
+import lombok.Value;
+
+/**
+ * Subject and body of a template rendered for one recipient.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class RenderedTemplate {
+
+    String templateId;
+    String subject; // Null for channels without a subject
+    String body; // Plain text when the HTML body comes from a view
+    String viewName; // Thymeleaf view rendering the HTML body, or null
+    boolean html; // Whether body is HTML
+    String text; // Plain-text alternative, or null if none could be derived
+}
@@ -0,0 +1,52 @@
+package com.legacykeep.notification.model;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import lombok.Value;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff between delivery attempts.
+ *
+ * The delay doubles (by the configured multiplier) after every attempt up to a
+ * cap, and half of it is randomized so retries of a provider outage do not all
+ * arrive at the same moment.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class RetryBackoff {
+
+    int maxAttempts;
+    long initialDelayMs;
+    double multiplier;
+    long maxDelayMs;
+
+    public static RetryBackoff of(NotificationConfig.RetryConfig config) {
+        return new RetryBackoff(config.getMaxAttempts(), config.getInitialDelay(),
+                config.getMultiplier(), config.getMaxDelay());
+    }
+
+    /**
+     * Whether another attempt is allowed after the given one.
+     *
+     * @param attempt Number of the attempt that failed, starting at 1
+     */
+    public boolean canRetry(int attempt) {
+        return attempt < maxAttempts;
+    }
+
+    /**
+     * Delay before the attempt following the given one.
+     *
+     * @param attempt Number of the attempt that failed, starting at 1
+     * @return Delay in milliseconds
+     */
+    public long delayMs(int attempt) {
+        double delay = initialDelayMs * Math.pow(multiplier, attempt - 1);
+        long capped = (long) Math.min(delay, maxDelayMs);
+        long half = capped / 2;
+        return half + ThreadLocalRandom.current().nextLong(capped - half + 1);
+    }
+}
@@ -0,0 +1,19 @@
+package com.legacykeep.notification.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Text message addressed to one phone number.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+@Builder
+public class SmsMessage {
+
+    String to; // E.164 phone number
+    String body;
+    String reference; // Caller ID echoed back by the provider, e.g. the notification ID
+}
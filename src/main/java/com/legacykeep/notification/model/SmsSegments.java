@@ -0,0 +1,64 @@
+package com.legacykeep.notification.model;
+
+/**
+ * Estimates how many billable segments an SMS body is split into.
+ *
+ * Bodies made only of GSM 03.38 characters are sent 7-bit encoded: 160 characters
+ * fit one segment and a concatenated message carries 153 per segment, with the
+ * extension table characters taking two. Any other character switches the whole
+ * message to UCS-2: 70 UTF-16 units in one segment, 67 per concatenated segment.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public final class SmsSegments {
+
+    private static final String GSM_BASIC =
+            "@£$¥èéùìòÇ\nØø\rÅåΔ_ΦΓΛΩΠΨΣΘΞÆæßÉ !\"#¤%&'()*+,-./0123456789:;<=>?"
+            + "¡ABCDEFGHIJKLMNOPQRSTUVWXYZÄÖÑÜ§¿abcdefghijklmnopqrstuvwxyzäöñüà";
+    private static final String GSM_EXTENDED = "\f^{}\\[~]|€";
+
+    private SmsSegments() {
+    }
+
+    /**
+     * Number of segments the body is billed as.
+     *
+     * @param body Message body
+     * @return Segment count, zero for an empty body
+     */
+    public static int count(String body) {
+        if (body == null || body.isEmpty()) {
+            return 0;
+        }
+
+        int septets = gsmSeptets(body);
+        if (septets >= 0) {
+            return septets <= 160 ? 1 : (septets + 152) / 153;
+        }
+        int units = body.length();
+        return units <= 70 ? 1 : (units + 66) / 67;
+    }
+
+    /**
+     * Whether the body can be sent with the GSM 7-bit alphabet.
+     */
+    public static boolean isGsm(String body) {
+        return gsmSeptets(body) >= 0;
+    }
+
+    private static int gsmSeptets(String body) {
+        int septets = 0;
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (GSM_BASIC.indexOf(c) >= 0) {
+                septets++;
+            } else if (GSM_EXTENDED.indexOf(c) >= 0) {
+                septets += 2;
+            } else {
+                return -1;
+            }
+        }
+        return septets;
+    }
+}
@@ -0,0 +1,54 @@
+package com.legacykeep.notification.model;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of an SMS send across one or more provider submissions.
+ *
+ * Failed messages may succeed on a later attempt; rejected messages were refused
+ * for good, by the provider or for exceeding the segment limit.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class SmsSendResult {
+
+    public static final SmsSendResult EMPTY = new SmsSendResult(0, 0, List.of(), List.of());
+
+    int acceptedCount;
+    int segmentCount; // Billable segments of the accepted messages
+    List<SmsMessage> failedMessages;
+    List<SmsMessage> rejectedMessages;
+
+    public static SmsSendResult failed(List<SmsMessage> messages) {
+        return new SmsSendResult(0, 0, List.copyOf(messages), List.of());
+    }
+
+    public static SmsSendResult rejected(List<SmsMessage> messages) {
+        return new SmsSendResult(0, 0, List.of(), List.copyOf(messages));
+    }
+
+    public int getFailureCount() {
+        return failedMessages.size() + rejectedMessages.size();
+    }
+
+    /**
+     * This result without its failed messages, once they are retried separately.
+     */
+    public SmsSendResult withoutFailed() {
+        return new SmsSendResult(acceptedCount, segmentCount, List.of(), rejectedMessages);
+    }
+
+    public SmsSendResult merge(SmsSendResult other) {
+        List<SmsMessage> failed = new ArrayList<>(failedMessages);
+        failed.addAll(other.failedMessages);
+        List<SmsMessage> rejected = new ArrayList<>(rejectedMessages);
+        rejected.addAll(other.rejectedMessages);
+        return new SmsSendResult(acceptedCount + other.acceptedCount, segmentCount + other.segmentCount,
+                failed, rejected);
+    }
+}
@@ -0,0 +1,26 @@
+package com.legacykeep.notification.model;
+
+import com.legacykeep.notification.entity.NotificationChannel;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * An active row of {@code template_versions} with its share of recipients.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Value
+public class TemplateVariant {
+
+    String templateId;
+    NotificationChannel channel;
+    String version;
+    LocalDateTime createdAt;
+    String subjectTemplate;
+    String contentTemplate;
+    String htmlTemplate;
+    int weight;
+    boolean isDefault;
+}
@@ -0,0 +1,135 @@
+package com.legacykeep.notification.repository;
+
+import com.legacykeep.notification.model.DigestCategory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * JDBC access to the items waiting for a user's daily digest.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class DigestItemRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO digest_items (user_id, recipient_email, recipient_name, category, summary, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?) RETURNING id";
+
+    private static final String SELECT_UNCLAIMED_SQL =
+            "SELECT id, user_id, recipient_email, recipient_name, category, summary, occurred_at " +
+            "FROM digest_items WHERE claimed_by IS NULL OR claimed_at < ? ORDER BY id";
+
+    private static final String CLAIM_SQL =
+            "WITH claimed AS (" +
+            "UPDATE digest_items SET claimed_by = ?, claimed_at = CURRENT_TIMESTAMP " +
+            "WHERE user_id = ANY(?) AND (claimed_by IS NULL OR claimed_by = ? OR claimed_at < ?) " +
+            "RETURNING id, user_id, recipient_email, recipient_name, category, summary, occurred_at) " +
+            "SELECT * FROM claimed ORDER BY id";
+
+    private static final String RELEASE_SQL =
+            "UPDATE digest_items SET claimed_by = NULL, claimed_at = NULL WHERE id = ANY(?)";
+
+    private static final String DELETE_SQL = "DELETE FROM digest_items WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Callback receiving stored digest items
+     */
+    @FunctionalInterface
+    public interface ItemHandler {
+        void accept(long id, long userId, String email, String name, DigestCategory category,
+                    String summary, Instant occurredAt);
+    }
+
+    /**
+     * Store an item for the user's next digest.
+     *
+     * @return ID of the stored item
+     */
+    public long insert(long userId, String email, String name, DigestCategory category,
+                       String summary, Instant occurredAt) {
+        return jdbcTemplate.queryForObject(INSERT_SQL, Long.class,
+                userId, email, name, category.name(), summary, Timestamp.from(occurredAt));
+    }
+
+    /**
+     * Stream every stored item that is not claimed by a running send, oldest first.
+     *
+     * @param staleBefore Claims made before this instant are treated as abandoned
+     */
+    public void forEachUnclaimed(Instant staleBefore, ItemHandler handler) {
+        jdbcTemplate.query(SELECT_UNCLAIMED_SQL, (RowCallbackHandler) rs -> accept(rs, handler),
+                Timestamp.from(staleBefore));
+    }
+
+    /**
+     * Claim the items of the given users for sending, and stream them oldest first.
+     * Items claimed by another instance that is still sending are skipped.
+     *
+     * @param userIds Users whose digests are being sent
+     * @param owner ID of the claiming instance
+     * @param staleBefore Claims made before this instant are treated as abandoned and taken over
+     */
+    public void claim(long[] userIds, String owner, Instant staleBefore, ItemHandler handler) {
+        if (userIds.length == 0) {
+            return;
+        }
+        Long[] boxed = Arrays.stream(userIds).boxed().toArray(Long[]::new);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CLAIM_SQL);
+            statement.setString(1, owner);
+            statement.setArray(2, connection.createArrayOf("bigint", boxed));
+            statement.setString(3, owner);
+            statement.setTimestamp(4, Timestamp.from(staleBefore));
+            return statement;
+        }, (RowCallbackHandler) rs -> accept(rs, handler));
+    }
+
+    /**
+     * Release claimed items whose digest failed to send, so any instance can retry them.
+     *
+     * @return Number of items released
+     */
+    public int release(long[] itemIds) {
+        return updateByIds(RELEASE_SQL, itemIds);
+    }
+
+    /**
+     * Delete items whose digest has been sent or discarded.
+     *
+     * @return Number of items deleted
+     */
+    public int delete(long[] itemIds) {
+        return updateByIds(DELETE_SQL, itemIds);
+    }
+
+    private int updateByIds(String sql, long[] itemIds) {
+        if (itemIds.length == 0) {
+            return 0;
+        }
+        Long[] boxed = Arrays.stream(itemIds).boxed().toArray(Long[]::new);
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", boxed));
+            return statement;
+        });
+    }
+
+    private static void accept(ResultSet rs, ItemHandler handler) throws SQLException {
+        handler.accept(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4),
+                DigestCategory.valueOf(rs.getString(5)), rs.getString(6), rs.getTimestamp(7).toInstant());
+    }
+}
@@ -0,0 +1,74 @@
+package com.legacykeep.notification.repository;
+
+import com.legacykeep.notification.entity.InboxItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for InboxItem entity
+ * 
+ * Pages are read with keyset pagination on (recipient_id, created_at, id), so the
+ * cost of a page does not depend on how deep into the history it is.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Repository
+public interface InboxItemRepository extends JpaRepository<InboxItem, Long> {
+
+    // =============================================================================
+    // Keyset Pagination
+    // =============================================================================
+
+    /**
+     * Find the newest items of a recipient
+     */
+    @Query(value = "SELECT * FROM inbox_items WHERE recipient_id = :recipientId " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<InboxItem> findFirstPage(@Param("recipientId") Long recipientId, @Param("limit") int limit);
+
+    /**
+     * Find the items of a recipient older than the given (createdAt, id) position
+     */
+    @Query(value = "SELECT * FROM inbox_items WHERE recipient_id = :recipientId " +
+                   "AND (created_at, id) < (:createdAt, :id) " +
+                   "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<InboxItem> findPageBefore(@Param("recipientId") Long recipientId,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   @Param("limit") int limit);
+
+    // =============================================================================
+    // Bulk Operations
+    // =============================================================================
+
+    /**
+     * Find which of the given event IDs already have an inbox item
+     */
+    @Query("SELECT i.eventId FROM InboxItem i WHERE i.eventId IN :eventIds")
+    List<String> findExistingEventIds(@Param("eventIds") Collection<String> eventIds);
+
+    /**
+     * Mark the given unread items of a recipient as read
+     */
+    @Modifying
+    @Query("UPDATE InboxItem i SET i.readAt = :readAt " +
+           "WHERE i.recipientId = :recipientId AND i.id IN :ids AND i.readAt IS NULL")
+    int markRead(@Param("recipientId") Long recipientId,
+                 @Param("ids") Collection<Long> ids,
+                 @Param("readAt") LocalDateTime readAt);
+
+    /**
+     * Mark every unread item of a recipient as read
+     */
+    @Modifying
+    @Query("UPDATE InboxItem i SET i.readAt = :readAt WHERE i.recipientId = :recipientId AND i.readAt IS NULL")
+    int markAllRead(@Param("recipientId") Long recipientId, @Param("readAt") LocalDateTime readAt);
+}
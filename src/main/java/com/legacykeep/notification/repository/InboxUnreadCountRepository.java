@@ -0,0 +1,106 @@
+package com.legacykeep.notification.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the per-user unread inbox counters.
+ *
+ * Counters are adjusted by deltas with one batched upsert. They store the plain sum
+ * of their deltas, which can be negative while deltas arrive out of order, and are
+ * clamped when read. Only counters that drifted are recounted from {@code inbox_items}.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class InboxUnreadCountRepository {
+
+    private static final String ADD_SQL =
+            "INSERT INTO inbox_unread_counts (user_id, unread_count, updated_at) VALUES (?, ?, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "unread_count = inbox_unread_counts.unread_count + EXCLUDED.unread_count, updated_at = CURRENT_TIMESTAMP";
+
+    private static final String SELECT_DRIFTED_SQL =
+            "SELECT user_id FROM inbox_unread_counts WHERE unread_count < 0 AND updated_at < ? ORDER BY updated_at LIMIT ?";
+
+    private static final String RECOUNT_SQL =
+            "INSERT INTO inbox_unread_counts (user_id, unread_count, updated_at) " +
+            "SELECT u.user_id, (SELECT count(*) FROM inbox_items i WHERE i.recipient_id = u.user_id AND i.read_at IS NULL), " +
+            "CURRENT_TIMESTAMP FROM unnest(?::bigint[]) AS u(user_id) " +
+            "ON CONFLICT (user_id) DO UPDATE SET unread_count = EXCLUDED.unread_count, updated_at = CURRENT_TIMESTAMP";
+
+    private static final String SELECT_SQL =
+            "SELECT user_id, unread_count FROM inbox_unread_counts WHERE user_id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add a delta to the unread counter of each user.
+     */
+    public void addAll(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((userId, delta) -> rows.add(new Object[]{userId, delta}));
+        jdbcTemplate.batchUpdate(ADD_SQL, rows);
+    }
+
+    /**
+     * Find users whose counter is negative and has not changed since a given time.
+     */
+    public List<Long> findDrifted(LocalDateTime unchangedSince, int limit) {
+        return jdbcTemplate.queryForList(SELECT_DRIFTED_SQL, Long.class, Timestamp.valueOf(unchangedSince), limit);
+    }
+
+    /**
+     * Replace the counters of the given users with a count of their unread inbox items.
+     *
+     * @return Number of counters written
+     */
+    public int recount(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        Long[] ids = userIds.toArray(new Long[0]);
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(RECOUNT_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            return statement;
+        });
+    }
+
+    /**
+     * Find unread counters of many users; users without a counter are absent.
+     */
+    public Map<Long, Long> findAll(Collection<Long> userIds) {
+        Map<Long, Long> counts = new HashMap<>(userIds.size() * 2);
+        if (userIds.isEmpty()) {
+            return counts;
+        }
+        Long[] ids = userIds.toArray(new Long[0]);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_SQL);
+            Array array = connection.createArrayOf("bigint", ids);
+            statement.setArray(1, array);
+            return statement;
+        }, (ResultSet rs) -> {
+            counts.put(rs.getLong(1), rs.getLong(2));
+        });
+        return counts;
+    }
+}
@@ -21,7 +21,7 @@ import java.util.Optional;
  * @version 1.0.0
  */
 @Repository
-public interface NotificationDeliveryRepository extends JpaRepository<NotificationDelivery, Long> {
+public interface NotificationDeliveryRepository extends JpaRepository<NotificationDelivery, Long>, NotificationDeliveryRepositoryCustom {
 
     // =============================================================================
     // Basic CRUD Operations
@@ -153,14 +153,6 @@ public interface NotificationDeliveryRepository extends JpaRepository<Notificati
            "AND d.createdAt < :cutoffDate")
     List<NotificationDelivery> findOldDeliveriesForCleanup(@Param("cutoffDate") LocalDateTime cutoffDate);
 
-    /**
-     * Delete old delivered deliveries
-     */
-    @Query("DELETE FROM NotificationDelivery d " +
-           "WHERE d.status IN ('DELIVERED', 'FAILED') " +
-           "AND d.createdAt < :cutoffDate")
-    int deleteOldDeliveries(@Param("cutoffDate") LocalDateTime cutoffDate);
-
     // =============================================================================
     // Custom Queries
     // =============================================================================
@@ -0,0 +1,22 @@
+package com.legacykeep.notification.repository;
+
+import com.legacykeep.notification.entity.NotificationDelivery;
+
+import java.util.Collection;
+
+/**
+ * Bulk operations on notification deliveries that go beyond derived queries.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public interface NotificationDeliveryRepositoryCustom {
+
+    /**
+     * Insert delivery rows with a single statement.
+     *
+     * @param deliveries Deliveries to insert; their IDs are populated
+     * @return Number of rows inserted
+     */
+    int insertAll(Collection<NotificationDelivery> deliveries);
+}
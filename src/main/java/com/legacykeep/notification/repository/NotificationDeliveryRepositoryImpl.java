@@ -0,0 +1,88 @@
+package com.legacykeep.notification.repository;
+
+import com.legacykeep.notification.entity.NotificationDelivery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * JDBC implementation of {@link NotificationDeliveryRepositoryCustom}.
+ * 
+ * Inserts the deliveries of a whole fan-out as column arrays expanded by
+ * {@code unnest}, one round trip however many channels were used. IDs are taken
+ * from the same pooled sequence as Hibernate's, one {@code nextval} per block of
+ * {@link NotificationDelivery#ID_ALLOCATION_SIZE}, so they never collide.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@RequiredArgsConstructor
+public class NotificationDeliveryRepositoryImpl implements NotificationDeliveryRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification_deliveries " +
+            "(id, notification_id, channel, status, sent_at, failed_at, failure_reason, created_at, updated_at) " +
+            "SELECT d.id, d.notification_id, d.channel::notification_channel, d.status::notification_status, " +
+            "d.sent_at, d.failed_at, d.failure_reason, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+            "FROM unnest(?::bigint[], ?::bigint[], ?::text[], ?::text[], ?::timestamp[], ?::timestamp[], ?::text[]) " +
+            "AS d(id, notification_id, channel, status, sent_at, failed_at, failure_reason)";
+
+    private static final String ID_SEQUENCE = "notification_deliveries_id_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertAll(Collection<NotificationDelivery> deliveries) {
+        if (deliveries.isEmpty()) {
+            return 0;
+        }
+
+        int size = deliveries.size();
+        Long[] ids = PooledIdAllocator.allocate(
+                jdbcTemplate, ID_SEQUENCE, NotificationDelivery.ID_ALLOCATION_SIZE, size);
+        Long[] notificationIds = new Long[size];
+        String[] channels = new String[size];
+        String[] statuses = new String[size];
+        Timestamp[] sentAt = new Timestamp[size];
+        Timestamp[] failedAt = new Timestamp[size];
+        String[] failureReasons = new String[size];
+        int i = 0;
+        for (NotificationDelivery delivery : deliveries) {
+            delivery.setId(ids[i]);
+            notificationIds[i] = delivery.getNotificationId();
+            channels[i] = delivery.getChannel().name();
+            statuses[i] = delivery.getStatus().name();
+            sentAt[i] = timestamp(delivery.getSentAt());
+            failedAt[i] = timestamp(delivery.getFailedAt());
+            failureReasons[i] = delivery.getFailureReason();
+            i++;
+        }
+
+        return jdbcTemplate.update((Connection connection) -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL);
+            setArray(connection, statement, 1, "bigint", ids);
+            setArray(connection, statement, 2, "bigint", notificationIds);
+            setArray(connection, statement, 3, "text", channels);
+            setArray(connection, statement, 4, "text", statuses);
+            setArray(connection, statement, 5, "timestamp", sentAt);
+            setArray(connection, statement, 6, "timestamp", failedAt);
+            setArray(connection, statement, 7, "text", failureReasons);
+            return statement;
+        });
+    }
+
+    private static void setArray(Connection connection, PreparedStatement statement, int index,
+                                 String type, Object[] values) throws SQLException {
+        statement.setArray(index, connection.createArrayOf(type, values));
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
@@ -215,12 +215,6 @@ public interface NotificationEventRepository extends JpaRepository<NotificationE
     @Query("SELECT e FROM NotificationEvent e WHERE e.processedAt IS NOT NULL AND e.createdAt < :cutoffDate")
     List<NotificationEvent> findOldProcessedEventsForCleanup(@Param("cutoffDate") LocalDateTime cutoffDate);
 
-    /**
-     * Delete old processed events
-     */
-    @Query("DELETE FROM NotificationEvent e WHERE e.processedAt IS NOT NULL AND e.createdAt < :cutoffDate")
-    int deleteOldProcessedEvents(@Param("cutoffDate") LocalDateTime cutoffDate);
-
     /**
      * Find duplicate events (same event ID)
      */
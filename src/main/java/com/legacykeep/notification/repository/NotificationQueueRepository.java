@@ -0,0 +1,57 @@
+package com.legacykeep.notification.repository;
+
+import com.legacykeep.notification.entity.NotificationQueueEntry;
+import com.legacykeep.notification.entity.NotificationQueueStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for NotificationQueueEntry entity
+ * 
+ * Provides data access methods for the scheduled notification queue.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Repository
+public interface NotificationQueueRepository extends JpaRepository<NotificationQueueEntry, Long>, NotificationQueueRepositoryCustom {
+
+    // =============================================================================
+    // Status-based Queries
+    // =============================================================================
+
+    /**
+     * Find queue entries by status
+     */
+    List<NotificationQueueEntry> findByStatus(NotificationQueueStatus status);
+
+    /**
+     * Count queue entries by status
+     */
+    long countByStatus(NotificationQueueStatus status);
+
+    /**
+     * Find queued entries as (id, notificationId, scheduledAt) rows for rebuilding in-memory wake-up buckets
+     */
+    @Query("SELECT q.id, q.notificationId, q.scheduledAt FROM NotificationQueueEntry q WHERE q.status = :status")
+    List<Object[]> findQueueKeysByStatus(@Param("status") NotificationQueueStatus status);
+
+    /**
+     * Find queued entries due at or before a given time as (id, notificationId, scheduledAt) rows, earliest first
+     */
+    @Query("SELECT q.id, q.notificationId, q.scheduledAt FROM NotificationQueueEntry q " +
+           "WHERE q.status = 'QUEUED' AND q.scheduledAt <= :before ORDER BY q.scheduledAt")
+    List<Object[]> findDueQueueKeys(@Param("before") LocalDateTime before, Pageable pageable);
+
+    /**
+     * Find queued entries due at or before a given time
+     */
+    @Query("SELECT q FROM NotificationQueueEntry q WHERE q.status = 'QUEUED' AND q.scheduledAt <= :now")
+    List<NotificationQueueEntry> findDueEntries(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,46 @@
+package com.legacykeep.notification.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bulk operations on the notification queue that go beyond derived queries.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public interface NotificationQueueRepositoryCustom {
+
+    /**
+     * Atomically move queued entries to PROCESSING and return the ones claimed.
+     * Entries already claimed elsewhere are skipped, so a release never happens twice.
+     *
+     * @param queueEntryIds Queue entry IDs to claim
+     * @return IDs of the entries that were claimed
+     */
+    long[] claimQueued(long[] queueEntryIds);
+
+    /**
+     * Move claimed entries to COMPLETED once they have been handed to the pipeline.
+     *
+     * @param queueEntryIds Queue entry IDs returned by {@link #claimQueued(long[])}
+     * @return Number of entries completed
+     */
+    int completeClaimed(long[] queueEntryIds);
+
+    /**
+     * Move claimed entries back to QUEUED so a later release picks them up again.
+     *
+     * @param queueEntryIds Queue entry IDs returned by {@link #claimQueued(long[])}
+     * @return Number of entries requeued
+     */
+    int requeueClaimed(long[] queueEntryIds);
+
+    /**
+     * Move entries left in PROCESSING by an instance that stopped before completing them
+     * back to QUEUED.
+     *
+     * @param claimedBefore Entries claimed before this time are considered abandoned
+     * @return Number of entries requeued
+     */
+    int requeueStaleClaims(LocalDateTime claimedBefore);
+}
@@ -0,0 +1,97 @@
+package com.legacykeep.notification.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * JDBC implementation of {@link NotificationQueueRepositoryCustom}.
+ * 
+ * Claims a whole wake-up bucket with one {@code UPDATE ... RETURNING} statement
+ * instead of loading and saving each row. Claimed rows stay in PROCESSING until
+ * the release has been handed to the pipeline, so a failed release is retried.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@RequiredArgsConstructor
+public class NotificationQueueRepositoryImpl implements NotificationQueueRepositoryCustom {
+
+    private static final String CLAIM_SQL =
+            "UPDATE notification_queue SET status = 'PROCESSING', updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ANY(?) AND status = 'QUEUED' " +
+            "RETURNING id";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE notification_queue SET status = 'COMPLETED', updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ANY(?) AND status = 'PROCESSING'";
+
+    private static final String REQUEUE_SQL =
+            "UPDATE notification_queue SET status = 'QUEUED', updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ANY(?) AND status = 'PROCESSING'";
+
+    private static final String REQUEUE_STALE_SQL =
+            "UPDATE notification_queue SET status = 'QUEUED', updated_at = CURRENT_TIMESTAMP " +
+            "WHERE status = 'PROCESSING' AND updated_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long[] claimQueued(long[] queueEntryIds) {
+        if (queueEntryIds.length == 0) {
+            return new long[0];
+        }
+
+        return jdbcTemplate.execute(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CLAIM_SQL);
+            Array ids = connection.createArrayOf("bigint", boxed(queueEntryIds));
+            statement.setArray(1, ids);
+            return statement;
+        }, (PreparedStatement statement) -> {
+            long[] claimed = new long[queueEntryIds.length];
+            int count = 0;
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    claimed[count++] = rs.getLong(1);
+                }
+            }
+            return count == claimed.length ? claimed : Arrays.copyOf(claimed, count);
+        });
+    }
+
+    @Override
+    public int completeClaimed(long[] queueEntryIds) {
+        return updateClaimed(COMPLETE_SQL, queueEntryIds);
+    }
+
+    @Override
+    public int requeueClaimed(long[] queueEntryIds) {
+        return updateClaimed(REQUEUE_SQL, queueEntryIds);
+    }
+
+    @Override
+    public int requeueStaleClaims(LocalDateTime claimedBefore) {
+        return jdbcTemplate.update(REQUEUE_STALE_SQL, Timestamp.valueOf(claimedBefore));
+    }
+
+    private int updateClaimed(String sql, long[] queueEntryIds) {
+        if (queueEntryIds.length == 0) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, connection.createArrayOf("bigint", boxed(queueEntryIds)));
+            return statement;
+        });
+    }
+
+    private static Long[] boxed(long[] values) {
+        return Arrays.stream(values).boxed().toArray(Long[]::new);
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,7 +25,7 @@ import java.util.Optional;
  * @version 1.0.0
  */
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationRepositoryCustom {
 
     // =============================================================================
     // Basic CRUD Operations
@@ -45,6 +46,14 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     List<Notification> findByRecipientId(Long recipientId);
 
+    /**
+     * Find the most recent email address used for each of the given recipients
+     */
+    @Query(value = "SELECT DISTINCT ON (recipient_id) recipient_id, recipient_email FROM notifications " +
+                   "WHERE recipient_id IN (:recipientIds) AND recipient_email IS NOT NULL " +
+                   "ORDER BY recipient_id, created_at DESC", nativeQuery = true)
+    List<Object[]> findLatestRecipientEmails(@Param("recipientIds") Collection<Long> recipientIds);
+
     /**
      * Find notifications by recipient ID with pagination
      */
@@ -100,6 +109,11 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     List<Notification> findByTemplateIdAndStatus(String templateId, NotificationStatus status);
 
+    /**
+     * Find notifications of the given event IDs in a status
+     */
+    List<Notification> findByEventIdInAndStatus(Collection<String> eventIds, NotificationStatus status);
+
     // =============================================================================
     // Date-based Queries
     // =============================================================================
@@ -207,12 +221,6 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     @Query("SELECT n FROM Notification n WHERE n.createdAt < :cutoffDate AND n.status IN ('DELIVERED', 'FAILED', 'CANCELLED')")
     List<Notification> findOldNotificationsForCleanup(@Param("cutoffDate") LocalDateTime cutoffDate);
-
-    /**
-     * Delete old notifications
-     */
-    @Query("DELETE FROM Notification n WHERE n.createdAt < :cutoffDate AND n.status IN ('DELIVERED', 'FAILED', 'CANCELLED')")
-    int deleteOldNotifications(@Param("cutoffDate") LocalDateTime cutoffDate);
 }
 
 
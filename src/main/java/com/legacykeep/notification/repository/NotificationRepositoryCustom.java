@@ -0,0 +1,49 @@
+package com.legacykeep.notification.repository;
+
+import com.legacykeep.notification.entity.Notification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bulk operations on notifications that go beyond derived queries.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public interface NotificationRepositoryCustom {
+
+    /**
+     * Insert the notifications whose event ID has no notification yet. Event IDs
+     * are claimed with {@code ON CONFLICT DO NOTHING} in the same transaction as
+     * the insert, so concurrent or redelivered duplicates are skipped atomically.
+     *
+     * @param notifications New notifications with unique event IDs
+     * @return Inserted notifications, with IDs and creation times assigned
+     */
+    List<Notification> insertNew(Collection<Notification> notifications);
+
+    /**
+     * Write the delivery outcome of persisted notifications with a single statement:
+     * status, schedule, sent and failure details and retry count.
+     *
+     * @param notifications Notifications with IDs and creation times
+     * @return Number of rows updated
+     */
+    int updateOutcomes(Collection<Notification> notifications);
+
+    /**
+     * Claim pending notifications of a template created within a window, and not scheduled
+     * past its end, by moving them to {@code PROCESSING}. Notifications left in
+     * {@code PROCESSING} since before the window end are claimed again; rows locked by a
+     * concurrent claim are skipped.
+     *
+     * @param templateId Template ID
+     * @param createdAfter Oldest creation time to claim
+     * @param createdBefore Newest creation and schedule time to claim, also the cut-off for stale claims
+     * @param limit Maximum number of notifications to claim
+     * @return IDs of the claimed notifications
+     */
+    List<Long> claimStalePending(String templateId, LocalDateTime createdAfter, LocalDateTime createdBefore, int limit);
+}
@@ -0,0 +1,261 @@
+package com.legacykeep.notification.repository;
+
+import com.legacykeep.notification.entity.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC implementation of {@link NotificationRepositoryCustom}.
+ * 
+ * Updates a whole send batch as column arrays expanded by {@code unnest}, one
+ * round trip in place of saving detached entities, which merges them with a
+ * {@code SELECT} per row before the updates. Updates match rows on ID and
+ * creation time, the partition key, so only the partitions holding the batch
+ * are scanned. New notifications are inserted the same way after claiming
+ * their event IDs in {@code notification_keys}; the insert trigger accepts a
+ * key already claimed for the same row.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@RequiredArgsConstructor
+public class NotificationRepositoryImpl implements NotificationRepositoryCustom {
+
+    private static final String UPDATE_OUTCOMES_SQL =
+            "UPDATE notifications n SET status = u.status::notification_status, scheduled_at = u.scheduled_at, " +
+            "sent_at = u.sent_at, failed_at = u.failed_at, failure_reason = u.failure_reason, " +
+            "retry_count = u.retry_count, updated_at = CURRENT_TIMESTAMP " +
+            "FROM unnest(?::bigint[], ?::timestamp[], ?::text[], ?::timestamp[], ?::timestamp[], ?::timestamp[], " +
+            "?::text[], ?::int[]) " +
+            "AS u(id, created_at, status, scheduled_at, sent_at, failed_at, failure_reason, retry_count) " +
+            "WHERE n.id = u.id AND n.created_at = u.created_at";
+
+    private static final String CLAIM_KEYS_SQL =
+            "SELECT claim_notification_keys(?::text[], ?::bigint[], ?::timestamp[])";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (id, event_id, notification_type, template_id, recipient_id, recipient_email, " +
+            "recipient_phone, recipient_device_token, subject, content, text_content, template_data, priority, status, " +
+            "scheduled_at, retry_count, max_retries, created_at, updated_at, created_by, metadata) " +
+            "SELECT n.id, n.event_id, n.notification_type::notification_type, n.template_id, n.recipient_id, " +
+            "n.recipient_email, n.recipient_phone, n.recipient_device_token, n.subject, n.content, n.text_content, " +
+            "n.template_data::jsonb, n.priority::notification_priority, n.status::notification_status, " +
+            "n.scheduled_at, n.retry_count, n.max_retries, n.created_at, n.created_at, n.created_by, n.metadata::jsonb " +
+            "FROM unnest(?::bigint[], ?::text[], ?::text[], ?::text[], ?::bigint[], ?::text[], ?::text[], ?::text[], " +
+            "?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::timestamp[], ?::int[], ?::int[], " +
+            "?::timestamp[], ?::text[], ?::text[]) " +
+            "AS n(id, event_id, notification_type, template_id, recipient_id, recipient_email, recipient_phone, " +
+            "recipient_device_token, subject, content, text_content, template_data, priority, status, scheduled_at, " +
+            "retry_count, max_retries, created_at, created_by, metadata)";
+
+    private static final String CLAIM_STALE_PENDING_SQL =
+            "UPDATE notifications n SET status = 'PROCESSING'::notification_status, updated_at = CURRENT_TIMESTAMP " +
+            "FROM (SELECT id, created_at FROM notifications " +
+            "WHERE template_id = ? AND created_at >= ? AND created_at < ? " +
+            "AND (scheduled_at IS NULL OR scheduled_at < ?) " +
+            "AND (status = 'PENDING' OR (status = 'PROCESSING' AND updated_at < ?)) " +
+            "ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED) s " +
+            "WHERE n.id = s.id AND n.created_at = s.created_at RETURNING n.id";
+
+    private static final String ID_SEQUENCE = "notifications_id_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public List<Notification> insertNew(Collection<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return List.of();
+        }
+
+        int size = notifications.size();
+        Long[] ids = PooledIdAllocator.allocate(jdbcTemplate, ID_SEQUENCE, Notification.ID_ALLOCATION_SIZE, size);
+        // Stored precision, so the value kept on the entity matches the row for later updates
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        String[] eventIds = new String[size];
+        Timestamp[] createdAt = new Timestamp[size];
+        int i = 0;
+        for (Notification notification : notifications) {
+            eventIds[i] = notification.getEventId();
+            createdAt[i] = Timestamp.valueOf(now);
+            i++;
+        }
+
+        return transactionTemplate.execute(status -> {
+            Set<String> claimed = new HashSet<>(jdbcTemplate.query((Connection connection) -> {
+                PreparedStatement statement = connection.prepareStatement(CLAIM_KEYS_SQL);
+                setArray(connection, statement, 1, "text", eventIds);
+                setArray(connection, statement, 2, "bigint", ids);
+                setArray(connection, statement, 3, "timestamp", createdAt);
+                return statement;
+            }, (rs, rowNum) -> rs.getString(1)));
+
+            List<Notification> inserted = new ArrayList<>(claimed.size());
+            int j = 0;
+            for (Notification notification : notifications) {
+                if (claimed.contains(notification.getEventId())) {
+                    notification.setId(ids[j]);
+                    notification.setCreatedAt(now);
+                    notification.setUpdatedAt(now);
+                    inserted.add(notification);
+                }
+                j++;
+            }
+            if (!inserted.isEmpty()) {
+                insert(inserted);
+            }
+            return inserted;
+        });
+    }
+
+    @Override
+    public int updateOutcomes(Collection<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+
+        int size = notifications.size();
+        Long[] ids = new Long[size];
+        Timestamp[] createdAt = new Timestamp[size];
+        String[] statuses = new String[size];
+        Timestamp[] scheduledAt = new Timestamp[size];
+        Timestamp[] sentAt = new Timestamp[size];
+        Timestamp[] failedAt = new Timestamp[size];
+        String[] failureReasons = new String[size];
+        Integer[] retryCounts = new Integer[size];
+        int i = 0;
+        for (Notification notification : notifications) {
+            ids[i] = notification.getId();
+            createdAt[i] = timestamp(notification.getCreatedAt());
+            statuses[i] = notification.getStatus().name();
+            scheduledAt[i] = timestamp(notification.getScheduledAt());
+            sentAt[i] = timestamp(notification.getSentAt());
+            failedAt[i] = timestamp(notification.getFailedAt());
+            failureReasons[i] = notification.getFailureReason();
+            retryCounts[i] = notification.getRetryCount();
+            i++;
+        }
+
+        return jdbcTemplate.update((Connection connection) -> {
+            PreparedStatement statement = connection.prepareStatement(UPDATE_OUTCOMES_SQL);
+            setArray(connection, statement, 1, "bigint", ids);
+            setArray(connection, statement, 2, "timestamp", createdAt);
+            setArray(connection, statement, 3, "text", statuses);
+            setArray(connection, statement, 4, "timestamp", scheduledAt);
+            setArray(connection, statement, 5, "timestamp", sentAt);
+            setArray(connection, statement, 6, "timestamp", failedAt);
+            setArray(connection, statement, 7, "text", failureReasons);
+            setArray(connection, statement, 8, "integer", retryCounts);
+            return statement;
+        });
+    }
+
+    @Override
+    public List<Long> claimStalePending(String templateId, LocalDateTime createdAfter, LocalDateTime createdBefore,
+                                       int limit) {
+        return jdbcTemplate.query((Connection connection) -> {
+            PreparedStatement statement = connection.prepareStatement(CLAIM_STALE_PENDING_SQL);
+            statement.setString(1, templateId);
+            statement.setTimestamp(2, timestamp(createdAfter));
+            statement.setTimestamp(3, timestamp(createdBefore));
+            statement.setTimestamp(4, timestamp(createdBefore));
+            statement.setTimestamp(5, timestamp(createdBefore));
+            statement.setInt(6, limit);
+            return statement;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    private void insert(List<Notification> notifications) {
+        int size = notifications.size();
+        Long[] ids = new Long[size];
+        String[] eventIds = new String[size];
+        String[] types = new String[size];
+        String[] templateIds = new String[size];
+        Long[] recipientIds = new Long[size];
+        String[] emails = new String[size];
+        String[] phones = new String[size];
+        String[] deviceTokens = new String[size];
+        String[] subjects = new String[size];
+        String[] contents = new String[size];
+        String[] textContents = new String[size];
+        String[] templateData = new String[size];
+        String[] priorities = new String[size];
+        String[] statuses = new String[size];
+        Timestamp[] scheduledAt = new Timestamp[size];
+        Integer[] retryCounts = new Integer[size];
+        Integer[] maxRetries = new Integer[size];
+        Timestamp[] createdAt = new Timestamp[size];
+        String[] createdBy = new String[size];
+        String[] metadata = new String[size];
+        for (int i = 0; i < size; i++) {
+            Notification notification = notifications.get(i);
+            ids[i] = notification.getId();
+            eventIds[i] = notification.getEventId();
+            types[i] = notification.getNotificationType().name();
+            templateIds[i] = notification.getTemplateId();
+            recipientIds[i] = notification.getRecipientId();
+            emails[i] = notification.getRecipientEmail();
+            phones[i] = notification.getRecipientPhone();
+            deviceTokens[i] = notification.getRecipientDeviceToken();
+            subjects[i] = notification.getSubject();
+            contents[i] = notification.getContent();
+            textContents[i] = notification.getTextContent();
+            templateData[i] = notification.getTemplateData();
+            priorities[i] = notification.getPriority() != null ? notification.getPriority().name() : null;
+            statuses[i] = notification.getStatus().name();
+            scheduledAt[i] = timestamp(notification.getScheduledAt());
+            retryCounts[i] = notification.getRetryCount();
+            maxRetries[i] = notification.getMaxRetries();
+            createdAt[i] = timestamp(notification.getCreatedAt());
+            createdBy[i] = notification.getCreatedBy();
+            metadata[i] = notification.getMetadata();
+        }
+
+        jdbcTemplate.update((Connection connection) -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL);
+            setArray(connection, statement, 1, "bigint", ids);
+            setArray(connection, statement, 2, "text", eventIds);
+            setArray(connection, statement, 3, "text", types);
+            setArray(connection, statement, 4, "text", templateIds);
+            setArray(connection, statement, 5, "bigint", recipientIds);
+            setArray(connection, statement, 6, "text", emails);
+            setArray(connection, statement, 7, "text", phones);
+            setArray(connection, statement, 8, "text", deviceTokens);
+            setArray(connection, statement, 9, "text", subjects);
+            setArray(connection, statement, 10, "text", contents);
+            setArray(connection, statement, 11, "text", textContents);
+            setArray(connection, statement, 12, "text", templateData);
+            setArray(connection, statement, 13, "text", priorities);
+            setArray(connection, statement, 14, "text", statuses);
+            setArray(connection, statement, 15, "timestamp", scheduledAt);
+            setArray(connection, statement, 16, "integer", retryCounts);
+            setArray(connection, statement, 17, "integer", maxRetries);
+            setArray(connection, statement, 18, "timestamp", createdAt);
+            setArray(connection, statement, 19, "text", createdBy);
+            setArray(connection, statement, 20, "text", metadata);
+            return statement;
+        });
+    }
+
+    private static void setArray(Connection connection, PreparedStatement statement, int index,
+                                 String type, Object[] values) throws SQLException {
+        statement.setArray(index, connection.createArrayOf(type, values));
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+}
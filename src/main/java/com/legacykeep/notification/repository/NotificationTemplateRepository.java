@@ -0,0 +1,34 @@
+package com.legacykeep.notification.repository;
+
+import com.legacykeep.notification.entity.NotificationTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for NotificationTemplate entity
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Repository
+public interface NotificationTemplateRepository extends JpaRepository<NotificationTemplate, Long> {
+
+    /**
+     * Find an active template by its template ID
+     */
+    Optional<NotificationTemplate> findByTemplateIdAndIsActiveTrue(String templateId);
+
+    /**
+     * Find all active templates
+     */
+    List<NotificationTemplate> findByIsActiveTrue();
+
+    /**
+     * Find templates, active or not, updated at or after a point in time
+     */
+    List<NotificationTemplate> findByUpdatedAtGreaterThanEqual(LocalDateTime updatedAt);
+}
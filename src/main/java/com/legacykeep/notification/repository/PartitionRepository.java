@@ -0,0 +1,101 @@
+package com.legacykeep.notification.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * JDBC access to the monthly partitions of range-partitioned tables.
+ *
+ * Partitions are named {@code <table>_pYYYYMM}; rows outside every monthly partition
+ * go to {@code <table>_default}. Creating and dropping a monthly partition only
+ * changes catalog metadata, whatever the number of rows in it. Unpartitioned tables
+ * referencing notifications are purged by creation time in small batches instead.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class PartitionRepository {
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+            "WHERE c.relname = ? AND pg_table_is_visible(c.oid))";
+
+    private static final String SELECT_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ? AND pg_table_is_visible(p.oid) ORDER BY c.relname";
+
+    private static final String CREATE_PARTITION_SQL = "SELECT create_monthly_partition(?, ?)";
+
+    private static final String DROP_PARTITION_SQL = "SELECT drop_monthly_partition(?, ?)";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM %1$s WHERE id IN (SELECT id FROM %1$s WHERE created_at < ? LIMIT ?)";
+
+    /**
+     * Unpartitioned tables whose rows expire with the notifications they reference.
+     */
+    public static final List<String> PURGED_TABLES =
+            List.of("notification_queue", "user_notification_activity", "notification_dead_letter_queue");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Whether a table is partitioned; it is not if the schema was created outside the migrations.
+     */
+    public boolean isPartitioned(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class, table));
+    }
+
+    /**
+     * Find the names of the partitions of a table.
+     */
+    public List<String> findPartitions(String table) {
+        return jdbcTemplate.queryForList(SELECT_PARTITIONS_SQL, String.class, table);
+    }
+
+    /**
+     * Create the partition of a table for a month unless it exists.
+     *
+     * @return Whether the partition was created
+     */
+    public boolean createPartition(String table, YearMonth month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                CREATE_PARTITION_SQL, Boolean.class, table, Date.valueOf(month.atDay(1))));
+    }
+
+    /**
+     * Drop a partition with all its rows, finished or not.
+     *
+     * @param table Partitioned table
+     * @param partition Partition name as returned by {@link #findPartitions(String)}
+     * @return Whether the partition was dropped; false if it is no longer a partition of the table
+     */
+    public boolean dropPartition(String table, String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(DROP_PARTITION_SQL, Boolean.class, table, partition));
+    }
+
+    /**
+     * Delete a batch of rows created before a time from one of the {@link #PURGED_TABLES}.
+     *
+     * @param table Unpartitioned table
+     * @param before Rows created before this time are deleted
+     * @param limit Maximum number of rows deleted
+     * @return Number of rows deleted
+     */
+    public int purge(String table, LocalDateTime before, int limit) {
+        if (!PURGED_TABLES.contains(table)) {
+            throw new IllegalArgumentException("Not a purged table: " + table);
+        }
+        return jdbcTemplate.update(String.format(PURGE_SQL, table), Timestamp.valueOf(before), limit);
+    }
+}
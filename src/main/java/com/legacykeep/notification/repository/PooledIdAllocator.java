@@ -0,0 +1,46 @@
+package com.legacykeep.notification.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Reserves IDs from a pooled sequence shared with Hibernate, one {@code nextval}
+ * per block of the entity's allocation size, so JDBC bulk inserts never collide
+ * with IDs handed out by the persistence context.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+final class PooledIdAllocator {
+
+    private static final String ALLOCATE_IDS_SQL = "SELECT nextval(?::regclass) FROM generate_series(1, ?)";
+
+    private PooledIdAllocator() {
+    }
+
+    /**
+     * Reserve IDs in whole blocks; each sequence value is the last ID of its block.
+     *
+     * @param jdbcTemplate JDBC template
+     * @param sequence Sequence name
+     * @param blockSize Allocation size of the sequence
+     * @param count Number of IDs needed
+     * @return Reserved IDs
+     */
+    static Long[] allocate(JdbcTemplate jdbcTemplate, String sequence, int blockSize, int count) {
+        Long[] ids = new Long[count];
+        int i = 0;
+        while (i < count) {
+            List<Long> blockEnds = jdbcTemplate.queryForList(
+                    ALLOCATE_IDS_SQL, Long.class, sequence, (count - i + blockSize - 1) / blockSize);
+            for (long end : blockEnds) {
+                // A sequence that was never called returns its start value, a block of one
+                for (long id = Math.max(end - blockSize + 1, 1); id <= end && i < count; id++) {
+                    ids[i++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+}
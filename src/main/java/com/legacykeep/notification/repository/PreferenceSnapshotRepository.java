@@ -0,0 +1,120 @@
+package com.legacykeep.notification.repository;
+
+import com.legacykeep.notification.model.PreferenceFlags;
+import com.legacykeep.notification.model.PreferenceSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalTime;
+
+/**
+ * Bulk loader for packed preference snapshots.
+ *
+ * Streams rows of {@code user_notification_preferences} with a server-side cursor
+ * straight into a {@link PreferenceSnapshot}, so large fan-outs never materialize
+ * preference entities. Streaming requires a transaction on PostgreSQL, hence the
+ * read-only transactional boundary on each load.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class PreferenceSnapshotRepository {
+
+    private static final int FETCH_SIZE = 5000;
+
+    private static final String SELECT_COLUMNS =
+            "SELECT user_id, email_enabled, push_enabled, sms_enabled, in_app_enabled, " +
+            "marketing_emails_enabled, daily_digest_enabled, quiet_hours_enabled, " +
+            "quiet_hours_start, quiet_hours_end, timezone " +
+            "FROM user_notification_preferences";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Load stored preferences of every user.
+     */
+    @Transactional(readOnly = true)
+    public PreferenceSnapshot loadAll() {
+        PreferenceSnapshot.Builder builder = PreferenceSnapshot.builder(FETCH_SIZE);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_COLUMNS);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rowHandler(builder));
+        PreferenceSnapshot snapshot = builder.build();
+        log.info("Loaded preference snapshot for all users: {} rows", snapshot.size());
+        return snapshot;
+    }
+
+    /**
+     * Load stored preferences of a recipient set, e.g. all members of a family fan-out.
+     * Users without a row resolve to defaults in the returned snapshot.
+     */
+    @Transactional(readOnly = true)
+    public PreferenceSnapshot loadForUsers(long[] userIds) {
+        PreferenceSnapshot.Builder builder = PreferenceSnapshot.builder(userIds.length);
+        if (userIds.length == 0) {
+            return builder.build();
+        }
+
+        Long[] boxed = new Long[userIds.length];
+        for (int i = 0; i < userIds.length; i++) {
+            boxed[i] = userIds[i];
+        }
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_COLUMNS + " WHERE user_id = ANY(?)");
+            Array ids = connection.createArrayOf("bigint", boxed);
+            statement.setArray(1, ids);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rowHandler(builder));
+        PreferenceSnapshot snapshot = builder.build();
+        log.debug("Loaded preference snapshot for {} recipients: {} stored rows", userIds.length, snapshot.size());
+        return snapshot;
+    }
+
+    private RowCallbackHandler rowHandler(PreferenceSnapshot.Builder builder) {
+        return rs -> builder.put(
+                rs.getLong("user_id"),
+                packFlags(rs),
+                minuteOfDay(rs, "quiet_hours_start", PreferenceFlags.DEFAULT_QUIET_START),
+                minuteOfDay(rs, "quiet_hours_end", PreferenceFlags.DEFAULT_QUIET_END),
+                rs.getString("timezone"));
+    }
+
+    private static int packFlags(ResultSet rs) throws SQLException {
+        int flags = 0;
+        flags |= flag(rs, "email_enabled", PreferenceFlags.EMAIL, true);
+        flags |= flag(rs, "push_enabled", PreferenceFlags.PUSH, true);
+        flags |= flag(rs, "sms_enabled", PreferenceFlags.SMS, false);
+        flags |= flag(rs, "in_app_enabled", PreferenceFlags.IN_APP, true);
+        flags |= flag(rs, "marketing_emails_enabled", PreferenceFlags.MARKETING_EMAILS, false);
+        flags |= flag(rs, "daily_digest_enabled", PreferenceFlags.DAILY_DIGEST, true);
+        flags |= flag(rs, "quiet_hours_enabled", PreferenceFlags.QUIET_HOURS, false);
+        return flags;
+    }
+
+    private static int flag(ResultSet rs, String column, int bit, boolean defaultValue) throws SQLException {
+        boolean value = rs.getBoolean(column);
+        if (rs.wasNull()) {
+            value = defaultValue;
+        }
+        return value ? bit : 0;
+    }
+
+    private static int minuteOfDay(ResultSet rs, String column, int fallback) throws SQLException {
+        return PreferenceFlags.minuteOfDay(rs.getObject(column, LocalTime.class), fallback);
+    }
+}
@@ -0,0 +1,75 @@
+package com.legacykeep.notification.repository;
+
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.model.AbTest;
+import com.legacykeep.notification.model.TemplateVariant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * JDBC access to template versions and A/B test send counts.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class TemplateVersionRepository {
+
+    private static final String SELECT_ACTIVE_SQL =
+            "SELECT v.template_id, t.channel, v.version, v.created_at, v.subject_template, v.content_template, " +
+            "v.html_template, v.weight, v.is_default " +
+            "FROM template_versions v JOIN notification_templates t ON t.template_id = v.template_id " +
+            "WHERE v.is_active = TRUE AND t.is_active = TRUE ORDER BY v.template_id, v.version";
+
+    private static final String SELECT_RUNNING_TESTS_SQL =
+            "SELECT test_id, template_id, version_a, version_b FROM template_ab_test_results WHERE status = 'RUNNING'";
+
+    private static final String ADD_SENT_SQL =
+            "UPDATE template_ab_test_results SET total_sent_a = total_sent_a + ?, total_sent_b = total_sent_b + ?, " +
+            "updated_at = CURRENT_TIMESTAMP WHERE test_id = ? AND status = 'RUNNING'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Find the active versions of active templates.
+     */
+    public List<TemplateVariant> findActiveVariants() {
+        return jdbcTemplate.query(SELECT_ACTIVE_SQL, (rs, rowNum) -> {
+            Timestamp createdAt = rs.getTimestamp(4);
+            return new TemplateVariant(
+                    rs.getString(1),
+                    NotificationChannel.valueOf(rs.getString(2)),
+                    rs.getString(3),
+                    createdAt != null ? createdAt.toLocalDateTime() : null,
+                    rs.getString(5),
+                    rs.getString(6),
+                    rs.getString(7),
+                    rs.getInt(8),
+                    rs.getBoolean(9));
+        });
+    }
+
+    /**
+     * Find the A/B tests currently running.
+     */
+    public List<AbTest> findRunningTests() {
+        return jdbcTemplate.query(SELECT_RUNNING_TESTS_SQL, (rs, rowNum) ->
+                new AbTest(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4)));
+    }
+
+    /**
+     * Add send counts to running tests, one row per test of
+     * {@code {sentA, sentB, testId}}.
+     */
+    public void addSentCounts(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_SENT_SQL, rows);
+    }
+}
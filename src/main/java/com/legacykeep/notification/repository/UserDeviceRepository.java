@@ -0,0 +1,64 @@
+package com.legacykeep.notification.repository;
+
+import com.legacykeep.notification.entity.UserDevice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for UserDevice entity
+ * 
+ * Provides data access methods for push notification device registrations.
+ * 
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Repository
+public interface UserDeviceRepository extends JpaRepository<UserDevice, Long> {
+
+    // =============================================================================
+    // User-based Queries
+    // =============================================================================
+
+    /**
+     * Find active devices of a user
+     */
+    List<UserDevice> findByUserIdAndIsActiveTrue(Long userId);
+
+    /**
+     * Find a device of a user by token
+     */
+    Optional<UserDevice> findByUserIdAndDeviceToken(Long userId, String deviceToken);
+
+    // =============================================================================
+    // Bulk Queries
+    // =============================================================================
+
+    /**
+     * Find active devices of many users as (userId, deviceToken) rows
+     */
+    @Query("SELECT d.userId, d.deviceToken FROM UserDevice d WHERE d.userId IN :userIds AND d.isActive = true")
+    List<Object[]> findActiveTokensByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Find the users owning any of the given tokens
+     */
+    @Query("SELECT DISTINCT d.userId FROM UserDevice d WHERE d.deviceToken IN :tokens")
+    List<Long> findUserIdsByDeviceTokens(@Param("tokens") Collection<String> tokens);
+
+    /**
+     * Deactivate all devices registered with the given tokens
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserDevice d SET d.isActive = false, d.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE d.deviceToken IN :tokens AND d.isActive = true")
+    int deactivateByDeviceTokens(@Param("tokens") Collection<String> tokens);
+}
@@ -0,0 +1,46 @@
+package com.legacykeep.notification.repository;
+
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for UserNotificationPreferences entity
+ *
+ * Provides data access methods for per-user notification preferences.
+ * Lookups on the delivery path should go through the preference service
+ * cache rather than this repository directly.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Repository
+public interface UserNotificationPreferencesRepository extends JpaRepository<UserNotificationPreferences, Long> {
+
+    // =============================================================================
+    // Basic CRUD Operations
+    // =============================================================================
+
+    /**
+     * Find preferences by user ID
+     */
+    Optional<UserNotificationPreferences> findByUserId(Long userId);
+
+    /**
+     * Check if preferences exist for user ID
+     */
+    boolean existsByUserId(Long userId);
+
+    // =============================================================================
+    // Bulk Queries
+    // =============================================================================
+
+    /**
+     * Find preferences for a batch of user IDs
+     */
+    List<UserNotificationPreferences> findByUserIdIn(Collection<Long> userIds);
+}
@@ -0,0 +1,65 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.model.ChannelSendResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends a notification through one delivery channel for {@link NotificationFanOutService}.
+ *
+ * Implementations return immediately; blocking work such as SMTP or database
+ * writes runs on the notification executor. Failures are reported in the result.
+ * Senders that can share a connection across a batch override {@link #sendAll}, and
+ * senders that cannot reach some recipients at all override {@link #canSend}.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public interface ChannelSender {
+
+    /**
+     * Channel served by this sender
+     */
+    NotificationChannel getChannel();
+
+    /**
+     * Whether this channel can reach the notification's recipient at all. Notifications
+     * it cannot reach are skipped instead of recorded as failed deliveries.
+     *
+     * @param notification Notification
+     * @return false if a send could only fail
+     */
+    default boolean canSend(Notification notification) {
+        return true;
+    }
+
+    /**
+     * Send the notification to its recipient on this channel.
+     *
+     * @param notification Persisted notification
+     * @return Outcome of the send
+     */
+    CompletableFuture<ChannelSendResult> send(Notification notification);
+
+    /**
+     * Send a batch of notifications on this channel, each to its own recipient.
+     *
+     * @param notifications Persisted notifications
+     * @return Outcome of each send, in the order of the notifications
+     */
+    default List<CompletableFuture<ChannelSendResult>> sendAll(List<Notification> notifications) {
+        List<CompletableFuture<ChannelSendResult>> results = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            try {
+                results.add(send(notification));
+            } catch (RuntimeException e) {
+                results.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,127 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.model.ContactLogStore;
+import com.legacykeep.notification.model.RecipientContact;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Local recipient contact directory materialized from the compacted contacts topic.
+ *
+ * Contacts are kept in a {@link ContactLogStore} on local disk. Snapshots are taken
+ * periodically and on shutdown, so a restarted instance restores the directory and
+ * resumes the topic from the snapshot offsets instead of replaying it from the start.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContactDirectoryService {
+
+    private final NotificationConfig notificationConfig;
+
+    private ContactLogStore store;
+
+    /**
+     * Open the store and restore the latest snapshot.
+     */
+    @PostConstruct
+    public void open() {
+        Path directory = Path.of(notificationConfig.getContact().getStorageDirectory());
+        try {
+            store = ContactLogStore.open(directory);
+            log.info("Contact directory opened at {}: {} contacts, resuming from offsets {}",
+                    directory, store.size(), store.getAppliedOffsets());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open contact directory at " + directory, e);
+        }
+    }
+
+    /**
+     * Apply a record from the contacts topic.
+     *
+     * @param contact Contact, or null for a tombstone
+     * @param userId User ID from the record key
+     * @param partition Topic partition
+     * @param offset Record offset
+     */
+    public void apply(RecipientContact contact, long userId, int partition, long offset) {
+        try {
+            if (contact == null || contact.getEmail() == null) {
+                store.remove(userId, partition, offset);
+            } else {
+                store.put(contact, partition, offset);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to apply contact update for user " + userId, e);
+        }
+    }
+
+    /**
+     * Look up contacts on local disk.
+     *
+     * @param userIds User IDs
+     * @return Contacts by user ID; unknown users are absent
+     */
+    public Map<Long, RecipientContact> getContacts(Collection<Long> userIds) {
+        try {
+            return store.getAll(userIds);
+        } catch (IOException e) {
+            log.error("Failed to read {} contacts from the local directory", userIds.size(), e);
+            return Map.of();
+        }
+    }
+
+    /**
+     * Last applied offset per partition of the contacts topic
+     */
+    public Map<Integer, Long> getAppliedOffsets() {
+        return store.getAppliedOffsets();
+    }
+
+    /**
+     * Number of contacts in the directory
+     */
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Write a snapshot, compacting the log first when it holds too many dead records.
+     */
+    @Scheduled(fixedDelayString = "${notification.contact.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        try {
+            store.snapshot(notificationConfig.getContact().getCompactionGarbageRatio());
+            log.debug("Contact directory snapshot written: {} contacts", store.size());
+        } catch (IOException e) {
+            log.error("Failed to write contact directory snapshot", e);
+        }
+    }
+
+    /**
+     * Snapshot and close the store on shutdown.
+     */
+    @PreDestroy
+    public void close() {
+        snapshot();
+        try {
+            store.close();
+        } catch (IOException e) {
+            log.warn("Failed to close contact directory", e);
+        }
+    }
+}
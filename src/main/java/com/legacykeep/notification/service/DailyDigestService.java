@@ -0,0 +1,355 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.NotificationPriority;
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+import com.legacykeep.notification.model.DigestAccumulator;
+import com.legacykeep.notification.model.DigestBucket;
+import com.legacykeep.notification.model.DigestCategory;
+import com.legacykeep.notification.model.HtmlBody;
+import com.legacykeep.notification.repository.DigestItemRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import jakarta.mail.Message;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Service for the daily digest email.
+ *
+ * Eligible low-priority events are folded into a per-user bucket as they arrive
+ * instead of becoming individual emails. An hourly job picks the users whose local
+ * time has reached the configured digest hour, renders one email per user and sends
+ * them in parallel batches, each batch over a single SMTP connection.
+ *
+ * Buckets are held in memory on the instance that consumed the events, and every
+ * accepted event is stored in {@code digest_items} first. The buckets are rebuilt
+ * from the stored items on startup, and items are deleted only once their digest
+ * has been sent. Digests that fail to send are put back and retried on the next run.
+ *
+ * Since every instance restores the stored items, a user can be pending on several
+ * instances. A due digest is therefore rebuilt from the user's items claimed in
+ * {@code digest_items} at send time; an instance that finds them claimed or gone
+ * drops its copy, so each item is sent once.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class DailyDigestService {
+
+    private static final String DIGEST_TEMPLATE = "email/digest/daily-digest";
+
+    private final NotificationPreferenceService preferenceService;
+    private final DigestItemRepository digestItemRepository;
+    private final TemplateEngine templateEngine;
+    private final JavaMailSender mailSender;
+    private final NotificationConfig notificationConfig;
+    private final Executor taskExecutor;
+    private final DigestAccumulator accumulator;
+
+    /**
+     * Users whose last digest failed to send; they are due on the next run whatever their local time
+     */
+    private final Set<Long> retryUsers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Owner ID of this instance's digest item claims
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${app.frontend.url:http://localhost:3000}")
+    private String frontendUrl;
+
+    public DailyDigestService(NotificationPreferenceService preferenceService,
+                              DigestItemRepository digestItemRepository,
+                              TemplateEngine templateEngine,
+                              JavaMailSender mailSender,
+                              NotificationConfig notificationConfig,
+                              @Qualifier("notificationTaskExecutor") Executor taskExecutor) {
+        this.preferenceService = preferenceService;
+        this.digestItemRepository = digestItemRepository;
+        this.templateEngine = templateEngine;
+        this.mailSender = mailSender;
+        this.notificationConfig = notificationConfig;
+        this.taskExecutor = taskExecutor;
+        this.accumulator = new DigestAccumulator(notificationConfig.getDigest().getMaxRecentItems());
+    }
+
+    /**
+     * Add an event to the recipient's daily digest when it is eligible.
+     *
+     * @param recipientId Recipient user ID
+     * @param recipientEmail Recipient email address
+     * @param recipientName Recipient display name
+     * @param category Digest category
+     * @param summary One-line summary shown in the digest
+     * @param priority Event priority
+     * @return true if the event was added to the digest and must not be sent individually
+     */
+    public boolean accept(Long recipientId, String recipientEmail, String recipientName,
+                          DigestCategory category, String summary, NotificationPriority priority) {
+        NotificationConfig.DigestConfig config = notificationConfig.getDigest();
+        if (!config.isEnabled() || recipientId == null || priority.compareTo(config.getMaxPriority()) > 0) {
+            return false;
+        }
+        if (!preferenceService.getPreferences(recipientId).isDailyDigestAllowed()) {
+            return false;
+        }
+
+        Instant occurredAt = Instant.now();
+        long itemId;
+        try {
+            itemId = digestItemRepository.insert(recipientId, recipientEmail, recipientName, category, summary, occurredAt);
+        } catch (Exception e) {
+            log.error("Failed to store digest item for user {}, sending it individually", recipientId, e);
+            return false;
+        }
+        accumulator.add(itemId, recipientId, recipientEmail, recipientName, category, summary, occurredAt);
+        log.debug("Added {} event to daily digest of user {}", category, recipientId);
+        return true;
+    }
+
+    /**
+     * Rebuild the digest buckets from stored items before any event is consumed.
+     */
+    @PostConstruct
+    public void restorePendingDigests() {
+        try {
+            digestItemRepository.forEachUnclaimed(staleClaimsBefore(), accumulator::add);
+            log.info("Restored pending daily digests of {} users", accumulator.size());
+        } catch (Exception e) {
+            log.error("Failed to restore pending daily digests", e);
+        }
+    }
+
+    /**
+     * Send digests to every user whose local digest hour has arrived.
+     */
+    @Scheduled(cron = "${notification.digest.check-cron:0 0 * * * *}")
+    public void sendDueDigests() {
+        sendDue(Instant.now());
+    }
+
+    /**
+     * Send digests to every user whose local time at {@code now} is within the digest hour.
+     *
+     * @param now Current instant
+     * @return Number of digest emails sent
+     */
+    public int sendDue(Instant now) {
+        List<Long> pendingUsers = accumulator.userIds();
+        if (pendingUsers.isEmpty()) {
+            return 0;
+        }
+
+        int sendHour = notificationConfig.getDigest().getSendHour();
+        Map<Long, UserNotificationPreferences> preferences = preferenceService.getPreferences(pendingUsers);
+        List<Long> dueUsers = new ArrayList<>();
+        List<Long> optedOutUsers = new ArrayList<>();
+        for (Long userId : pendingUsers) {
+            UserNotificationPreferences userPreferences = preferences.get(userId);
+            if (userPreferences != null && !userPreferences.isDailyDigestAllowed()) {
+                retryUsers.remove(userId);
+                optedOutUsers.add(userId);
+                continue;
+            }
+            ZoneId zone = userPreferences != null ? userPreferences.getZoneId() : ZoneOffset.UTC;
+            if (retryUsers.remove(userId) || now.atZone(zone).getHour() == sendHour) {
+                dueUsers.add(userId);
+            }
+        }
+
+        if (!optedOutUsers.isEmpty()) {
+            discard(accumulator.drain(optedOutUsers));
+            log.info("Discarded pending digests of {} users who disabled the daily digest", optedOutUsers.size());
+        }
+        return send(claim(accumulator.drain(dueUsers)));
+    }
+
+    /**
+     * Claim the stored items of the drained digests' users and rebuild the digests from them.
+     * Items claimed by another instance are left to it, and items already sent are gone.
+     */
+    private List<DigestBucket> claim(List<DigestBucket> drained) {
+        if (drained.isEmpty()) {
+            return drained;
+        }
+        long[] userIds = drained.stream().mapToLong(DigestBucket::getUserId).toArray();
+        DigestAccumulator claimed = new DigestAccumulator(notificationConfig.getDigest().getMaxRecentItems());
+        try {
+            digestItemRepository.claim(userIds, instanceId, staleClaimsBefore(), claimed::add);
+        } catch (Exception e) {
+            drained.forEach(this::requeue);
+            log.error("Failed to claim daily digests of {} users, retrying on the next run", userIds.length, e);
+            return List.of();
+        }
+        if (claimed.size() < drained.size()) {
+            log.info("Skipped {} daily digests claimed or sent by other instances", drained.size() - claimed.size());
+        }
+        return claimed.drain(claimed.userIds());
+    }
+
+    private Instant staleClaimsBefore() {
+        return Instant.now().minus(notificationConfig.getDigest().getStaleClaimMinutes(), ChronoUnit.MINUTES);
+    }
+
+    /**
+     * Render and send the given digests in parallel batches.
+     *
+     * @param digests Drained digest buckets
+     * @return Number of digest emails sent
+     */
+    public int send(List<DigestBucket> digests) {
+        if (digests.isEmpty()) {
+            return 0;
+        }
+
+        int batchSize = notificationConfig.getDigest().getBatchSize();
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        for (int from = 0; from < digests.size(); from += batchSize) {
+            List<DigestBucket> batch = digests.subList(from, Math.min(from + batchSize, digests.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> sendBatch(batch), taskExecutor));
+        }
+
+        int sent = batches.stream().mapToInt(CompletableFuture::join).sum();
+        log.info("Sent {} of {} daily digest emails in {} batches", sent, digests.size(), batches.size());
+        return sent;
+    }
+
+    /**
+     * Render a batch of digests and send them over one SMTP connection. Digests that
+     * cannot be rendered are discarded; those the server rejected are requeued.
+     */
+    private int sendBatch(List<DigestBucket> batch) {
+        Map<MimeMessage, DigestBucket> byMessage = new IdentityHashMap<>();
+        List<DigestBucket> done = new ArrayList<>(batch.size());
+        for (DigestBucket digest : batch) {
+            if (digest.getRecipientEmail() == null) {
+                log.warn("Skipping daily digest for user {}: no recipient email", digest.getUserId());
+                done.add(digest);
+                continue;
+            }
+            try {
+                byMessage.put(render(digest), digest);
+            } catch (Exception e) {
+                log.error("Failed to render daily digest for user {}", digest.getUserId(), e);
+                done.add(digest);
+            }
+        }
+
+        int sent = 0;
+        if (!byMessage.isEmpty()) {
+            try {
+                mailSender.send(byMessage.keySet().toArray(new MimeMessage[0]));
+                done.addAll(byMessage.values());
+                sent = byMessage.size();
+            } catch (MailSendException e) {
+                Map<Object, Exception> failed = e.getFailedMessages();
+                List<DigestBucket> rejected = new ArrayList<>(failed.size());
+                byMessage.forEach((message, digest) -> {
+                    if (failed.containsKey(message)) {
+                        rejected.add(digest);
+                    } else {
+                        done.add(digest);
+                    }
+                });
+                release(rejected);
+                sent = byMessage.size() - failed.size();
+                log.error("Failed to send {} of {} daily digest emails, requeued for the next run",
+                        failed.size(), byMessage.size(), e);
+            } catch (Exception e) {
+                release(new ArrayList<>(byMessage.values()));
+                log.error("Failed to send batch of {} daily digest emails, requeued for the next run",
+                        byMessage.size(), e);
+            }
+        }
+        discard(done);
+        return sent;
+    }
+
+    /**
+     * Release the claims of digests that failed to send and requeue them for the next run.
+     */
+    private void release(List<DigestBucket> digests) {
+        long[] itemIds = digests.stream().flatMapToLong(digest -> Arrays.stream(digest.getItemIds())).toArray();
+        try {
+            digestItemRepository.release(itemIds);
+        } catch (Exception e) {
+            log.error("Failed to release {} claimed digest items; they are retried once the claim is stale",
+                    itemIds.length, e);
+        }
+        digests.forEach(this::requeue);
+    }
+
+    private void requeue(DigestBucket digest) {
+        accumulator.requeue(digest);
+        retryUsers.add(digest.getUserId());
+    }
+
+    /**
+     * Delete the stored items of digests that were sent or will never be.
+     */
+    private void discard(List<DigestBucket> digests) {
+        if (digests.isEmpty()) {
+            return;
+        }
+        long[] itemIds = digests.stream().flatMapToLong(digest -> Arrays.stream(digest.getItemIds())).toArray();
+        try {
+            digestItemRepository.delete(itemIds);
+        } catch (Exception e) {
+            log.error("Failed to delete {} stored digest items; they are sent again after a restart", itemIds.length, e);
+        }
+    }
+
+    private MimeMessage render(DigestBucket digest) throws Exception {
+        Context context = new Context();
+        context.setVariable("fullName", digest.getRecipientName() != null ? digest.getRecipientName() : "there");
+        context.setVariable("totalCount", digest.getTotal());
+        context.setVariable("categories", digest.getCategoryCounts());
+        context.setVariable("items", digest.getRecentItems());
+        context.setVariable("dashboardUrl", frontendUrl + "/dashboard");
+        context.setVariable("preferencesUrl", frontendUrl + "/settings/notifications");
+        String htmlContent = templateEngine.process(DIGEST_TEMPLATE, context);
+
+        NotificationConfig.SenderConfig sender = notificationConfig.getEmail().getSender();
+        MimeMessage message = mailSender.createMimeMessage();
+        message.setFrom(new InternetAddress(sender.getAddress(), sender.getName(), "UTF-8"));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(digest.getRecipientEmail()));
+        message.setSubject("Your LegacyKeep daily digest: " + digest.getTotal()
+                + (digest.getTotal() == 1 ? " update" : " updates"), "UTF-8");
+        HtmlBody.of(htmlContent).applyTo(message);
+        return message;
+    }
+
+    /**
+     * Number of users with a pending digest on this instance
+     */
+    public int getPendingDigestCount() {
+        return accumulator.size();
+    }
+}
@@ -0,0 +1,73 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.entity.UserDevice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for the registry of user devices that receive push notifications.
+ *
+ * Active device tokens are served from an in-process cache, so push fan-out never
+ * issues a per-user query. Tokens reported invalid by the push provider stop being
+ * returned immediately and are deactivated in the background in batches.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public interface DeviceRegistryService {
+
+    /**
+     * Get the active device tokens of a user.
+     *
+     * @param userId User ID
+     * @return Active device tokens (empty when the user has none)
+     */
+    List<String> getActiveTokens(Long userId);
+
+    /**
+     * Get the active device tokens of a batch of users with a single query for all cache misses.
+     *
+     * @param userIds User IDs
+     * @return Active device tokens keyed by user ID (empty lists for users without devices)
+     */
+    Map<Long, List<String>> getActiveTokens(Collection<Long> userIds);
+
+    /**
+     * Register a device, reactivating it when the token is already known for the user.
+     *
+     * @param device Device to register
+     * @return Saved device
+     */
+    UserDevice registerDevice(UserDevice device);
+
+    /**
+     * Deactivate a device of a user.
+     *
+     * @param userId User ID
+     * @param deviceToken Device token
+     */
+    void unregisterDevice(Long userId, String deviceToken);
+
+    /**
+     * Evict the cached devices of a user on this instance.
+     *
+     * @param userId User ID
+     */
+    void evict(Long userId);
+
+    /**
+     * Report tokens rejected by the push provider for background deactivation.
+     *
+     * @param deviceTokens Invalid device tokens
+     */
+    void reportInvalidTokens(Collection<String> deviceTokens);
+
+    /**
+     * Deactivate all reported invalid tokens in batches.
+     *
+     * @return Number of devices deactivated
+     */
+    int pruneInvalidTokens();
+}
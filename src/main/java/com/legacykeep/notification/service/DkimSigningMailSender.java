@@ -0,0 +1,41 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.model.DkimSigner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Mail sender that DKIM-signs every message just before it is handed to the
+ * SMTP transport, so simple, HTML and batched digest emails are all signed
+ * without their senders knowing about DKIM.
+ *
+ * A message that cannot be signed is sent unsigned rather than dropped.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+public class DkimSigningMailSender extends JavaMailSenderImpl {
+
+    private final DkimSigner signer;
+
+    public DkimSigningMailSender(DkimSigner signer) {
+        this.signer = signer;
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        for (MimeMessage message : mimeMessages) {
+            try {
+                signer.sign(message);
+            } catch (MessagingException e) {
+                log.error("Failed to DKIM-sign message, sending it unsigned", e);
+            }
+        }
+        super.doSend(mimeMessages, originalMessages);
+    }
+}
@@ -1,19 +1,38 @@
 package com.legacykeep.notification.service;
 
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.model.EmailAttachment;
+import com.legacykeep.notification.model.HtmlBody;
+import com.legacykeep.notification.model.RenderBuffer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
+import jakarta.mail.Part;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Service for sending emails.
  * 
- * Handles both simple text emails and HTML emails.
+ * Handles both simple text emails and HTML emails. HTML emails are sent as a
+ * single {@code text/html} part, or as {@code multipart/alternative} when a
+ * plain-text version is given; streamed emails are rendered into the sending
+ * thread's reusable buffer and encoded while the transport writes them.
+ * Attachments are validated against the attachment configuration and wrap the
+ * body in {@code multipart/mixed}; their content is streamed, never buffered.
  * 
  * @author LegacyKeep Team
  * @version 1.0.0
@@ -24,6 +43,7 @@ import jakarta.mail.internet.MimeMessage;
 public class EmailDeliveryService {
 
     private final JavaMailSender mailSender;
+    private final NotificationConfig notificationConfig;
 
     /**
      * Send a simple text email.
@@ -56,13 +76,7 @@ public class EmailDeliveryService {
      */
     public void sendHtmlEmail(String to, String subject, String htmlContent) {
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true); // true indicates HTML content
-
+            MimeMessage message = createHtmlMessage(null, to, subject, HtmlBody.of(htmlContent), null);
             mailSender.send(message);
             log.info("HTML email sent successfully to: {}", to);
         } catch (MessagingException e) {
@@ -70,4 +84,162 @@ public class EmailDeliveryService {
             throw new RuntimeException("Failed to send HTML email", e);
         }
     }
+
+    /**
+     * Send an HTML email rendered straight into a reusable buffer.
+     * 
+     * @param from Sender address, or null for the session default
+     * @param to Recipient email address
+     * @param subject Email subject
+     * @param body Writes the HTML content
+     */
+    public void sendHtmlEmail(InternetAddress from, String to, String subject, BodyWriter body) {
+        sendHtmlEmail(from, to, subject, body, null);
+    }
+
+    /**
+     * Send an HTML email with a plain-text alternative, the HTML rendered straight
+     * into a reusable buffer.
+     * 
+     * @param from Sender address, or null for the session default
+     * @param to Recipient email address
+     * @param subject Email subject
+     * @param body Writes the HTML content
+     * @param text Plain-text alternative, or null to send HTML only
+     */
+    public void sendHtmlEmail(InternetAddress from, String to, String subject, BodyWriter body, String text) {
+        sendHtmlEmail(from, to, subject, body, text, List.of());
+    }
+
+    /**
+     * Send an HTML email with attachments, the HTML rendered straight into a
+     * reusable buffer. The same attachments can be passed for every recipient of
+     * a fan-out; they are read again for each message instead of being copied.
+     * 
+     * @param from Sender address, or null for the session default
+     * @param to Recipient email address
+     * @param subject Email subject
+     * @param body Writes the HTML content
+     * @param text Plain-text alternative, or null to send HTML only
+     * @param attachments Attachments, possibly empty
+     * @throws IllegalArgumentException if the attachments break the attachment configuration
+     */
+    public void sendHtmlEmail(InternetAddress from, String to, String subject, BodyWriter body, String text,
+                              List<EmailAttachment> attachments) {
+        validateAttachments(attachments);
+        RenderBuffer buffer = RenderBuffer.acquire();
+        try {
+            try (Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+                body.writeTo(writer);
+            }
+            mailSender.send(createHtmlMessage(from, to, subject, HtmlBody.of(buffer), text, attachments));
+            log.debug("HTML email of {} bytes sent to: {}", buffer.size(), to);
+        } catch (MessagingException | IOException e) {
+            log.error("Failed to send HTML email to: {}", to, e);
+            throw new RuntimeException("Failed to send HTML email", e);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Create an HTML message, single-part unless a plain-text alternative is given.
+     * 
+     * @param from Sender address, or null for the session default
+     * @param to Recipient email address
+     * @param subject Email subject
+     * @param body HTML body
+     * @param text Plain-text alternative, or null
+     * @return Message ready to send
+     * @throws MessagingException if an address or header is invalid
+     */
+    public MimeMessage createHtmlMessage(InternetAddress from, String to, String subject,
+                                         HtmlBody body, String text) throws MessagingException {
+        return createHtmlMessage(from, to, subject, body, text, List.of());
+    }
+
+    /**
+     * Create an HTML message with attachments, which are not validated here.
+     * 
+     * @param from Sender address, or null for the session default
+     * @param to Recipient email address
+     * @param subject Email subject
+     * @param body HTML body
+     * @param text Plain-text alternative, or null
+     * @param attachments Attachments, possibly empty
+     * @return Message ready to send
+     * @throws MessagingException if an address or header is invalid
+     */
+    public MimeMessage createHtmlMessage(InternetAddress from, String to, String subject, HtmlBody body,
+                                         String text, List<EmailAttachment> attachments) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        if (from != null) {
+            message.setFrom(from);
+        }
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(to));
+        message.setSubject(subject, "UTF-8");
+        if (attachments.isEmpty()) {
+            applyBody(message, body, text);
+            return message;
+        }
+
+        MimeBodyPart bodyPart = new MimeBodyPart();
+        applyBody(bodyPart, body, text);
+        MimeMultipart mixed = new MimeMultipart("mixed", bodyPart);
+        for (EmailAttachment attachment : attachments) {
+            mixed.addBodyPart(attachment.toBodyPart());
+        }
+        message.setContent(mixed);
+        return message;
+    }
+
+    /**
+     * Check attachments against the configured count, size and type limits.
+     * 
+     * @param attachments Attachments of one message
+     * @throws IllegalArgumentException if a limit is exceeded
+     */
+    public void validateAttachments(List<EmailAttachment> attachments) {
+        if (attachments.isEmpty()) {
+            return;
+        }
+        NotificationConfig.AttachmentConfig config = notificationConfig.getEmail().getAttachment();
+        if (attachments.size() > config.getMaxAttachments()) {
+            throw new IllegalArgumentException("At most " + config.getMaxAttachments()
+                    + " attachments are allowed, got " + attachments.size());
+        }
+        List<String> allowedTypes = Arrays.asList(config.getAllowedTypes());
+        for (EmailAttachment attachment : attachments) {
+            if (attachment.getSize() > config.getMaxAttachmentSize()) {
+                throw new IllegalArgumentException("Attachment " + attachment.getName() + " is " + attachment.getSize()
+                        + " bytes, at most " + config.getMaxAttachmentSize() + " are allowed");
+            }
+            if (!allowedTypes.contains(attachment.getExtension())) {
+                throw new IllegalArgumentException("Attachment type of " + attachment.getName() + " is not allowed");
+            }
+        }
+    }
+
+    private void applyBody(Part part, HtmlBody body, String text) throws MessagingException {
+        if (text == null) {
+            body.applyTo(part);
+            return;
+        }
+
+        // Parts in increasing order of preference: clients show the last one they support
+        MimeBodyPart textPart = new MimeBodyPart();
+        textPart.setText(text, "UTF-8");
+        textPart.setHeader("Content-Transfer-Encoding", "quoted-printable");
+        MimeBodyPart htmlPart = new MimeBodyPart();
+        body.applyTo(htmlPart);
+        part.setContent(new MimeMultipart("alternative", textPart, htmlPart));
+    }
+
+    /**
+     * Writes an email body, e.g. by rendering a template.
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+        void writeTo(Writer writer) throws IOException;
+    }
 }
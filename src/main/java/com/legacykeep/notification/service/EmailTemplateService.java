@@ -32,7 +32,8 @@ public interface EmailTemplateService {
     // Email link verification methods removed - using OTP verification as primary method
 
     /**
-     * Send OTP verification email.
+     * Send OTP verification code through its channel fallback cascade,
+     * ending with the verification email.
      * 
      * @param event User OTP verification requested event containing OTP code
      */
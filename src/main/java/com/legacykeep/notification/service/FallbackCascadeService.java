@@ -0,0 +1,291 @@
+package com.legacykeep.notification.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.NotificationDelivery;
+import com.legacykeep.notification.entity.NotificationStatus;
+import com.legacykeep.notification.entity.NotificationTemplate;
+import com.legacykeep.notification.event.dto.DeliveryConfirmedEvent;
+import com.legacykeep.notification.model.ChannelSendResult;
+import com.legacykeep.notification.model.FallbackOutcome;
+import com.legacykeep.notification.model.FallbackPolicy;
+import com.legacykeep.notification.repository.NotificationDeliveryRepository;
+import com.legacykeep.notification.repository.NotificationTemplateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Delivers a notification through its template's channel fallback cascade.
+ *
+ * The policy comes from the {@code fallback} entry of the template metadata, e.g.
+ * EMAIL, then PUSH for verification codes. Steps run one after another; the next
+ * channel is only tried when the previous one failed or was not done within its
+ * latency budget. Steps on a channel that cannot reach the recipient, such as SMS
+ * without a phone number, are skipped. A step requiring confirmation waits, within the same
+ * budget, for the device to acknowledge receipt through {@link #confirmDelivery}.
+ * Confirmations received by another instance are broadcast on the confirmation
+ * topic, which every instance consumes.
+ * The policy decides the channels, so channel preferences do not apply.
+ *
+ * Templates without a policy are sent on their own channel only. Metrics record
+ * which step delivered and the time to the first successful delivery.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class FallbackCascadeService {
+
+    private final Map<NotificationChannel, ChannelSender> senders = new EnumMap<>(NotificationChannel.class);
+    private final NotificationTemplateRepository templateRepository;
+    private final NotificationDeliveryRepository deliveryRepository;
+    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final NotificationConfig.FallbackConfig fallbackConfig;
+    private final Executor taskExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Optional<FallbackPolicy>> policies;
+    private final Map<String, CompletableFuture<Void>> confirmations = new ConcurrentHashMap<>();
+
+    public FallbackCascadeService(List<ChannelSender> channelSenders,
+                                  NotificationTemplateRepository templateRepository,
+                                  NotificationDeliveryRepository deliveryRepository,
+                                  ObjectMapper objectMapper,
+                                  KafkaTemplate<String, Object> kafkaTemplate,
+                                  NotificationConfig notificationConfig,
+                                  @Qualifier("notificationTaskExecutor") Executor taskExecutor,
+                                  MeterRegistry meterRegistry) {
+        channelSenders.forEach(sender -> senders.put(sender.getChannel(), sender));
+        this.templateRepository = templateRepository;
+        this.deliveryRepository = deliveryRepository;
+        this.objectMapper = objectMapper;
+        this.kafkaTemplate = kafkaTemplate;
+        this.fallbackConfig = notificationConfig.getFallback();
+        this.taskExecutor = taskExecutor;
+        this.meterRegistry = meterRegistry;
+        this.policies = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(fallbackConfig.getPolicyCacheExpireAfterWriteSeconds()))
+                .build();
+    }
+
+    /**
+     * Deliver a notification through its fallback cascade.
+     *
+     * @param notification Persisted notification
+     * @return Outcome with the delivering step and one recorded delivery per step attempted
+     */
+    public CompletableFuture<FallbackOutcome> deliver(Notification notification) {
+        List<FallbackPolicy.Step> steps = getPolicy(notification).getSteps().stream()
+                .filter(step -> senders.containsKey(step.getChannel()) && senders.get(step.getChannel()).canSend(notification))
+                .toList();
+        long startNanos = System.nanoTime();
+
+        return runStep(notification, steps, 0, startNanos, new ArrayList<>())
+                .thenApplyAsync(outcome -> {
+                    deliveryRepository.insertAll(outcome.getDeliveries());
+                    record(notification.getTemplateId(), outcome);
+                    return outcome;
+                }, taskExecutor);
+    }
+
+    /**
+     * Confirm that a device received a notification awaiting confirmation. A
+     * confirmation no step on this instance is waiting for is broadcast to the others.
+     *
+     * @param notificationId Notification ID
+     * @param channel Channel the notification arrived on
+     * @return Whether a cascade step on this instance was waiting for this confirmation
+     */
+    public boolean confirmDelivery(Long notificationId, NotificationChannel channel) {
+        if (completeConfirmation(notificationId, channel)) {
+            return true;
+        }
+        DeliveryConfirmedEvent event = DeliveryConfirmedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .notificationId(notificationId)
+                .channel(channel.name())
+                .confirmedAt(LocalDateTime.now())
+                .sourceService("notification-service")
+                .build();
+        kafkaTemplate.send(fallbackConfig.getConfirmationTopic(), String.valueOf(notificationId), event);
+        return false;
+    }
+
+    /**
+     * Complete a confirmation awaited by a cascade step on this instance.
+     *
+     * @param notificationId Notification ID
+     * @param channel Channel the notification arrived on
+     * @return Whether a cascade step on this instance was waiting for this confirmation
+     */
+    public boolean completeConfirmation(Long notificationId, NotificationChannel channel) {
+        CompletableFuture<Void> confirmation = confirmations.get(confirmationKey(notificationId, channel));
+        return confirmation != null && confirmation.complete(null);
+    }
+
+    /**
+     * Fallback policy of the notification's template.
+     */
+    public FallbackPolicy getPolicy(Notification notification) {
+        Optional<FallbackPolicy> policy = policies.get(notification.getTemplateId(), this::loadPolicy);
+        return policy.orElseGet(() -> FallbackPolicy.single(
+                NotificationChannel.valueOf(notification.getNotificationType().name()),
+                fallbackConfig.getDefaultStepBudgetMs()));
+    }
+
+    private CompletableFuture<FallbackOutcome> runStep(Notification notification, List<FallbackPolicy.Step> steps,
+                                                       int index, long startNanos, List<NotificationDelivery> deliveries) {
+        if (index == steps.size()) {
+            log.warn("Fallback cascade exhausted for notification {} after {} steps", notification.getId(), steps.size());
+            return CompletableFuture.completedFuture(new FallbackOutcome(null, 0, elapsedMs(startNanos), deliveries));
+        }
+
+        FallbackPolicy.Step step = steps.get(index);
+        return attempt(notification, step).thenCompose(delivery -> {
+            deliveries.add(delivery);
+            if (!delivery.isFailed()) {
+                return CompletableFuture.completedFuture(
+                        new FallbackOutcome(step.getChannel(), index + 1, elapsedMs(startNanos), deliveries));
+            }
+            log.info("Escalating notification {} from {}: {}", notification.getId(), step.getChannel(), delivery.getFailureReason());
+            return runStep(notification, steps, index + 1, startNanos, deliveries);
+        });
+    }
+
+    private CompletableFuture<NotificationDelivery> attempt(Notification notification, FallbackPolicy.Step step) {
+        long stepStartNanos = System.nanoTime();
+        String key = confirmationKey(notification.getId(), step.getChannel());
+        // Registered before sending, so a confirmation arriving before the send result is kept
+        CompletableFuture<Void> confirmation = step.isConfirmationRequired()
+                ? confirmations.computeIfAbsent(key, k -> new CompletableFuture<>())
+                : null;
+
+        CompletableFuture<ChannelSendResult> send;
+        try {
+            send = senders.get(step.getChannel()).send(notification);
+        } catch (RuntimeException e) {
+            send = CompletableFuture.failedFuture(e);
+        }
+
+        NotificationDelivery delivery = new NotificationDelivery(notification.getId(), step.getChannel());
+        return send
+                .orTimeout(step.getBudgetMs(), TimeUnit.MILLISECONDS)
+                .thenCompose(result -> {
+                    if (!result.isSent()) {
+                        delivery.markAsFailed(result.getFailureReason());
+                        return CompletableFuture.completedFuture(delivery);
+                    }
+                    delivery.setStatus(NotificationStatus.SENT);
+                    delivery.setSentAt(LocalDateTime.now());
+                    if (confirmation == null) {
+                        return CompletableFuture.completedFuture(delivery);
+                    }
+                    long remainingMs = Math.max(1, step.getBudgetMs() - elapsedMs(stepStartNanos));
+                    return confirmation.orTimeout(remainingMs, TimeUnit.MILLISECONDS).handle((confirmed, error) -> {
+                        if (error == null) {
+                            delivery.markAsDelivered();
+                        } else {
+                            delivery.markAsFailed("Not confirmed within " + step.getBudgetMs() + " ms");
+                        }
+                        return delivery;
+                    });
+                })
+                .exceptionally(e -> {
+                    delivery.markAsFailed(failureReason(e, step));
+                    return delivery;
+                })
+                .whenComplete((done, error) -> {
+                    if (confirmation != null) {
+                        confirmations.remove(key, confirmation);
+                    }
+                });
+    }
+
+    private Optional<FallbackPolicy> loadPolicy(String templateId) {
+        Optional<NotificationTemplate> template = templateRepository.findByTemplateIdAndIsActiveTrue(templateId);
+        if (template.isEmpty() || template.get().getMetadata() == null) {
+            return Optional.empty();
+        }
+
+        try {
+            JsonNode steps = objectMapper.readTree(template.get().getMetadata()).path("fallback").path("steps");
+            if (!steps.isArray() || steps.isEmpty()) {
+                return Optional.empty();
+            }
+            List<FallbackPolicy.Step> policySteps = new ArrayList<>();
+            for (JsonNode step : steps) {
+                policySteps.add(new FallbackPolicy.Step(
+                        NotificationChannel.valueOf(step.path("channel").asText()),
+                        step.path("budgetMs").asLong(fallbackConfig.getDefaultStepBudgetMs()),
+                        step.path("confirm").asBoolean(false)));
+            }
+            return Optional.of(new FallbackPolicy(policySteps));
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Invalid fallback policy on template {}, sending on its own channel only", templateId, e);
+            return Optional.empty();
+        }
+    }
+
+    private void record(String templateId, FallbackOutcome outcome) {
+        if (!outcome.isDelivered()) {
+            Counter.builder("notification.fallback.exhausted")
+                    .tag("template", templateId)
+                    .register(meterRegistry)
+                    .increment();
+            return;
+        }
+        Counter.builder("notification.fallback.delivered")
+                .tag("template", templateId)
+                .tag("channel", outcome.getDeliveredChannel().name())
+                .tag("step", String.valueOf(outcome.getDeliveredStep()))
+                .register(meterRegistry)
+                .increment();
+        Timer.builder("notification.fallback.time.to.delivery")
+                .tag("template", templateId)
+                .register(meterRegistry)
+                .record(outcome.getElapsedMs(), TimeUnit.MILLISECONDS);
+    }
+
+    private static String confirmationKey(Long notificationId, NotificationChannel channel) {
+        return notificationId + ":" + channel;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static String failureReason(Throwable error, FallbackPolicy.Step step) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return "Timed out after " + step.getBudgetMs() + " ms";
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
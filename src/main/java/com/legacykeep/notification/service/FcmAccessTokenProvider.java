@@ -0,0 +1,184 @@
+package com.legacykeep.notification.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * OAuth2 access tokens for the FCM HTTP v1 API, obtained with the service account
+ * credentials configured in {@code firebase.credentials.path}.
+ *
+ * A JWT signed with the service account key is exchanged for an access token at
+ * the account's token endpoint. The token is shared by all push requests and
+ * refreshed shortly before it expires, or when the provider rejects it.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class FcmAccessTokenProvider {
+
+    static final String MESSAGING_SCOPE = "https://www.googleapis.com/auth/firebase.messaging";
+    private static final String JWT_BEARER_GRANT = "urn:ietf:params:oauth:grant-type:jwt-bearer";
+    private static final String DEFAULT_TOKEN_URI = "https://oauth2.googleapis.com/token";
+    private static final long ASSERTION_LIFETIME_SECONDS = 3600;
+    private static final long REFRESH_MARGIN_SECONDS = 300;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ResourceLoader resourceLoader;
+    private final String credentialsPath;
+
+    private ServiceAccount serviceAccount;
+    private CompletableFuture<AccessToken> token;
+
+    public FcmAccessTokenProvider(@Qualifier("pushHttpClient") HttpClient httpClient,
+                                  ObjectMapper objectMapper,
+                                  ResourceLoader resourceLoader,
+                                  @Value("${firebase.credentials.path}") String credentialsPath) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.resourceLoader = resourceLoader;
+        this.credentialsPath = credentialsPath;
+    }
+
+    /**
+     * Current access token, fetched or refreshed when needed. Concurrent callers
+     * share one token request.
+     *
+     * @return Access token for the {@code Authorization: Bearer} header
+     */
+    public synchronized CompletableFuture<String> getAccessToken() {
+        if (token == null || !isUsable(token)) {
+            token = fetch();
+        }
+        return token.thenApply(AccessToken::getValue);
+    }
+
+    /**
+     * Drop a token the provider rejected, so the next request fetches a new one.
+     *
+     * @param rejected Rejected access token
+     */
+    public synchronized void invalidate(String rejected) {
+        if (token != null && token.isDone() && !token.isCompletedExceptionally()
+                && token.join().getValue().equals(rejected)) {
+            token = null;
+        }
+    }
+
+    private static boolean isUsable(CompletableFuture<AccessToken> token) {
+        if (!token.isDone()) {
+            return true;
+        }
+        return !token.isCompletedExceptionally()
+                && token.join().getExpiresAt().isAfter(Instant.now().plusSeconds(REFRESH_MARGIN_SECONDS));
+    }
+
+    private CompletableFuture<AccessToken> fetch() {
+        Instant now = Instant.now();
+        HttpRequest request;
+        try {
+            ServiceAccount account = serviceAccount();
+            String form = "grant_type=" + URLEncoder.encode(JWT_BEARER_GRANT, StandardCharsets.UTF_8)
+                    + "&assertion=" + assertion(account, now);
+            request = HttpRequest.newBuilder(URI.create(account.getTokenUri()))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+        } catch (IOException | GeneralSecurityException e) {
+            log.error("Cannot create FCM access token request from {}", credentialsPath, e);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("FCM token endpoint returned status " + response.statusCode());
+                    }
+                    try {
+                        JsonNode body = objectMapper.readTree(response.body());
+                        return new AccessToken(body.path("access_token").asText(),
+                                now.plusSeconds(body.path("expires_in").asLong(ASSERTION_LIFETIME_SECONDS)));
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Unreadable FCM token endpoint response", e);
+                    }
+                });
+    }
+
+    private String assertion(ServiceAccount account, Instant now) throws IOException, GeneralSecurityException {
+        ObjectNode header = objectMapper.createObjectNode()
+                .put("alg", "RS256")
+                .put("typ", "JWT");
+        ObjectNode claims = objectMapper.createObjectNode()
+                .put("iss", account.getClientEmail())
+                .put("scope", MESSAGING_SCOPE)
+                .put("aud", account.getTokenUri())
+                .put("iat", now.getEpochSecond())
+                .put("exp", now.getEpochSecond() + ASSERTION_LIFETIME_SECONDS);
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String signingInput = encoder.encodeToString(objectMapper.writeValueAsBytes(header))
+                + "." + encoder.encodeToString(objectMapper.writeValueAsBytes(claims));
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(account.getPrivateKey());
+        signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + encoder.encodeToString(signature.sign());
+    }
+
+    private synchronized ServiceAccount serviceAccount() throws IOException, GeneralSecurityException {
+        if (serviceAccount == null) {
+            JsonNode credentials;
+            try (InputStream in = resourceLoader.getResource(credentialsPath).getInputStream()) {
+                credentials = objectMapper.readTree(in);
+            }
+            String pem = credentials.path("private_key").asText()
+                    .replaceAll("-----(BEGIN|END) PRIVATE KEY-----", "");
+            byte[] der = Base64.getMimeDecoder().decode(pem);
+            PrivateKey key = KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(der));
+            serviceAccount = new ServiceAccount(credentials.path("client_email").asText(),
+                    credentials.path("token_uri").asText(DEFAULT_TOKEN_URI), key);
+        }
+        return serviceAccount;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ServiceAccount {
+        private final String clientEmail;
+        private final String tokenUri;
+        private final PrivateKey privateKey;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class AccessToken {
+        private final String value;
+        private final Instant expiresAt;
+    }
+}
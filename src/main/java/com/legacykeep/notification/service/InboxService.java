@@ -0,0 +1,64 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.dto.InboxPage;
+import com.legacykeep.notification.entity.InboxItem;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for the in-app notification inbox.
+ *
+ * Pages are read with a keyset cursor, so loading any page costs the same no matter
+ * how long the user's history is. Unread counters are adjusted incrementally on
+ * every insert and mark-as-read and are never derived by counting items.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public interface InboxService {
+
+    /**
+     * Store in-app notifications, skipping items whose event ID is already stored.
+     *
+     * @param items Items to store
+     * @return Newly stored items
+     */
+    List<InboxItem> deliver(Collection<InboxItem> items);
+
+    /**
+     * Get a page of a user's inbox, newest first.
+     *
+     * @param userId User ID
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of items
+     * @return Inbox page
+     */
+    InboxPage getPage(Long userId, String cursor, int limit);
+
+    /**
+     * Mark items of a user as read.
+     *
+     * @param userId User ID
+     * @param itemIds Item IDs
+     * @return Number of items that were unread
+     */
+    int markRead(Long userId, Collection<Long> itemIds);
+
+    /**
+     * Mark every item of a user as read.
+     *
+     * @param userId User ID
+     * @return Number of items that were unread
+     */
+    int markAllRead(Long userId);
+
+    /**
+     * Get unread counts for a batch of users.
+     *
+     * @param userIds User IDs
+     * @return Unread counts keyed by user ID (zero for users without items)
+     */
+    Map<Long, Long> getUnreadCounts(Collection<Long> userIds);
+}
@@ -0,0 +1,330 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.InboxItem;
+import com.legacykeep.notification.event.InboxItemsStoredEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Real-time gateway pushing new inbox items to online users over Server-Sent Events.
+ *
+ * Each connection is an async servlet request, so an idle connection holds no
+ * thread. Stored items are broadcast on a topic that every instance consumes with
+ * its own group, so they reach the user's streams on any node. New items are put
+ * in the connection's bounded buffer and written by a short drain task on a
+ * dedicated stream executor. A connection whose buffer is full, or whose drain task
+ * the saturated executor rejects, is a slow consumer and is closed; the client
+ * reconnects and catches up by reloading the first inbox page. A write blocked for
+ * longer than the write timeout marks a client that is gone: its connection is
+ * dropped and completed once the blocked write returns.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class InboxStreamService {
+
+    static final String INBOX_EVENT = "inbox";
+
+    private final NotificationConfig.StreamConfig streamConfig;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Executor streamExecutor;
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicLong connectionSequence = new AtomicLong();
+
+    public InboxStreamService(NotificationConfig notificationConfig,
+                              KafkaTemplate<String, Object> kafkaTemplate,
+                              @Qualifier("inboxStreamExecutor") Executor streamExecutor) {
+        this.streamConfig = notificationConfig.getStream();
+        this.kafkaTemplate = kafkaTemplate;
+        this.streamExecutor = streamExecutor;
+    }
+
+    /**
+     * Open a stream for a user.
+     *
+     * @param userId User ID
+     * @return Emitter bound to the request
+     */
+    public SseEmitter connect(Long userId) {
+        return register(userId, new SseEmitter(streamConfig.getConnectionTimeoutMs()));
+    }
+
+    /**
+     * Register an emitter as a connection of a user.
+     *
+     * @param userId User ID
+     * @param emitter Emitter
+     * @return The emitter, already completed if the node or user is at its connection limit
+     */
+    SseEmitter register(Long userId, SseEmitter emitter) {
+        if (connectionCount.incrementAndGet() > streamConfig.getMaxConnections()) {
+            connectionCount.decrementAndGet();
+            log.warn("Rejecting inbox stream for user {}: node at {} connections", userId, streamConfig.getMaxConnections());
+            emitter.complete();
+            return emitter;
+        }
+
+        Connection connection = new Connection(connectionSequence.incrementAndGet(), userId, emitter, streamConfig.getBufferSize());
+        Set<Connection> userConnections = connections.compute(userId, (id, existing) -> {
+            Set<Connection> set = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            set.add(connection);
+            return set;
+        });
+        if (userConnections.size() > streamConfig.getMaxConnectionsPerUser()) {
+            userConnections.stream()
+                    .filter(c -> c != connection)
+                    .min(Comparator.comparingLong(c -> c.sequence))
+                    .ifPresent(this::close);
+        }
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        log.debug("Inbox stream opened for user {}, {} connections on node", userId, connectionCount.get());
+        return emitter;
+    }
+
+    /**
+     * Broadcast stored items to every instance once the write is committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInboxItemsStored(InboxItemsStoredEvent event) {
+        for (InboxItem item : event.getItems()) {
+            kafkaTemplate.send(streamConfig.getTopic(), String.valueOf(item.getRecipientId()), item);
+        }
+    }
+
+    /**
+     * Forward a broadcast item to its recipient's open connections on this node.
+     *
+     * @param item Stored inbox item
+     */
+    public void deliver(InboxItem item) {
+        Set<Connection> userConnections = connections.get(item.getRecipientId());
+        if (userConnections == null) {
+            return;
+        }
+        for (Connection connection : userConnections) {
+            if (connection.buffer.offer(item)) {
+                scheduleDrain(connection);
+            } else {
+                log.info("Shedding slow inbox stream of user {}: {} items buffered",
+                        connection.userId, connection.buffer.size());
+                close(connection);
+            }
+        }
+    }
+
+    /**
+     * Send a comment line on every connection, keeping proxies from closing idle
+     * streams and detecting clients that went away. The writes run in batches on
+     * the stream executor, not on the scheduler thread.
+     */
+    @Scheduled(fixedDelayString = "${notification.stream.heartbeat-interval-ms:25000}")
+    public void sendHeartbeats() {
+        int batchSize = streamConfig.getHeartbeatBatchSize();
+        List<Connection> batch = new ArrayList<>(batchSize);
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                batch.add(connection);
+                if (batch.size() == batchSize) {
+                    scheduleHeartbeats(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            scheduleHeartbeats(batch);
+        }
+    }
+
+    /**
+     * Drop connections whose current write has been blocked for longer than the write
+     * timeout. The blocked writer completes the emitter once its write returns.
+     */
+    @Scheduled(fixedDelayString = "${notification.stream.write-check-interval-ms:5000}")
+    public void dropStalledConnections() {
+        long stalledBefore = System.currentTimeMillis() - streamConfig.getWriteTimeoutMs();
+        int dropped = 0;
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                long startedAt = connection.writeStartedAt;
+                if (startedAt != 0 && startedAt < stalledBefore && remove(connection)) {
+                    dropped++;
+                    // The write may have returned before the connection was removed
+                    if (connection.writeStartedAt == 0) {
+                        complete(connection);
+                    }
+                }
+            }
+        }
+        if (dropped > 0) {
+            log.info("Dropped {} inbox streams with writes blocked for over {} ms", dropped, streamConfig.getWriteTimeoutMs());
+        }
+    }
+
+    /**
+     * Close every connection on shutdown so clients reconnect to another node.
+     */
+    @PreDestroy
+    public void closeAll() {
+        connections.values().forEach(userConnections -> userConnections.forEach(this::close));
+    }
+
+    /**
+     * Number of open connections on this node
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Number of users with at least one open connection on this node
+     */
+    public int getOnlineUserCount() {
+        return connections.size();
+    }
+
+    private void scheduleHeartbeats(List<Connection> batch) {
+        try {
+            streamExecutor.execute(() -> {
+                for (Connection connection : batch) {
+                    // A connection with a write in progress is alive or about to be dropped
+                    if (connection.closed.get() || connection.writeStartedAt != 0) {
+                        continue;
+                    }
+                    try {
+                        write(connection, SseEmitter.event().comment("heartbeat"));
+                    } catch (IOException | IllegalStateException e) {
+                        remove(connection);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Skipping heartbeats of {} inbox streams: stream executor saturated", batch.size());
+        }
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            try {
+                streamExecutor.execute(() -> drain(connection));
+            } catch (RejectedExecutionException e) {
+                connection.draining.set(false);
+                log.info("Shedding inbox stream of user {}: stream executor saturated", connection.userId);
+                close(connection);
+            }
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            InboxItem item;
+            while (!connection.closed.get() && (item = connection.buffer.poll()) != null) {
+                write(connection, SseEmitter.event()
+                        .id(String.valueOf(item.getId()))
+                        .name(INBOX_EVENT)
+                        .data(item));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Inbox stream of user {} is gone: {}", connection.userId, e.getMessage());
+            remove(connection);
+            return;
+        } finally {
+            connection.draining.set(false);
+        }
+        // Items offered while the flag was still set
+        if (!connection.buffer.isEmpty()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    /**
+     * Write an event, recording when the write started so a blocked write is detected.
+     * If the connection was dropped as stalled meanwhile, complete it once the write returns.
+     */
+    private void write(Connection connection, SseEmitter.SseEventBuilder event) throws IOException {
+        connection.writeStartedAt = System.currentTimeMillis();
+        try {
+            connection.emitter.send(event);
+        } finally {
+            connection.writeStartedAt = 0;
+            if (connection.closed.get()) {
+                complete(connection);
+            }
+        }
+    }
+
+    private void close(Connection connection) {
+        if (remove(connection)) {
+            complete(connection);
+        }
+    }
+
+    private void complete(Connection connection) {
+        if (connection.completed.compareAndSet(false, true)) {
+            connection.emitter.complete();
+        }
+    }
+
+    private boolean remove(Connection connection) {
+        if (!connection.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        connections.computeIfPresent(connection.userId, (id, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+        connectionCount.decrementAndGet();
+        connection.buffer.clear();
+        return true;
+    }
+
+    /**
+     * One open stream with its bounded buffer of items not yet written
+     */
+    private static final class Connection {
+
+        private final long sequence;
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<InboxItem> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile long writeStartedAt;
+
+        private Connection(long sequence, Long userId, SseEmitter emitter, int bufferSize) {
+            this.sequence = sequence;
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.NotificationDelivery;
+import com.legacykeep.notification.entity.NotificationStatus;
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+import com.legacykeep.notification.model.ChannelSendResult;
+import com.legacykeep.notification.repository.NotificationDeliveryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fans notifications out to every channel their recipients have enabled.
+ *
+ * Preferences of all recipients are resolved with one lookup, then every
+ * (notification, channel) send is started at once, so a fan-out takes as long as
+ * its slowest channel rather than the sum of all of them. Each channel receives
+ * its share of the batch in one call, so it can reuse a connection across sends.
+ * Channels that cannot reach a recipient, such as SMS without a phone number, are
+ * skipped rather than recorded as failures. A send that does not finish within
+ * the channel timeout counts as failed. Once every send is done,
+ * one {@link NotificationDelivery} row per attempt is written in a single insert.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class NotificationFanOutService {
+
+    private final Map<NotificationChannel, ChannelSender> senders = new EnumMap<>(NotificationChannel.class);
+    private final NotificationPreferenceService preferenceService;
+    private final NotificationDeliveryRepository deliveryRepository;
+    private final NotificationConfig.FanOutConfig fanOutConfig;
+    private final Executor taskExecutor;
+
+    public NotificationFanOutService(List<ChannelSender> channelSenders,
+                                     NotificationPreferenceService preferenceService,
+                                     NotificationDeliveryRepository deliveryRepository,
+                                     NotificationConfig notificationConfig,
+                                     @Qualifier("notificationTaskExecutor") Executor taskExecutor) {
+        channelSenders.forEach(sender -> senders.put(sender.getChannel(), sender));
+        this.preferenceService = preferenceService;
+        this.deliveryRepository = deliveryRepository;
+        this.fanOutConfig = notificationConfig.getFanOut();
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Send a notification on every channel its recipient has enabled.
+     *
+     * @param notification Persisted notification
+     * @return Recorded deliveries, one per channel attempted
+     */
+    public CompletableFuture<List<NotificationDelivery>> fanOut(Notification notification) {
+        return fanOut(List.of(notification));
+    }
+
+    /**
+     * Send notifications on every channel their recipients have enabled.
+     *
+     * @param notifications Persisted notifications
+     * @return Recorded deliveries, one per notification and channel attempted
+     */
+    public CompletableFuture<List<NotificationDelivery>> fanOut(List<Notification> notifications) {
+        return fanOut(notifications, EnumSet.allOf(NotificationChannel.class));
+    }
+
+    /**
+     * Send notifications on those of the given channels their recipients have enabled.
+     *
+     * @param notifications Persisted notifications
+     * @param channels Channels to consider
+     * @return Recorded deliveries, one per notification and channel attempted
+     */
+    public CompletableFuture<List<NotificationDelivery>> fanOut(List<Notification> notifications,
+                                                                Set<NotificationChannel> channels) {
+        if (notifications.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        Set<Long> recipientIds = new LinkedHashSet<>();
+        notifications.forEach(notification -> recipientIds.add(notification.getRecipientId()));
+        Map<Long, UserNotificationPreferences> preferences = preferenceService.getPreferences(recipientIds);
+
+        List<CompletableFuture<NotificationDelivery>> attempts = new ArrayList<>();
+        for (ChannelSender sender : senders.values()) {
+            if (!channels.contains(sender.getChannel())) {
+                continue;
+            }
+            List<Notification> enabled = new ArrayList<>();
+            for (Notification notification : notifications) {
+                UserNotificationPreferences recipientPreferences = preferences.get(notification.getRecipientId());
+                if (recipientPreferences != null && recipientPreferences.isChannelEnabled(sender.getChannel())
+                        && sender.canSend(notification)) {
+                    enabled.add(notification);
+                }
+            }
+            if (!enabled.isEmpty()) {
+                attempts.addAll(attempt(enabled, sender));
+            }
+        }
+
+        return CompletableFuture.allOf(attempts.toArray(CompletableFuture[]::new))
+                .thenApplyAsync(done -> {
+                    List<NotificationDelivery> deliveries = new ArrayList<>(attempts.size());
+                    attempts.forEach(attempt -> deliveries.add(attempt.join()));
+                    deliveryRepository.insertAll(deliveries);
+                    log.info("Fanned out {} notifications over {} channel sends, {} failed",
+                            notifications.size(), deliveries.size(),
+                            deliveries.stream().filter(NotificationDelivery::isFailed).count());
+                    return deliveries;
+                }, taskExecutor);
+    }
+
+    private List<CompletableFuture<NotificationDelivery>> attempt(List<Notification> notifications, ChannelSender sender) {
+        List<CompletableFuture<ChannelSendResult>> sends;
+        try {
+            sends = sender.sendAll(notifications);
+        } catch (RuntimeException e) {
+            sends = Collections.nCopies(notifications.size(), CompletableFuture.failedFuture(e));
+        }
+
+        List<CompletableFuture<NotificationDelivery>> attempts = new ArrayList<>(notifications.size());
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            attempts.add(sends.get(i)
+                    .orTimeout(fanOutConfig.getChannelTimeoutMs(), TimeUnit.MILLISECONDS)
+                    .exceptionally(e -> ChannelSendResult.failed(failureReason(e)))
+                    .thenApply(result -> toDelivery(notification, sender.getChannel(), result)));
+        }
+        return attempts;
+    }
+
+    private NotificationDelivery toDelivery(Notification notification, NotificationChannel channel, ChannelSendResult result) {
+        NotificationDelivery delivery = new NotificationDelivery(notification.getId(), channel);
+        if (result.isSent()) {
+            delivery.setStatus(NotificationStatus.SENT);
+            delivery.setSentAt(LocalDateTime.now());
+        } else {
+            log.warn("{} delivery of notification {} failed: {}", channel, notification.getId(), result.getFailureReason());
+            delivery.markAsFailed(result.getFailureReason());
+        }
+        return delivery;
+    }
+
+    private String failureReason(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return "Timed out after " + fanOutConfig.getChannelTimeoutMs() + " ms";
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
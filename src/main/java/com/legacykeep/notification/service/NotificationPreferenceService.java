@@ -0,0 +1,80 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+import com.legacykeep.notification.model.PreferenceSnapshot;
+
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Service for reading and updating user notification preferences.
+ *
+ * Reads are served from an in-process cache so that channel and quiet-hours
+ * checks on the delivery path never issue a per-event database query.
+ * Returned instances are shared cache entries and must be treated as read-only.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public interface NotificationPreferenceService {
+
+    /**
+     * Get preferences for a user, falling back to defaults when none are stored.
+     *
+     * @param userId User ID
+     * @return Preferences for the user (never null)
+     */
+    UserNotificationPreferences getPreferences(Long userId);
+
+    /**
+     * Get preferences for a batch of users with a single query for all cache misses.
+     *
+     * @param userIds User IDs
+     * @return Preferences keyed by user ID (defaults for users without stored preferences)
+     */
+    Map<Long, UserNotificationPreferences> getPreferences(Collection<Long> userIds);
+
+    /**
+     * Load a packed preference snapshot for a large recipient set.
+     * Intended for fan-outs too large to hold as entities in the cache.
+     *
+     * @param userIds Recipient user IDs
+     * @return Snapshot resolving every recipient (defaults for users without stored preferences)
+     */
+    PreferenceSnapshot getSnapshot(long[] userIds);
+
+    /**
+     * Check if a channel is enabled for a user.
+     *
+     * @param userId User ID
+     * @param channel Notification channel
+     * @return true if the user accepts notifications on the channel
+     */
+    boolean isChannelEnabled(Long userId, NotificationChannel channel);
+
+    /**
+     * Check if a user is currently within their quiet hours.
+     *
+     * @param userId User ID
+     * @param currentTime Time of day to check
+     * @return true if notifications should be held back
+     */
+    boolean isWithinQuietHours(Long userId, LocalTime currentTime);
+
+    /**
+     * Persist updated preferences and invalidate cached copies on all instances.
+     *
+     * @param preferences Preferences to save
+     * @return Saved preferences
+     */
+    UserNotificationPreferences updatePreferences(UserNotificationPreferences preferences);
+
+    /**
+     * Drop the cached preferences of a user on this instance.
+     *
+     * @param userId User ID
+     */
+    void evict(Long userId);
+}
@@ -0,0 +1,149 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.repository.PartitionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Keeps the monthly partitions of notifications, deliveries, events and their
+ * event ID keys in shape.
+ *
+ * Partitions are created a few months ahead so inserts rarely fall back to the
+ * default partition, and partitions whose whole month is older than the retention
+ * period are dropped, whatever the state of their rows. Retention therefore costs
+ * one catalog change per month instead of a large {@code DELETE} that bloats and
+ * locks the table. The unpartitioned queue, activity and dead letter tables are
+ * purged of rows older than the notification retention in small batches.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class PartitionMaintenanceService {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final PartitionRepository partitionRepository;
+    private final NotificationConfig.PartitionConfig config;
+
+    public PartitionMaintenanceService(PartitionRepository partitionRepository, NotificationConfig notificationConfig) {
+        this.partitionRepository = partitionRepository;
+        this.config = notificationConfig.getPartitions();
+    }
+
+    /**
+     * Make sure the coming months have partitions before the application takes traffic.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            maintain();
+        } catch (Exception e) {
+            log.error("Failed to maintain notification partitions on startup, will retry on schedule", e);
+        }
+    }
+
+    /**
+     * Create upcoming partitions and drop expired ones.
+     *
+     * @return Number of partitions dropped
+     */
+    @Scheduled(cron = "${notification.partitions.maintenance-cron:0 30 3 * * *}")
+    public int maintain() {
+        return maintain(YearMonth.now());
+    }
+
+    int maintain(YearMonth current) {
+        Map<String, Integer> retentionMonths = Map.of(
+                "notifications", config.getRetentionMonths(),
+                "notification_deliveries", config.getRetentionMonths(),
+                "notification_keys", config.getRetentionMonths(),
+                "notification_events", config.getEventRetentionMonths(),
+                "notification_event_keys", config.getEventRetentionMonths());
+
+        int dropped = 0;
+        for (Map.Entry<String, Integer> table : retentionMonths.entrySet()) {
+            if (!partitionRepository.isPartitioned(table.getKey())) {
+                log.warn("Table {} is not partitioned, skipping partition maintenance", table.getKey());
+                continue;
+            }
+            createUpcoming(table.getKey(), current);
+            dropped += dropExpired(table.getKey(), current.minusMonths(table.getValue()));
+        }
+        purgeExpired(current.minusMonths(config.getRetentionMonths()));
+        return dropped;
+    }
+
+    private void createUpcoming(String table, YearMonth current) {
+        for (int i = 0; i <= config.getMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            if (partitionRepository.createPartition(table, month)) {
+                log.info("Created partition of {} for {}", table, month);
+            }
+        }
+    }
+
+    /**
+     * Drop the partitions of months before the first retained month.
+     */
+    private int dropExpired(String table, YearMonth firstRetained) {
+        int dropped = 0;
+        for (String partition : partitionRepository.findPartitions(table)) {
+            YearMonth month = monthOf(table, partition);
+            if (month == null || !month.isBefore(firstRetained)) {
+                continue;
+            }
+            if (partitionRepository.dropPartition(table, partition)) {
+                log.info("Dropped expired partition {}", partition);
+                dropped++;
+            } else {
+                log.warn("Expired partition {} is no longer a partition of {}", partition, table);
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Delete the rows created before the first retained month from the unpartitioned
+     * tables, one short batch at a time.
+     */
+    private void purgeExpired(YearMonth firstRetained) {
+        LocalDateTime before = firstRetained.atDay(1).atStartOfDay();
+        for (String table : PartitionRepository.PURGED_TABLES) {
+            int purged = 0;
+            int batch;
+            do {
+                batch = partitionRepository.purge(table, before, config.getPurgeBatchSize());
+                purged += batch;
+            } while (batch >= config.getPurgeBatchSize());
+            if (purged > 0) {
+                log.info("Purged {} expired rows of {}", purged, table);
+            }
+        }
+    }
+
+    /**
+     * Month of a partition named {@code <table>_pYYYYMM}, or null for other partitions
+     */
+    static YearMonth monthOf(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix) || partition.length() != prefix.length() + 6) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(prefix.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.legacykeep.notification.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.NotificationPriority;
+import com.legacykeep.notification.model.PushMessage;
+import com.legacykeep.notification.model.PushSendResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service for push notification delivery over the FCM HTTP v1 API.
+ *
+ * The v1 API takes one device token per request. A send to many devices issues
+ * its requests concurrently through one shared HTTP/2 client, so they are
+ * multiplexed as streams over pooled connections, with at most the configured
+ * number in flight per send. A fan-out to many users resolves their devices with
+ * a single query. Requests are authorized with an OAuth2 access token of the
+ * Firebase service account.
+ *
+ * Tokens the provider reports as unregistered or invalid are deactivated in
+ * {@code user_devices} so they are not targeted again. {@code INVALID_ARGUMENT} also
+ * covers malformed payloads, so it only counts when the violation names the token.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class PushDeliveryService {
+
+    private static final Set<String> INVALID_TOKEN_ERRORS =
+            Set.of("UNREGISTERED", "SENDER_ID_MISMATCH");
+    private static final String INVALID_ARGUMENT = "INVALID_ARGUMENT";
+    private static final String TOKEN_FIELD = "message.token";
+    private static final String FCM_ERROR_TYPE = "type.googleapis.com/google.firebase.fcm.v1.FcmError";
+    private static final String BAD_REQUEST_TYPE = "type.googleapis.com/google.rpc.BadRequest";
+
+    private final DeviceRegistryService deviceRegistry;
+    private final FcmAccessTokenProvider accessTokenProvider;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final NotificationConfig.PushConfig pushConfig;
+    private final URI endpoint;
+
+    public PushDeliveryService(DeviceRegistryService deviceRegistry,
+                               FcmAccessTokenProvider accessTokenProvider,
+                               @Qualifier("pushHttpClient") HttpClient httpClient,
+                               ObjectMapper objectMapper,
+                               NotificationConfig notificationConfig,
+                               @Value("${firebase.project-id}") String projectId) {
+        this.deviceRegistry = deviceRegistry;
+        this.accessTokenProvider = accessTokenProvider;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.pushConfig = notificationConfig.getPush();
+        this.endpoint = URI.create(pushConfig.getEndpoint() + "/v1/projects/" + projectId + "/messages:send");
+    }
+
+    /**
+     * Send a push notification to every active device of a user.
+     *
+     * @param userId User ID
+     * @param message Push message
+     * @return Combined result of the send
+     */
+    public CompletableFuture<PushSendResult> sendToUser(Long userId, PushMessage message) {
+        return sendToUsers(List.of(userId), message);
+    }
+
+    /**
+     * Send the same push notification to every active device of many users.
+     *
+     * @param userIds User IDs
+     * @param message Push message
+     * @return Combined result of the send
+     */
+    public CompletableFuture<PushSendResult> sendToUsers(Collection<Long> userIds, PushMessage message) {
+        if (userIds.isEmpty()) {
+            return CompletableFuture.completedFuture(PushSendResult.EMPTY);
+        }
+
+        Set<String> tokens = new LinkedHashSet<>();
+        deviceRegistry.getActiveTokens(userIds).values().forEach(tokens::addAll);
+        log.debug("Resolved {} active device tokens for {} users", tokens.size(), userIds.size());
+        return send(tokens, message);
+    }
+
+    /**
+     * Send a push notification to the given device tokens.
+     *
+     * @param deviceTokens Device tokens
+     * @param message Push message
+     * @return Combined result of all requests
+     */
+    public CompletableFuture<PushSendResult> send(Collection<String> deviceTokens, PushMessage message) {
+        if (!pushConfig.isEnabled() || deviceTokens.isEmpty()) {
+            return CompletableFuture.completedFuture(PushSendResult.EMPTY);
+        }
+
+        List<String> tokens = new ArrayList<>(deviceTokens);
+        return accessTokenProvider.getAccessToken()
+                .thenCompose(accessToken -> sendAll(tokens, payload(message), accessToken))
+                .exceptionally(e -> {
+                    log.error("Push to {} devices not sent: no FCM access token", tokens.size(), e);
+                    return new PushSendResult(0, List.copyOf(tokens), List.of());
+                })
+                .thenApply(result -> {
+                    if (!result.getInvalidTokens().isEmpty()) {
+                        deviceRegistry.reportInvalidTokens(result.getInvalidTokens());
+                    }
+                    log.info("Push sent to {} devices: {} delivered, {} failed, {} invalid",
+                            tokens.size(), result.getSuccessCount(),
+                            result.getFailedTokens().size(), result.getInvalidTokens().size());
+                    return result;
+                });
+    }
+
+    /**
+     * Send one request per token, with the tokens spread over a bounded number of
+     * lanes that each send their requests one after another.
+     */
+    private CompletableFuture<PushSendResult> sendAll(List<String> tokens, ObjectNode message, String accessToken) {
+        int lanes = Math.min(pushConfig.getMaxConcurrentRequests(), tokens.size());
+        List<CompletableFuture<PushSendResult>> requests = new ArrayList<>(lanes);
+        for (int lane = 0; lane < lanes; lane++) {
+            CompletableFuture<PushSendResult> chain = CompletableFuture.completedFuture(PushSendResult.EMPTY);
+            for (int i = lane; i < tokens.size(); i += lanes) {
+                String token = tokens.get(i);
+                chain = chain.thenCompose(result -> sendOne(token, message, accessToken).thenApply(result::merge));
+            }
+            requests.add(chain);
+        }
+
+        return CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    PushSendResult result = PushSendResult.EMPTY;
+                    for (CompletableFuture<PushSendResult> request : requests) {
+                        result = result.merge(request.join());
+                    }
+                    return result;
+                });
+    }
+
+    private CompletableFuture<PushSendResult> sendOne(String token, ObjectNode message, String accessToken) {
+        HttpRequest request;
+        try {
+            ObjectNode body = objectMapper.createObjectNode();
+            body.set("message", message.deepCopy().put("token", token));
+            request = HttpRequest.newBuilder(endpoint)
+                    .timeout(Duration.ofMillis(pushConfig.getRequestTimeoutMs()))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + accessToken)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            log.error("Failed to serialize push payload", e);
+            return CompletableFuture.completedFuture(failed(token));
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> parseResponse(token, accessToken, response))
+                .exceptionally(e -> {
+                    log.warn("Push request failed: {}", e.getMessage());
+                    return failed(token);
+                });
+    }
+
+    private ObjectNode payload(PushMessage message) {
+        boolean high = message.getPriority().compareTo(NotificationPriority.NORMAL) > 0;
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.putObject("notification")
+                .put("title", message.getTitle())
+                .put("body", message.getBody());
+        if (message.getData() != null && !message.getData().isEmpty()) {
+            ObjectNode data = payload.putObject("data");
+            message.getData().forEach(data::put);
+        }
+        payload.putObject("android").put("priority", high ? "HIGH" : "NORMAL");
+        payload.putObject("apns").putObject("headers").put("apns-priority", high ? "10" : "5");
+        return payload;
+    }
+
+    private PushSendResult parseResponse(String token, String accessToken, HttpResponse<byte[]> response) {
+        if (response.statusCode() == 200) {
+            return new PushSendResult(1, List.of(), List.of());
+        }
+        if (response.statusCode() == 401) {
+            accessTokenProvider.invalidate(accessToken);
+        }
+
+        JsonNode error = error(response.body());
+        String code = errorCode(error);
+        if (INVALID_TOKEN_ERRORS.contains(code) || (INVALID_ARGUMENT.equals(code) && isTokenViolation(error))) {
+            return new PushSendResult(0, List.of(), List.of(token));
+        }
+        log.debug("Push provider rejected request with status {}: {}", response.statusCode(), code);
+        return failed(token);
+    }
+
+    private JsonNode error(byte[] body) {
+        try {
+            return objectMapper.readTree(body).path("error");
+        } catch (IOException e) {
+            return objectMapper.missingNode();
+        }
+    }
+
+    /**
+     * FCM error code from the error details, or the canonical status when there is none.
+     */
+    private static String errorCode(JsonNode error) {
+        for (JsonNode detail : error.path("details")) {
+            if (FCM_ERROR_TYPE.equals(detail.path("@type").asText())) {
+                return detail.path("errorCode").asText(null);
+            }
+        }
+        return error.path("status").asText(null);
+    }
+
+    /**
+     * Whether a bad request names the registration token as the invalid field.
+     */
+    private static boolean isTokenViolation(JsonNode error) {
+        for (JsonNode detail : error.path("details")) {
+            if (BAD_REQUEST_TYPE.equals(detail.path("@type").asText())) {
+                for (JsonNode violation : detail.path("fieldViolations")) {
+                    if (TOKEN_FIELD.equals(violation.path("field").asText())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static PushSendResult failed(String token) {
+        return new PushSendResult(0, List.of(token), List.of());
+    }
+}
@@ -0,0 +1,263 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationPriority;
+import com.legacykeep.notification.entity.NotificationQueueEntry;
+import com.legacykeep.notification.entity.NotificationQueueStatus;
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+import com.legacykeep.notification.event.DeferredNotificationsReleasedEvent;
+import com.legacykeep.notification.model.DeferralBuckets;
+import com.legacykeep.notification.repository.NotificationQueueRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service for deferring non-urgent notifications until the end of the recipient's quiet hours.
+ *
+ * Deferred notifications are persisted to {@code notification_queue} for durability and
+ * grouped in memory into wake-up buckets keyed by release instant. The release job only
+ * peeks at the earliest bucket; when it is due, the whole bucket is claimed with bulk
+ * updates and handed to the pipeline as a {@link DeferredNotificationsReleasedEvent}.
+ * Claimed rows are completed only after the handover, so a failed release is retried.
+ * A periodic sweep claims overdue rows from the table, releasing entries whose
+ * buckets were lost with the instance that deferred them.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuietHoursDeferralService {
+
+    private final NotificationQueueRepository queueRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationConfig notificationConfig;
+
+    private final DeferralBuckets buckets = new DeferralBuckets();
+
+    /**
+     * Defer a notification if its recipient is currently within quiet hours.
+     *
+     * The notification must already be persisted. Its {@code scheduledAt} is set to the
+     * release time; saving that change is left to the caller's own write.
+     *
+     * @param notification Persisted notification
+     * @param preferences Recipient preferences
+     * @param now Current instant
+     * @return Release instant when the notification was deferred, empty when it may be sent now
+     */
+    public Optional<Instant> deferIfQuiet(Notification notification, UserNotificationPreferences preferences, Instant now) {
+        if (!notificationConfig.getDeferral().isEnabled() || notification.getPriority() == NotificationPriority.URGENT) {
+            return Optional.empty();
+        }
+
+        Instant releaseAt = preferences.getNextAllowedSendTime(now);
+        if (!releaseAt.isAfter(now)) {
+            return Optional.empty();
+        }
+
+        LocalDateTime scheduledAt = LocalDateTime.ofInstant(releaseAt, ZoneId.systemDefault());
+        notification.setScheduledAt(scheduledAt);
+
+        NotificationQueueEntry entry = queueRepository.save(
+                new NotificationQueueEntry(notification.getId(), scheduledAt, notification.getPriority()));
+        buckets.add(releaseAt, entry.getId(), notification.getId());
+
+        log.debug("Deferred notification {} for user {} until {} ({})",
+                notification.getId(), notification.getRecipientId(), releaseAt, preferences.getZoneId());
+        return Optional.of(releaseAt);
+    }
+
+    /**
+     * Release every wake-up bucket that is due.
+     */
+    @Scheduled(fixedDelayString = "${notification.deferral.release-check-interval-ms:1000}")
+    public void releaseDueNotifications() {
+        releaseDue(Instant.now());
+    }
+
+    /**
+     * Release every wake-up bucket due at or before {@code now}.
+     *
+     * @param now Current instant
+     * @return Number of notifications released
+     */
+    public int releaseDue(Instant now) {
+        List<DeferralBuckets.Bucket> due = buckets.pollDue(now);
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        int batchSize = notificationConfig.getDeferral().getClaimBatchSize();
+        int released = 0;
+        for (DeferralBuckets.Bucket bucket : due) {
+            long[] queueEntryIds = bucket.getQueueEntryIds();
+            long[] notificationIds = bucket.getNotificationIds();
+
+            for (int from = 0; from < queueEntryIds.length; from += batchSize) {
+                int to = Math.min(from + batchSize, queueEntryIds.length);
+                released += release(bucket.getReleaseAt(),
+                        Arrays.copyOfRange(queueEntryIds, from, to), Arrays.copyOfRange(notificationIds, from, to));
+            }
+        }
+
+        log.info("Released {} deferred notifications from {} wake-up buckets", released, due.size());
+        return released;
+    }
+
+    /**
+     * Release overdue entries of instances that stopped before releasing them.
+     */
+    @Scheduled(fixedDelayString = "${notification.deferral.sweep-interval-ms:60000}")
+    public void sweepOverdueNotifications() {
+        sweepOverdue(Instant.now());
+    }
+
+    /**
+     * Release queued entries overdue by more than the sweep grace period, and requeue
+     * stale claims. Entries are claimed like any bucket, so an instance still holding
+     * them in memory and the sweep never both release the same entry.
+     *
+     * @param now Current instant
+     * @return Number of notifications released
+     */
+    public int sweepOverdue(Instant now) {
+        NotificationConfig.DeferralConfig config = notificationConfig.getDeferral();
+        List<Object[]> rows;
+        try {
+            queueRepository.requeueStaleClaims(LocalDateTime.ofInstant(now, ZoneId.systemDefault())
+                    .minusMinutes(config.getStaleClaimMinutes()));
+            rows = queueRepository.findDueQueueKeys(
+                    LocalDateTime.ofInstant(now.minusMillis(config.getSweepGraceMs()), ZoneId.systemDefault()),
+                    PageRequest.of(0, config.getClaimBatchSize()));
+        } catch (Exception e) {
+            log.error("Failed to sweep overdue deferred notifications", e);
+            return 0;
+        }
+
+        Map<LocalDateTime, List<Object[]>> byReleaseTime = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            byReleaseTime.computeIfAbsent((LocalDateTime) row[2], time -> new ArrayList<>()).add(row);
+        }
+        int released = 0;
+        for (Map.Entry<LocalDateTime, List<Object[]>> group : byReleaseTime.entrySet()) {
+            List<Object[]> entries = group.getValue();
+            long[] queueEntryIds = entries.stream().mapToLong(row -> (Long) row[0]).toArray();
+            long[] notificationIds = entries.stream().mapToLong(row -> (Long) row[1]).toArray();
+            released += release(group.getKey().atZone(ZoneId.systemDefault()).toInstant(), queueEntryIds, notificationIds);
+        }
+        if (released > 0) {
+            log.warn("Swept {} overdue deferred notifications", released);
+        }
+        return released;
+    }
+
+    /**
+     * Claim a chunk of a bucket, hand it to the pipeline and complete it. Entries stay
+     * claimed until the handover succeeds; on failure they are requeued and retried.
+     */
+    private int release(Instant releaseAt, long[] queueEntryIds, long[] notificationIds) {
+        long[] claimed;
+        try {
+            claimed = queueRepository.claimQueued(queueEntryIds);
+        } catch (Exception e) {
+            log.error("Failed to claim {} deferred notifications for bucket {}, will retry",
+                    queueEntryIds.length, releaseAt, e);
+            readd(releaseAt, queueEntryIds, notificationIds);
+            return 0;
+        }
+        if (claimed.length == 0) {
+            return 0;
+        }
+
+        Map<Long, Long> notificationByEntry = new HashMap<>(queueEntryIds.length * 2);
+        for (int i = 0; i < queueEntryIds.length; i++) {
+            notificationByEntry.put(queueEntryIds[i], notificationIds[i]);
+        }
+        long[] claimedNotificationIds = Arrays.stream(claimed).map(notificationByEntry::get).toArray();
+
+        try {
+            eventPublisher.publishEvent(new DeferredNotificationsReleasedEvent(releaseAt, claimedNotificationIds));
+        } catch (Exception e) {
+            log.error("Failed to release {} deferred notifications for bucket {}, will retry",
+                    claimed.length, releaseAt, e);
+            try {
+                queueRepository.requeueClaimed(claimed);
+            } catch (Exception requeueFailure) {
+                log.error("Failed to requeue {} claimed notifications, they are requeued on next startup",
+                        claimed.length, requeueFailure);
+            }
+            readd(releaseAt, claimed, claimedNotificationIds);
+            return 0;
+        }
+
+        try {
+            queueRepository.completeClaimed(claimed);
+        } catch (Exception e) {
+            log.warn("Failed to complete {} released queue entries for bucket {}", claimed.length, releaseAt, e);
+        }
+        return claimed.length;
+    }
+
+    private void readd(Instant releaseAt, long[] queueEntryIds, long[] notificationIds) {
+        for (int i = 0; i < queueEntryIds.length; i++) {
+            buckets.add(releaseAt, queueEntryIds[i], notificationIds[i]);
+        }
+    }
+
+    /**
+     * Rebuild wake-up buckets from queued rows after a restart, including entries an
+     * earlier instance claimed but never completed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restorePendingBuckets() {
+        try {
+            int requeued = queueRepository.requeueStaleClaims(LocalDateTime.now()
+                    .minusMinutes(notificationConfig.getDeferral().getStaleClaimMinutes()));
+            if (requeued > 0) {
+                log.warn("Requeued {} deferred notifications left in PROCESSING", requeued);
+            }
+            List<Object[]> rows = queueRepository.findQueueKeysByStatus(NotificationQueueStatus.QUEUED);
+            for (Object[] row : rows) {
+                Instant releaseAt = ((LocalDateTime) row[2]).atZone(ZoneId.systemDefault()).toInstant();
+                buckets.add(releaseAt, (Long) row[0], (Long) row[1]);
+            }
+            log.info("Restored {} deferred notifications into {} wake-up buckets", rows.size(), buckets.bucketCount());
+        } catch (Exception e) {
+            log.error("Failed to restore deferred notification buckets", e);
+        }
+    }
+
+    /**
+     * Number of notifications currently deferred on this instance
+     */
+    public long getDeferredCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Earliest pending release instant, or null when nothing is deferred
+     */
+    public Instant getNextReleaseAt() {
+        return buckets.nextReleaseAt();
+    }
+}
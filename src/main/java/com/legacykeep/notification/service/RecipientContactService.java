@@ -0,0 +1,37 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.model.RecipientContact;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Service interface for resolving recipient contact details.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public interface RecipientContactService {
+
+    /**
+     * Resolve contact details for many users with batched lookups.
+     *
+     * @param userIds User IDs
+     * @return Contacts by user ID; users without known contact details are absent
+     */
+    Map<Long, RecipientContact> getContacts(Collection<Long> userIds);
+
+    /**
+     * Record the latest contact details of a user.
+     *
+     * @param contact Contact details
+     */
+    void updateContact(RecipientContact contact);
+
+    /**
+     * Drop the cached contact of a user on this instance.
+     *
+     * @param userId User ID
+     */
+    void evict(Long userId);
+}
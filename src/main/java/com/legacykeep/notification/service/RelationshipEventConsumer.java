@@ -3,9 +3,12 @@ package com.legacykeep.notification.service;
 import com.legacykeep.notification.event.dto.RelationshipRequestAcceptedEvent;
 import com.legacykeep.notification.event.dto.RelationshipRequestRejectedEvent;
 import com.legacykeep.notification.event.dto.RelationshipRequestSentEvent;
+import com.legacykeep.notification.model.RelationshipNotification;
+import com.legacykeep.notification.model.RelationshipNotificationKind;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -15,6 +18,10 @@ import org.springframework.stereotype.Service;
  * Consumer service for relationship events from Relationship Service.
  * 
  * Handles relationship-related events and triggers appropriate notifications.
+ * Notifications are queued in a per-recipient coalescing window so a burst of
+ * events becomes one combined message. Records are acknowledged by the delivery
+ * service once their notifications are persisted, so a crash before that point
+ * redelivers them.
  * 
  * @author LegacyKeep Team
  * @version 1.0.0
@@ -24,7 +31,7 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class RelationshipEventConsumer {
 
-    private final EmailTemplateService emailTemplateService;
+    private final RelationshipNotificationCoalescer notificationCoalescer;
 
     /**
      * Handle relationship request sent events.
@@ -33,26 +40,30 @@ public class RelationshipEventConsumer {
      * @param topic The Kafka topic name
      * @param partition The Kafka partition
      * @param offset The Kafka offset
+     * @param acknowledgment Commits the record once it is persisted
      */
-    @KafkaListener(topics = "relationship-events", groupId = "notification-service-group")
+    @KafkaListener(topics = "relationship-events", groupId = "notification-service-group",
+            containerFactory = "manualAckKafkaListenerContainerFactory")
     public void handleRelationshipRequestSent(
             @Payload RelationshipRequestSentEvent event,
             @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset) {
+            @Header(KafkaHeaders.OFFSET) long offset,
+            Acknowledgment acknowledgment) {
         
         log.info("Received relationship request sent event: {} from topic: {}, partition: {}, offset: {}", 
                 event.getEventId(), topic, partition, offset);
         
         try {
             // Send notification to the recipient about the new relationship request
-            sendRelationshipRequestNotification(event);
+            sendRelationshipRequestNotification(event, acknowledgment);
             
             log.info("Successfully processed relationship request sent event: {}", event.getEventId());
             
         } catch (Exception e) {
             log.error("Error processing relationship request sent event: {}", event.getEventId(), e);
-            // In a production system, you might want to implement retry logic or dead letter queue
+            // An event that cannot be queued would block its partition; skip it
+            acknowledgment.acknowledge();
         }
     }
 
@@ -63,26 +74,30 @@ public class RelationshipEventConsumer {
      * @param topic The Kafka topic name
      * @param partition The Kafka partition
      * @param offset The Kafka offset
+     * @param acknowledgment Commits the record once it is persisted
      */
-    @KafkaListener(topics = "relationship-events", groupId = "notification-service-group")
+    @KafkaListener(topics = "relationship-events", groupId = "notification-service-group",
+            containerFactory = "manualAckKafkaListenerContainerFactory")
     public void handleRelationshipRequestAccepted(
             @Payload RelationshipRequestAcceptedEvent event,
             @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset) {
+            @Header(KafkaHeaders.OFFSET) long offset,
+            Acknowledgment acknowledgment) {
         
         log.info("Received relationship request accepted event: {} from topic: {}, partition: {}, offset: {}", 
                 event.getEventId(), topic, partition, offset);
         
         try {
             // Send notification to the original requester about the acceptance
-            sendRelationshipAcceptedNotification(event);
+            sendRelationshipAcceptedNotification(event, acknowledgment);
             
             log.info("Successfully processed relationship request accepted event: {}", event.getEventId());
             
         } catch (Exception e) {
             log.error("Error processing relationship request accepted event: {}", event.getEventId(), e);
-            // In a production system, you might want to implement retry logic or dead letter queue
+            // An event that cannot be queued would block its partition; skip it
+            acknowledgment.acknowledge();
         }
     }
 
@@ -93,26 +108,30 @@ public class RelationshipEventConsumer {
      * @param topic The Kafka topic name
      * @param partition The Kafka partition
      * @param offset The Kafka offset
+     * @param acknowledgment Commits the record once it is persisted
      */
-    @KafkaListener(topics = "relationship-events", groupId = "notification-service-group")
+    @KafkaListener(topics = "relationship-events", groupId = "notification-service-group",
+            containerFactory = "manualAckKafkaListenerContainerFactory")
     public void handleRelationshipRequestRejected(
             @Payload RelationshipRequestRejectedEvent event,
             @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset) {
+            @Header(KafkaHeaders.OFFSET) long offset,
+            Acknowledgment acknowledgment) {
         
         log.info("Received relationship request rejected event: {} from topic: {}, partition: {}, offset: {}", 
                 event.getEventId(), topic, partition, offset);
         
         try {
             // Send notification to the original requester about the rejection
-            sendRelationshipRejectedNotification(event);
+            sendRelationshipRejectedNotification(event, acknowledgment);
             
             log.info("Successfully processed relationship request rejected event: {}", event.getEventId());
             
         } catch (Exception e) {
             log.error("Error processing relationship request rejected event: {}", event.getEventId(), e);
-            // In a production system, you might want to implement retry logic or dead letter queue
+            // An event that cannot be queued would block its partition; skip it
+            acknowledgment.acknowledge();
         }
     }
 
@@ -120,60 +139,80 @@ public class RelationshipEventConsumer {
      * Send notification for a new relationship request.
      * 
      * @param event The relationship request sent event
+     * @param acknowledgment Commits the record once it is persisted
      */
-    private void sendRelationshipRequestNotification(RelationshipRequestSentEvent event) {
-        log.info("Sending relationship request notification to user: {} for relationship type: {}", 
+    private void sendRelationshipRequestNotification(RelationshipRequestSentEvent event, Acknowledgment acknowledgment) {
+        log.info("Queueing relationship request notification to user: {} for relationship type: {}", 
                 event.getRecipientUserId(), event.getRelationshipTypeName());
         
-        // TODO: Implement actual notification sending
-        // This would typically involve:
-        // 1. Getting user preferences for notification channels
-        // 2. Getting user contact information (email, phone, etc.)
-        // 3. Sending email/push notification/SMS based on preferences
-        // 4. Logging the notification delivery
-        
-        log.info("Relationship request notification sent to user: {} for relationship: {}", 
-                event.getRecipientUserId(), event.getRelationshipId());
+        queueNotification(RelationshipNotification.builder()
+                .eventId(event.getEventId())
+                .kind(RelationshipNotificationKind.REQUEST_SENT)
+                .recipientUserId(event.getRecipientUserId())
+                .actorUserId(event.getRequesterUserId())
+                .relationshipId(event.getRelationshipId())
+                .relationshipTypeName(event.getRelationshipTypeName())
+                .message(event.getRequestMessage())
+                .occurredAt(event.getTimestamp())
+                .acknowledgment(acknowledgment)
+                .build());
     }
 
     /**
      * Send notification for an accepted relationship request.
      * 
      * @param event The relationship request accepted event
+     * @param acknowledgment Commits the record once it is persisted
      */
-    private void sendRelationshipAcceptedNotification(RelationshipRequestAcceptedEvent event) {
-        log.info("Sending relationship accepted notification to user: {} for relationship type: {}", 
+    private void sendRelationshipAcceptedNotification(RelationshipRequestAcceptedEvent event, Acknowledgment acknowledgment) {
+        log.info("Queueing relationship accepted notification to user: {} for relationship type: {}", 
                 event.getRequesterUserId(), event.getRelationshipTypeName());
         
-        // TODO: Implement actual notification sending
-        // This would typically involve:
-        // 1. Getting user preferences for notification channels
-        // 2. Getting user contact information (email, phone, etc.)
-        // 3. Sending email/push notification/SMS based on preferences
-        // 4. Logging the notification delivery
-        
-        log.info("Relationship accepted notification sent to user: {} for relationship: {}", 
-                event.getRequesterUserId(), event.getRelationshipId());
+        queueNotification(RelationshipNotification.builder()
+                .eventId(event.getEventId())
+                .kind(RelationshipNotificationKind.REQUEST_ACCEPTED)
+                .recipientUserId(event.getRequesterUserId())
+                .actorUserId(event.getAcceptorUserId())
+                .relationshipId(event.getRelationshipId())
+                .relationshipTypeName(event.getRelationshipTypeName())
+                .message(event.getResponseMessage())
+                .occurredAt(event.getTimestamp())
+                .acknowledgment(acknowledgment)
+                .build());
     }
 
     /**
      * Send notification for a rejected relationship request.
      * 
      * @param event The relationship request rejected event
+     * @param acknowledgment Commits the record once it is persisted
      */
-    private void sendRelationshipRejectedNotification(RelationshipRequestRejectedEvent event) {
-        log.info("Sending relationship rejected notification to user: {} for relationship type: {}", 
+    private void sendRelationshipRejectedNotification(RelationshipRequestRejectedEvent event, Acknowledgment acknowledgment) {
+        log.info("Queueing relationship rejected notification to user: {} for relationship type: {}", 
                 event.getRequesterUserId(), event.getRelationshipTypeName());
         
-        // TODO: Implement actual notification sending
-        // This would typically involve:
-        // 1. Getting user preferences for notification channels
-        // 2. Getting user contact information (email, phone, etc.)
-        // 3. Sending email/push notification/SMS based on preferences
-        // 4. Logging the notification delivery
-        
-        log.info("Relationship rejected notification sent to user: {} for relationship: {}", 
-                event.getRequesterUserId(), event.getRelationshipId());
+        queueNotification(RelationshipNotification.builder()
+                .eventId(event.getEventId())
+                .kind(RelationshipNotificationKind.REQUEST_REJECTED)
+                .recipientUserId(event.getRequesterUserId())
+                .actorUserId(event.getRejectorUserId())
+                .relationshipId(event.getRelationshipId())
+                .relationshipTypeName(event.getRelationshipTypeName())
+                .message(event.getResponseMessage())
+                .occurredAt(event.getTimestamp())
+                .acknowledgment(acknowledgment)
+                .build());
     }
-}
 
+    /**
+     * Queue a notification in its recipient's coalescing window.
+     * 
+     * @param notification The relationship notification
+     */
+    private void queueNotification(RelationshipNotification notification) {
+        if (notification.getRecipientUserId() == null) {
+            throw new IllegalArgumentException("Relationship event " + notification.getEventId() + " has no recipient");
+        }
+        notificationCoalescer.add(notification);
+    }
+}
@@ -0,0 +1,114 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.event.RelationshipNotificationsCoalescedEvent;
+import com.legacykeep.notification.model.CoalescingBuffer;
+import com.legacykeep.notification.model.RelationshipNotification;
+import com.legacykeep.notification.model.RelationshipNotificationKind;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Service for coalescing bursty relationship notifications per recipient.
+ *
+ * Notifications of the same kind for the same recipient that arrive within the
+ * configured window are merged and published as one
+ * {@link RelationshipNotificationsCoalescedEvent}. A window is flushed when it
+ * expires, when it reaches the size threshold, or early when too many recipients
+ * have open windows.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class RelationshipNotificationCoalescer {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationConfig notificationConfig;
+    private final CoalescingBuffer<Key, RelationshipNotification> buffer;
+
+    public RelationshipNotificationCoalescer(ApplicationEventPublisher eventPublisher, NotificationConfig notificationConfig) {
+        this.eventPublisher = eventPublisher;
+        this.notificationConfig = notificationConfig;
+        NotificationConfig.CoalescingConfig config = notificationConfig.getCoalescing();
+        this.buffer = new CoalescingBuffer<>(Duration.ofMillis(config.getWindowMs()).toNanos(),
+                config.getMaxBatchSize(), config.getMaxPendingRecipients());
+    }
+
+    /**
+     * Add a notification to its recipient's coalescing window.
+     *
+     * @param notification Relationship notification with a recipient
+     */
+    public void add(RelationshipNotification notification) {
+        if (!notificationConfig.getCoalescing().isEnabled()) {
+            eventPublisher.publishEvent(new RelationshipNotificationsCoalescedEvent(
+                    notification.getRecipientUserId(), notification.getKind(), List.of(notification)));
+            return;
+        }
+
+        Key key = new Key(notification.getRecipientUserId(), notification.getKind());
+        publish(buffer.add(key, notification, System.nanoTime()));
+    }
+
+    /**
+     * Flush every expired coalescing window.
+     */
+    @Scheduled(fixedDelayString = "${notification.coalescing.flush-check-interval-ms:250}")
+    public void flushExpiredWindows() {
+        flushExpired(System.nanoTime());
+    }
+
+    /**
+     * Flush every coalescing window expired at {@code nowNanos}.
+     *
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return Number of combined notifications published
+     */
+    public int flushExpired(long nowNanos) {
+        return publish(buffer.pollExpired(nowNanos));
+    }
+
+    /**
+     * Flush all open windows so nothing is lost on shutdown.
+     */
+    @PreDestroy
+    public void flushAll() {
+        int published = publish(buffer.drainAll());
+        if (published > 0) {
+            log.info("Flushed {} open relationship notification windows on shutdown", published);
+        }
+    }
+
+    /**
+     * Number of recipients with an open coalescing window
+     */
+    public int getOpenWindowCount() {
+        return buffer.openGroupCount();
+    }
+
+    private int publish(List<CoalescingBuffer.Batch<Key, RelationshipNotification>> batches) {
+        for (CoalescingBuffer.Batch<Key, RelationshipNotification> batch : batches) {
+            Key key = batch.getKey();
+            log.debug("Coalesced {} {} notifications for user {}",
+                    batch.getItems().size(), key.getKind(), key.getRecipientUserId());
+            eventPublisher.publishEvent(new RelationshipNotificationsCoalescedEvent(
+                    key.getRecipientUserId(), key.getKind(), batch.getItems()));
+        }
+        return batches.size();
+    }
+
+    @Value
+    private static class Key {
+        Long recipientUserId;
+        RelationshipNotificationKind kind;
+    }
+}
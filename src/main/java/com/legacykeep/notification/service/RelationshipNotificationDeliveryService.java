@@ -0,0 +1,418 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.NotificationDelivery;
+import com.legacykeep.notification.entity.NotificationStatus;
+import com.legacykeep.notification.entity.NotificationType;
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+import com.legacykeep.notification.event.DeferredNotificationsReleasedEvent;
+import com.legacykeep.notification.event.RelationshipNotificationsCoalescedEvent;
+import com.legacykeep.notification.model.RecipientContact;
+import com.legacykeep.notification.model.RelationshipNotification;
+import com.legacykeep.notification.model.RelationshipNotificationKind;
+import com.legacykeep.notification.repository.NotificationRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Service for delivering coalesced relationship notifications.
+ *
+ * Coalesced events are queued and dispatched in batches. For each batch, recipient
+ * preferences and the contacts of recipients and actors are resolved with one bulk
+ * lookup each. One notification per event is rendered, with an HTML email and a
+ * plain-text version for the other channels, and persisted. Events folded into the
+ * daily digest only go to the in-app inbox, notifications within the recipient's
+ * quiet hours are deferred, and the rest are handed to
+ * {@link NotificationFanOutService} for every channel the recipient has enabled.
+ * The source Kafka records of a batch are acknowledged only once the batch is
+ * persisted; a failed batch is retried up to the configured number of attempts,
+ * and a retry picks up the still pending notifications an earlier attempt stored.
+ * Notifications left pending by an instance that stopped mid-dispatch are claimed
+ * and dispatched again by a periodic sweep.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class RelationshipNotificationDeliveryService {
+
+    static final String TEMPLATE_ID = "relationship-update";
+    private static final String EMAIL_TEMPLATE = "email/relationship/relationship-update";
+    private static final String UNKNOWN_ACTOR = "A family member";
+
+    private final NotificationPreferenceService preferenceService;
+    private final RecipientContactService contactService;
+    private final DailyDigestService digestService;
+    private final QuietHoursDeferralService deferralService;
+    private final NotificationRepository notificationRepository;
+    private final NotificationFanOutService fanOutService;
+    private final TemplateEngine templateEngine;
+    private final NotificationConfig notificationConfig;
+
+    private final ConcurrentLinkedQueue<RelationshipNotificationsCoalescedEvent> pending = new ConcurrentLinkedQueue<>();
+
+    @Value("${app.frontend.url:http://localhost:3000}")
+    private String frontendUrl;
+
+    public RelationshipNotificationDeliveryService(NotificationPreferenceService preferenceService,
+                                                   RecipientContactService contactService,
+                                                   DailyDigestService digestService,
+                                                   QuietHoursDeferralService deferralService,
+                                                   NotificationRepository notificationRepository,
+                                                   NotificationFanOutService fanOutService,
+                                                   TemplateEngine templateEngine,
+                                                   NotificationConfig notificationConfig) {
+        this.preferenceService = preferenceService;
+        this.contactService = contactService;
+        this.digestService = digestService;
+        this.deferralService = deferralService;
+        this.notificationRepository = notificationRepository;
+        this.fanOutService = fanOutService;
+        this.templateEngine = templateEngine;
+        this.notificationConfig = notificationConfig;
+    }
+
+    /**
+     * Queue a coalesced event for the next dispatch batch.
+     */
+    @EventListener
+    public void onNotificationsCoalesced(RelationshipNotificationsCoalescedEvent event) {
+        pending.add(event);
+    }
+
+    /**
+     * Fan deferred relationship notifications out once their recipient's quiet hours are over.
+     */
+    @EventListener
+    public void onDeferredNotificationsReleased(DeferredNotificationsReleasedEvent event) {
+        List<Long> ids = Arrays.stream(event.getNotificationIds()).boxed().toList();
+        List<Notification> released = notificationRepository.findAllById(ids).stream()
+                .filter(n -> n.getNotificationType() == NotificationType.EMAIL
+                        && n.getStatus() == NotificationStatus.PENDING
+                        && TEMPLATE_ID.equals(n.getTemplateId()))
+                .toList();
+        dispatch(released);
+    }
+
+    /**
+     * Dispatch every queued event in batches.
+     */
+    @Scheduled(fixedDelayString = "${notification.relationship.dispatch-interval-ms:200}")
+    public void dispatchPending() {
+        int batchSize = notificationConfig.getRelationship().getBatchSize();
+        List<RelationshipNotificationsCoalescedEvent> batch = new ArrayList<>();
+        List<RelationshipNotificationsCoalescedEvent> retries = new ArrayList<>();
+        RelationshipNotificationsCoalescedEvent event;
+        while ((event = pending.poll()) != null) {
+            batch.add(event);
+            if (batch.size() == batchSize) {
+                deliverSafely(batch, retries);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            deliverSafely(batch, retries);
+        }
+        // Failed events wait for the next dispatch
+        pending.addAll(retries);
+    }
+
+    /**
+     * Deliver a batch of coalesced events.
+     *
+     * @param batch Coalesced events
+     * @return Number of notifications created
+     */
+    public int deliver(List<RelationshipNotificationsCoalescedEvent> batch) {
+        Set<Long> recipientIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (RelationshipNotificationsCoalescedEvent event : batch) {
+            recipientIds.add(event.getRecipientUserId());
+            for (RelationshipNotification notification : event.getNotifications()) {
+                if (notification.getActorUserId() != null) {
+                    userIds.add(notification.getActorUserId());
+                }
+            }
+        }
+        userIds.addAll(recipientIds);
+
+        Map<Long, UserNotificationPreferences> preferences = preferenceService.getPreferences(recipientIds);
+        Map<Long, RecipientContact> contacts = contactService.getContacts(userIds);
+
+        Map<String, Notification> notifications = new LinkedHashMap<>();
+        Map<String, RelationshipNotificationsCoalescedEvent> events = new HashMap<>();
+        for (RelationshipNotificationsCoalescedEvent event : batch) {
+            try {
+                Notification notification = render(event, contacts.get(event.getRecipientUserId()), contacts);
+                if (notifications.putIfAbsent(notification.getEventId(), notification) == null) {
+                    events.put(notification.getEventId(), event);
+                }
+            } catch (Exception e) {
+                log.error("Failed to render relationship notification for user {}", event.getRecipientUserId(), e);
+            }
+        }
+
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+
+        // Redelivered events already have their notification and are skipped
+        List<Notification> saved = new ArrayList<>(notificationRepository.insertNew(notifications.values()));
+        saved.addAll(findUnsentOfRetriedEvents(events, saved));
+        Instant now = Instant.now();
+        List<Notification> toSend = new ArrayList<>(saved.size());
+        List<Notification> deferred = new ArrayList<>();
+        List<Notification> digested = new ArrayList<>();
+        for (Notification notification : saved) {
+            UserNotificationPreferences recipientPreferences = preferences.get(notification.getRecipientId());
+            RecipientContact contact = contacts.get(notification.getRecipientId());
+            boolean emailEnabled = recipientPreferences == null || recipientPreferences.isChannelEnabled(NotificationChannel.EMAIL);
+            if (contact != null && emailEnabled && addToDigest(events.get(notification.getEventId()), contact, contacts)) {
+                notification.markAsSent();
+                digested.add(notification);
+            } else if (recipientPreferences != null && deferralService.deferIfQuiet(notification, recipientPreferences, now).isPresent()) {
+                deferred.add(notification);
+            } else {
+                toSend.add(notification);
+            }
+        }
+
+        List<Notification> settled = new ArrayList<>(deferred);
+        settled.addAll(digested);
+        if (!settled.isEmpty()) {
+            notificationRepository.updateOutcomes(settled);
+        }
+        if (!digested.isEmpty()) {
+            // The digest replaces the email; the inbox still shows the event right away
+            fanOutService.fanOut(digested, EnumSet.of(NotificationChannel.IN_APP))
+                    .exceptionally(e -> {
+                        log.error("Failed to store {} digested relationship notifications in-app", digested.size(), e);
+                        return List.of();
+                    });
+        }
+        dispatch(toSend);
+
+        log.info("Relationship batch of {} events: {} notifications fanned out, {} deferred, {} added to digests",
+                batch.size(), toSend.size(), deferred.size(), digested.size());
+        return saved.size();
+    }
+
+    /**
+     * Find the notifications an earlier attempt at the retried events stored but never
+     * routed, since the attempt failed after the insert. Deferred ones are already queued.
+     */
+    private List<Notification> findUnsentOfRetriedEvents(Map<String, RelationshipNotificationsCoalescedEvent> events,
+                                                         List<Notification> saved) {
+        Set<String> retriedEventIds = new HashSet<>();
+        events.forEach((eventId, event) -> {
+            if (event.getFailedAttempts() > 0) {
+                retriedEventIds.add(eventId);
+            }
+        });
+        saved.forEach(notification -> retriedEventIds.remove(notification.getEventId()));
+        if (retriedEventIds.isEmpty()) {
+            return List.of();
+        }
+        return notificationRepository.findByEventIdInAndStatus(retriedEventIds, NotificationStatus.PENDING).stream()
+                .filter(notification -> notification.getScheduledAt() == null)
+                .toList();
+    }
+
+    /**
+     * Claim and dispatch relationship notifications left pending by an instance that
+     * stopped before their dispatch completed.
+     */
+    @Scheduled(fixedDelayString = "${notification.relationship.sweep-interval-ms:60000}")
+    public void sweepStalePending() {
+        NotificationConfig.RelationshipDeliveryConfig config = notificationConfig.getRelationship();
+        LocalDateTime staleBefore = LocalDateTime.now().minusMinutes(config.getStalePendingMinutes());
+        try {
+            List<Long> claimed = notificationRepository.claimStalePending(TEMPLATE_ID,
+                    staleBefore.minusHours(config.getSweepMaxAgeHours()), staleBefore, config.getBatchSize());
+            if (!claimed.isEmpty()) {
+                log.warn("Dispatching {} relationship notifications left pending", claimed.size());
+                dispatch(notificationRepository.findAllById(claimed));
+            }
+        } catch (Exception e) {
+            log.error("Failed to sweep pending relationship notifications", e);
+        }
+    }
+
+    /**
+     * Fan notifications out to their recipients' channels and record the outcome of each.
+     *
+     * A notification is sent once any channel delivered it, failed if every channel
+     * failed, and cancelled if its recipient has no channel enabled.
+     *
+     * @param notifications Persisted notifications
+     */
+    private void dispatch(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        CompletableFuture<List<NotificationDelivery>> fanOut;
+        try {
+            fanOut = fanOutService.fanOut(notifications);
+        } catch (RuntimeException e) {
+            fanOut = CompletableFuture.failedFuture(e);
+        }
+        fanOut.whenComplete((deliveries, error) -> {
+            if (error != null) {
+                log.error("Failed to fan out {} relationship notifications", notifications.size(), error);
+                notifications.forEach(notification -> notification.markAsFailed(error.getMessage()));
+            } else {
+                recordOutcomes(notifications, deliveries);
+            }
+            try {
+                notificationRepository.updateOutcomes(notifications);
+            } catch (Exception e) {
+                log.error("Failed to record outcomes of {} relationship notifications", notifications.size(), e);
+            }
+        });
+    }
+
+    private void recordOutcomes(List<Notification> notifications, List<NotificationDelivery> deliveries) {
+        Map<Long, List<NotificationDelivery>> byNotification = new HashMap<>();
+        for (NotificationDelivery delivery : deliveries) {
+            byNotification.computeIfAbsent(delivery.getNotificationId(), id -> new ArrayList<>()).add(delivery);
+        }
+        for (Notification notification : notifications) {
+            List<NotificationDelivery> attempts = byNotification.getOrDefault(notification.getId(), List.of());
+            if (attempts.isEmpty()) {
+                notification.cancel();
+            } else if (attempts.stream().anyMatch(delivery -> !delivery.isFailed())) {
+                notification.markAsSent();
+            } else {
+                notification.markAsFailed(attempts.get(0).getFailureReason());
+            }
+        }
+    }
+
+    private void deliverSafely(List<RelationshipNotificationsCoalescedEvent> batch,
+                               List<RelationshipNotificationsCoalescedEvent> retries) {
+        try {
+            deliver(batch);
+            batch.forEach(RelationshipNotificationsCoalescedEvent::acknowledge);
+        } catch (Exception e) {
+            log.error("Failed to deliver batch of {} relationship notification events", batch.size(), e);
+            int maxAttempts = notificationConfig.getRelationship().getMaxDeliveryAttempts();
+            int abandoned = 0;
+            for (RelationshipNotificationsCoalescedEvent event : batch) {
+                if (event.recordFailedAttempt() < maxAttempts) {
+                    retries.add(event);
+                } else {
+                    // An unacknowledged record would stall its partition for good
+                    event.acknowledge();
+                    abandoned++;
+                }
+            }
+            if (abandoned > 0) {
+                log.error("Gave up on {} relationship notification events after {} attempts", abandoned, maxAttempts);
+            }
+        }
+    }
+
+    private boolean addToDigest(RelationshipNotificationsCoalescedEvent event, RecipientContact contact,
+                                Map<Long, RecipientContact> contacts) {
+        RelationshipNotificationKind kind = event.getKind();
+        List<RelationshipNotification> items = event.getNotifications();
+        if (!digestService.accept(event.getRecipientUserId(), contact.getEmail(), contact.getFullName(),
+                kind.getDigestCategory(), describe(items.get(0), contacts), kind.getPriority())) {
+            return false;
+        }
+        for (int i = 1; i < items.size(); i++) {
+            digestService.accept(event.getRecipientUserId(), contact.getEmail(), contact.getFullName(),
+                    kind.getDigestCategory(), describe(items.get(i), contacts), kind.getPriority());
+        }
+        return true;
+    }
+
+    private Notification render(RelationshipNotificationsCoalescedEvent event, RecipientContact contact,
+                                Map<Long, RecipientContact> contacts) {
+        List<RelationshipLine> lines = new ArrayList<>(event.getNotifications().size());
+        for (RelationshipNotification notification : event.getNotifications()) {
+            lines.add(new RelationshipLine(describe(notification, contacts), notification.getMessage()));
+        }
+
+        String sourceEventId = event.getNotifications().get(0).getEventId();
+        Notification notification = new Notification(
+                sourceEventId != null ? sourceEventId : UUID.randomUUID().toString(),
+                NotificationType.EMAIL, TEMPLATE_ID, event.getRecipientUserId());
+        notification.setSubject(event.getSummary());
+        notification.setTextContent(String.join("\n", lines.stream().map(RelationshipLine::getDescription).toList()));
+        notification.setPriority(event.getKind().getPriority());
+
+        // Without a known contact the other channels still deliver; the email attempt fails
+        if (contact != null) {
+            Context context = new Context();
+            context.setVariable("fullName", contact.getDisplayName());
+            context.setVariable("headline", event.getSummary());
+            context.setVariable("items", lines);
+            context.setVariable("actionUrl", frontendUrl + "/relationships");
+            context.setVariable("preferencesUrl", frontendUrl + "/settings/notifications");
+            notification.setRecipientEmail(contact.getEmail());
+            notification.setContent(templateEngine.process(EMAIL_TEMPLATE, context));
+        }
+        return notification;
+    }
+
+    private String describe(RelationshipNotification notification, Map<Long, RecipientContact> contacts) {
+        RecipientContact actor = contacts.get(notification.getActorUserId());
+        String actorName = actor != null ? actor.getDisplayName() : UNKNOWN_ACTOR;
+        String relationship = notification.getRelationshipTypeName() != null
+                ? notification.getRelationshipTypeName() + " relationship request"
+                : "relationship request";
+        switch (notification.getKind()) {
+            case REQUEST_SENT:
+                return actorName + " sent you a " + relationship;
+            case REQUEST_ACCEPTED:
+                return actorName + " accepted your " + relationship;
+            case REQUEST_REJECTED:
+                return actorName + " declined your " + relationship;
+            default:
+                return relationship;
+        }
+    }
+
+    /**
+     * Number of coalesced events waiting for dispatch
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * One relationship update line in the email
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class RelationshipLine {
+        private final String description;
+        private final String message;
+    }
+}
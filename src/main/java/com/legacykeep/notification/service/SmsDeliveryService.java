@@ -0,0 +1,171 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.model.DeliveryRateLimiter;
+import com.legacykeep.notification.model.RetryBackoff;
+import com.legacykeep.notification.model.SmsMessage;
+import com.legacykeep.notification.model.SmsSegments;
+import com.legacykeep.notification.model.SmsSendResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for SMS delivery through the active {@link SmsProvider}.
+ *
+ * Messages are packed into submissions of up to the provider's batch size. Each
+ * submission needs a rate limit permit per message and a free slot among the
+ * in-flight requests; when either is missing it is rescheduled on the
+ * notification executor instead of waiting, so callers such as Kafka listeners
+ * are never blocked. Retryable failures are resubmitted with exponential backoff.
+ *
+ * Messages estimated at more segments than allowed are rejected before
+ * submission, since every segment is billed as a separate SMS.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class SmsDeliveryService {
+
+    private static final long IN_FLIGHT_RECHECK_MS = 20;
+
+    private final SmsProvider smsProvider;
+    private final NotificationConfig.SmsConfig smsConfig;
+    private final Executor taskExecutor;
+    private final RetryBackoff retryBackoff;
+    private final DeliveryRateLimiter rateLimiter;
+    private final Semaphore inFlight;
+
+    public SmsDeliveryService(SmsProvider smsProvider,
+                              NotificationConfig notificationConfig,
+                              @Qualifier("notificationTaskExecutor") Executor taskExecutor) {
+        this.smsProvider = smsProvider;
+        this.smsConfig = notificationConfig.getSms();
+        this.taskExecutor = taskExecutor;
+        this.retryBackoff = RetryBackoff.of(notificationConfig.getRetry());
+        this.rateLimiter = new DeliveryRateLimiter(smsConfig.getRateLimit());
+        this.inFlight = new Semaphore(smsConfig.getMaxConcurrentRequests());
+    }
+
+    /**
+     * Whether SMS sending is enabled
+     */
+    public boolean isEnabled() {
+        return smsConfig.isEnabled();
+    }
+
+    /**
+     * Send one SMS.
+     *
+     * @param message Message
+     * @return Result of the send
+     */
+    public CompletableFuture<SmsSendResult> send(SmsMessage message) {
+        return send(List.of(message));
+    }
+
+    /**
+     * Send a batch of SMS messages.
+     *
+     * @param messages Messages
+     * @return Combined result of all submissions, completed after the last retry
+     */
+    public CompletableFuture<SmsSendResult> send(Collection<SmsMessage> messages) {
+        if (!smsConfig.isEnabled() || messages.isEmpty()) {
+            return CompletableFuture.completedFuture(SmsSendResult.EMPTY);
+        }
+
+        List<SmsMessage> sendable = new ArrayList<>();
+        List<SmsMessage> tooLong = new ArrayList<>();
+        for (SmsMessage message : messages) {
+            int segments = SmsSegments.count(message.getBody());
+            if (segments == 0 || segments > smsConfig.getMaxSegmentsPerMessage()) {
+                log.warn("Rejecting SMS {} of {} segments, limit is {}",
+                        message.getReference(), segments, smsConfig.getMaxSegmentsPerMessage());
+                tooLong.add(message);
+            } else {
+                sendable.add(message);
+            }
+        }
+
+        int batchSize = Math.max(1, smsProvider.getMaxBatchSize());
+        List<CompletableFuture<SmsSendResult>> submissions = new ArrayList<>();
+        for (int from = 0; from < sendable.size(); from += batchSize) {
+            submissions.add(submitWithRetry(sendable.subList(from, Math.min(from + batchSize, sendable.size())), 1));
+        }
+
+        return CompletableFuture.allOf(submissions.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    SmsSendResult result = SmsSendResult.rejected(tooLong);
+                    for (CompletableFuture<SmsSendResult> submission : submissions) {
+                        result = result.merge(submission.join());
+                    }
+                    log.info("SMS sent via {} in {} submissions: {} accepted ({} segments), {} failed, {} rejected",
+                            smsProvider.getName(), submissions.size(), result.getAcceptedCount(), result.getSegmentCount(),
+                            result.getFailedMessages().size(), result.getRejectedMessages().size());
+                    return result;
+                });
+    }
+
+    private CompletableFuture<SmsSendResult> submitWithRetry(List<SmsMessage> messages, int attempt) {
+        CompletableFuture<SmsSendResult> submission = new CompletableFuture<>();
+        dispatch(List.copyOf(messages), submission);
+        return submission.thenCompose(result -> {
+            if (result.getFailedMessages().isEmpty() || !retryBackoff.canRetry(attempt)) {
+                return CompletableFuture.completedFuture(result);
+            }
+            long delayMs = retryBackoff.delayMs(attempt);
+            log.debug("Retrying {} SMS messages in {} ms (attempt {})", result.getFailedMessages().size(), delayMs, attempt + 1);
+            return CompletableFuture.supplyAsync(result::getFailedMessages, delayed(delayMs))
+                    .thenCompose(failed -> submitWithRetry(failed, attempt + 1))
+                    .thenApply(result.withoutFailed()::merge);
+        });
+    }
+
+    /**
+     * Submit once a request slot and rate limit permits are available, rescheduling
+     * on the executor otherwise.
+     */
+    private void dispatch(List<SmsMessage> messages, CompletableFuture<SmsSendResult> submission) {
+        if (!inFlight.tryAcquire()) {
+            delayed(IN_FLIGHT_RECHECK_MS).execute(() -> dispatch(messages, submission));
+            return;
+        }
+        long waitMs = rateLimiter.tryAcquire(messages.size());
+        if (waitMs > 0) {
+            inFlight.release();
+            delayed(waitMs).execute(() -> dispatch(messages, submission));
+            return;
+        }
+
+        CompletableFuture<SmsSendResult> request;
+        try {
+            request = smsProvider.submit(messages);
+        } catch (RuntimeException e) {
+            request = CompletableFuture.failedFuture(e);
+        }
+        request.whenComplete((result, error) -> {
+            inFlight.release();
+            if (error != null) {
+                log.warn("SMS provider {} failed on {} messages: {}", smsProvider.getName(), messages.size(), error.getMessage());
+                submission.complete(SmsSendResult.failed(messages));
+            } else {
+                submission.complete(result);
+            }
+        });
+    }
+
+    private Executor delayed(long delayMs) {
+        return CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, taskExecutor);
+    }
+}
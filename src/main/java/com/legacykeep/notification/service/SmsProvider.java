@@ -0,0 +1,39 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.model.SmsMessage;
+import com.legacykeep.notification.model.SmsSendResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * SMS gateway integration used by {@link SmsDeliveryService}.
+ *
+ * Exactly one provider is active, selected with {@code notification.sms.provider}.
+ * Implementations must not block the calling thread: submissions complete
+ * asynchronously, and failures are reported in the result rather than thrown.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+public interface SmsProvider {
+
+    /**
+     * Provider name used in logs
+     */
+    String getName();
+
+    /**
+     * Maximum number of messages accepted in one submission; 1 for providers
+     * without a batch API.
+     */
+    int getMaxBatchSize();
+
+    /**
+     * Submit messages to the provider.
+     *
+     * @param messages Messages, at most {@link #getMaxBatchSize()}
+     * @return Outcome per message: accepted, failed (retryable) or rejected
+     */
+    CompletableFuture<SmsSendResult> submit(List<SmsMessage> messages);
+}
@@ -0,0 +1,98 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.NotificationTemplate;
+import com.legacykeep.notification.model.LocalizedTemplate;
+import com.legacykeep.notification.model.RegisteredTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+/**
+ * Compiles templates once per supported language from message bundles.
+ *
+ * Translations live in {@code i18n/templates_<language>.properties} under
+ * {@code <key>.subject}, {@code <key>.content} and {@code <key>.html}, where the
+ * key is the template ID, or {@code <templateId>@<version>} for a template
+ * version. A part without a translation keeps the stored text. Bundles are read
+ * once at startup and translations are compiled with the template, so rendering
+ * a localized variant costs the same as rendering the default one.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class TemplateLocalizer {
+
+    private static final ResourceBundle.Control NO_FALLBACK =
+            ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+
+    private final String defaultLanguage;
+    private final Map<String, ResourceBundle> bundles = new LinkedHashMap<>();
+
+    public TemplateLocalizer(NotificationConfig notificationConfig) {
+        NotificationConfig.TemplateRegistryConfig config = notificationConfig.getTemplateRegistry();
+        this.defaultLanguage = config.getDefaultLanguage();
+        for (String language : config.getSupportedLanguages()) {
+            if (language.equals(defaultLanguage)) {
+                continue;
+            }
+            try {
+                bundles.put(language, ResourceBundle.getBundle(config.getMessagesBasename(), Locale.forLanguageTag(language), NO_FALLBACK));
+            } catch (MissingResourceException e) {
+                log.warn("No template translations for supported language {}, using {}", language, defaultLanguage);
+                bundles.put(language, null);
+            }
+        }
+    }
+
+    /**
+     * Compile a template row in every supported language.
+     */
+    public LocalizedTemplate compile(NotificationTemplate template) {
+        return compile(template.getTemplateId(), template.getTemplateId(), template.getChannel(), template.getVersion(),
+                template.getUpdatedAt(), template.getSubjectTemplate(), template.getContentTemplate(), template.getHtmlTemplate());
+    }
+
+    /**
+     * Compile a template in every supported language.
+     *
+     * @param bundleKey Prefix of the template's keys in the message bundles
+     */
+    public LocalizedTemplate compile(String bundleKey, String templateId, NotificationChannel channel, String version,
+                                     LocalDateTime updatedAt, String subjectTemplate, String contentTemplate,
+                                     String htmlTemplate) {
+        RegisteredTemplate defaultVariant = RegisteredTemplate.compile(
+                templateId, channel, version, updatedAt, subjectTemplate, contentTemplate, htmlTemplate);
+        Map<String, RegisteredTemplate> byLanguage = new HashMap<>();
+        byLanguage.put(defaultLanguage, defaultVariant);
+
+        bundles.forEach((language, bundle) -> {
+            String subject = translate(bundle, bundleKey + ".subject");
+            String content = translate(bundle, bundleKey + ".content");
+            String html = translate(bundle, bundleKey + ".html");
+            if (subject == null && content == null && html == null) {
+                byLanguage.put(language, defaultVariant);
+                return;
+            }
+            byLanguage.put(language, RegisteredTemplate.compile(templateId, channel, version, updatedAt,
+                    subject != null ? subject : subjectTemplate,
+                    content != null ? content : contentTemplate,
+                    html != null ? html : htmlTemplate));
+        });
+        return new LocalizedTemplate(defaultVariant, byLanguage);
+    }
+
+    private static String translate(ResourceBundle bundle, String key) {
+        return bundle != null && bundle.containsKey(key) ? bundle.getString(key) : null;
+    }
+}
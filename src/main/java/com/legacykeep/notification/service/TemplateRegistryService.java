@@ -0,0 +1,237 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.NotificationTemplate;
+import com.legacykeep.notification.model.BroadcastTemplate;
+import com.legacykeep.notification.model.LocalizedTemplate;
+import com.legacykeep.notification.model.RegisteredTemplate;
+import com.legacykeep.notification.model.RenderedTemplate;
+import com.legacykeep.notification.repository.NotificationTemplateRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * In-memory registry of the active {@code notification_templates} rows.
+ *
+ * All active templates are compiled at startup, once per supported language. A scheduled reload then fetches
+ * only rows whose {@code updated_at} passed the last seen watermark, recompiles
+ * them, and drops the ones deactivated, so edits take effect without a restart.
+ * The watermark is moved back by a small overlap on every reload so rows
+ * committed late with an older timestamp are still picked up. Rendering reads
+ * the in-memory map only and never queries the database.
+ *
+ * Broadcasts of one template to many recipients render the recipient-independent
+ * content once and only substitute each recipient's own fields.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class TemplateRegistryService {
+
+    private final NotificationTemplateRepository templateRepository;
+    private final TemplateLocalizer templateLocalizer;
+    private final NotificationConfig.TemplateRegistryConfig registryConfig;
+
+    private volatile Map<String, LocalizedTemplate> templates = Map.of();
+    private volatile LocalDateTime watermark;
+
+    public TemplateRegistryService(NotificationTemplateRepository templateRepository,
+                                   TemplateLocalizer templateLocalizer,
+                                   NotificationConfig notificationConfig) {
+        this.templateRepository = templateRepository;
+        this.templateLocalizer = templateLocalizer;
+        this.registryConfig = notificationConfig.getTemplateRegistry();
+    }
+
+    /**
+     * Compile every active template, replacing the registry contents.
+     *
+     * @return Number of templates loaded
+     */
+    @PostConstruct
+    public synchronized int reloadAll() {
+        List<NotificationTemplate> rows = templateRepository.findByIsActiveTrue();
+        Map<String, LocalizedTemplate> loaded = new HashMap<>(rows.size() * 2);
+        LocalDateTime latest = null;
+        for (NotificationTemplate row : rows) {
+            register(loaded, row);
+            latest = later(latest, row.getUpdatedAt());
+        }
+        templates = Map.copyOf(loaded);
+        watermark = latest;
+        log.info("Template registry loaded {} active templates", loaded.size());
+        return loaded.size();
+    }
+
+    /**
+     * Recompile templates changed since the last reload.
+     *
+     * @return Number of templates added, updated or removed
+     */
+    @Scheduled(fixedDelayString = "${notification.template-registry.reload-interval-ms:30000}",
+               initialDelayString = "${notification.template-registry.reload-interval-ms:30000}")
+    public synchronized int reloadChanged() {
+        if (watermark == null) {
+            return reloadAll();
+        }
+
+        List<NotificationTemplate> rows = templateRepository.findByUpdatedAtGreaterThanEqual(
+                watermark.minusNanos(registryConfig.getReloadOverlapMs() * 1_000_000L));
+        Map<String, LocalizedTemplate> updated = new HashMap<>(templates);
+        int changed = 0;
+        LocalDateTime latest = watermark;
+        for (NotificationTemplate row : rows) {
+            latest = later(latest, row.getUpdatedAt());
+            LocalizedTemplate current = updated.get(row.getTemplateId());
+            if (!Boolean.TRUE.equals(row.getIsActive())) {
+                if (updated.remove(row.getTemplateId()) != null) {
+                    changed++;
+                }
+            } else if (current == null || !row.getUpdatedAt().equals(current.getDefaultVariant().getUpdatedAt())) {
+                register(updated, row);
+                changed++;
+            }
+        }
+
+        if (changed > 0) {
+            templates = Map.copyOf(updated);
+            log.info("Template registry reloaded {} changed templates", changed);
+        }
+        watermark = latest;
+        return changed;
+    }
+
+    /**
+     * Find a compiled template in the default language.
+     *
+     * @param templateId Template ID
+     * @return Template, if active
+     */
+    public Optional<RegisteredTemplate> find(String templateId) {
+        return find(templateId, null);
+    }
+
+    /**
+     * Find a compiled template in a recipient's language.
+     *
+     * @param templateId Template ID
+     * @param language Recipient language, null for the default
+     * @return Template, if active
+     */
+    public Optional<RegisteredTemplate> find(String templateId, String language) {
+        LocalizedTemplate template = templates.get(templateId);
+        return template != null ? Optional.of(template.select(language)) : Optional.empty();
+    }
+
+    /**
+     * Render a template's subject and body in the default language.
+     *
+     * @param templateId Template ID
+     * @param variables Variable values by name
+     * @return Rendered template, empty if the template is not active
+     */
+    public Optional<RenderedTemplate> render(String templateId, Map<String, ?> variables) {
+        return render(templateId, null, variables);
+    }
+
+    /**
+     * Render a template's subject and body in a recipient's language.
+     *
+     * @param templateId Template ID
+     * @param language Recipient language, null for the default
+     * @param variables Variable values by name
+     * @return Rendered template, empty if the template is not active
+     */
+    public Optional<RenderedTemplate> render(String templateId, String language, Map<String, ?> variables) {
+        return find(templateId, language).map(template -> template.render(variables));
+    }
+
+    /**
+     * Prepare a template for a broadcast, rendering the recipient-independent
+     * content once.
+     *
+     * Variables in {@code shared}, and variables with the same value for every
+     * recipient, are substituted now; the rest stay as per-recipient slots.
+     *
+     * @param templateId Template ID
+     * @param language Recipients' language, null for the default
+     * @param shared Values known to be the same for every recipient
+     * @param recipients Per-recipient values, e.g. names for the greeting
+     * @return Prepared template, empty if the template is not active
+     */
+    public Optional<BroadcastTemplate> prepareBroadcast(String templateId, String language, Map<String, ?> shared,
+                                                        List<? extends Map<String, ?>> recipients) {
+        return find(templateId, language).map(template -> {
+            Map<String, Object> bound = new HashMap<>(shared);
+            for (String name : template.getVariableNames()) {
+                if (!bound.containsKey(name) && !recipients.isEmpty() && isSameForAll(name, recipients)) {
+                    bound.put(name, recipients.get(0).get(name));
+                }
+            }
+            return template.bind(bound);
+        });
+    }
+
+    /**
+     * Render a template for every recipient of a broadcast.
+     *
+     * @return Rendered template per recipient, in order; empty if the template is not active
+     * @see #prepareBroadcast(String, String, Map, List)
+     */
+    public List<RenderedTemplate> renderBroadcast(String templateId, String language, Map<String, ?> shared,
+                                                  List<? extends Map<String, ?>> recipients) {
+        return prepareBroadcast(templateId, language, shared, recipients)
+                .map(broadcast -> {
+                    List<RenderedTemplate> rendered = new ArrayList<>(recipients.size());
+                    for (Map<String, ?> recipient : recipients) {
+                        rendered.add(broadcast.render(recipient));
+                    }
+                    return rendered;
+                })
+                .orElse(List.of());
+    }
+
+    /**
+     * Number of templates in the registry
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    private void register(Map<String, LocalizedTemplate> target, NotificationTemplate row) {
+        try {
+            target.put(row.getTemplateId(), templateLocalizer.compile(row));
+        } catch (RuntimeException e) {
+            log.error("Failed to compile template {}, keeping the previous version", row.getTemplateId(), e);
+        }
+    }
+
+    private static boolean isSameForAll(String name, List<? extends Map<String, ?>> recipients) {
+        Object first = recipients.get(0).get(name);
+        for (int i = 1; i < recipients.size(); i++) {
+            if (!Objects.equals(first, recipients.get(i).get(name))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b != null && b.isAfter(a) ? b : a;
+    }
+}
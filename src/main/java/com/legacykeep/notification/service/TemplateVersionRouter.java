@@ -0,0 +1,270 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.model.AbTest;
+import com.legacykeep.notification.model.LocalizedTemplate;
+import com.legacykeep.notification.model.RegisteredTemplate;
+import com.legacykeep.notification.model.RenderedTemplate;
+import com.legacykeep.notification.model.TemplateVariant;
+import com.legacykeep.notification.repository.TemplateVersionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Routes recipients to the active versions of a template.
+ *
+ * All active rows of {@code template_versions} are compiled on load, once per
+ * supported language. Each
+ * recipient is assigned a version by a stable hash of the user ID and template
+ * ID against the versions' cumulative weights, so a user sees the same version
+ * on every send and on every instance. When an A/B test is running for the
+ * template, only its two versions are routed and each send is counted in memory;
+ * the counts are added to {@code template_ab_test_results} in one batch per flush.
+ *
+ * Selection reads precomputed arrays only: no database access and no allocation
+ * per send. Templates without active versions fall back to the template registry.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class TemplateVersionRouter {
+
+    private final TemplateVersionRepository versionRepository;
+    private final TemplateRegistryService templateRegistry;
+    private final TemplateLocalizer templateLocalizer;
+
+    private volatile Map<String, Route> routes = Map.of();
+
+    public TemplateVersionRouter(TemplateVersionRepository versionRepository,
+                                 TemplateRegistryService templateRegistry,
+                                 TemplateLocalizer templateLocalizer) {
+        this.versionRepository = versionRepository;
+        this.templateRegistry = templateRegistry;
+        this.templateLocalizer = templateLocalizer;
+    }
+
+    /**
+     * Load and compile the active versions and running tests.
+     *
+     * @return Number of templates with routed versions
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${notification.template-versions.reload-interval-ms:60000}",
+               initialDelayString = "${notification.template-versions.reload-interval-ms:60000}")
+    public synchronized int reload() {
+        List<TemplateVariant> variants;
+        List<AbTest> tests;
+        try {
+            variants = versionRepository.findActiveVariants();
+            tests = versionRepository.findRunningTests();
+        } catch (RuntimeException e) {
+            log.error("Failed to load template versions, keeping the current routes", e);
+            return routes.size();
+        }
+
+        // Counts of routes about to be replaced must not be lost
+        flush();
+
+        Map<String, List<TemplateVariant>> byTemplate = new LinkedHashMap<>();
+        for (TemplateVariant variant : variants) {
+            byTemplate.computeIfAbsent(variant.getTemplateId(), id -> new ArrayList<>()).add(variant);
+        }
+        Map<String, AbTest> testByTemplate = new HashMap<>();
+        for (AbTest test : tests) {
+            testByTemplate.put(test.getTemplateId(), test);
+        }
+
+        Map<String, Route> loaded = new HashMap<>(byTemplate.size() * 2);
+        byTemplate.forEach((templateId, templateVariants) -> {
+            Route route = Route.of(templateId, templateVariants, testByTemplate.get(templateId), this::compile);
+            if (route != null) {
+                loaded.put(templateId, route);
+            }
+        });
+        routes = Map.copyOf(loaded);
+        log.info("Template version routes loaded for {} templates, {} running A/B tests", loaded.size(), tests.size());
+        return loaded.size();
+    }
+
+    /**
+     * Select the version of a template for a recipient and count the send.
+     *
+     * @param templateId Template ID
+     * @param userId Recipient user ID
+     * @param language Recipient language, null for the default
+     * @return Version to send, or null if the template has no active versions
+     */
+    public RegisteredTemplate select(String templateId, long userId, String language) {
+        Route route = routes.get(templateId);
+        return route != null ? route.select(userId).select(language) : null;
+    }
+
+    /**
+     * Render the version of a template selected for a recipient, or the
+     * registry's template when it has no active versions.
+     *
+     * @param templateId Template ID
+     * @param userId Recipient user ID, or null to use the registry's template
+     * @param language Recipient language, null for the default
+     * @param variables Variable values by name
+     * @return Rendered template, empty if the template is not active
+     */
+    public Optional<RenderedTemplate> render(String templateId, Long userId, String language, Map<String, ?> variables) {
+        RegisteredTemplate version = userId != null ? select(templateId, userId, language) : null;
+        return version != null
+                ? Optional.of(version.render(variables))
+                : templateRegistry.render(templateId, language, variables);
+    }
+
+    /**
+     * Add the send counts of running tests to {@code template_ab_test_results}.
+     *
+     * @return Number of tests updated
+     */
+    @Scheduled(fixedDelayString = "${notification.template-versions.flush-interval-ms:10000}")
+    public synchronized int flush() {
+        List<Route> tested = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (Route route : routes.values()) {
+            if (route.test == null) {
+                continue;
+            }
+            long sentA = route.sent[0].sumThenReset();
+            long sentB = route.sent[1].sumThenReset();
+            if (sentA + sentB > 0) {
+                tested.add(route);
+                rows.add(new Object[]{sentA, sentB, route.test.getTestId()});
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            versionRepository.addSentCounts(rows);
+        } catch (RuntimeException e) {
+            log.error("Failed to flush send counts of {} A/B tests, will retry", rows.size(), e);
+            // Put the counts back for the next flush
+            for (int i = 0; i < tested.size(); i++) {
+                tested.get(i).sent[0].add((Long) rows.get(i)[0]);
+                tested.get(i).sent[1].add((Long) rows.get(i)[1]);
+            }
+            return 0;
+        }
+        return rows.size();
+    }
+
+    private LocalizedTemplate compile(TemplateVariant variant) {
+        return templateLocalizer.compile(variant.getTemplateId() + "@" + variant.getVersion(),
+                variant.getTemplateId(), variant.getChannel(), variant.getVersion(), variant.getCreatedAt(),
+                variant.getSubjectTemplate(), variant.getContentTemplate(), variant.getHtmlTemplate());
+    }
+
+    /**
+     * Flush pending send counts on shutdown.
+     */
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Versions of one template with their cumulative weights
+     */
+    private static final class Route {
+
+        private final LocalizedTemplate[] versions;
+        private final int[] cumulativeWeights;
+        private final int totalWeight;
+        private final int seed;
+        private final AbTest test; // Versions are [A, B] when set
+        private final LongAdder[] sent;
+
+        private Route(String templateId, LocalizedTemplate[] versions, int[] weights, AbTest test) {
+            this.versions = versions;
+            this.cumulativeWeights = new int[weights.length];
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulativeWeights[i] = total;
+            }
+            this.totalWeight = total;
+            this.seed = templateId.hashCode();
+            this.test = test;
+            this.sent = test != null ? new LongAdder[]{new LongAdder(), new LongAdder()} : null;
+        }
+
+        private static Route of(String templateId, List<TemplateVariant> variants, AbTest test,
+                                Function<TemplateVariant, LocalizedTemplate> compiler) {
+            if (test != null) {
+                TemplateVariant a = find(variants, test.getVersionA());
+                TemplateVariant b = find(variants, test.getVersionB());
+                if (a != null && b != null) {
+                    int weightA = a.getWeight();
+                    int weightB = b.getWeight();
+                    if (weightA + weightB == 0) {
+                        weightA = weightB = 1;
+                    }
+                    return new Route(templateId, new LocalizedTemplate[]{compiler.apply(a), compiler.apply(b)},
+                            new int[]{weightA, weightB}, test);
+                }
+                log.warn("A/B test {} of template {} has an inactive version, routing by weight only",
+                        test.getTestId(), templateId);
+            }
+
+            List<TemplateVariant> weighted = variants.stream().filter(v -> v.getWeight() > 0).toList();
+            if (weighted.isEmpty()) {
+                // No weights set: the default version takes every recipient
+                TemplateVariant fallback = variants.stream().filter(TemplateVariant::isDefault).findFirst().orElse(null);
+                return fallback != null
+                        ? new Route(templateId, new LocalizedTemplate[]{compiler.apply(fallback)}, new int[]{1}, null)
+                        : null;
+            }
+            return new Route(templateId,
+                    weighted.stream().map(compiler).toArray(LocalizedTemplate[]::new),
+                    weighted.stream().mapToInt(TemplateVariant::getWeight).toArray(),
+                    null);
+        }
+
+        private static TemplateVariant find(List<TemplateVariant> variants, String version) {
+            for (TemplateVariant variant : variants) {
+                if (variant.getVersion().equals(version)) {
+                    return variant;
+                }
+            }
+            return null;
+        }
+
+        private LocalizedTemplate select(long userId) {
+            int bucket = (int) Long.remainderUnsigned(mix(userId ^ ((long) seed << 32)), totalWeight);
+            int index = 0;
+            while (bucket >= cumulativeWeights[index]) {
+                index++;
+            }
+            if (sent != null) {
+                sent[index].increment();
+            }
+            return versions[index];
+        }
+
+        // SplitMix64 finalizer, spreading sequential user IDs evenly over the buckets
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.model.CompiledTemplate;
+import com.legacykeep.notification.model.HtmlTextConverter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Plain-text alternatives of the classpath email views.
+ *
+ * Each {@code templates/email/**.html} view is converted to a text template once
+ * at startup, so a text part only costs variable substitution per send. Views
+ * that cannot be converted, e.g. those with loops, are sent as HTML only.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class TextAlternativeService {
+
+    private static final String VIEW_ROOT = "templates/";
+    private static final String VIEW_PATTERN = "classpath*:" + VIEW_ROOT + "email/**/*.html";
+
+    private volatile Map<String, CompiledTemplate> textByView = Map.of();
+
+    /**
+     * Derive the text alternatives of every email view.
+     *
+     * @return Number of views with a text alternative
+     */
+    @PostConstruct
+    public int load() {
+        Map<String, CompiledTemplate> loaded = new HashMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(VIEW_PATTERN)) {
+                String path = resource.getURL().getPath();
+                String viewName = path.substring(path.lastIndexOf(VIEW_ROOT) + VIEW_ROOT.length(), path.length() - ".html".length());
+                String html = resource.getContentAsString(StandardCharsets.UTF_8);
+                HtmlTextConverter.toTextTemplate(html).ifPresentOrElse(
+                        text -> loaded.put(viewName, CompiledTemplate.compile(text)),
+                        () -> log.debug("Email view {} has no text alternative", viewName));
+            }
+        } catch (IOException e) {
+            log.error("Failed to load email views for text alternatives", e);
+        }
+        textByView = Map.copyOf(loaded);
+        log.info("Derived text alternatives of {} email views", loaded.size());
+        return loaded.size();
+    }
+
+    /**
+     * Render the text alternative of a view.
+     *
+     * @param viewName View name, e.g. {@code email/auth/welcome}
+     * @param variables Variable values by name
+     * @return Rendered text, empty if the view has no text alternative
+     */
+    public Optional<String> render(String viewName, Map<String, ?> variables) {
+        CompiledTemplate text = textByView.get(viewName);
+        return text != null ? Optional.of(text.render(variables, false)) : Optional.empty();
+    }
+}
@@ -0,0 +1,202 @@
+package com.legacykeep.notification.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.repository.InboxUnreadCountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unread inbox counters maintained incrementally in memory.
+ *
+ * Inserts and mark-as-read add deltas to an in-memory pending map. A scheduled
+ * checkpoint writes the pending deltas to {@code inbox_unread_counts} in one batch.
+ * Reads add this instance's pending delta to the last checkpointed value, which is
+ * cached per user. Badge reads therefore never touch the {@code notifications} or
+ * {@code inbox_items} tables, and usually not the database at all.
+ *
+ * Deltas written by other instances become visible once they are checkpointed and
+ * the cached value expires. Counters keep the unclamped sum of their deltas, since
+ * a read delta can be checkpointed before the insert delta of the same item; they
+ * are clamped at zero only when read. Deltas not yet checkpointed are lost if the
+ * instance crashes, so a crash can leave a counter off by the changes of the last
+ * checkpoint interval. Counters that stay negative have drifted and are recounted
+ * from the unread inbox items by a periodic reconciliation, or on demand.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class UnreadCountService {
+
+    private final InboxUnreadCountRepository unreadCountRepository;
+    private final NotificationConfig.UnreadConfig config;
+    private final Cache<Long, Long> checkpointed;
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+
+    public UnreadCountService(InboxUnreadCountRepository unreadCountRepository,
+                              NotificationConfig notificationConfig,
+                              MeterRegistry meterRegistry) {
+        this.unreadCountRepository = unreadCountRepository;
+
+        this.config = notificationConfig.getUnread();
+        this.checkpointed = Caffeine.newBuilder()
+                .maximumSize(config.getCacheMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(config.getCacheExpireAfterWriteSeconds()))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, checkpointed, "notification.unread");
+    }
+
+    /**
+     * Add deltas to users' unread counters, after commit when called in a transaction.
+     *
+     * @param deltas Delta per user ID; negative for items read
+     */
+    public void add(Map<Long, Long> deltas) {
+        afterCommit(() -> deltas.forEach((userId, delta) -> {
+            if (delta != 0) {
+                pending.merge(userId, delta, Long::sum);
+            }
+        }));
+    }
+
+    /**
+     * Get unread counts of a batch of users with at most one query for cache misses.
+     *
+     * @param userIds User IDs
+     * @return Unread count per user ID (zero for users without a counter)
+     */
+    public Map<Long, Long> get(Collection<Long> userIds) {
+        Map<Long, Long> counts = new HashMap<>(checkpointed.getAllPresent(userIds));
+        List<Long> misses = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (!counts.containsKey(userId)) {
+                misses.add(userId);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<Long, Long> loaded = unreadCountRepository.findAll(misses);
+            for (Long userId : misses) {
+                long value = loaded.getOrDefault(userId, 0L);
+                checkpointed.put(userId, value);
+                counts.put(userId, value);
+            }
+        }
+
+        counts.replaceAll((userId, value) -> Math.max(0, value + pending.getOrDefault(userId, 0L)));
+        return counts;
+    }
+
+    /**
+     * Write pending deltas to the counters table in one batch.
+     *
+     * @return Number of users whose counter was written
+     */
+    @Scheduled(fixedDelayString = "${notification.unread.checkpoint-interval-ms:1000}")
+    public int checkpoint() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Long> deltas = new HashMap<>(pending);
+        try {
+            unreadCountRepository.addAll(deltas);
+        } catch (Exception e) {
+            log.error("Failed to checkpoint unread counters of {} users, will retry", deltas.size(), e);
+            return 0;
+        }
+
+        // Deltas added since the copy stay pending for the next checkpoint
+        deltas.forEach((userId, delta) -> {
+            checkpointed.asMap().computeIfPresent(userId, (id, value) -> value + delta);
+            pending.computeIfPresent(userId, (id, value) -> value - delta == 0 ? null : value - delta);
+        });
+        log.debug("Checkpointed unread counters of {} users", deltas.size());
+        return deltas.size();
+    }
+
+    /**
+     * Recount counters that have been negative, without a delta, for longer than the
+     * settle time. A short-lived negative value is normal while deltas arrive out of order.
+     *
+     * @return Number of counters recounted
+     */
+    @Scheduled(fixedDelayString = "${notification.unread.reconcile-interval-ms:60000}")
+    public int reconcileDrifted() {
+        try {
+            List<Long> drifted = unreadCountRepository.findDrifted(
+                    LocalDateTime.now().minusMinutes(config.getDriftSettleMinutes()), config.getReconcileBatchSize());
+            if (drifted.isEmpty()) {
+                return 0;
+            }
+            int recounted = reconcile(drifted);
+            log.warn("Recounted {} drifted unread counters", recounted);
+            return recounted;
+        } catch (Exception e) {
+            log.error("Failed to reconcile drifted unread counters", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Recount users' counters from their unread inbox items. This instance's pending
+     * deltas are checkpointed first; deltas other instances have not checkpointed yet
+     * still apply on top of the recount.
+     *
+     * @param userIds User IDs
+     * @return Number of counters recounted
+     */
+    public int reconcile(Collection<Long> userIds) {
+        checkpoint();
+        int recounted = unreadCountRepository.recount(userIds);
+        checkpointed.invalidateAll(userIds);
+        return recounted;
+    }
+
+    /**
+     * Flush pending deltas on shutdown.
+     */
+    @PreDestroy
+    public void close() {
+        checkpoint();
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        // Items written in a rolled back transaction must not count
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    /**
+     * Number of users with deltas not yet checkpointed
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+}
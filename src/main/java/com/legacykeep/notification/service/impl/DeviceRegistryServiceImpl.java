@@ -0,0 +1,242 @@
+package com.legacykeep.notification.service.impl;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.UserDevice;
+import com.legacykeep.notification.event.dto.UserDevicesChangedEvent;
+import com.legacykeep.notification.repository.UserDeviceRepository;
+import com.legacykeep.notification.service.DeviceRegistryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Implementation of DeviceRegistryService backed by a read-through Caffeine cache
+ * of {@code userId -> active tokens}.
+ *
+ * Users without devices are cached as empty lists, so they cost no query until the
+ * entry expires or is invalidated by a device event. Invalid tokens are filtered out
+ * of every lookup from the moment they are reported until the pruner has deactivated
+ * them and evicted the affected users.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class DeviceRegistryServiceImpl implements DeviceRegistryService {
+
+    private final UserDeviceRepository userDeviceRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String invalidationTopic;
+    private final int pruneBatchSize;
+    private final LoadingCache<Long, List<String>> cache;
+    private final ConcurrentLinkedQueue<String> pendingInvalidTokens = new ConcurrentLinkedQueue<>();
+    private final Set<String> invalidTokens = ConcurrentHashMap.newKeySet();
+
+    public DeviceRegistryServiceImpl(UserDeviceRepository userDeviceRepository,
+                                     KafkaTemplate<String, Object> kafkaTemplate,
+                                     NotificationConfig notificationConfig,
+                                     MeterRegistry meterRegistry) {
+        this.userDeviceRepository = userDeviceRepository;
+        this.kafkaTemplate = kafkaTemplate;
+
+        NotificationConfig.DeviceConfig config = notificationConfig.getDevice();
+        this.invalidationTopic = config.getInvalidationTopic();
+        this.pruneBatchSize = config.getPruneBatchSize();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getCacheMaximumSize())
+                .expireAfterWrite(Duration.ofMinutes(config.getCacheExpireAfterWriteMinutes()))
+                .recordStats()
+                .build(new DeviceLoader());
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "notification.devices");
+
+        log.info("Device registry cache configured: maximumSize={}, expireAfterWriteMinutes={}",
+                config.getCacheMaximumSize(), config.getCacheExpireAfterWriteMinutes());
+    }
+
+    @Override
+    public List<String> getActiveTokens(Long userId) {
+        if (userId == null) {
+            return List.of();
+        }
+        return withoutInvalid(cache.get(userId));
+    }
+
+    @Override
+    public Map<Long, List<String>> getActiveTokens(Collection<Long> userIds) {
+        Map<Long, List<String>> tokens = cache.getAll(userIds);
+        if (invalidTokens.isEmpty()) {
+            return tokens;
+        }
+        Map<Long, List<String>> filtered = new HashMap<>(tokens.size() * 2);
+        tokens.forEach((userId, userTokens) -> filtered.put(userId, withoutInvalid(userTokens)));
+        return filtered;
+    }
+
+    @Override
+    public UserDevice registerDevice(UserDevice device) {
+        UserDevice saved = userDeviceRepository.findByUserIdAndDeviceToken(device.getUserId(), device.getDeviceToken())
+                .map(existing -> {
+                    existing.setDeviceType(device.getDeviceType());
+                    existing.setDeviceName(device.getDeviceName());
+                    existing.setDeviceModel(device.getDeviceModel());
+                    existing.setOsVersion(device.getOsVersion());
+                    existing.setAppVersion(device.getAppVersion());
+                    existing.setIsActive(true);
+                    return userDeviceRepository.save(existing);
+                })
+                .orElseGet(() -> userDeviceRepository.save(device));
+        // A re-registered token is valid again and must not be deactivated by the pruner
+        if (invalidTokens.remove(saved.getDeviceToken())) {
+            pendingInvalidTokens.remove(saved.getDeviceToken());
+        }
+        cache.invalidate(saved.getUserId());
+        publishChange(saved.getUserId());
+
+        log.debug("Device registered for user: {}", saved.getUserId());
+        return saved;
+    }
+
+    @Override
+    public void unregisterDevice(Long userId, String deviceToken) {
+        userDeviceRepository.findByUserIdAndDeviceToken(userId, deviceToken).ifPresent(device -> {
+            device.setIsActive(false);
+            userDeviceRepository.save(device);
+            publishChange(userId);
+        });
+        cache.invalidate(userId);
+
+        log.debug("Device unregistered for user: {}", userId);
+    }
+
+    /**
+     * Publish the change once the device write is committed, so no instance
+     * evicts before the write is visible and reloads the previous devices.
+     */
+    private void publishChange(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendChange(userId);
+                }
+            });
+        } else {
+            sendChange(userId);
+        }
+    }
+
+    private void sendChange(Long userId) {
+        UserDevicesChangedEvent event = UserDevicesChangedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .userId(userId)
+                .updatedAt(LocalDateTime.now())
+                .sourceService("notification-service")
+                .build();
+        kafkaTemplate.send(invalidationTopic, String.valueOf(userId), event);
+    }
+
+    @Override
+    public void evict(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    @Override
+    public void reportInvalidTokens(Collection<String> deviceTokens) {
+        for (String token : deviceTokens) {
+            if (invalidTokens.add(token)) {
+                pendingInvalidTokens.add(token);
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${notification.device.prune-interval-ms:5000}")
+    public int pruneInvalidTokens() {
+        int deactivated = 0;
+        while (!pendingInvalidTokens.isEmpty()) {
+            List<String> batch = new ArrayList<>(Math.min(pruneBatchSize, pendingInvalidTokens.size()));
+            String token;
+            while (batch.size() < pruneBatchSize && (token = pendingInvalidTokens.poll()) != null) {
+                // Skip tokens re-registered since they were queued
+                if (invalidTokens.contains(token)) {
+                    batch.add(token);
+                }
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                List<Long> affectedUsers = userDeviceRepository.findUserIdsByDeviceTokens(batch);
+                deactivated += userDeviceRepository.deactivateByDeviceTokens(batch);
+                cache.invalidateAll(affectedUsers);
+                batch.forEach(invalidTokens::remove);
+            } catch (Exception e) {
+                pendingInvalidTokens.addAll(batch);
+                log.error("Failed to deactivate {} invalid device tokens, will retry", batch.size(), e);
+                break;
+            }
+        }
+
+        if (deactivated > 0) {
+            log.info("Deactivated {} devices with invalid push tokens", deactivated);
+        }
+        return deactivated;
+    }
+
+    private List<String> withoutInvalid(List<String> tokens) {
+        if (invalidTokens.isEmpty() || tokens.isEmpty()) {
+            return tokens;
+        }
+        return tokens.stream().filter(token -> !invalidTokens.contains(token)).toList();
+    }
+
+    /**
+     * Loads single entries by user ID and batches of misses with one IN query.
+     */
+    private final class DeviceLoader implements CacheLoader<Long, List<String>> {
+
+        @Override
+        public List<String> load(Long userId) {
+            return loadAll(Set.of(userId)).get(userId);
+        }
+
+        @Override
+        public Map<Long, List<String>> loadAll(Set<? extends Long> userIds) {
+            Map<Long, List<String>> grouped = new LinkedHashMap<>(userIds.size() * 2);
+            for (Object[] row : userDeviceRepository.findActiveTokensByUserIds(new ArrayList<>(userIds))) {
+                grouped.computeIfAbsent((Long) row[0], userId -> new ArrayList<>(2)).add((String) row[1]);
+            }
+            Map<Long, List<String>> loaded = new HashMap<>(userIds.size() * 2);
+            for (Long userId : userIds) {
+                List<String> tokens = grouped.get(userId);
+                loaded.put(userId, tokens == null ? List.of() : List.copyOf(tokens));
+            }
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.legacykeep.notification.service.impl;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.model.ChannelSendResult;
+import com.legacykeep.notification.model.HtmlBody;
+import com.legacykeep.notification.service.ChannelSender;
+import com.legacykeep.notification.service.EmailDeliveryService;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Email channel sender. SMTP sends block, so they run on the notification executor;
+ * a batch is sent over a single SMTP connection.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class EmailChannelSender implements ChannelSender {
+
+    private final EmailDeliveryService emailDeliveryService;
+    private final JavaMailSender mailSender;
+    private final NotificationConfig notificationConfig;
+    private final Executor taskExecutor;
+
+    public EmailChannelSender(EmailDeliveryService emailDeliveryService,
+                              JavaMailSender mailSender,
+                              NotificationConfig notificationConfig,
+                              @Qualifier("notificationTaskExecutor") Executor taskExecutor) {
+        this.emailDeliveryService = emailDeliveryService;
+        this.mailSender = mailSender;
+        this.notificationConfig = notificationConfig;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.EMAIL;
+    }
+
+    @Override
+    public CompletableFuture<ChannelSendResult> send(Notification notification) {
+        return sendAll(List.of(notification)).get(0);
+    }
+
+    @Override
+    public List<CompletableFuture<ChannelSendResult>> sendAll(List<Notification> notifications) {
+        List<CompletableFuture<ChannelSendResult>> results = new ArrayList<>(notifications.size());
+        Map<MimeMessage, CompletableFuture<ChannelSendResult>> pending = new IdentityHashMap<>();
+        for (Notification notification : notifications) {
+            CompletableFuture<ChannelSendResult> result = new CompletableFuture<>();
+            results.add(result);
+            if (notification.getRecipientEmail() == null) {
+                result.complete(ChannelSendResult.failed("No recipient email"));
+                continue;
+            }
+            try {
+                pending.put(createMessage(notification), result);
+            } catch (Exception e) {
+                result.complete(ChannelSendResult.failed("Failed to build message: " + e.getMessage()));
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            CompletableFuture.runAsync(() -> send(pending), taskExecutor)
+                    .exceptionally(e -> {
+                        // Executor rejected the batch
+                        pending.values().forEach(result -> result.completeExceptionally(e));
+                        return null;
+                    });
+        }
+        return results;
+    }
+
+    private void send(Map<MimeMessage, CompletableFuture<ChannelSendResult>> pending) {
+        try {
+            mailSender.send(pending.keySet().toArray(new MimeMessage[0]));
+            pending.values().forEach(result -> result.complete(ChannelSendResult.SENT));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            pending.forEach((message, result) -> {
+                Exception failure = failed.get(message);
+                result.complete(failure != null ? ChannelSendResult.failed(failure.getMessage()) : ChannelSendResult.SENT);
+            });
+            log.error("Failed to send {} of {} emails", failed.size(), pending.size(), e);
+        } catch (Exception e) {
+            pending.values().forEach(result -> result.complete(ChannelSendResult.failed(e.getMessage())));
+            log.error("Failed to send batch of {} emails", pending.size(), e);
+        }
+    }
+
+    private MimeMessage createMessage(Notification notification) throws Exception {
+        NotificationConfig.SenderConfig sender = notificationConfig.getEmail().getSender();
+        return emailDeliveryService.createHtmlMessage(
+                new InternetAddress(sender.getAddress(), sender.getName(), "UTF-8"),
+                notification.getRecipientEmail(), notification.getSubject(), HtmlBody.of(notification.getContent()),
+                notification.getTextContent());
+    }
+}
@@ -1,26 +1,49 @@
 package com.legacykeep.notification.service.impl;
 
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationPriority;
+import com.legacykeep.notification.entity.NotificationType;
 import com.legacykeep.notification.event.dto.UserEmailVerifiedEvent;
 import com.legacykeep.notification.event.dto.UserPasswordResetRequestedEvent;
 import com.legacykeep.notification.event.dto.UserRegisteredEvent;
 import com.legacykeep.notification.event.dto.UserOtpVerificationRequestedEvent;
+import com.legacykeep.notification.model.RenderedTemplate;
+import com.legacykeep.notification.repository.NotificationRepository;
+import com.legacykeep.notification.service.EmailDeliveryService;
 import com.legacykeep.notification.service.EmailTemplateService;
+import com.legacykeep.notification.service.FallbackCascadeService;
+import com.legacykeep.notification.service.NotificationPreferenceService;
+import com.legacykeep.notification.service.TemplateVersionRouter;
+import com.legacykeep.notification.service.TextAlternativeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.InternetAddress;
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Implementation of EmailTemplateService using Thymeleaf templates.
  * 
- * Processes email templates and sends emails for various user events.
+ * Processes email templates and sends emails for various user events. Subjects
+ * and bodies come from the recipient's template version in their preferred
+ * language, or the template registry when the template is active in
+ * {@code notification_templates}, falling back to the built-in views otherwise.
+ * Bodies are rendered straight into the sending thread's reusable buffer, with
+ * a plain-text alternative precompiled from the same template.
+ * 
+ * Verification codes are persisted and sent through the fallback cascade of the
+ * {@code sms-verification} template instead, reaching the user on whichever
+ * channel delivers first.
  * 
  * @author LegacyKeep Team
  * @version 1.0.0
@@ -30,8 +53,15 @@ import jakarta.mail.internet.MimeMessage;
 @RequiredArgsConstructor
 public class EmailTemplateServiceImpl implements EmailTemplateService {
 
+    static final String OTP_TEMPLATE_ID = "sms-verification";
+
     private final TemplateEngine templateEngine;
-    private final JavaMailSender mailSender;
+    private final EmailDeliveryService emailDeliveryService;
+    private final TemplateVersionRouter templateVersionRouter;
+    private final NotificationPreferenceService preferenceService;
+    private final TextAlternativeService textAlternativeService;
+    private final NotificationRepository notificationRepository;
+    private final FallbackCascadeService fallbackCascadeService;
 
     @Value("${notification.email.smtp.username}")
     private String fromEmail;
@@ -57,15 +87,9 @@ public class EmailTemplateServiceImpl implements EmailTemplateService {
             context.setVariable("loginUrl", frontendUrl + "/login");
             context.setVariable("dashboardUrl", frontendUrl + "/dashboard");
 
-            // Process template
-            String htmlContent = templateEngine.process("email/auth/welcome", context);
-
-            // Send email
-            sendHtmlEmail(
-                event.getEmail(),
-                "🎉 Welcome to LegacyKeep!",
-                htmlContent
-            );
+            // Process template and send email
+            sendTemplatedEmail("welcome-email", event.getUserId(), event.getEmail(), context,
+                "email/auth/welcome", "🎉 Welcome to LegacyKeep!");
 
             log.info("Welcome email sent successfully to: {}", event.getEmail());
         } catch (Exception e) {
@@ -89,15 +113,9 @@ public class EmailTemplateServiceImpl implements EmailTemplateService {
             context.setVariable("loginUrl", frontendUrl + "/login");
             context.setVariable("dashboardUrl", frontendUrl + "/dashboard");
 
-            // Process template
-            String htmlContent = templateEngine.process("email/auth/welcome", context);
-
-            // Send email
-            sendHtmlEmail(
-                event.getEmail(),
-                "🎉 Welcome to LegacyKeep!",
-                htmlContent
-            );
+            // Process template and send email
+            sendTemplatedEmail("welcome-email", event.getUserId(), event.getEmail(), context,
+                "email/auth/welcome", "🎉 Welcome to LegacyKeep!");
 
             log.info("Welcome email after verification sent successfully to: {}", event.getEmail());
         } catch (Exception e) {
@@ -133,15 +151,9 @@ public class EmailTemplateServiceImpl implements EmailTemplateService {
             }
             context.setVariable("expiryHours", expiryHours);
 
-            // Process template
-            String htmlContent = templateEngine.process("email/auth/password-reset", context);
-
-            // Send email
-            sendHtmlEmail(
-                event.getEmail(),
-                "🔑 Reset Your LegacyKeep Password",
-                htmlContent
-            );
+            // Process template and send email
+            sendTemplatedEmail("password-reset", event.getUserId(), event.getEmail(), context,
+                "email/auth/password-reset", "🔑 Reset Your LegacyKeep Password");
 
             log.info("Password reset email sent successfully to: {}", event.getEmail());
         } catch (Exception e) {
@@ -153,7 +165,7 @@ public class EmailTemplateServiceImpl implements EmailTemplateService {
     @Override
     public void sendOtpVerificationEmail(UserOtpVerificationRequestedEvent event) {
         try {
-            log.info("Sending OTP verification email to: {}", event.getEmail());
+            log.info("Sending OTP verification code to: {}", event.getEmail());
 
             // Prepare template context
             Context context = new Context();
@@ -175,41 +187,102 @@ public class EmailTemplateServiceImpl implements EmailTemplateService {
             }
             context.setVariable("expiryMinutes", expiryMinutes);
 
-            // Process template
-            String htmlContent = templateEngine.process("email/auth/otp-verification", context);
+            Notification notification = new Notification(
+                (event.getEventId() != null ? event.getEventId() : UUID.randomUUID().toString()) + ":otp",
+                NotificationType.EMAIL, OTP_TEMPLATE_ID, event.getUserId());
+            notification.setRecipientEmail(event.getEmail());
+            notification.setSubject("🔐 Your LegacyKeep Verification Code");
+            notification.setContent(templateEngine.process("email/auth/otp-verification", context));
+            notification.setTextContent(templateVersionRouter.render(OTP_TEMPLATE_ID, event.getUserId(), null,
+                    Map.of("verificationCode", event.getOtpCode(), "expiryMinutes", expiryMinutes))
+                .filter(rendered -> !rendered.isHtml())
+                .map(RenderedTemplate::getBody)
+                .orElse("Your LegacyKeep verification code is: " + event.getOtpCode()
+                    + ". Valid for " + expiryMinutes + " minutes."));
+            notification.setPriority(NotificationPriority.URGENT);
 
-            // Send email
-            sendHtmlEmail(
-                event.getEmail(),
-                "🔐 Your LegacyKeep Verification Code",
-                htmlContent
-            );
-
-            log.info("OTP verification email sent successfully to: {}", event.getEmail());
+            // A redelivered event already has its notification
+            if (notificationRepository.insertNew(List.of(notification)).isEmpty()) {
+                log.info("OTP verification code already sent for event: {}", event.getEventId());
+                return;
+            }
+            fallbackCascadeService.deliver(notification).whenComplete((outcome, error) -> {
+                if (error == null && outcome.isDelivered()) {
+                    notification.markAsSent();
+                    log.info("OTP verification code delivered by {} to user: {}", outcome.getDeliveredChannel(), event.getUserId());
+                } else {
+                    notification.markAsFailed(error != null ? error.getMessage() : "Every fallback channel failed");
+                    log.error("Failed to deliver OTP verification code to user: {}", event.getUserId(), error);
+                }
+                try {
+                    notificationRepository.updateOutcomes(List.of(notification));
+                } catch (Exception e) {
+                    log.error("Failed to record OTP verification outcome for user: {}", event.getUserId(), e);
+                }
+            });
         } catch (Exception e) {
-            log.error("Failed to send OTP verification email to: {}", event.getEmail(), e);
-            throw new RuntimeException("Failed to send OTP verification email", e);
+            log.error("Failed to send OTP verification code to: {}", event.getEmail(), e);
+            throw new RuntimeException("Failed to send OTP verification code", e);
         }
     }
 
     /**
-     * Send HTML email using JavaMailSender.
+     * Render the recipient's version of a template, or the built-in view when the
+     * template is not active, and send it.
      * 
+     * @param templateId Registry template ID
+     * @param userId Recipient user ID, selecting the template version and language
      * @param to Recipient email address
-     * @param subject Email subject
-     * @param htmlContent HTML content of the email
-     * @throws MessagingException if email sending fails
+     * @param context Thymeleaf context with the template variables
+     * @param defaultView View used when the registry has no view for the template
+     * @param defaultSubject Subject used when the registry has no subject for the template
      */
-    private void sendHtmlEmail(String to, String subject, String htmlContent) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+    private void sendTemplatedEmail(String templateId, Long userId, String to, Context context,
+                                    String defaultView, String defaultSubject) {
+        Map<String, Object> variables = variables(context);
+        // Names used by the stored templates
+        variables.putIfAbsent("userName", context.getVariable("fullName"));
+        variables.putIfAbsent("helpUrl", frontendUrl + "/help");
+        variables.putIfAbsent("privacyUrl", frontendUrl + "/privacy");
+        variables.putIfAbsent("logoUrl", frontendUrl + "/logo.png");
 
-        helper.setFrom(fromEmail);
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true); // true indicates HTML content
+        String language = userId != null ? preferenceService.getPreferences(userId).getLanguage() : null;
+        if (language != null) {
+            context.setLocale(Locale.forLanguageTag(language));
+        }
 
-        mailSender.send(message);
-        log.debug("HTML email sent to: {} with subject: {}", to, subject);
+        Optional<RenderedTemplate> rendered = templateVersionRouter.render(templateId, userId, language, variables);
+        String subject = rendered.map(RenderedTemplate::getSubject).orElse(defaultSubject);
+        EmailDeliveryService.BodyWriter body;
+        String text;
+        if (rendered.isPresent() && rendered.get().isHtml()) {
+            String htmlContent = rendered.get().getBody();
+            body = writer -> writer.write(htmlContent);
+            text = rendered.get().getText();
+        } else {
+            String view = rendered.map(RenderedTemplate::getViewName).orElse(defaultView);
+            body = writer -> templateEngine.process(view, context, writer);
+            text = rendered.map(RenderedTemplate::getText)
+                    .or(() -> textAlternativeService.render(view, variables))
+                    .orElse(null);
+        }
+
+        emailDeliveryService.sendHtmlEmail(sender(), to, subject, body, text);
+    }
+
+    private Map<String, Object> variables(Context context) {
+        Map<String, Object> variables = new HashMap<>();
+        for (String name : context.getVariableNames()) {
+            variables.put(name, context.getVariable(name));
+        }
+        return variables;
+    }
+
+    private InternetAddress sender() {
+        try {
+            return new InternetAddress(fromEmail, fromName, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,95 @@
+package com.legacykeep.notification.service.impl;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.model.SmsMessage;
+import com.legacykeep.notification.model.SmsSegments;
+import com.legacykeep.notification.model.SmsSendResult;
+import com.legacykeep.notification.service.SmsProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local SMS provider that records messages instead of sending them.
+ *
+ * Used for development and tests with {@code notification.sms.provider=fake}.
+ * It can be told to fail upcoming submissions to exercise retries.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.sms.provider", havingValue = "fake")
+public class FakeSmsProvider implements SmsProvider {
+
+    private final int maxBatchSize;
+    private final ConcurrentLinkedQueue<SmsMessage> sentMessages = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger submissionCount = new AtomicInteger();
+    private final AtomicInteger failuresRemaining = new AtomicInteger();
+
+    public FakeSmsProvider(NotificationConfig notificationConfig) {
+        this.maxBatchSize = notificationConfig.getSms().getMaxBatchSize();
+    }
+
+    @Override
+    public String getName() {
+        return "fake";
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public CompletableFuture<SmsSendResult> submit(List<SmsMessage> messages) {
+        submissionCount.incrementAndGet();
+        if (failuresRemaining.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+            return CompletableFuture.completedFuture(SmsSendResult.failed(messages));
+        }
+
+        int segments = 0;
+        List<SmsMessage> rejected = new ArrayList<>();
+        for (SmsMessage message : messages) {
+            if (message.getTo() == null || !message.getTo().startsWith("+")) {
+                rejected.add(message);
+                continue;
+            }
+            sentMessages.add(message);
+            segments += SmsSegments.count(message.getBody());
+            log.debug("Fake SMS to {}: {}", message.getTo(), message.getBody());
+        }
+        return CompletableFuture.completedFuture(
+                new SmsSendResult(messages.size() - rejected.size(), segments, List.of(), rejected));
+    }
+
+    /**
+     * Fail the next submissions as if the provider were unavailable.
+     *
+     * @param count Number of submissions to fail
+     */
+    public void failNextSubmissions(int count) {
+        failuresRemaining.set(count);
+    }
+
+    public List<SmsMessage> getSentMessages() {
+        return List.copyOf(sentMessages);
+    }
+
+    public int getSubmissionCount() {
+        return submissionCount.get();
+    }
+
+    public void clear() {
+        sentMessages.clear();
+        submissionCount.set(0);
+        failuresRemaining.set(0);
+    }
+}
@@ -0,0 +1,143 @@
+package com.legacykeep.notification.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.model.SmsMessage;
+import com.legacykeep.notification.model.SmsSendResult;
+import com.legacykeep.notification.service.SmsProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * SMS provider for gateways with a JSON batch submission API.
+ *
+ * One request carries up to {@code notification.sms.max-batch-size} messages and
+ * the gateway answers with a status per message, in request order. Throttling
+ * and server errors fail the whole batch as retryable; other client errors
+ * reject it. Startup fails when SMS is enabled without an endpoint.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.sms.provider", havingValue = "http", matchIfMissing = true)
+public class HttpSmsProvider implements SmsProvider {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final NotificationConfig.SmsConfig smsConfig;
+    private final URI endpoint;
+
+    public HttpSmsProvider(@Qualifier("smsHttpClient") HttpClient httpClient,
+                           ObjectMapper objectMapper,
+                           NotificationConfig notificationConfig) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.smsConfig = notificationConfig.getSms();
+        if (smsConfig.isEnabled() && !StringUtils.hasText(smsConfig.getEndpoint())) {
+            throw new IllegalStateException("notification.sms.endpoint must be set when SMS is enabled");
+        }
+        this.endpoint = StringUtils.hasText(smsConfig.getEndpoint()) ? URI.create(smsConfig.getEndpoint()) : null;
+    }
+
+    @Override
+    public String getName() {
+        return "http";
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return smsConfig.getMaxBatchSize();
+    }
+
+    @Override
+    public CompletableFuture<SmsSendResult> submit(List<SmsMessage> messages) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(endpoint)
+                    .timeout(Duration.ofMillis(smsConfig.getRequestTimeoutMs()))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + smsConfig.getApiKey())
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(payload(messages))))
+                    .build();
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Failed to build SMS request for {} messages", messages.size(), e);
+            return CompletableFuture.completedFuture(SmsSendResult.failed(messages));
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> parseResponse(messages, response))
+                .exceptionally(e -> {
+                    log.warn("SMS request for {} messages failed: {}", messages.size(), e.getMessage());
+                    return SmsSendResult.failed(messages);
+                });
+    }
+
+    private ObjectNode payload(List<SmsMessage> messages) {
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("from", smsConfig.getSenderId());
+        ArrayNode array = payload.putArray("messages");
+        for (SmsMessage message : messages) {
+            array.addObject()
+                    .put("to", message.getTo())
+                    .put("body", message.getBody())
+                    .put("reference", message.getReference());
+        }
+        return payload;
+    }
+
+    private SmsSendResult parseResponse(List<SmsMessage> messages, HttpResponse<byte[]> response) {
+        int status = response.statusCode();
+        if (status == 429 || status >= 500) {
+            log.warn("SMS gateway unavailable for {} messages with status {}", messages.size(), status);
+            return SmsSendResult.failed(messages);
+        }
+        if (status >= 400) {
+            log.warn("SMS gateway rejected request for {} messages with status {}", messages.size(), status);
+            return SmsSendResult.rejected(messages);
+        }
+
+        JsonNode results;
+        try {
+            results = objectMapper.readTree(response.body()).path("results");
+        } catch (IOException e) {
+            log.warn("Unreadable SMS gateway response for {} messages", messages.size(), e);
+            return SmsSendResult.failed(messages);
+        }
+
+        int accepted = 0;
+        int segments = 0;
+        List<SmsMessage> failed = new ArrayList<>();
+        List<SmsMessage> rejected = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            JsonNode result = results.path(i);
+            String outcome = result.path("status").asText("");
+            if ("accepted".equals(outcome)) {
+                accepted++;
+                segments += result.path("segments").asInt(1);
+            } else if ("rejected".equals(outcome)) {
+                rejected.add(messages.get(i));
+            } else {
+                failed.add(messages.get(i));
+            }
+        }
+        return new SmsSendResult(accepted, segments, failed, rejected);
+    }
+}
@@ -0,0 +1,51 @@
+package com.legacykeep.notification.service.impl;
+
+import com.legacykeep.notification.entity.InboxItem;
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.model.ChannelSendResult;
+import com.legacykeep.notification.service.ChannelSender;
+import com.legacykeep.notification.service.InboxService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * In-app channel sender storing the notification in the recipient's inbox.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Component
+public class InAppChannelSender implements ChannelSender {
+
+    private final InboxService inboxService;
+    private final Executor taskExecutor;
+
+    public InAppChannelSender(InboxService inboxService,
+                              @Qualifier("notificationTaskExecutor") Executor taskExecutor) {
+        this.inboxService = inboxService;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.IN_APP;
+    }
+
+    @Override
+    public CompletableFuture<ChannelSendResult> send(Notification notification) {
+        InboxItem item = new InboxItem(notification.getEventId() + ":in-app", notification.getRecipientId(),
+                notification.getTemplateId(),
+                notification.getSubject() != null ? notification.getSubject() : notification.getTemplateId());
+        item.setBody(notification.getPlainTextContent());
+        item.setPriority(notification.getPriority());
+        return CompletableFuture.supplyAsync(() -> {
+            inboxService.deliver(List.of(item));
+            return ChannelSendResult.SENT;
+        }, taskExecutor);
+    }
+}
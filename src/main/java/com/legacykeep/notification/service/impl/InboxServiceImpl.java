@@ -0,0 +1,131 @@
+package com.legacykeep.notification.service.impl;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.dto.InboxPage;
+import com.legacykeep.notification.entity.InboxItem;
+import com.legacykeep.notification.event.InboxItemsStoredEvent;
+import com.legacykeep.notification.model.InboxCursor;
+import com.legacykeep.notification.repository.InboxItemRepository;
+import com.legacykeep.notification.service.InboxService;
+import com.legacykeep.notification.service.UnreadCountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of InboxService on the {@code inbox_items} table.
+ *
+ * Every insert and mark-as-read adjusts the user's unread counter through the
+ * {@link UnreadCountService} once the transaction commits. Stored items are
+ * announced with an {@link InboxItemsStoredEvent} for real-time delivery.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InboxServiceImpl implements InboxService {
+
+    private final InboxItemRepository inboxItemRepository;
+    private final UnreadCountService unreadCountService;
+    private final NotificationConfig notificationConfig;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public List<InboxItem> deliver(Collection<InboxItem> items) {
+        Map<String, InboxItem> byEventId = new LinkedHashMap<>();
+        for (InboxItem item : items) {
+            byEventId.putIfAbsent(item.getEventId(), item);
+        }
+        if (byEventId.isEmpty()) {
+            return List.of();
+        }
+
+        // Redelivered events already have their item
+        inboxItemRepository.findExistingEventIds(byEventId.keySet()).forEach(byEventId::remove);
+        if (byEventId.isEmpty()) {
+            return List.of();
+        }
+
+        List<InboxItem> saved = inboxItemRepository.saveAll(byEventId.values());
+        Map<Long, Long> deltas = new HashMap<>();
+        for (InboxItem item : saved) {
+            if (!item.isRead()) {
+                deltas.merge(item.getRecipientId(), 1L, Long::sum);
+            }
+        }
+        unreadCountService.add(deltas);
+        eventPublisher.publishEvent(new InboxItemsStoredEvent(saved));
+
+        log.debug("Stored {} inbox items for {} users", saved.size(), deltas.size());
+        return saved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InboxPage getPage(Long userId, String cursor, int limit) {
+        NotificationConfig.InboxConfig config = notificationConfig.getInbox();
+        int pageSize = limit <= 0 ? config.getDefaultPageSize() : Math.min(limit, config.getMaxPageSize());
+
+        // Fetch one extra row to know whether another page follows
+        List<InboxItem> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = inboxItemRepository.findFirstPage(userId, pageSize + 1);
+        } else {
+            InboxCursor position = InboxCursor.decode(cursor);
+            items = inboxItemRepository.findPageBefore(userId, position.getCreatedAt(), position.getId(), pageSize + 1);
+        }
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            InboxItem last = items.get(pageSize - 1);
+            nextCursor = new InboxCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return InboxPage.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .unreadCount(getUnreadCounts(List.of(userId)).get(userId))
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public int markRead(Long userId, Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        int marked = inboxItemRepository.markRead(userId, itemIds, LocalDateTime.now());
+        if (marked > 0) {
+            unreadCountService.add(Map.of(userId, (long) -marked));
+        }
+        return marked;
+    }
+
+    @Override
+    @Transactional
+    public int markAllRead(Long userId) {
+        int marked = inboxItemRepository.markAllRead(userId, LocalDateTime.now());
+        if (marked > 0) {
+            unreadCountService.add(Map.of(userId, (long) -marked));
+        }
+        return marked;
+    }
+
+    @Override
+    public Map<Long, Long> getUnreadCounts(Collection<Long> userIds) {
+        return unreadCountService.get(userIds);
+    }
+}
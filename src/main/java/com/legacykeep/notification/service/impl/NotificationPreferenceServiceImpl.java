@@ -0,0 +1,164 @@
+package com.legacykeep.notification.service.impl;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+import com.legacykeep.notification.event.dto.UserPreferencesChangedEvent;
+import com.legacykeep.notification.model.PreferenceSnapshot;
+import com.legacykeep.notification.repository.PreferenceSnapshotRepository;
+import com.legacykeep.notification.repository.UserNotificationPreferencesRepository;
+import com.legacykeep.notification.service.NotificationPreferenceService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Implementation of NotificationPreferenceService backed by a read-through Caffeine cache.
+ *
+ * Users without stored preferences are cached against a shared marker (negative
+ * caching), so a miss costs one query per user per expiry window at most. Callers
+ * get a fresh defaults instance for such users, never the marker itself.
+ * Updates are broadcast on a compacted Kafka topic keyed by user ID; every instance
+ * evicts its copy when the event arrives.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class NotificationPreferenceServiceImpl implements NotificationPreferenceService {
+
+    /**
+     * Cached for users who have never saved preferences; never handed out.
+     */
+    private static final UserNotificationPreferences NO_PREFERENCES = new UserNotificationPreferences(null);
+
+    private final UserNotificationPreferencesRepository preferencesRepository;
+    private final PreferenceSnapshotRepository snapshotRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String invalidationTopic;
+    private final LoadingCache<Long, UserNotificationPreferences> cache;
+
+    public NotificationPreferenceServiceImpl(UserNotificationPreferencesRepository preferencesRepository,
+                                             PreferenceSnapshotRepository snapshotRepository,
+                                             KafkaTemplate<String, Object> kafkaTemplate,
+                                             NotificationConfig notificationConfig,
+                                             MeterRegistry meterRegistry) {
+        this.preferencesRepository = preferencesRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.kafkaTemplate = kafkaTemplate;
+
+        NotificationConfig.PreferenceConfig config = notificationConfig.getPreference();
+        this.invalidationTopic = config.getInvalidationTopic();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getCacheMaximumSize())
+                .expireAfterWrite(Duration.ofMinutes(config.getCacheExpireAfterWriteMinutes()))
+                .recordStats()
+                .build(new PreferenceLoader());
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "notification.preferences");
+
+        log.info("Preference cache configured: maximumSize={}, expireAfterWriteMinutes={}",
+                config.getCacheMaximumSize(), config.getCacheExpireAfterWriteMinutes());
+    }
+
+    @Override
+    public UserNotificationPreferences getPreferences(Long userId) {
+        if (userId == null) {
+            return new UserNotificationPreferences(null);
+        }
+        return orDefaults(userId, cache.get(userId));
+    }
+
+    @Override
+    public Map<Long, UserNotificationPreferences> getPreferences(Collection<Long> userIds) {
+        Map<Long, UserNotificationPreferences> cached = cache.getAll(userIds);
+        Map<Long, UserNotificationPreferences> preferences = new HashMap<>(cached.size() * 2);
+        cached.forEach((userId, value) -> preferences.put(userId, orDefaults(userId, value)));
+        return preferences;
+    }
+
+    @Override
+    public PreferenceSnapshot getSnapshot(long[] userIds) {
+        return snapshotRepository.loadForUsers(userIds);
+    }
+
+    @Override
+    public boolean isChannelEnabled(Long userId, NotificationChannel channel) {
+        return getPreferences(userId).isChannelEnabled(channel);
+    }
+
+    @Override
+    public boolean isWithinQuietHours(Long userId, LocalTime currentTime) {
+        return getPreferences(userId).isWithinQuietHours(currentTime);
+    }
+
+    @Override
+    public UserNotificationPreferences updatePreferences(UserNotificationPreferences preferences) {
+        UserNotificationPreferences saved = preferencesRepository.save(preferences);
+        cache.invalidate(saved.getUserId());
+
+        UserPreferencesChangedEvent event = UserPreferencesChangedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .userId(saved.getUserId())
+                .updatedAt(LocalDateTime.now())
+                .sourceService("notification-service")
+                .build();
+        kafkaTemplate.send(invalidationTopic, String.valueOf(saved.getUserId()), event);
+
+        log.debug("Preferences updated and invalidation published for user: {}", saved.getUserId());
+        return saved;
+    }
+
+    @Override
+    public void evict(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    /**
+     * Fresh defaults in place of the marker, so no caller can change another user's preferences
+     */
+    private static UserNotificationPreferences orDefaults(Long userId, UserNotificationPreferences cached) {
+        return cached == NO_PREFERENCES ? new UserNotificationPreferences(userId) : cached;
+    }
+
+    /**
+     * Loads single entries by user ID and batches of misses with one IN query.
+     */
+    private final class PreferenceLoader implements CacheLoader<Long, UserNotificationPreferences> {
+
+        @Override
+        public UserNotificationPreferences load(Long userId) {
+            return preferencesRepository.findByUserId(userId).orElse(NO_PREFERENCES);
+        }
+
+        @Override
+        public Map<Long, UserNotificationPreferences> loadAll(Set<? extends Long> userIds) {
+            Map<Long, UserNotificationPreferences> loaded = new HashMap<>(userIds.size() * 2);
+            for (UserNotificationPreferences preferences : preferencesRepository.findByUserIdIn(new ArrayList<>(userIds))) {
+                loaded.put(preferences.getUserId(), preferences);
+            }
+            for (Long userId : userIds) {
+                loaded.putIfAbsent(userId, NO_PREFERENCES);
+            }
+            return loaded;
+        }
+    }
+}
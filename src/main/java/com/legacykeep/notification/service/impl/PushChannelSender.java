@@ -0,0 +1,50 @@
+package com.legacykeep.notification.service.impl;
+
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.model.ChannelSendResult;
+import com.legacykeep.notification.model.PushMessage;
+import com.legacykeep.notification.service.ChannelSender;
+import com.legacykeep.notification.service.PushDeliveryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Push channel sender targeting every active device of the recipient.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class PushChannelSender implements ChannelSender {
+
+    private final PushDeliveryService pushDeliveryService;
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.PUSH;
+    }
+
+    @Override
+    public CompletableFuture<ChannelSendResult> send(Notification notification) {
+        PushMessage message = PushMessage.builder()
+                .title(notification.getSubject())
+                .body(notification.getPlainTextContent())
+                .data(Map.of("notificationId", String.valueOf(notification.getId())))
+                .priority(notification.getPriority())
+                .build();
+        return pushDeliveryService.sendToUser(notification.getRecipientId(), message)
+                .thenApply(result -> {
+                    if (result.getSuccessCount() > 0) {
+                        return ChannelSendResult.SENT;
+                    }
+                    return ChannelSendResult.failed(result.getFailureCount() == 0
+                            ? "No active devices"
+                            : "Push rejected for all " + result.getFailureCount() + " devices");
+                });
+    }
+}
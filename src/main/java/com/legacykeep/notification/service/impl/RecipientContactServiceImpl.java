@@ -0,0 +1,137 @@
+package com.legacykeep.notification.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.event.dto.ContactUpdatedEvent;
+import com.legacykeep.notification.model.RecipientContact;
+import com.legacykeep.notification.repository.NotificationRepository;
+import com.legacykeep.notification.service.ContactDirectoryService;
+import com.legacykeep.notification.service.RecipientContactService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Implementation of RecipientContactService with a Caffeine hot set in front of the
+ * local contact directory.
+ *
+ * Contact changes seen in user events are published to the compacted contacts topic,
+ * from which every instance materializes its directory. Lookups go to the hot set,
+ * then the directory on local disk; contacts that predate the topic are resolved
+ * with one query over the notification history for the whole batch. Every applied
+ * topic record evicts the user from the hot set, and entries expire after a while
+ * so a lookup racing with an update cannot keep a stale contact for good.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Service
+public class RecipientContactServiceImpl implements RecipientContactService {
+
+    private final NotificationRepository notificationRepository;
+    private final ContactDirectoryService contactDirectory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String contactTopic;
+    private final Cache<Long, RecipientContact> cache;
+
+    public RecipientContactServiceImpl(NotificationRepository notificationRepository,
+                                       ContactDirectoryService contactDirectory,
+                                       KafkaTemplate<String, Object> kafkaTemplate,
+                                       NotificationConfig notificationConfig,
+                                       MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.contactDirectory = contactDirectory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.contactTopic = notificationConfig.getContact().getTopic();
+        NotificationConfig.ContactConfig config = notificationConfig.getContact();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getCacheMaximumSize())
+                .expireAfterWrite(Duration.ofMinutes(config.getCacheExpireAfterWriteMinutes()))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "notification.contacts");
+    }
+
+    @Override
+    public Map<Long, RecipientContact> getContacts(Collection<Long> userIds) {
+        Map<Long, RecipientContact> contacts = new HashMap<>(cache.getAllPresent(userIds));
+        List<Long> misses = missing(userIds, contacts);
+        if (misses.isEmpty()) {
+            return contacts;
+        }
+
+        Map<Long, RecipientContact> stored = contactDirectory.getContacts(misses);
+        cache.putAll(stored);
+        contacts.putAll(stored);
+        List<Long> unknown = missing(misses, contacts);
+        if (unknown.isEmpty()) {
+            return contacts;
+        }
+
+        for (Object[] row : notificationRepository.findLatestRecipientEmails(unknown)) {
+            RecipientContact contact = new RecipientContact(((Number) row[0]).longValue(), (String) row[1], null);
+            cache.put(contact.getUserId(), contact);
+            contacts.put(contact.getUserId(), contact);
+        }
+        log.debug("Resolved contacts for {} users: {} cache misses, {} not in directory",
+                userIds.size(), misses.size(), unknown.size());
+        return contacts;
+    }
+
+    @Override
+    public void updateContact(RecipientContact contact) {
+        if (contact.getUserId() == null || contact.getEmail() == null) {
+            return;
+        }
+        RecipientContact known = cache.getIfPresent(contact.getUserId());
+        if (known == null) {
+            known = contactDirectory.getContacts(List.of(contact.getUserId())).get(contact.getUserId());
+        }
+        cache.put(contact.getUserId(), contact);
+        if (contact.equals(known)) {
+            return;
+        }
+
+        ContactUpdatedEvent event = ContactUpdatedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .userId(contact.getUserId())
+                .email(contact.getEmail())
+                .fullName(contact.getFullName())
+                .updatedAt(LocalDateTime.now())
+                .sourceService("notification-service")
+                .build();
+        kafkaTemplate.send(contactTopic, String.valueOf(contact.getUserId()), event);
+        log.debug("Contact update published for user: {}", contact.getUserId());
+    }
+
+    @Override
+    public void evict(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    private static List<Long> missing(Collection<Long> userIds, Map<Long, RecipientContact> contacts) {
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (userId != null && !contacts.containsKey(userId)) {
+                missing.add(userId);
+            }
+        }
+        return missing;
+    }
+}
@@ -0,0 +1,60 @@
+package com.legacykeep.notification.service.impl;
+
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.model.ChannelSendResult;
+import com.legacykeep.notification.model.SmsMessage;
+import com.legacykeep.notification.service.ChannelSender;
+import com.legacykeep.notification.service.SmsDeliveryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * SMS channel sender.
+ *
+ * @author LegacyKeep Team
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class SmsChannelSender implements ChannelSender {
+
+    private final SmsDeliveryService smsDeliveryService;
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.SMS;
+    }
+
+    /**
+     * No phone numbers are resolved for recipients yet, so only notifications that
+     * carry one are sent, and none while SMS is disabled.
+     */
+    @Override
+    public boolean canSend(Notification notification) {
+        return smsDeliveryService.isEnabled() && notification.getRecipientPhone() != null;
+    }
+
+    @Override
+    public CompletableFuture<ChannelSendResult> send(Notification notification) {
+        if (notification.getRecipientPhone() == null) {
+            return CompletableFuture.completedFuture(ChannelSendResult.failed("No recipient phone"));
+        }
+        SmsMessage message = SmsMessage.builder()
+                .to(notification.getRecipientPhone())
+                .body(notification.getPlainTextContent())
+                .reference(String.valueOf(notification.getId()))
+                .build();
+        return smsDeliveryService.send(message)
+                .thenApply(result -> {
+                    if (result.getAcceptedCount() > 0) {
+                        return ChannelSendResult.SENT;
+                    }
+                    return ChannelSendResult.failed(result.getRejectedMessages().isEmpty()
+                            ? "SMS provider unavailable"
+                            : "SMS rejected");
+                });
+    }
+}
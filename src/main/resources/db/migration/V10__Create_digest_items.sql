@@ -0,0 +1,22 @@
+-- =============================================================================
+-- LegacyKeep Notification Service - Database Migration V10
+-- Durable daily digest items
+-- =============================================================================
+
+-- Events folded into a user's daily digest instead of being sent on their own.
+-- Rows are deleted once the digest containing them has been sent, and the
+-- in-memory digest buckets are rebuilt from them after a restart.
+CREATE TABLE digest_items (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    recipient_email VARCHAR(255),
+    recipient_name VARCHAR(255),
+    category VARCHAR(50) NOT NULL,
+    summary TEXT,
+    occurred_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_digest_items_user_id ON digest_items(user_id);
+
+COMMENT ON TABLE digest_items IS 'Events waiting for the recipient''s next daily digest';
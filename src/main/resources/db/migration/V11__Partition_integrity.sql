@@ -0,0 +1,162 @@
+-- =============================================================================
+-- LegacyKeep Notification Service - Database Migration V11
+-- Global event ID uniqueness, default partitions and safe partition drops
+-- =============================================================================
+
+-- Unique constraints on the partitioned tables include created_at, so a
+-- redelivered event with a different creation time would not be rejected.
+-- Small unpartitioned key tables restore global uniqueness of event IDs; a
+-- trigger claims the key in the same transaction as the insert. A key already
+-- claimed for the same row (by a bulk insert that claims keys up front) is
+-- accepted, any other duplicate fails with a unique violation.
+
+CREATE TABLE notification_keys (
+    event_id VARCHAR(255) PRIMARY KEY,
+    notification_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE notification_event_keys (
+    event_id VARCHAR(255) PRIMARY KEY,
+    notification_event_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+INSERT INTO notification_keys (event_id, notification_id, created_at)
+SELECT event_id, id, created_at FROM notifications ORDER BY created_at
+ON CONFLICT (event_id) DO NOTHING;
+
+INSERT INTO notification_event_keys (event_id, notification_event_id, created_at)
+SELECT event_id, id, created_at FROM notification_events ORDER BY created_at
+ON CONFLICT (event_id) DO NOTHING;
+
+CREATE OR REPLACE FUNCTION claim_notification_key()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO notification_keys (event_id, notification_id, created_at)
+    VALUES (NEW.event_id, NEW.id, NEW.created_at)
+    ON CONFLICT (event_id) DO NOTHING;
+    IF NOT FOUND AND NOT EXISTS (
+            SELECT 1 FROM notification_keys WHERE event_id = NEW.event_id AND notification_id = NEW.id) THEN
+        RAISE EXCEPTION 'Notification for event % already exists', NEW.event_id
+            USING ERRCODE = 'unique_violation', CONSTRAINT = 'notification_keys_pkey';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION claim_notification_event_key()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO notification_event_keys (event_id, notification_event_id, created_at)
+    VALUES (NEW.event_id, NEW.id, NEW.created_at)
+    ON CONFLICT (event_id) DO NOTHING;
+    IF NOT FOUND AND NOT EXISTS (
+            SELECT 1 FROM notification_event_keys WHERE event_id = NEW.event_id AND notification_event_id = NEW.id) THEN
+        RAISE EXCEPTION 'Notification event % already exists', NEW.event_id
+            USING ERRCODE = 'unique_violation', CONSTRAINT = 'notification_event_keys_pkey';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER notifications_claim_key BEFORE INSERT ON notifications
+    FOR EACH ROW EXECUTE FUNCTION claim_notification_key();
+CREATE TRIGGER notification_events_claim_key BEFORE INSERT ON notification_events
+    FOR EACH ROW EXECUTE FUNCTION claim_notification_event_key();
+
+-- =============================================================================
+-- Default Partitions
+-- =============================================================================
+
+-- Rows outside every monthly partition land here instead of failing the insert;
+-- they move to their monthly partition when it is created
+CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+CREATE TABLE notification_deliveries_default PARTITION OF notification_deliveries DEFAULT;
+CREATE TABLE notification_events_default PARTITION OF notification_events DEFAULT;
+
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent TEXT, for_month DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    month_start DATE := date_trunc('month', for_month)::DATE;
+    month_end DATE := (date_trunc('month', for_month) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := parent || '_p' || to_char(month_start, 'YYYYMM');
+    default_name TEXT := parent || '_default';
+    has_default_rows BOOLEAN := FALSE;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    IF to_regclass(default_name) IS NOT NULL THEN
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE created_at >= %L AND created_at < %L)',
+                       default_name, month_start, month_end) INTO has_default_rows;
+    END IF;
+
+    IF has_default_rows THEN
+        -- The new partition cannot be attached while the default holds rows of its range
+        EXECUTE format('ALTER TABLE %I DETACH PARTITION %I', parent, default_name);
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent, month_start, month_end);
+        EXECUTE format('INSERT INTO %I SELECT * FROM %I WHERE created_at >= %L AND created_at < %L',
+                       partition_name, default_name, month_start, month_end);
+        EXECUTE format('DELETE FROM %I WHERE created_at >= %L AND created_at < %L',
+                       default_name, month_start, month_end);
+        EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I DEFAULT', parent, default_name);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent, month_start, month_end);
+    END IF;
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- =============================================================================
+-- Dropping Expired Partitions
+-- =============================================================================
+
+-- Drops a monthly partition unless it still holds rows that are not finished:
+-- notifications or deliveries that are PENDING or PROCESSING, or unprocessed
+-- events. Rows that referenced the dropped notifications through the foreign
+-- keys removed in V8 are deleted first, along with the event ID keys.
+CREATE OR REPLACE FUNCTION drop_monthly_partition(parent TEXT, partition_name TEXT)
+RETURNS BOOLEAN AS $$
+DECLARE
+    has_active_rows BOOLEAN;
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('LOCK TABLE %I IN ACCESS EXCLUSIVE MODE', partition_name);
+
+    IF parent = 'notification_events' THEN
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE processed_at IS NULL)', partition_name)
+            INTO has_active_rows;
+    ELSE
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE status IN (''PENDING'', ''PROCESSING''))', partition_name)
+            INTO has_active_rows;
+    END IF;
+    IF has_active_rows THEN
+        RETURN FALSE;
+    END IF;
+
+    IF parent = 'notifications' THEN
+        EXECUTE format('DELETE FROM notification_queue c USING %I n WHERE c.notification_id = n.id', partition_name);
+        EXECUTE format('DELETE FROM user_notification_activity c USING %I n WHERE c.notification_id = n.id', partition_name);
+        EXECUTE format('DELETE FROM notification_dead_letter_queue c USING %I n WHERE c.notification_id = n.id', partition_name);
+        EXECUTE format('DELETE FROM notification_deliveries c USING %I n WHERE c.notification_id = n.id', partition_name);
+        EXECUTE format('DELETE FROM notification_keys k USING %I n WHERE k.event_id = n.event_id AND k.notification_id = n.id',
+                       partition_name);
+    ELSIF parent = 'notification_events' THEN
+        EXECUTE format('DELETE FROM notification_event_keys k USING %I e ' ||
+                       'WHERE k.event_id = e.event_id AND k.notification_event_id = e.id', partition_name);
+    END IF;
+
+    EXECUTE format('DROP TABLE %I', partition_name);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON TABLE notification_keys IS 'Event IDs of all notifications, unique across partitions';
+COMMENT ON TABLE notification_event_keys IS 'Event IDs of all notification events, unique across partitions';
+COMMENT ON FUNCTION drop_monthly_partition(TEXT, TEXT) IS 'Drop an expired monthly partition and the rows that referenced it, unless it has unfinished rows';
@@ -0,0 +1,10 @@
+-- =============================================================================
+-- LegacyKeep Notification Service - Database Migration V12
+-- Plain-text content of multi-channel notifications
+-- =============================================================================
+
+-- A notification fanned out to several channels keeps its rendered HTML email in
+-- content; push, SMS and in-app deliveries use this plain-text version instead.
+ALTER TABLE notifications ADD COLUMN text_content TEXT;
+
+COMMENT ON COLUMN notifications.text_content IS 'Plain-text content for push, SMS and in-app delivery; content is used when absent';
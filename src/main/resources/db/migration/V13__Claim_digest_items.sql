@@ -0,0 +1,14 @@
+-- =============================================================================
+-- LegacyKeep Notification Service - Database Migration V13
+-- Digest item claims
+-- =============================================================================
+
+-- Every instance rebuilds its digest buckets from the stored items, so the same
+-- user can be pending on several instances. The instance sending a digest first
+-- claims the user's items; others skip claimed rows. Claims older than the stale
+-- claim timeout belong to an instance that stopped mid-send and are taken over.
+ALTER TABLE digest_items ADD COLUMN claimed_by VARCHAR(64);
+ALTER TABLE digest_items ADD COLUMN claimed_at TIMESTAMP;
+
+COMMENT ON COLUMN digest_items.claimed_by IS 'Instance sending the digest containing this item';
+COMMENT ON COLUMN digest_items.claimed_at IS 'When the item was claimed for sending';
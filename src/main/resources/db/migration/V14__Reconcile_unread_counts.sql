@@ -0,0 +1,12 @@
+-- =============================================================================
+-- LegacyKeep Notification Service - Database Migration V14
+-- Unread counter reconciliation
+-- =============================================================================
+
+-- Counters hold the unclamped sum of their deltas, so a read delta applied before
+-- the matching insert delta briefly drives a counter below zero. A counter that
+-- stays negative has drifted and is recounted from the unread inbox items; this
+-- index keeps finding them cheap however many counters there are.
+CREATE INDEX idx_inbox_unread_counts_negative ON inbox_unread_counts(updated_at) WHERE unread_count < 0;
+
+COMMENT ON TABLE inbox_unread_counts IS 'Per-user unread inbox counters, maintained by deltas and recounted from inbox_items only when they drift';
@@ -0,0 +1,15 @@
+-- =============================================================================
+-- LegacyKeep Notification Service - Database Migration V15
+-- Email-first fallback policy for verification codes
+-- =============================================================================
+
+-- Verification codes are requested for an email address, so they are emailed
+-- straight away instead of after an unconfirmed push. Push is the fallback when
+-- the email cannot be sent. SMS is left out until recipient phone numbers are
+-- known to this service.
+UPDATE notification_templates
+SET metadata = '{"fallback": {"steps": [
+        {"channel": "EMAIL", "budgetMs": 15000},
+        {"channel": "PUSH", "budgetMs": 3000, "confirm": true}
+    ]}}'
+WHERE template_id = 'sms-verification';
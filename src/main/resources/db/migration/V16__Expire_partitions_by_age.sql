@@ -0,0 +1,154 @@
+-- =============================================================================
+-- LegacyKeep Notification Service - Database Migration V16
+-- Age-only partition expiry and monthly partitioned event ID keys
+-- =============================================================================
+
+-- V11 kept a partition as long as a single row in it was unfinished, so one
+-- stuck notification or unprocessed event kept its month forever, and a drop
+-- deleted the matching queue, activity, dead letter, delivery and key rows one
+-- by one while holding an exclusive lock. Partitions now expire by age alone:
+-- deliveries expire with their own partitions, the event ID keys are
+-- partitioned by month like the rows they belong to, and the remaining
+-- unpartitioned child tables are purged in small batches by the service.
+
+-- =============================================================================
+-- Partitioned Key Tables
+-- =============================================================================
+
+ALTER TABLE notification_keys RENAME TO notification_keys_unpartitioned;
+ALTER TABLE notification_event_keys RENAME TO notification_event_keys_unpartitioned;
+
+CREATE TABLE notification_keys (
+    event_id VARCHAR(255) NOT NULL,
+    notification_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE notification_event_keys (
+    event_id VARCHAR(255) NOT NULL,
+    notification_event_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE notification_keys_default PARTITION OF notification_keys DEFAULT;
+CREATE TABLE notification_event_keys_default PARTITION OF notification_event_keys DEFAULT;
+
+-- Partitions for every month with existing keys, through three months ahead
+DO $$
+DECLARE
+    parent TEXT;
+    next_month DATE;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY['notification_keys', 'notification_event_keys'] LOOP
+        EXECUTE format('SELECT date_trunc(''month'', COALESCE(MIN(created_at), CURRENT_TIMESTAMP))::DATE FROM %I',
+                       parent || '_unpartitioned') INTO next_month;
+        WHILE next_month <= date_trunc('month', CURRENT_DATE + INTERVAL '3 months') LOOP
+            PERFORM create_monthly_partition(parent, next_month);
+            next_month := (next_month + INTERVAL '1 month')::DATE;
+        END LOOP;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO notification_keys SELECT * FROM notification_keys_unpartitioned;
+INSERT INTO notification_event_keys SELECT * FROM notification_event_keys_unpartitioned;
+
+DROP TABLE notification_keys_unpartitioned;
+DROP TABLE notification_event_keys_unpartitioned;
+
+-- The primary keys must include the partition key, so they no longer make event
+-- IDs unique on their own; the claim functions below do, under a per-event-ID lock
+ALTER TABLE notification_keys ADD PRIMARY KEY (event_id, created_at);
+ALTER TABLE notification_event_keys ADD PRIMARY KEY (event_id, created_at);
+
+-- =============================================================================
+-- Claiming Keys
+-- =============================================================================
+
+-- A transaction-scoped advisory lock per event ID serializes the claims of one
+-- event ID, so the existence check across all key partitions and the insert
+-- that follows it cannot interleave with another claim of the same ID. The
+-- check runs on a snapshot taken after the lock is granted (read committed).
+
+CREATE OR REPLACE FUNCTION claim_notification_key()
+RETURNS TRIGGER AS $$
+DECLARE
+    claimed_id BIGINT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtextextended('notification_keys:' || NEW.event_id, 0));
+    SELECT notification_id INTO claimed_id FROM notification_keys WHERE event_id = NEW.event_id LIMIT 1;
+    IF NOT FOUND THEN
+        INSERT INTO notification_keys (event_id, notification_id, created_at)
+        VALUES (NEW.event_id, NEW.id, NEW.created_at);
+    ELSIF claimed_id <> NEW.id THEN
+        RAISE EXCEPTION 'Notification for event % already exists', NEW.event_id
+            USING ERRCODE = 'unique_violation', CONSTRAINT = 'notification_keys_pkey';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION claim_notification_event_key()
+RETURNS TRIGGER AS $$
+DECLARE
+    claimed_id BIGINT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtextextended('notification_event_keys:' || NEW.event_id, 0));
+    SELECT notification_event_id INTO claimed_id FROM notification_event_keys WHERE event_id = NEW.event_id LIMIT 1;
+    IF NOT FOUND THEN
+        INSERT INTO notification_event_keys (event_id, notification_event_id, created_at)
+        VALUES (NEW.event_id, NEW.id, NEW.created_at);
+    ELSIF claimed_id <> NEW.id THEN
+        RAISE EXCEPTION 'Notification event % already exists', NEW.event_id
+            USING ERRCODE = 'unique_violation', CONSTRAINT = 'notification_event_keys_pkey';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Claims the keys of a batch of notifications up front and returns the event IDs
+-- it claimed; IDs already claimed are skipped. Locks are taken in event ID order
+-- so concurrent batches cannot deadlock.
+CREATE OR REPLACE FUNCTION claim_notification_keys(event_ids TEXT[], notification_ids BIGINT[], created_ats TIMESTAMP[])
+RETURNS SETOF TEXT AS $$
+DECLARE
+    k RECORD;
+BEGIN
+    FOR k IN SELECT DISTINCT ON (u.event_id) u.event_id, u.notification_id, u.created_at
+             FROM unnest(event_ids, notification_ids, created_ats) AS u(event_id, notification_id, created_at)
+             ORDER BY u.event_id LOOP
+        PERFORM pg_advisory_xact_lock(hashtextextended('notification_keys:' || k.event_id, 0));
+        IF NOT EXISTS (SELECT 1 FROM notification_keys WHERE event_id = k.event_id) THEN
+            INSERT INTO notification_keys (event_id, notification_id, created_at)
+            VALUES (k.event_id, k.notification_id, k.created_at);
+            RETURN NEXT k.event_id;
+        END IF;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- =============================================================================
+-- Dropping Expired Partitions
+-- =============================================================================
+
+-- Drops a monthly partition of a table whatever its rows: expiry is by age only
+CREATE OR REPLACE FUNCTION drop_monthly_partition(parent TEXT, partition_name TEXT)
+RETURNS BOOLEAN AS $$
+BEGIN
+    IF to_regclass(partition_name) IS NULL OR NOT EXISTS (
+            SELECT 1 FROM pg_inherits
+            WHERE inhrelid = to_regclass(partition_name) AND inhparent = to_regclass(parent)) THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('DROP TABLE %I', partition_name);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Expired dead letters are purged by creation time like the queue and activity rows
+CREATE INDEX idx_notification_dead_letter_queue_created_at ON notification_dead_letter_queue(created_at);
+
+COMMENT ON TABLE notification_keys IS 'Event IDs of all notifications, unique across partitions, partitioned by month of created_at';
+COMMENT ON TABLE notification_event_keys IS 'Event IDs of all notification events, unique across partitions, partitioned by month of created_at';
+COMMENT ON FUNCTION claim_notification_keys(TEXT[], BIGINT[], TIMESTAMP[]) IS 'Claim the event IDs of a batch of notifications, returning those claimed';
+COMMENT ON FUNCTION drop_monthly_partition(TEXT, TEXT) IS 'Drop an expired monthly partition of a table';
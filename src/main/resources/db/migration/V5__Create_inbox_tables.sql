@@ -0,0 +1,46 @@
+-- =============================================================================
+-- LegacyKeep Notification Service - Database Migration V5
+-- Create in-app inbox tables
+-- =============================================================================
+
+-- =============================================================================
+-- In-App Inbox Tables
+-- =============================================================================
+
+-- Inbox items table - one row per in-app notification shown to a user
+CREATE TABLE inbox_items (
+    id BIGSERIAL PRIMARY KEY,
+    event_id VARCHAR(255) UNIQUE NOT NULL,
+    recipient_id BIGINT NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    body TEXT,
+    action_url VARCHAR(500),
+    priority VARCHAR(20) NOT NULL DEFAULT 'NORMAL',
+    read_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Unread counters table - maintained incrementally on insert and mark-as-read
+CREATE TABLE inbox_unread_counts (
+    user_id BIGINT PRIMARY KEY,
+    unread_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- =============================================================================
+-- Indexes for Performance
+-- =============================================================================
+
+-- Keyset pagination: every page is a bounded range scan of this index
+CREATE INDEX idx_inbox_items_recipient_page ON inbox_items(recipient_id, created_at DESC, id DESC) INCLUDE (read_at);
+
+-- Bulk mark-all-as-read only visits unread rows
+CREATE INDEX idx_inbox_items_recipient_unread ON inbox_items(recipient_id, id) WHERE read_at IS NULL;
+
+-- =============================================================================
+-- Comments for Documentation
+-- =============================================================================
+
+COMMENT ON TABLE inbox_items IS 'In-app notification inbox, paginated by (recipient_id, created_at, id)';
+COMMENT ON TABLE inbox_unread_counts IS 'Per-user unread inbox counters, never recomputed from inbox_items';
@@ -0,0 +1,19 @@
+-- =============================================================================
+-- LegacyKeep Notification Service - Database Migration V6
+-- Add delivery metadata to notification templates
+-- =============================================================================
+
+-- Template metadata, e.g. the channel fallback policy:
+-- {"fallback": {"steps": [{"channel": "PUSH", "budgetMs": 3000, "confirm": true}, ...]}}
+ALTER TABLE notification_templates ADD COLUMN metadata JSONB;
+
+-- Verification codes go to whichever channel reaches the user first
+UPDATE notification_templates
+SET metadata = '{"fallback": {"steps": [
+        {"channel": "PUSH", "budgetMs": 3000, "confirm": true},
+        {"channel": "SMS", "budgetMs": 10000},
+        {"channel": "EMAIL", "budgetMs": 15000}
+    ]}}'
+WHERE template_id = 'sms-verification';
+
+COMMENT ON COLUMN notification_templates.metadata IS 'Delivery metadata such as the channel fallback policy';
@@ -0,0 +1,10 @@
+-- =============================================================================
+-- LegacyKeep Notification Service - Database Migration V7
+-- Add traffic weights to template versions
+-- =============================================================================
+
+-- Share of recipients routed to an active version, relative to the other active
+-- versions of the template (or to the other arm of a running A/B test)
+ALTER TABLE template_versions ADD COLUMN weight INTEGER NOT NULL DEFAULT 1 CHECK (weight >= 0);
+
+COMMENT ON COLUMN template_versions.weight IS 'Relative share of recipients routed to this version while active';
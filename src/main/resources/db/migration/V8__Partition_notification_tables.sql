@@ -0,0 +1,166 @@
+-- =============================================================================
+-- LegacyKeep Notification Service - Database Migration V8
+-- Monthly range partitioning of notifications, deliveries and events
+-- =============================================================================
+
+-- Partitions are named <table>_pYYYYMM and cover one calendar month of created_at.
+-- Retention drops whole partitions instead of deleting rows, and future months
+-- are created ahead of time by the service (PartitionMaintenanceService).
+
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent TEXT, for_month DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    month_start DATE := date_trunc('month', for_month)::DATE;
+    partition_name TEXT := parent || '_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, parent, month_start, (month_start + INTERVAL '1 month')::DATE);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Foreign keys cannot reference notifications(id) once the primary key includes
+-- the partition key; child rows now expire with their own partitions
+ALTER TABLE notification_deliveries DROP CONSTRAINT IF EXISTS notification_deliveries_notification_id_fkey;
+ALTER TABLE user_notification_activity DROP CONSTRAINT IF EXISTS user_notification_activity_notification_id_fkey;
+ALTER TABLE notification_queue DROP CONSTRAINT IF EXISTS notification_queue_notification_id_fkey;
+ALTER TABLE notification_dead_letter_queue DROP CONSTRAINT IF EXISTS notification_dead_letter_queue_notification_id_fkey;
+
+ALTER TABLE notifications RENAME TO notifications_unpartitioned;
+ALTER TABLE notification_deliveries RENAME TO notification_deliveries_unpartitioned;
+ALTER TABLE notification_events RENAME TO notification_events_unpartitioned;
+
+-- The ID sequences outlive the tables they were created with
+ALTER SEQUENCE notifications_id_seq OWNED BY NONE;
+ALTER SEQUENCE notification_deliveries_id_seq OWNED BY NONE;
+ALTER SEQUENCE notification_events_id_seq OWNED BY NONE;
+
+-- =============================================================================
+-- Partitioned Tables
+-- =============================================================================
+
+CREATE TABLE notifications (
+    id BIGINT NOT NULL DEFAULT nextval('notifications_id_seq'),
+    event_id VARCHAR(255) NOT NULL,
+    notification_type notification_type NOT NULL,
+    template_id VARCHAR(100) NOT NULL,
+    recipient_id BIGINT NOT NULL,
+    recipient_email VARCHAR(255),
+    recipient_phone VARCHAR(20),
+    recipient_device_token VARCHAR(500),
+    subject VARCHAR(255),
+    content TEXT,
+    template_data JSONB,
+    priority notification_priority DEFAULT 'NORMAL',
+    status notification_status DEFAULT 'PENDING',
+    scheduled_at TIMESTAMP,
+    sent_at TIMESTAMP,
+    delivered_at TIMESTAMP,
+    failed_at TIMESTAMP,
+    failure_reason TEXT,
+    retry_count INTEGER DEFAULT 0,
+    max_retries INTEGER DEFAULT 3,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(100),
+    metadata JSONB
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE notification_deliveries (
+    id BIGINT NOT NULL DEFAULT nextval('notification_deliveries_id_seq'),
+    notification_id BIGINT NOT NULL,
+    channel notification_channel NOT NULL,
+    status notification_status NOT NULL,
+    sent_at TIMESTAMP,
+    delivered_at TIMESTAMP,
+    failed_at TIMESTAMP,
+    failure_reason TEXT,
+    delivery_metadata JSONB,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE notification_events (
+    id BIGINT NOT NULL DEFAULT nextval('notification_events_id_seq'),
+    event_id VARCHAR(255) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    event_version VARCHAR(20) DEFAULT '1.0',
+    source_service VARCHAR(100) NOT NULL,
+    source_user_id BIGINT,
+    correlation_id VARCHAR(255),
+    request_id VARCHAR(255),
+    event_data JSONB,
+    processed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (created_at);
+
+-- Partitions for every month with existing rows, through three months ahead
+DO $$
+DECLARE
+    parent TEXT;
+    next_month DATE;
+BEGIN
+    FOREACH parent IN ARRAY ARRAY['notifications', 'notification_deliveries', 'notification_events'] LOOP
+        EXECUTE format('SELECT date_trunc(''month'', COALESCE(MIN(created_at), CURRENT_TIMESTAMP))::DATE FROM %I',
+                       parent || '_unpartitioned') INTO next_month;
+        WHILE next_month <= date_trunc('month', CURRENT_DATE + INTERVAL '3 months') LOOP
+            PERFORM create_monthly_partition(parent, next_month);
+            next_month := (next_month + INTERVAL '1 month')::DATE;
+        END LOOP;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO notifications SELECT * FROM notifications_unpartitioned;
+INSERT INTO notification_deliveries SELECT * FROM notification_deliveries_unpartitioned;
+INSERT INTO notification_events SELECT * FROM notification_events_unpartitioned;
+
+DROP TABLE notifications_unpartitioned;
+DROP TABLE notification_deliveries_unpartitioned;
+DROP TABLE notification_events_unpartitioned;
+
+ALTER SEQUENCE notifications_id_seq OWNED BY notifications.id;
+ALTER SEQUENCE notification_deliveries_id_seq OWNED BY notification_deliveries.id;
+ALTER SEQUENCE notification_events_id_seq OWNED BY notification_events.id;
+
+-- =============================================================================
+-- Keys and Indexes
+-- =============================================================================
+
+-- Unique constraints must include the partition key: event IDs are unique per
+-- creation time, and duplicates are rejected by the consumers' event ID lookups.
+-- The unique indexes lead with event_id and replace the plain event_id indexes.
+ALTER TABLE notifications ADD PRIMARY KEY (id, created_at);
+ALTER TABLE notifications ADD CONSTRAINT notifications_event_id_key UNIQUE (event_id, created_at);
+ALTER TABLE notification_deliveries ADD PRIMARY KEY (id, created_at);
+ALTER TABLE notification_events ADD PRIMARY KEY (id, created_at);
+ALTER TABLE notification_events ADD CONSTRAINT notification_events_event_id_key UNIQUE (event_id, created_at);
+
+CREATE INDEX idx_notifications_recipient_id ON notifications(recipient_id);
+CREATE INDEX idx_notifications_status ON notifications(status);
+CREATE INDEX idx_notifications_type ON notifications(notification_type);
+CREATE INDEX idx_notifications_created_at ON notifications(created_at);
+CREATE INDEX idx_notifications_scheduled_at ON notifications(scheduled_at);
+CREATE INDEX idx_notifications_template_id ON notifications(template_id);
+
+CREATE INDEX idx_notification_deliveries_notification_id ON notification_deliveries(notification_id);
+CREATE INDEX idx_notification_deliveries_status ON notification_deliveries(status);
+CREATE INDEX idx_notification_deliveries_channel ON notification_deliveries(channel);
+CREATE INDEX idx_notification_deliveries_sent_at ON notification_deliveries(sent_at);
+
+CREATE INDEX idx_notification_events_event_type ON notification_events(event_type);
+CREATE INDEX idx_notification_events_source_service ON notification_events(source_service);
+CREATE INDEX idx_notification_events_created_at ON notification_events(created_at);
+CREATE INDEX idx_notification_events_correlation_id ON notification_events(correlation_id);
+
+-- =============================================================================
+-- Comments for Documentation
+-- =============================================================================
+
+COMMENT ON TABLE notifications IS 'Main notifications table storing all notification requests, partitioned by month of created_at';
+COMMENT ON TABLE notification_deliveries IS 'Delivery tracking for each notification channel, partitioned by month of created_at';
+COMMENT ON TABLE notification_events IS 'Audit log of all notification events received from other services, partitioned by month of created_at';
+COMMENT ON FUNCTION create_monthly_partition(TEXT, DATE) IS 'Create the partition of a table for the month of a date unless it exists';
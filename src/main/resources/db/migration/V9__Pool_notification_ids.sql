@@ -0,0 +1,17 @@
+-- =============================================================================
+-- LegacyKeep Notification Service - Database Migration V9
+-- Pooled ID allocation for notifications and deliveries
+-- =============================================================================
+
+-- Each nextval() now reserves a block of 50 IDs ending at the returned value,
+-- so inserts can be batched without a round trip per row for its ID. The
+-- increment must match ID_ALLOCATION_SIZE of the Notification and
+-- NotificationDelivery entities.
+ALTER SEQUENCE notifications_id_seq INCREMENT BY 50;
+ALTER SEQUENCE notification_deliveries_id_seq INCREMENT BY 50;
+
+-- Mark the current value as used, so the first block handed out starts past
+-- every existing ID even on a sequence that was never called
+SELECT setval('notifications_id_seq', (SELECT last_value FROM notifications_id_seq), true);
+SELECT setval('notification_deliveries_id_seq', (SELECT last_value FROM notification_deliveries_id_seq), true);
+
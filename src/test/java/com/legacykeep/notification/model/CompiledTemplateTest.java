@@ -0,0 +1,63 @@
+package com.legacykeep.notification.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for CompiledTemplate.
+ */
+class CompiledTemplateTest {
+
+    @Test
+    void testBind_ShouldMatchFullRenderWithOnlyRecipientSlotsLeft() {
+        // Given
+        CompiledTemplate template = CompiledTemplate.compile(
+                "<p>Hi {{userName}},</p><p>{{ title }} on {{date}} — {{missing}}</p><a href=\"{{url}}\">{{userName}}</a>");
+        Map<String, String> shared = Map.of("title", "Maintenance <tonight>", "date", "2024-05-01", "url", "https://x/s?a=1&b=2");
+        Map<String, String> recipient = Map.of("userName", "Zoë & co");
+
+        // When
+        BoundTemplate bound = template.bind(shared, true);
+
+        // Then
+        Map<String, String> all = Map.of("title", "Maintenance <tonight>", "date", "2024-05-01",
+                "url", "https://x/s?a=1&b=2", "userName", "Zoë & co");
+        String expected = template.render(all, true);
+        assertEquals(3, bound.getSlotCount());
+        assertEquals(expected, bound.render(recipient));
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), bound.renderBytes(recipient));
+    }
+
+    @Test
+    void testBind_AllShared_ShouldRenderTheSameBytesForEveryone() {
+        // Given
+        CompiledTemplate template = CompiledTemplate.compile("Scheduled maintenance {{date}}");
+
+        // When
+        BoundTemplate bound = template.bind(Map.of("date", "at 02:00"), false);
+
+        // Then
+        assertEquals(0, bound.getSlotCount());
+        assertEquals("Scheduled maintenance at 02:00", bound.render(Map.of()));
+        assertArrayEquals("Scheduled maintenance at 02:00".getBytes(StandardCharsets.UTF_8), bound.renderBytes(Map.of("date", "ignored")));
+    }
+
+    @Test
+    void testRender_Alternatives_ShouldUseFirstVariableWithAValue() {
+        // Given
+        CompiledTemplate template = CompiledTemplate.compile("Hello {{ fullName | username }}!");
+
+        // When
+        BoundTemplate bound = template.bind(Map.of("fullName", "Ana Silva"), false);
+
+        // Then
+        assertEquals("Hello ana!", template.render(Map.of("username", "ana"), false));
+        assertEquals("Hello Ana Silva!", template.render(Map.of("fullName", "Ana Silva", "username", "ana"), false));
+        assertEquals(0, bound.getSlotCount());
+        assertEquals(1, template.bind(Map.of("username", "ana"), false).getSlotCount());
+    }
+}
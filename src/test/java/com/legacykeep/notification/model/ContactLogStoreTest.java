@@ -0,0 +1,93 @@
+package com.legacykeep.notification.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for ContactLogStore.
+ */
+class ContactLogStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testPutAndRemove_ShouldServeLatestContactPerUser() throws Exception {
+        // Given
+        try (ContactLogStore store = ContactLogStore.open(directory)) {
+            store.put(new RecipientContact(1L, "old@example.com", "Ada"), 0, 0);
+            store.put(new RecipientContact(2L, "bob@example.com", null), 1, 0);
+            store.put(new RecipientContact(1L, "ada@example.com", "Ada Lovelace"), 0, 1);
+            store.put(new RecipientContact(3L, "cy@example.com", "Cy"), 2, 0);
+
+            // When
+            store.remove(3L, 2, 1);
+
+            // Then
+            assertEquals(2, store.size());
+            assertEquals(new RecipientContact(1L, "ada@example.com", "Ada Lovelace"), store.get(1L));
+            assertEquals(new RecipientContact(2L, "bob@example.com", null), store.get(2L));
+            assertNull(store.get(3L));
+
+            Map<Long, RecipientContact> contacts = store.getAll(List.of(2L, 1L, 3L, 4L));
+            assertEquals(2, contacts.size());
+            assertEquals("ada@example.com", contacts.get(1L).getEmail());
+            assertEquals(Map.of(0, 1L, 1, 0L, 2, 1L), store.getAppliedOffsets());
+        }
+    }
+
+    @Test
+    void testSnapshot_Reopen_ShouldRestoreContactsAndDropUnsnapshottedWrites() throws Exception {
+        // Given
+        try (ContactLogStore store = ContactLogStore.open(directory)) {
+            store.put(new RecipientContact(1L, "ada@example.com", "Ada"), 0, 10);
+            store.put(new RecipientContact(2L, "bob@example.com", "Bob"), 1, 20);
+            store.snapshot(1.0);
+
+            // When
+            store.put(new RecipientContact(3L, "cy@example.com", "Cy"), 0, 11);
+        }
+
+        // Then
+        try (ContactLogStore restored = ContactLogStore.open(directory)) {
+            assertEquals(2, restored.size());
+            assertEquals("bob@example.com", restored.get(2L).getEmail());
+            assertNull(restored.get(3L));
+            assertEquals(Map.of(0, 10L, 1, 20L), restored.getAppliedOffsets());
+
+            restored.put(new RecipientContact(3L, "cy@example.com", "Cy"), 0, 11);
+            assertEquals("cy@example.com", restored.get(3L).getEmail());
+        }
+    }
+
+    @Test
+    void testSnapshot_MostlyGarbage_ShouldCompactAndKeepLiveContacts() throws Exception {
+        // Given
+        try (ContactLogStore store = ContactLogStore.open(directory)) {
+            for (int i = 0; i < 1000; i++) {
+                store.put(new RecipientContact((long) (i % 10), "user" + i + "@example.com", "User " + i), 0, i);
+            }
+            long before = store.logLength();
+
+            // When
+            store.snapshot(0.5);
+
+            // Then
+            assertTrue(store.logLength() < before / 50);
+            assertEquals(10, store.size());
+            assertEquals("user999@example.com", store.get(9L).getEmail());
+        }
+
+        try (ContactLogStore restored = ContactLogStore.open(directory)) {
+            assertEquals(10, restored.size());
+            assertEquals("User 990", restored.get(0L).getFullName());
+            assertEquals(Map.of(0, 999L), restored.getAppliedOffsets());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.legacykeep.notification.model;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for DkimSigner and DkimBodyHash.
+ */
+class DkimSignerTest {
+
+    private static KeyPair keyPair;
+
+    @BeforeAll
+    static void generateKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+    }
+
+    @Test
+    void testBodyHash_ShouldApplyRelaxedCanonicalizationWhileStreaming() throws Exception {
+        // Given - the example of RFC 6376, section 3.4.5
+        byte[] body = " C \r\nD \t E\r\n\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+        // When
+        DkimBodyHash hash = DkimBodyHash.ofBody(MessageDigest.getInstance("SHA-256"));
+        for (byte b : body) {
+            hash.write(b);
+        }
+        DkimBodyHash empty = DkimBodyHash.ofBody(MessageDigest.getInstance("SHA-256"));
+        empty.write("\r\n \r\n".getBytes(StandardCharsets.US_ASCII));
+
+        // Then
+        assertArrayEquals(sha256(" C\r\nD E\r\n"), hash.digest());
+        assertEquals("47DEQpj8HBSa+/TImW+5JCeuQeRkm5NMpJWZG3hSuFU=",
+                Base64.getEncoder().encodeToString(empty.digest()));
+    }
+
+    @Test
+    void testSign_ShouldProduceSignatureThatVerifiesOnTheWireMessage() throws Exception {
+        // Given
+        DkimSigner signer = new DkimSigner("legacykeep.com", "notify", keyPair.getPrivate(),
+                List.of("From", "To", "Subject", "Date", "Message-ID", "X-Missing"));
+        MimeMessage message = new MimeMessage(Session.getInstance(new Properties()));
+        message.setFrom(new InternetAddress("noreply@legacykeep.com", "LegacyKeep"));
+        message.setRecipients(MimeMessage.RecipientType.TO, "user@example.com");
+        message.setSubject("Your   weekly\tdigest");
+        message.setText("Hello  world  \n\n\n");
+
+        // When
+        signer.sign(message);
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        message.writeTo(wire);
+        MimeMessage received = new MimeMessage(Session.getInstance(new Properties()),
+                new ByteArrayInputStream(wire.toByteArray()));
+
+        // Then
+        String header = received.getHeader(DkimSigner.HEADER, null);
+        assertEquals(Base64.getEncoder().encodeToString(sha256("Hello world\r\n")), tag(header, "bh"));
+        assertEquals("from:to:subject:date:message-id", tag(header, "h"));
+        assertEquals("legacykeep.com", tag(header, "d"));
+
+        StringBuilder signedData = new StringBuilder();
+        for (String name : tag(header, "h").split(":")) {
+            String line = received.getMatchingHeaderLines(new String[]{name}).nextElement();
+            signedData.append(DkimSigner.canonicalizeHeader(line)).append("\r\n");
+        }
+        String unsignedHeader = DkimSigner.HEADER + ": " + header.replaceAll("b=[^;]*$", "b=");
+        signedData.append(DkimSigner.canonicalizeHeader(unsignedHeader));
+
+        Signature verifier = Signature.getInstance("SHA256withRSA");
+        verifier.initVerify(keyPair.getPublic());
+        verifier.update(signedData.toString().getBytes(StandardCharsets.UTF_8));
+        assertTrue(verifier.verify(Base64.getMimeDecoder().decode(tag(header, "b"))));
+        assertEquals("subject:Your weekly digest",
+                DkimSigner.canonicalizeHeader(received.getMatchingHeaderLines(new String[]{"Subject"}).nextElement()));
+    }
+
+    private static String tag(String header, String name) {
+        Matcher matcher = Pattern.compile("(?:^|;)\\s*" + name + "=([^;]*)").matcher(header);
+        assertTrue(matcher.find(), "Missing tag " + name);
+        return matcher.group(1).replaceAll("\\s+", "");
+    }
+
+    private static byte[] sha256(String value) throws Exception {
+        return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,58 @@
+package com.legacykeep.notification.model;
+
+import com.legacykeep.notification.service.TextAlternativeService;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for HtmlTextConverter.
+ */
+class HtmlTextConverterTest {
+
+    @Test
+    void testToTextTemplate_ShouldKeepTextLinksAndThymeleafVariables() {
+        // Given
+        String html = "<html><head><style>p { color: red; }</style></head><body>"
+                + "<!-- header --><h1>Hello <span th:text=\"${fullName ?: username}\">User</span>!</h1>"
+                + "<p>Your code is <b>{{otpCode}}</b> &amp; expires   soon.</p>"
+                + "<a th:href=\"${resetUrl}\" class=\"button\">Reset Password</a>"
+                + "<p>Help: <a href=\"mailto:support@legacykeep.com\">support@legacykeep.com</a></p></body></html>";
+
+        // When
+        String text = HtmlTextConverter.toTextTemplate(html).orElseThrow();
+        String rendered = CompiledTemplate.compile(text).render(
+                Map.of("username", "ana", "otpCode", "123456", "resetUrl", "https://x/r?t=1"), false);
+
+        // Then
+        assertEquals("Hello ana!\n\nYour code is 123456 & expires soon.\nReset Password: https://x/r?t=1\n"
+                + "Help: support@legacykeep.com", rendered);
+    }
+
+    @Test
+    void testToTextTemplate_UnsupportedThymeleaf_ShouldNotConvert() {
+        assertEquals(Optional.empty(), HtmlTextConverter.toTextTemplate("<li th:each=\"item : ${items}\">x</li>"));
+        assertEquals(Optional.empty(), HtmlTextConverter.toTextTemplate("<span th:text=\"${#dates.format(now)}\">x</span>"));
+    }
+
+    @Test
+    void testTextAlternativeService_ShouldDeriveAuthViewsAtLoad() {
+        // Given
+        TextAlternativeService service = new TextAlternativeService();
+
+        // When
+        service.load();
+        String text = service.render("email/auth/otp-verification",
+                Map.of("username", "ana", "otpCode", "654321", "expiryMinutes", 5)).orElseThrow();
+
+        // Then
+        assertTrue(text.startsWith("LegacyKeep\n"));
+        assertTrue(text.contains("Hello ana! 👋"));
+        assertTrue(text.contains("654321\n\nThis code expires in 5 minutes"));
+        assertFalse(text.contains("<"));
+        assertTrue(service.render("email/digest/daily-digest", Map.of()).isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package com.legacykeep.notification.model;
+
+import com.legacykeep.notification.entity.NotificationChannel;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for PreferenceSnapshot.
+ */
+class PreferenceSnapshotTest {
+
+    @Test
+    void testLookup_ShouldReturnStoredFlagsAndDefaultsForUnknownUsers() {
+        // Given
+        PreferenceSnapshot snapshot = PreferenceSnapshot.builder(2)
+                .put(1L, PreferenceFlags.EMAIL | PreferenceFlags.QUIET_HOURS, 23 * 60, 7 * 60, "Europe/Berlin")
+                .put(2L, PreferenceFlags.PUSH, 22 * 60, 8 * 60, "Not/AZone")
+                .build();
+
+        // Then
+        assertEquals(2, snapshot.size());
+        assertTrue(snapshot.isChannelEnabled(1L, NotificationChannel.EMAIL));
+        assertFalse(snapshot.isChannelEnabled(1L, NotificationChannel.PUSH));
+        assertEquals(23 * 60, snapshot.quietHoursStart(1L));
+        assertEquals(ZoneId.of("Europe/Berlin"), snapshot.zone(1L));
+        assertEquals(ZoneOffset.UTC, snapshot.zone(2L));
+        assertFalse(snapshot.contains(3L));
+        assertEquals(PreferenceFlags.DEFAULTS, snapshot.flags(3L));
+    }
+
+    @Test
+    void testFilterByChannel_LargeFanOut_ShouldKeepOnlyEnabledRecipients() {
+        // Given
+        int recipients = 100_000;
+        long[] userIds = new long[recipients];
+        PreferenceSnapshot.Builder builder = PreferenceSnapshot.builder(recipients);
+        for (int i = 0; i < recipients; i++) {
+            userIds[i] = i + 1;
+            int flags = i % 2 == 0 ? PreferenceFlags.DEFAULTS : PreferenceFlags.DEFAULTS & ~PreferenceFlags.PUSH;
+            builder.put(userIds[i], flags, 22 * 60, 8 * 60, "UTC");
+        }
+        PreferenceSnapshot snapshot = builder.build();
+
+        // When
+        long[] pushRecipients = snapshot.filterByChannel(userIds, NotificationChannel.PUSH);
+
+        // Then
+        assertEquals(recipients / 2, pushRecipients.length);
+        for (long userId : pushRecipients) {
+            assertEquals(1, userId % 2);
+        }
+    }
+
+    @Test
+    void testBuild_DuplicateUser_ShouldKeepLatestRow() {
+        // When
+        PreferenceSnapshot snapshot = PreferenceSnapshot.builder(2)
+                .put(5L, PreferenceFlags.EMAIL, 0, 0, "UTC")
+                .put(5L, PreferenceFlags.SMS, 0, 0, "UTC")
+                .build();
+
+        // Then
+        assertEquals(1, snapshot.size());
+        assertEquals(PreferenceFlags.SMS, snapshot.flags(5L));
+    }
+}
@@ -0,0 +1,35 @@
+package com.legacykeep.notification.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for SmsSegments.
+ */
+class SmsSegmentsTest {
+
+    @Test
+    void testCount_GsmBody_ShouldUse160And153CharacterSegments() {
+        assertEquals(0, SmsSegments.count(""));
+        assertEquals(1, SmsSegments.count("a".repeat(160)));
+        assertEquals(2, SmsSegments.count("a".repeat(161)));
+        assertEquals(2, SmsSegments.count("a".repeat(306)));
+        assertEquals(3, SmsSegments.count("a".repeat(307)));
+    }
+
+    @Test
+    void testCount_ExtendedCharacters_ShouldTakeTwoSeptets() {
+        assertTrue(SmsSegments.isGsm("Price: 5€ [promo]"));
+        assertEquals(1, SmsSegments.count("€".repeat(80)));
+        assertEquals(2, SmsSegments.count("€".repeat(81)));
+    }
+
+    @Test
+    void testCount_NonGsmCharacter_ShouldSwitchWholeBodyToUcs2() {
+        assertFalse(SmsSegments.isGsm("Hello 👋"));
+        assertEquals(1, SmsSegments.count("é".repeat(69) + "ł"));
+        assertEquals(2, SmsSegments.count("a".repeat(70) + "ł"));
+        assertEquals(3, SmsSegments.count("a".repeat(134) + "ł"));
+    }
+}
@@ -0,0 +1,319 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.NotificationPriority;
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+import com.legacykeep.notification.model.DigestCategory;
+import com.legacykeep.notification.repository.DigestItemRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for DailyDigestService.
+ */
+@ExtendWith(MockitoExtension.class)
+class DailyDigestServiceTest {
+
+    /**
+     * 07:00 UTC: 08:00 in Berlin, the default digest hour.
+     */
+    private static final Instant NOW = Instant.parse("2026-01-15T07:00:00Z");
+
+    @Mock
+    private NotificationPreferenceService preferenceService;
+
+    @Mock
+    private DigestItemRepository digestItemRepository;
+
+    @Mock
+    private TemplateEngine templateEngine;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    private final Map<Long, Object[]> storedItems = new TreeMap<>();
+    private final Set<Long> claimedItems = new HashSet<>();
+
+    private NotificationConfig notificationConfig;
+    private DailyDigestService digestService;
+
+    @BeforeEach
+    void setUp() {
+        notificationConfig = new NotificationConfig();
+        digestService = new DailyDigestService(preferenceService, digestItemRepository, templateEngine, mailSender,
+                notificationConfig, Runnable::run);
+        stubItemStore();
+    }
+
+    @Test
+    void testAccept_HighPriority_ShouldNotBeDigested() {
+        // When
+        boolean accepted = digestService.accept(1L, "user@example.com", "User",
+                DigestCategory.RELATIONSHIP_REQUEST, "New request", NotificationPriority.HIGH);
+
+        // Then
+        assertFalse(accepted);
+        assertEquals(0, digestService.getPendingDigestCount());
+        verifyNoInteractions(preferenceService);
+    }
+
+    @Test
+    void testAccept_DigestDisabled_ShouldNotBeDigested() {
+        // Given
+        UserNotificationPreferences preferences = preferences(1L, "UTC");
+        preferences.setDailyDigestEnabled(false);
+        when(preferenceService.getPreferences(1L)).thenReturn(preferences);
+
+        // When
+        boolean accepted = digestService.accept(1L, "user@example.com", "User",
+                DigestCategory.STORY, "New story", NotificationPriority.LOW);
+
+        // Then
+        assertFalse(accepted);
+        assertEquals(0, digestService.getPendingDigestCount());
+    }
+
+    @Test
+    void testSendDue_ManyEventsForOneUser_ShouldSendSingleEmail() {
+        // Given
+        stubMail();
+        UserNotificationPreferences preferences = preferences(1L, "Europe/Berlin");
+        when(preferenceService.getPreferences(1L)).thenReturn(preferences);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, preferences));
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(digestService.accept(1L, "user@example.com", "User",
+                    i % 2 == 0 ? DigestCategory.RELATIONSHIP_REQUEST : DigestCategory.STORY,
+                    "Update " + i, NotificationPriority.NORMAL));
+        }
+
+        // When
+        int sent = digestService.sendDue(NOW);
+
+        // Then
+        assertEquals(1, sent);
+        assertEquals(0, digestService.getPendingDigestCount());
+        ArgumentCaptor<IContext> context = ArgumentCaptor.forClass(IContext.class);
+        verify(templateEngine).process(anyString(), context.capture());
+        assertEquals(50, context.getValue().getVariable("totalCount"));
+        assertEquals(notificationConfig.getDigest().getMaxRecentItems(),
+                ((Collection<?>) context.getValue().getVariable("items")).size());
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+    }
+
+    @Test
+    void testSendDue_BeforeLocalDigestHour_ShouldKeepPendingDigest() {
+        // Given
+        UserNotificationPreferences preferences = preferences(1L, "America/New_York");
+        when(preferenceService.getPreferences(1L)).thenReturn(preferences);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, preferences));
+        digestService.accept(1L, "user@example.com", "User", DigestCategory.MEMORY, "New memory", NotificationPriority.LOW);
+
+        // When
+        int sent = digestService.sendDue(NOW);
+
+        // Then
+        assertEquals(0, sent);
+        assertEquals(1, digestService.getPendingDigestCount());
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void testSendDue_ManyUsers_ShouldSendOneBatchPerConnection() {
+        // Given
+        stubMail();
+        int users = 1_000;
+        Map<Long, UserNotificationPreferences> preferences = LongStream.rangeClosed(1, users)
+                .boxed()
+                .collect(Collectors.toMap(Function.identity(), id -> preferences(id, "Europe/Berlin")));
+        when(preferenceService.getPreferences(anyLong())).thenAnswer(invocation -> preferences.get(invocation.<Long>getArgument(0)));
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(preferences);
+        for (long userId = 1; userId <= users; userId++) {
+            digestService.accept(userId, "user" + userId + "@example.com", null,
+                    DigestCategory.RELATIONSHIP_ACCEPTED, "Accepted", NotificationPriority.NORMAL);
+        }
+
+        // When
+        int sent = digestService.sendDue(NOW);
+
+        // Then
+        assertEquals(users, sent);
+        int batchSize = notificationConfig.getDigest().getBatchSize();
+        verify(mailSender, times((users + batchSize - 1) / batchSize)).send(any(MimeMessage[].class));
+    }
+
+    @Test
+    void testSendDue_SentDigest_ShouldDeleteItsStoredItems() {
+        // Given
+        stubMail();
+        UserNotificationPreferences preferences = preferences(1L, "Europe/Berlin");
+        when(preferenceService.getPreferences(1L)).thenReturn(preferences);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, preferences));
+        digestService.accept(1L, "user@example.com", "User", DigestCategory.STORY, "First", NotificationPriority.LOW);
+        digestService.accept(1L, "user@example.com", "User", DigestCategory.STORY, "Second", NotificationPriority.LOW);
+
+        // When
+        digestService.sendDue(NOW);
+
+        // Then
+        verify(digestItemRepository).delete(new long[]{1L, 2L});
+    }
+
+    @Test
+    void testSendDue_RejectedDigest_ShouldBeRequeuedAndRetriedOnNextRun() {
+        // Given
+        stubMail();
+        UserNotificationPreferences preferences = preferences(1L, "Europe/Berlin");
+        when(preferenceService.getPreferences(1L)).thenReturn(preferences);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, preferences));
+        digestService.accept(1L, "user@example.com", "User", DigestCategory.STORY, "New story", NotificationPriority.LOW);
+        doAnswer(invocation -> {
+            MimeMessage[] messages = invocation.getArgument(0);
+            throw new MailSendException(Map.of(messages[0], new MessagingException("mailbox unavailable")));
+        }).doNothing().when(mailSender).send(any(MimeMessage[].class));
+
+        // When
+        int failedRun = digestService.sendDue(NOW);
+        int retryRun = digestService.sendDue(NOW.plusSeconds(3600));
+
+        // Then
+        assertEquals(0, failedRun);
+        assertEquals(1, retryRun);
+        assertEquals(0, digestService.getPendingDigestCount());
+        verify(digestItemRepository, times(1)).delete(new long[]{1L});
+    }
+
+    @Test
+    void testSendDue_ItemsClaimedByAnotherInstance_ShouldDropPendingDigestWithoutSending() {
+        // Given
+        UserNotificationPreferences preferences = preferences(1L, "Europe/Berlin");
+        when(preferenceService.getPreferences(1L)).thenReturn(preferences);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, preferences));
+        digestService.accept(1L, "user@example.com", "User", DigestCategory.STORY, "New story", NotificationPriority.LOW);
+        claimedItems.add(1L);
+
+        // When
+        int sent = digestService.sendDue(NOW);
+
+        // Then
+        assertEquals(0, sent);
+        assertEquals(0, digestService.getPendingDigestCount());
+        verifyNoInteractions(mailSender);
+        verify(digestItemRepository, never()).delete(any());
+    }
+
+    @Test
+    void testSendDue_RejectedDigest_ShouldReleaseItsClaims() {
+        // Given
+        stubMail();
+        UserNotificationPreferences preferences = preferences(1L, "Europe/Berlin");
+        when(preferenceService.getPreferences(1L)).thenReturn(preferences);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, preferences));
+        digestService.accept(1L, "user@example.com", "User", DigestCategory.STORY, "New story", NotificationPriority.LOW);
+        doThrow(new MailAuthenticationException("authentication failed")).when(mailSender).send(any(MimeMessage[].class));
+
+        // When
+        digestService.sendDue(NOW);
+
+        // Then
+        verify(digestItemRepository).release(new long[]{1L});
+        assertTrue(claimedItems.isEmpty());
+        assertEquals(1, digestService.getPendingDigestCount());
+    }
+
+    @Test
+    void testRestorePendingDigests_ShouldRebuildBucketsFromStoredItems() {
+        // Given
+        doAnswer(invocation -> {
+            DigestItemRepository.ItemHandler handler = invocation.getArgument(1);
+            handler.accept(1L, 1L, "user@example.com", "User", DigestCategory.STORY, "New story", NOW);
+            handler.accept(2L, 2L, "other@example.com", "Other", DigestCategory.MEMORY, "New memory", NOW);
+            handler.accept(3L, 1L, "user@example.com", "User", DigestCategory.MEMORY, "New memory", NOW);
+            return null;
+        }).when(digestItemRepository).forEachUnclaimed(any(), any());
+
+        // When
+        digestService.restorePendingDigests();
+
+        // Then
+        assertEquals(2, digestService.getPendingDigestCount());
+    }
+
+    /**
+     * Back the repository mock with stored items that are claimed and released like rows
+     */
+    private void stubItemStore() {
+        AtomicLong itemIds = new AtomicLong();
+        lenient().when(digestItemRepository.insert(anyLong(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            long id = itemIds.incrementAndGet();
+            storedItems.put(id, invocation.getArguments());
+            return id;
+        });
+        lenient().doAnswer(invocation -> {
+            Set<Long> userIds = Arrays.stream(invocation.<long[]>getArgument(0)).boxed().collect(Collectors.toSet());
+            DigestItemRepository.ItemHandler handler = invocation.getArgument(3);
+            storedItems.forEach((id, item) -> {
+                if (userIds.contains((Long) item[0]) && claimedItems.add(id)) {
+                    handler.accept(id, (Long) item[0], (String) item[1], (String) item[2],
+                            (DigestCategory) item[3], (String) item[4], (Instant) item[5]);
+                }
+            });
+            return null;
+        }).when(digestItemRepository).claim(any(), anyString(), any(), any());
+        lenient().when(digestItemRepository.release(any())).thenAnswer(invocation -> {
+            Arrays.stream(invocation.<long[]>getArgument(0)).forEach(claimedItems::remove);
+            return 0;
+        });
+        lenient().when(digestItemRepository.delete(any())).thenAnswer(invocation -> {
+            Arrays.stream(invocation.<long[]>getArgument(0)).forEach(id -> {
+                storedItems.remove(id);
+                claimedItems.remove(id);
+            });
+            return 0;
+        });
+    }
+
+    private void stubMail() {
+        when(templateEngine.process(anyString(), any(IContext.class))).thenReturn("<html></html>");
+        Session session = Session.getInstance(new Properties());
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(session));
+    }
+
+    private UserNotificationPreferences preferences(Long userId, String zone) {
+        UserNotificationPreferences preferences = new UserNotificationPreferences(userId);
+        preferences.setTimezone(zone);
+        return preferences;
+    }
+}
@@ -0,0 +1,182 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.model.EmailAttachment;
+import com.legacykeep.notification.model.HtmlBody;
+import jakarta.mail.Part;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for EmailDeliveryService.
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailDeliveryServiceTest {
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @TempDir
+    Path tempDir;
+
+    private NotificationConfig config;
+    private EmailDeliveryService emailDeliveryService;
+
+    @BeforeEach
+    void setUp() {
+        Session session = Session.getInstance(new Properties());
+        lenient().when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(session));
+        config = new NotificationConfig();
+        emailDeliveryService = new EmailDeliveryService(mailSender, config);
+    }
+
+    @Test
+    void testSendHtmlEmail_Streamed_ShouldWriteSinglePartQuotedPrintableBody() throws Exception {
+        // Given
+        String html = "<p>Olá Zoë, " + "x".repeat(100) + "</p>";
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        doAnswer(invocation -> {
+            // The transport writes the message while the render buffer is still held
+            invocation.<MimeMessage>getArgument(0).writeTo(wire);
+            return null;
+        }).when(mailSender).send(any(MimeMessage.class));
+
+        // When
+        emailDeliveryService.sendHtmlEmail(new InternetAddress("noreply@legacykeep.com", "LegacyKeep"),
+                "user@example.com", "Olá", writer -> writer.write(html));
+
+        // Then
+        ArgumentCaptor<MimeMessage> sent = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(mailSender).send(sent.capture());
+        MimeMessage message = sent.getValue();
+        String raw = wire.toString(StandardCharsets.US_ASCII);
+        assertTrue(message.isMimeType("text/html"));
+        assertEquals("quoted-printable", message.getEncoding());
+        assertEquals("Olá", message.getSubject());
+        assertFalse(raw.contains("multipart"));
+        assertTrue(raw.contains("Ol=C3=A1 Zo=C3=AB"));
+    }
+
+    @Test
+    void testSendHtmlEmail_String_ShouldDecodeToSameContent() throws Exception {
+        // Given
+        String html = "<html><body>Hello 👋</body></html>";
+
+        // When
+        emailDeliveryService.sendHtmlEmail("user@example.com", "Hi", html);
+
+        // Then
+        ArgumentCaptor<MimeMessage> sent = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(mailSender).send(sent.capture());
+        MimeMessage reparsed = new MimeMessage(Session.getInstance(new Properties()),
+                new ByteArrayInputStream(toBytes(sent.getValue())));
+        assertEquals(html, reparsed.getContent());
+    }
+
+    @Test
+    void testSendHtmlEmail_WithText_ShouldSendMultipartAlternativeTextFirst() throws Exception {
+        // Given
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        doAnswer(invocation -> {
+            invocation.<MimeMessage>getArgument(0).writeTo(wire);
+            return null;
+        }).when(mailSender).send(any(MimeMessage.class));
+
+        // When
+        emailDeliveryService.sendHtmlEmail(null, "user@example.com", "Hi",
+                writer -> writer.write("<p>Hello Ana</p>"), "Hello Ana");
+
+        // Then
+        MimeMessage reparsed = new MimeMessage(Session.getInstance(new Properties()),
+                new ByteArrayInputStream(wire.toByteArray()));
+        MimeMultipart alternatives = (MimeMultipart) reparsed.getContent();
+        assertTrue(reparsed.isMimeType("multipart/alternative"));
+        assertEquals(2, alternatives.getCount());
+        assertTrue(alternatives.getBodyPart(0).isMimeType("text/plain"));
+        assertEquals("Hello Ana", alternatives.getBodyPart(0).getContent());
+        assertEquals("<p>Hello Ana</p>", alternatives.getBodyPart(1).getContent());
+    }
+
+    @Test
+    void testCreateHtmlMessage_SharedAttachments_ShouldStreamSameContentIntoEveryMessage() throws Exception {
+        // Given
+        byte[] pdf = new byte[100_000];
+        for (int i = 0; i < pdf.length; i++) {
+            pdf[i] = (byte) (i * 31);
+        }
+        Path file = Files.write(tempDir.resolve("Family Tree.pdf"), pdf);
+        List<EmailAttachment> attachments = List.of(EmailAttachment.mapped(file), EmailAttachment.ofFile(file));
+
+        // When
+        MimeMessage first = emailDeliveryService.createHtmlMessage(null, "a@example.com", "Tree",
+                HtmlBody.of("<p>Hi</p>"), "Hi", attachments);
+        MimeMessage second = emailDeliveryService.createHtmlMessage(null, "b@example.com", "Tree",
+                HtmlBody.of("<p>Hi</p>"), null, attachments);
+
+        // Then
+        for (MimeMessage message : List.of(first, second)) {
+            MimeMessage reparsed = new MimeMessage(Session.getInstance(new Properties()),
+                    new ByteArrayInputStream(toBytes(message)));
+            MimeMultipart mixed = (MimeMultipart) reparsed.getContent();
+            assertTrue(reparsed.isMimeType("multipart/mixed"));
+            assertEquals(3, mixed.getCount());
+            for (int i = 1; i < 3; i++) {
+                assertEquals(Part.ATTACHMENT, mixed.getBodyPart(i).getDisposition());
+                assertEquals("Family Tree.pdf", mixed.getBodyPart(i).getFileName());
+                assertTrue(mixed.getBodyPart(i).isMimeType("application/pdf"));
+                assertArrayEquals(pdf, mixed.getBodyPart(i).getInputStream().readAllBytes());
+            }
+        }
+        MimeMultipart firstParts = (MimeMultipart) first.getContent();
+        assertTrue(firstParts.getBodyPart(0).isMimeType("multipart/alternative"));
+    }
+
+    @Test
+    void testValidateAttachments_ShouldEnforceCountSizeAndType() {
+        // Given
+        config.getEmail().getAttachment().setMaxAttachments(2);
+        config.getEmail().getAttachment().setMaxAttachmentSize(4);
+        EmailAttachment small = EmailAttachment.of("notes.TXT", new byte[4]);
+
+        // When / Then
+        assertDoesNotThrow(() -> emailDeliveryService.validateAttachments(List.of(small, small)));
+        assertThrows(IllegalArgumentException.class,
+                () -> emailDeliveryService.validateAttachments(Collections.nCopies(3, small)));
+        assertThrows(IllegalArgumentException.class,
+                () -> emailDeliveryService.validateAttachments(List.of(EmailAttachment.of("big.txt", new byte[5]))));
+        assertThrows(IllegalArgumentException.class,
+                () -> emailDeliveryService.validateAttachments(List.of(EmailAttachment.of("run.exe", new byte[1]))));
+        assertThrows(IllegalArgumentException.class, () -> emailDeliveryService.sendHtmlEmail(null,
+                "user@example.com", "Hi", writer -> writer.write("x"), null, List.of(EmailAttachment.of("run", new byte[1]))));
+        verify(mailSender, never()).send(any(MimeMessage.class));
+    }
+
+    private byte[] toBytes(MimeMessage message) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out);
+        return out.toByteArray();
+    }
+}
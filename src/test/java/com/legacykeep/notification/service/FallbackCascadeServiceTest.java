@@ -0,0 +1,215 @@
+package com.legacykeep.notification.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.NotificationStatus;
+import com.legacykeep.notification.entity.NotificationTemplate;
+import com.legacykeep.notification.entity.NotificationType;
+import com.legacykeep.notification.event.dto.DeliveryConfirmedEvent;
+import com.legacykeep.notification.model.ChannelSendResult;
+import com.legacykeep.notification.model.FallbackOutcome;
+import com.legacykeep.notification.model.FallbackPolicy;
+import com.legacykeep.notification.repository.NotificationDeliveryRepository;
+import com.legacykeep.notification.repository.NotificationTemplateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for FallbackCascadeService.
+ */
+@ExtendWith(MockitoExtension.class)
+class FallbackCascadeServiceTest {
+
+    private static final String OTP_POLICY = "{\"fallback\": {\"steps\": ["
+            + "{\"channel\": \"PUSH\", \"budgetMs\": 200, \"confirm\": true},"
+            + "{\"channel\": \"SMS\", \"budgetMs\": 200},"
+            + "{\"channel\": \"EMAIL\", \"budgetMs\": 200}]}}";
+
+    @Mock
+    private NotificationTemplateRepository templateRepository;
+
+    @Mock
+    private NotificationDeliveryRepository deliveryRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private StubSender push;
+    private StubSender sms;
+    private StubSender email;
+    private SimpleMeterRegistry meterRegistry;
+    private FallbackCascadeService cascadeService;
+
+    @BeforeEach
+    void setUp() {
+        push = new StubSender(NotificationChannel.PUSH);
+        sms = new StubSender(NotificationChannel.SMS);
+        email = new StubSender(NotificationChannel.EMAIL);
+        meterRegistry = new SimpleMeterRegistry();
+        cascadeService = new FallbackCascadeService(List.of(push, sms, email), templateRepository, deliveryRepository,
+                new ObjectMapper(), kafkaTemplate, new NotificationConfig(), Runnable::run, meterRegistry);
+
+        NotificationTemplate template = new NotificationTemplate("sms-verification", "SMS Verification",
+                NotificationType.SMS, NotificationChannel.SMS);
+        template.setMetadata(OTP_POLICY);
+        lenient().when(templateRepository.findByTemplateIdAndIsActiveTrue("sms-verification")).thenReturn(Optional.of(template));
+    }
+
+    @Test
+    void testDeliver_ConfirmedFirstStep_ShouldNotEscalate() throws Exception {
+        // Given
+        push.result = CompletableFuture.completedFuture(ChannelSendResult.SENT);
+
+        // When
+        CompletableFuture<FallbackOutcome> delivery = cascadeService.deliver(notification());
+        boolean awaited = cascadeService.confirmDelivery(1L, NotificationChannel.PUSH);
+        FallbackOutcome outcome = delivery.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(awaited);
+        assertEquals(NotificationChannel.PUSH, outcome.getDeliveredChannel());
+        assertEquals(NotificationStatus.DELIVERED, outcome.getDeliveries().get(0).getStatus());
+        assertEquals(0, sms.calls);
+        assertEquals(1.0, meterRegistry.get("notification.fallback.delivered").tag("step", "1").counter().count());
+        assertEquals(1, meterRegistry.get("notification.fallback.time.to.delivery").timer().count());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void testDeliver_ConfirmationFromOtherInstance_ShouldNotEscalate() throws Exception {
+        // Given
+        push.result = CompletableFuture.completedFuture(ChannelSendResult.SENT);
+
+        // When
+        CompletableFuture<FallbackOutcome> delivery = cascadeService.deliver(notification());
+        boolean awaited = cascadeService.completeConfirmation(1L, NotificationChannel.PUSH);
+        FallbackOutcome outcome = delivery.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(awaited);
+        assertEquals(NotificationChannel.PUSH, outcome.getDeliveredChannel());
+        assertEquals(0, sms.calls);
+    }
+
+    @Test
+    void testDeliver_UnconfirmedPushAndFailedSms_ShouldEscalateToEmail() throws Exception {
+        // Given
+        push.result = CompletableFuture.completedFuture(ChannelSendResult.SENT);
+        sms.result = CompletableFuture.completedFuture(ChannelSendResult.failed("No recipient phone"));
+        email.result = CompletableFuture.completedFuture(ChannelSendResult.SENT);
+
+        // When
+        FallbackOutcome outcome = cascadeService.deliver(notification()).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(NotificationChannel.EMAIL, outcome.getDeliveredChannel());
+        assertEquals(3, outcome.getDeliveredStep());
+        assertEquals("Not confirmed within 200 ms", outcome.getDeliveries().get(0).getFailureReason());
+        assertEquals("No recipient phone", outcome.getDeliveries().get(1).getFailureReason());
+        verify(deliveryRepository).insertAll(argThat(deliveries -> deliveries.size() == 3));
+        assertEquals(1.0, meterRegistry.get("notification.fallback.delivered").tag("channel", "EMAIL").counter().count());
+    }
+
+    @Test
+    void testDeliver_UnreachableChannel_ShouldSkipStepWithoutDelivery() throws Exception {
+        // Given
+        push.result = CompletableFuture.completedFuture(ChannelSendResult.failed("No active devices"));
+        sms.reachable = false;
+        email.result = CompletableFuture.completedFuture(ChannelSendResult.SENT);
+
+        // When
+        FallbackOutcome outcome = cascadeService.deliver(notification()).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(NotificationChannel.EMAIL, outcome.getDeliveredChannel());
+        assertEquals(2, outcome.getDeliveredStep());
+        assertEquals(0, sms.calls);
+        verify(deliveryRepository).insertAll(argThat(deliveries -> deliveries.size() == 2));
+    }
+
+    @Test
+    void testDeliver_EveryStepTimesOut_ShouldReportExhaustedCascade() throws Exception {
+        // When
+        FallbackOutcome outcome = cascadeService.deliver(notification()).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(outcome.isDelivered());
+        assertEquals(3, outcome.getDeliveries().size());
+        assertEquals("Timed out after 200 ms", outcome.getDeliveries().get(2).getFailureReason());
+        assertEquals(1.0, meterRegistry.get("notification.fallback.exhausted").counter().count());
+        assertFalse(cascadeService.confirmDelivery(1L, NotificationChannel.PUSH));
+        verify(kafkaTemplate).send(eq("notification.deliveries.confirmed"), eq("1"),
+                argThat(event -> event instanceof DeliveryConfirmedEvent confirmed
+                        && confirmed.getNotificationId() == 1L && "PUSH".equals(confirmed.getChannel())));
+    }
+
+    @Test
+    void testGetPolicy_TemplateWithoutPolicy_ShouldUseNotificationChannelOnly() {
+        // Given
+        when(templateRepository.findByTemplateIdAndIsActiveTrue("welcome")).thenReturn(Optional.empty());
+        Notification notification = new Notification("event-2", NotificationType.EMAIL, "welcome", 7L);
+
+        // When
+        List<NotificationChannel> channels = cascadeService.getPolicy(notification).getSteps().stream()
+                .map(FallbackPolicy.Step::getChannel)
+                .toList();
+        cascadeService.getPolicy(notification);
+
+        // Then
+        assertEquals(List.of(NotificationChannel.EMAIL), channels);
+        verify(templateRepository, times(1)).findByTemplateIdAndIsActiveTrue("welcome");
+    }
+
+    private Notification notification() {
+        Notification notification = new Notification("event-1", NotificationType.SMS, "sms-verification", 7L);
+        notification.setId(1L);
+        return notification;
+    }
+
+    /**
+     * Sender returning a preset result, or never completing.
+     */
+    private static class StubSender implements ChannelSender {
+
+        private final NotificationChannel channel;
+        private CompletableFuture<ChannelSendResult> result = new CompletableFuture<>();
+        private boolean reachable = true;
+        private int calls;
+
+        private StubSender(NotificationChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public NotificationChannel getChannel() {
+            return channel;
+        }
+
+        @Override
+        public boolean canSend(Notification notification) {
+            return reachable;
+        }
+
+        @Override
+        public CompletableFuture<ChannelSendResult> send(Notification notification) {
+            calls++;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.InboxItem;
+import com.legacykeep.notification.event.InboxItemsStoredEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for InboxStreamService.
+ */
+class InboxStreamServiceTest {
+
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private NotificationConfig config;
+    private InboxStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        config = new NotificationConfig();
+        config.getStream().setBufferSize(2);
+        config.getStream().setMaxConnectionsPerUser(2);
+        streamService = new InboxStreamService(config, kafkaTemplate, pendingTasks::add);
+    }
+
+    @Test
+    void testOnInboxItemsStored_ShouldBroadcastEachItemKeyedByRecipient() {
+        // Given
+        InboxItem first = item(10L, 1L);
+        InboxItem second = item(11L, 2L);
+
+        // When
+        streamService.onInboxItemsStored(new InboxItemsStoredEvent(List.of(first, second)));
+
+        // Then
+        verify(kafkaTemplate).send("notification.inbox.stored", "1", first);
+        verify(kafkaTemplate).send("notification.inbox.stored", "2", second);
+        assertTrue(pendingTasks.isEmpty());
+    }
+
+    @Test
+    void testDeliver_ShouldFanOutToEveryConnectionOfTheRecipientOnly() {
+        // Given
+        RecordingEmitter phone = new RecordingEmitter();
+        RecordingEmitter laptop = new RecordingEmitter();
+        RecordingEmitter otherUser = new RecordingEmitter();
+        streamService.register(1L, phone);
+        streamService.register(1L, laptop);
+        streamService.register(2L, otherUser);
+
+        // When
+        streamService.deliver(item(10L, 1L));
+        streamService.deliver(item(11L, 1L));
+        runPendingTasks();
+
+        // Then
+        assertEquals(2, phone.sent);
+        assertEquals(2, laptop.sent);
+        assertEquals(0, otherUser.sent);
+        assertEquals(3, streamService.getConnectionCount());
+        assertEquals(2, streamService.getOnlineUserCount());
+    }
+
+    @Test
+    void testDeliver_SlowConsumer_ShouldBeShedWhenBufferIsFull() {
+        // Given
+        RecordingEmitter slow = new RecordingEmitter();
+        streamService.register(1L, slow);
+
+        // When
+        List.of(item(10L, 1L), item(11L, 1L), item(12L, 1L)).forEach(streamService::deliver);
+
+        // Then
+        assertTrue(slow.completed);
+        assertEquals(0, streamService.getConnectionCount());
+        assertEquals(0, streamService.getOnlineUserCount());
+
+        runPendingTasks();
+        assertEquals(0, slow.sent);
+    }
+
+    @Test
+    void testRegister_ShouldEnforcePerUserAndNodeLimits() {
+        // Given
+        config.getStream().setMaxConnections(3);
+        RecordingEmitter first = new RecordingEmitter();
+        streamService.register(1L, first);
+        streamService.register(1L, new RecordingEmitter());
+
+        // When
+        streamService.register(1L, new RecordingEmitter());
+        streamService.register(2L, new RecordingEmitter());
+        RecordingEmitter rejected = new RecordingEmitter();
+        streamService.register(3L, rejected);
+
+        // Then
+        assertTrue(first.completed);
+        assertTrue(rejected.completed);
+        assertEquals(3, streamService.getConnectionCount());
+    }
+
+    @Test
+    void testSendHeartbeats_ShouldWriteInBatchesOnExecutorAndDropFailedConnections() {
+        // Given
+        config.getStream().setHeartbeatBatchSize(2);
+        RecordingEmitter gone = new RecordingEmitter();
+        gone.failing = true;
+        streamService.register(1L, gone);
+        RecordingEmitter alive = new RecordingEmitter();
+        streamService.register(2L, alive);
+        streamService.register(3L, new RecordingEmitter());
+
+        // When
+        streamService.sendHeartbeats();
+
+        // Then
+        assertEquals(2, pendingTasks.size());
+        assertEquals(0, alive.sent);
+        runPendingTasks();
+        assertEquals(1, alive.sent);
+        assertEquals(2, streamService.getConnectionCount());
+    }
+
+    @Test
+    void testDeliver_SaturatedExecutor_ShouldShedConnection() {
+        // Given
+        streamService = new InboxStreamService(config, kafkaTemplate, task -> {
+            throw new RejectedExecutionException("saturated");
+        });
+        RecordingEmitter emitter = new RecordingEmitter();
+        streamService.register(1L, emitter);
+
+        // When
+        streamService.deliver(item(10L, 1L));
+
+        // Then
+        assertTrue(emitter.completed);
+        assertEquals(0, streamService.getConnectionCount());
+    }
+
+    @Test
+    void testDropStalledConnections_BlockedWrite_ShouldDropAndCompleteOnceWriteReturns() {
+        // Given
+        config.getStream().setWriteTimeoutMs(0);
+        RecordingEmitter stalled = new RecordingEmitter();
+        stalled.onSend = () -> {
+            Thread.sleep(5);
+            streamService.dropStalledConnections();
+            assertEquals(0, streamService.getConnectionCount());
+            assertFalse(stalled.completed);
+        };
+        streamService.register(1L, stalled);
+        streamService.deliver(item(10L, 1L));
+        streamService.deliver(item(11L, 1L));
+
+        // When
+        runPendingTasks();
+
+        // Then
+        assertEquals(1, stalled.sent);
+        assertTrue(stalled.completed);
+        assertEquals(0, streamService.getOnlineUserCount());
+    }
+
+    private void runPendingTasks() {
+        List<Runnable> tasks = new ArrayList<>(pendingTasks);
+        pendingTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private InboxItem item(Long id, Long recipientId) {
+        InboxItem item = new InboxItem("e" + id, recipientId, "STORY", "New story");
+        item.setId(id);
+        return item;
+    }
+
+    /**
+     * Emitter that records writes instead of needing a live response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private int sent;
+        private boolean completed;
+        private boolean failing;
+        private SendHook onSend;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            if (onSend != null) {
+                try {
+                    onSend.run();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            sent++;
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+
+    /**
+     * Work done while a write is in progress.
+     */
+    @FunctionalInterface
+    private interface SendHook {
+        void run() throws InterruptedException;
+    }
+}
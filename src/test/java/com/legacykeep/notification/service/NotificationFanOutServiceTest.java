@@ -0,0 +1,212 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.NotificationDelivery;
+import com.legacykeep.notification.entity.NotificationStatus;
+import com.legacykeep.notification.entity.NotificationType;
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+import com.legacykeep.notification.model.ChannelSendResult;
+import com.legacykeep.notification.repository.NotificationDeliveryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for NotificationFanOutService.
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationFanOutServiceTest {
+
+    @Mock
+    private NotificationPreferenceService preferenceService;
+
+    @Mock
+    private NotificationDeliveryRepository deliveryRepository;
+
+    private StubSender email;
+    private StubSender push;
+    private StubSender sms;
+    private NotificationConfig config;
+    private NotificationFanOutService fanOutService;
+
+    @BeforeEach
+    void setUp() {
+        email = new StubSender(NotificationChannel.EMAIL);
+        push = new StubSender(NotificationChannel.PUSH);
+        sms = new StubSender(NotificationChannel.SMS);
+        config = new NotificationConfig();
+        fanOutService = new NotificationFanOutService(List.of(email, push, sms), preferenceService,
+                deliveryRepository, config, Runnable::run);
+    }
+
+    @Test
+    void testFanOut_ShouldStartEveryEnabledChannelBeforeAnyCompletes() {
+        // Given
+        UserNotificationPreferences preferences = new UserNotificationPreferences(1L);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, preferences));
+
+        // When
+        CompletableFuture<List<NotificationDelivery>> fanOut = fanOutService.fanOut(notification(10L, 1L));
+
+        // Then
+        assertEquals(1, email.calls);
+        assertEquals(1, push.calls);
+        assertEquals(0, sms.calls);
+        assertFalse(fanOut.isDone());
+
+        push.pending.complete(ChannelSendResult.SENT);
+        assertFalse(fanOut.isDone());
+        verifyNoInteractions(deliveryRepository);
+
+        email.pending.complete(ChannelSendResult.failed("SMTP down"));
+        List<NotificationDelivery> deliveries = fanOut.join();
+        assertEquals(2, deliveries.size());
+        assertEquals(NotificationStatus.FAILED, delivery(deliveries, NotificationChannel.EMAIL).getStatus());
+        assertEquals("SMTP down", delivery(deliveries, NotificationChannel.EMAIL).getFailureReason());
+        assertEquals(NotificationStatus.SENT, delivery(deliveries, NotificationChannel.PUSH).getStatus());
+    }
+
+    @Test
+    void testFanOut_Batch_ShouldResolvePreferencesOnceAndInsertAllDeliveriesTogether() {
+        // Given
+        UserNotificationPreferences first = new UserNotificationPreferences(1L);
+        UserNotificationPreferences second = new UserNotificationPreferences(2L);
+        second.setPushEnabled(false);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, first, 2L, second));
+        List.of(email, push, sms).forEach(sender -> sender.pending.complete(ChannelSendResult.SENT));
+
+        // When
+        List<NotificationDelivery> deliveries = fanOutService.fanOut(List.of(notification(10L, 1L), notification(11L, 2L))).join();
+
+        // Then
+        assertEquals(3, deliveries.size());
+        verify(preferenceService, times(1)).getPreferences(anyCollection());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<NotificationDelivery>> inserted = ArgumentCaptor.forClass(Collection.class);
+        verify(deliveryRepository, times(1)).insertAll(inserted.capture());
+        assertEquals(3, inserted.getValue().size());
+    }
+
+    @Test
+    void testFanOut_SlowOrThrowingChannel_ShouldBeRecordedAsFailed() throws Exception {
+        // Given
+        config.getFanOut().setChannelTimeoutMs(50);
+        UserNotificationPreferences preferences = new UserNotificationPreferences(1L);
+        preferences.setSmsEnabled(true);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, preferences));
+        email.pending.complete(ChannelSendResult.SENT);
+        sms.failure = new IllegalStateException("Provider misconfigured");
+
+        // When
+        List<NotificationDelivery> deliveries = fanOutService.fanOut(notification(10L, 1L)).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(NotificationStatus.SENT, delivery(deliveries, NotificationChannel.EMAIL).getStatus());
+        assertEquals("Timed out after 50 ms", delivery(deliveries, NotificationChannel.PUSH).getFailureReason());
+        assertEquals("Provider misconfigured", delivery(deliveries, NotificationChannel.SMS).getFailureReason());
+    }
+
+    @Test
+    void testFanOut_GivenChannels_ShouldSendOnlyOnThoseAndBatchPerChannel() {
+        // Given
+        when(preferenceService.getPreferences(anyCollection()))
+                .thenReturn(Map.of(1L, new UserNotificationPreferences(1L), 2L, new UserNotificationPreferences(2L)));
+        push.pending.complete(ChannelSendResult.SENT);
+
+        // When
+        List<NotificationDelivery> deliveries = fanOutService.fanOut(
+                List.of(notification(10L, 1L), notification(11L, 2L)), EnumSet.of(NotificationChannel.PUSH)).join();
+
+        // Then
+        assertEquals(2, deliveries.size());
+        assertEquals(1, push.batches);
+        assertEquals(2, push.calls);
+        assertEquals(0, email.calls);
+    }
+
+    @Test
+    void testFanOut_UnreachableRecipient_ShouldSkipChannelWithoutDelivery() {
+        // Given
+        UserNotificationPreferences preferences = new UserNotificationPreferences(1L);
+        preferences.setSmsEnabled(true);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, preferences));
+        sms.reachable = false;
+        List.of(email, push).forEach(sender -> sender.pending.complete(ChannelSendResult.SENT));
+
+        // When
+        List<NotificationDelivery> deliveries = fanOutService.fanOut(notification(10L, 1L)).join();
+
+        // Then
+        assertEquals(2, deliveries.size());
+        assertEquals(0, sms.calls);
+        assertTrue(deliveries.stream().noneMatch(d -> d.getChannel() == NotificationChannel.SMS));
+    }
+
+    private Notification notification(Long id, Long recipientId) {
+        Notification notification = new Notification("event-" + id, NotificationType.EMAIL, "welcome", recipientId);
+        notification.setId(id);
+        return notification;
+    }
+
+    private NotificationDelivery delivery(List<NotificationDelivery> deliveries, NotificationChannel channel) {
+        return deliveries.stream().filter(d -> d.getChannel() == channel).findFirst().orElseThrow();
+    }
+
+    /**
+     * Sender completing only when the test says so.
+     */
+    private static class StubSender implements ChannelSender {
+
+        private final NotificationChannel channel;
+        private final CompletableFuture<ChannelSendResult> pending = new CompletableFuture<>();
+        private RuntimeException failure;
+        private boolean reachable = true;
+        private int calls;
+        private int batches;
+
+        private StubSender(NotificationChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public NotificationChannel getChannel() {
+            return channel;
+        }
+
+        @Override
+        public boolean canSend(Notification notification) {
+            return reachable;
+        }
+
+        @Override
+        public List<CompletableFuture<ChannelSendResult>> sendAll(List<Notification> notifications) {
+            batches++;
+            return ChannelSender.super.sendAll(notifications);
+        }
+
+        @Override
+        public CompletableFuture<ChannelSendResult> send(Notification notification) {
+            calls++;
+            if (failure != null) {
+                throw failure;
+            }
+            return pending;
+        }
+    }
+}
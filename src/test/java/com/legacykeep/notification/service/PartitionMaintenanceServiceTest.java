@@ -0,0 +1,125 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.repository.PartitionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for PartitionMaintenanceService.
+ */
+@ExtendWith(MockitoExtension.class)
+class PartitionMaintenanceServiceTest {
+
+    @Mock
+    private PartitionRepository partitionRepository;
+
+    private NotificationConfig config;
+    private PartitionMaintenanceService maintenanceService;
+
+    @BeforeEach
+    void setUp() {
+        config = new NotificationConfig();
+        config.getPartitions().setMonthsAhead(2);
+        config.getPartitions().setRetentionMonths(6);
+        config.getPartitions().setEventRetentionMonths(3);
+        maintenanceService = new PartitionMaintenanceService(partitionRepository, config);
+    }
+
+    @Test
+    void testMaintain_ShouldCreateUpcomingMonthsAndDropOnlyExpiredOnes() {
+        // Given
+        when(partitionRepository.isPartitioned(anyString())).thenReturn(true);
+        when(partitionRepository.findPartitions(anyString())).thenReturn(List.of());
+        when(partitionRepository.findPartitions("notifications")).thenReturn(List.of(
+                "notifications_p202603", "notifications_p202604", "notifications_p202610", "notifications_archive"));
+        when(partitionRepository.findPartitions("notification_events")).thenReturn(List.of(
+                "notification_events_p202606", "notification_events_p202607"));
+        when(partitionRepository.dropPartition(anyString(), anyString())).thenReturn(true);
+
+        // When
+        int dropped = maintenanceService.maintain(YearMonth.of(2026, 10));
+
+        // Then
+        assertEquals(2, dropped);
+        verify(partitionRepository).dropPartition("notifications", "notifications_p202603");
+        verify(partitionRepository).dropPartition("notification_events", "notification_events_p202606");
+        verify(partitionRepository, times(2)).dropPartition(anyString(), anyString());
+        for (String table : List.of("notifications", "notification_deliveries", "notification_keys",
+                "notification_events", "notification_event_keys")) {
+            verify(partitionRepository).createPartition(table, YearMonth.of(2026, 10));
+            verify(partitionRepository).createPartition(table, YearMonth.of(2026, 12));
+        }
+        verify(partitionRepository, times(15)).createPartition(anyString(), any(YearMonth.class));
+    }
+
+    @Test
+    void testMaintain_ShouldPurgeUnpartitionedTablesInBatchesUpToTheNotificationRetention() {
+        // Given
+        config.getPartitions().setPurgeBatchSize(100);
+        when(partitionRepository.isPartitioned(anyString())).thenReturn(true);
+        when(partitionRepository.findPartitions(anyString())).thenReturn(List.of());
+        when(partitionRepository.purge(anyString(), any(LocalDateTime.class), eq(100))).thenReturn(0);
+        when(partitionRepository.purge(eq("notification_queue"), any(LocalDateTime.class), eq(100))).thenReturn(100, 100, 40);
+
+        // When
+        maintenanceService.maintain(YearMonth.of(2026, 10));
+
+        // Then
+        LocalDateTime before = LocalDateTime.of(2026, 4, 1, 0, 0);
+        verify(partitionRepository, times(3)).purge("notification_queue", before, 100);
+        verify(partitionRepository).purge("user_notification_activity", before, 100);
+        verify(partitionRepository).purge("notification_dead_letter_queue", before, 100);
+    }
+
+    @Test
+    void testMaintain_DetachedPartition_ShouldNotCountAsDropped() {
+        // Given
+        when(partitionRepository.isPartitioned(anyString())).thenReturn(true);
+        when(partitionRepository.findPartitions(anyString())).thenReturn(List.of());
+        when(partitionRepository.findPartitions("notifications")).thenReturn(List.of(
+                "notifications_default", "notifications_p202603"));
+        when(partitionRepository.dropPartition("notifications", "notifications_p202603")).thenReturn(false);
+
+        // When
+        int dropped = maintenanceService.maintain(YearMonth.of(2026, 10));
+
+        // Then
+        assertEquals(0, dropped);
+        verify(partitionRepository, never()).dropPartition("notifications", "notifications_default");
+    }
+
+    @Test
+    void testMaintain_UnpartitionedTable_ShouldBeLeftAlone() {
+        // Given
+        when(partitionRepository.isPartitioned(anyString())).thenReturn(false);
+
+        // When
+        int dropped = maintenanceService.maintain(YearMonth.of(2026, 10));
+
+        // Then
+        assertEquals(0, dropped);
+        verify(partitionRepository, never()).createPartition(anyString(), any(YearMonth.class));
+        verify(partitionRepository, never()).findPartitions(anyString());
+    }
+
+    @Test
+    void testMonthOf_ShouldOnlyAcceptPartitionsNamedAfterTheirTable() {
+        assertEquals(YearMonth.of(2025, 1), PartitionMaintenanceService.monthOf("notifications", "notifications_p202501"));
+        assertNull(PartitionMaintenanceService.monthOf("notifications", "notifications_p2025011"));
+        assertNull(PartitionMaintenanceService.monthOf("notifications", "notifications_p202513"));
+        assertNull(PartitionMaintenanceService.monthOf("notifications", "notification_events_p202501"));
+        assertNull(PartitionMaintenanceService.monthOf("notifications", "notifications_default"));
+    }
+}
@@ -0,0 +1,226 @@
+package com.legacykeep.notification.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.NotificationPriority;
+import com.legacykeep.notification.model.PushMessage;
+import com.legacykeep.notification.model.PushSendResult;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for PushDeliveryService against a local stand-in for the push provider.
+ */
+@ExtendWith(MockitoExtension.class)
+class PushDeliveryServiceTest {
+
+    @Mock
+    private DeviceRegistryService deviceRegistry;
+
+    @Mock
+    private FcmAccessTokenProvider accessTokenProvider;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    private HttpServer provider;
+    private PushDeliveryService pushDeliveryService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        provider = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        provider.createContext("/v1/projects/test-project/messages:send", exchange -> {
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            requests.add(request);
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            String token = request.path("message").path("token").asText();
+            int code = status.get();
+            ObjectNode response = objectMapper.createObjectNode();
+            if (code != 200) {
+                response.putObject("error").put("code", code).put("status", "UNAVAILABLE");
+            } else if (token.startsWith("dead")) {
+                code = 404;
+                error(response, code, "NOT_FOUND", "UNREGISTERED");
+            } else if (token.startsWith("bad")) {
+                code = 400;
+                error(response, code, "INVALID_ARGUMENT", "INVALID_ARGUMENT")
+                        .addObject()
+                        .put("@type", "type.googleapis.com/google.rpc.BadRequest")
+                        .putArray("fieldViolations").addObject()
+                        .put("field", "message.token")
+                        .put("description", "Invalid registration token");
+            } else if (token.startsWith("malformed")) {
+                code = 400;
+                error(response, code, "INVALID_ARGUMENT", "INVALID_ARGUMENT");
+            } else if (token.startsWith("busy")) {
+                code = 503;
+                error(response, code, "UNAVAILABLE", "UNAVAILABLE");
+            } else {
+                response.put("name", "projects/test-project/messages/m-" + token);
+            }
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            exchange.sendResponseHeaders(code, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        provider.start();
+
+        NotificationConfig config = new NotificationConfig();
+        config.getPush().setEndpoint("http://127.0.0.1:" + provider.getAddress().getPort());
+        config.getPush().setMaxConcurrentRequests(8);
+        lenient().when(accessTokenProvider.getAccessToken()).thenReturn(CompletableFuture.completedFuture("access-1"));
+        pushDeliveryService = new PushDeliveryService(deviceRegistry, accessTokenProvider,
+                HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build(), objectMapper, config, "test-project");
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.stop(0);
+    }
+
+    @Test
+    void testSend_ManyTokens_ShouldSendOneAuthorizedRequestPerToken() {
+        // Given
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            tokens.add("token-" + i);
+        }
+
+        // When
+        PushSendResult result = pushDeliveryService.send(tokens, message()).join();
+
+        // Then
+        assertEquals(300, requests.size());
+        assertEquals(Set.copyOf(tokens),
+                requests.stream().map(r -> r.path("message").path("token").asText()).collect(Collectors.toSet()));
+        assertTrue(authorizations.stream().allMatch("Bearer access-1"::equals));
+        JsonNode message = requests.get(0).path("message");
+        assertEquals("Family update", message.path("notification").path("title").asText());
+        assertEquals("RELATIONSHIP", message.path("data").path("type").asText());
+        assertEquals("HIGH", message.path("android").path("priority").asText());
+        assertEquals(300, result.getSuccessCount());
+        verify(accessTokenProvider, times(1)).getAccessToken();
+        verifyNoInteractions(deviceRegistry);
+    }
+
+    @Test
+    void testSendToUser_AllDevices_ShouldReportUnregisteredAndInvalidTokens() {
+        // Given
+        when(deviceRegistry.getActiveTokens(List.of(7L)))
+                .thenReturn(Map.of(7L, List.of("phone", "dead-tablet", "bad-laptop", "busy-watch")));
+
+        // When
+        PushSendResult result = pushDeliveryService.sendToUser(7L, message()).join();
+
+        // Then
+        assertEquals(4, requests.size());
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(List.of("busy-watch"), result.getFailedTokens());
+        assertEquals(List.of("dead-tablet", "bad-laptop"), result.getInvalidTokens());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> reported = ArgumentCaptor.forClass(Collection.class);
+        verify(deviceRegistry).reportInvalidTokens(reported.capture());
+        assertEquals(List.of("dead-tablet", "bad-laptop"), List.copyOf(reported.getValue()));
+    }
+
+    @Test
+    void testSend_MalformedPayload_ShouldFailWithoutDeactivatingToken() {
+        // When
+        PushSendResult result = pushDeliveryService.send(List.of("malformed-phone"), message()).join();
+
+        // Then
+        assertEquals(List.of("malformed-phone"), result.getFailedTokens());
+        assertTrue(result.getInvalidTokens().isEmpty());
+        verifyNoInteractions(deviceRegistry);
+    }
+
+    @Test
+    void testSend_ProviderError_ShouldReportAllTokensFailedWithoutDeactivating() {
+        // Given
+        status.set(503);
+
+        // When
+        PushSendResult result = pushDeliveryService.send(List.of("a", "dead-b"), message()).join();
+
+        // Then
+        assertEquals(0, result.getSuccessCount());
+        assertEquals(List.of("a", "dead-b"), result.getFailedTokens());
+        verifyNoInteractions(deviceRegistry);
+    }
+
+    @Test
+    void testSend_AccessTokenRejected_ShouldInvalidateIt() {
+        // Given
+        status.set(401);
+
+        // When
+        PushSendResult result = pushDeliveryService.send(List.of("a"), message()).join();
+
+        // Then
+        assertEquals(List.of("a"), result.getFailedTokens());
+        verify(accessTokenProvider).invalidate("access-1");
+    }
+
+    @Test
+    void testSend_NoAccessToken_ShouldFailWithoutRequests() {
+        // Given
+        when(accessTokenProvider.getAccessToken())
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("no credentials")));
+
+        // When
+        PushSendResult result = pushDeliveryService.send(List.of("a", "b"), message()).join();
+
+        // Then
+        assertTrue(requests.isEmpty());
+        assertEquals(List.of("a", "b"), result.getFailedTokens());
+        verifyNoInteractions(deviceRegistry);
+    }
+
+    private ArrayNode error(ObjectNode response, int code, String status, String errorCode) {
+        ObjectNode error = response.putObject("error").put("code", code).put("status", status);
+        ArrayNode details = error.putArray("details");
+        details.addObject()
+                .put("@type", "type.googleapis.com/google.firebase.fcm.v1.FcmError")
+                .put("errorCode", errorCode);
+        return details;
+    }
+
+    private PushMessage message() {
+        return PushMessage.builder()
+                .title("Family update")
+                .body("Grandma accepted your relationship request")
+                .data(Map.of("type", "RELATIONSHIP"))
+                .priority(NotificationPriority.HIGH)
+                .build();
+    }
+}
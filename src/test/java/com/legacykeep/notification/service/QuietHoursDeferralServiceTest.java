@@ -0,0 +1,215 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationPriority;
+import com.legacykeep.notification.entity.NotificationQueueEntry;
+import com.legacykeep.notification.entity.NotificationType;
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+import com.legacykeep.notification.event.DeferredNotificationsReleasedEvent;
+import com.legacykeep.notification.repository.NotificationQueueRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit and throughput test for QuietHoursDeferralService.
+ */
+@ExtendWith(MockitoExtension.class)
+class QuietHoursDeferralServiceTest {
+
+    private static final long NOTIFICATION_ID_OFFSET = 1_000_000L;
+
+    /**
+     * 03:00 UTC: inside a 20:00 - 10:00 quiet window for every zone below.
+     */
+    private static final Instant NOW = Instant.parse("2026-01-15T03:00:00Z");
+
+    private static final List<String> ZONES = List.of(
+            "America/Sao_Paulo", "UTC", "Europe/Berlin", "Europe/Helsinki",
+            "Europe/Moscow", "Asia/Dubai", "Asia/Karachi");
+
+    @Mock
+    private NotificationQueueRepository queueRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private QuietHoursDeferralService deferralService;
+
+    @BeforeEach
+    void setUp() {
+        deferralService = new QuietHoursDeferralService(queueRepository, eventPublisher, new NotificationConfig());
+    }
+
+    @Test
+    void testDeferIfQuiet_ShouldReleaseAtEndOfQuietHoursInUserZone() {
+        // Given
+        stubQueueWrites();
+        UserNotificationPreferences preferences = quietPreferences("Europe/Berlin");
+        Notification notification = notification(1L, NotificationPriority.NORMAL);
+
+        // When
+        Optional<Instant> releaseAt = deferralService.deferIfQuiet(notification, preferences, NOW);
+
+        // Then
+        assertTrue(releaseAt.isPresent());
+        assertEquals(Instant.parse("2026-01-15T09:00:00Z"), releaseAt.get());
+        assertNotNull(notification.getScheduledAt());
+        assertEquals(1, deferralService.getDeferredCount());
+    }
+
+    @Test
+    void testDeferIfQuiet_UrgentNotification_ShouldNotBeDeferred() {
+        // When
+        Optional<Instant> releaseAt = deferralService.deferIfQuiet(
+                notification(1L, NotificationPriority.URGENT), quietPreferences("UTC"), NOW);
+
+        // Then
+        assertTrue(releaseAt.isEmpty());
+        verify(queueRepository, never()).save(any());
+    }
+
+    @Test
+    void testDeferIfQuiet_OutsideQuietHours_ShouldNotBeDeferred() {
+        // When
+        Optional<Instant> releaseAt = deferralService.deferIfQuiet(
+                notification(1L, NotificationPriority.LOW), quietPreferences("Asia/Tokyo"), NOW);
+
+        // Then
+        assertTrue(releaseAt.isEmpty());
+    }
+
+    @Test
+    void testReleaseDue_BurstOfDeferredNotifications_ShouldDrainPerBucket() {
+        // Given
+        stubQueueWrites();
+        when(queueRepository.claimQueued(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        int burst = 100_000;
+        List<UserNotificationPreferences> preferencesByZone = ZONES.stream().map(this::quietPreferences).toList();
+        for (int i = 0; i < burst; i++) {
+            Notification notification = notification(i + NOTIFICATION_ID_OFFSET + 1, NotificationPriority.NORMAL);
+            deferralService.deferIfQuiet(notification, preferencesByZone.get(i % ZONES.size()), NOW);
+        }
+        assertEquals(burst, deferralService.getDeferredCount());
+        assertEquals(Instant.parse("2026-01-15T05:00:00Z"), deferralService.getNextReleaseAt());
+
+        // When
+        long start = System.nanoTime();
+        int released = deferralService.releaseDue(NOW.plus(Duration.ofDays(1)));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertEquals(burst, released);
+        assertEquals(0, deferralService.getDeferredCount());
+        int batchSize = new NotificationConfig().getDeferral().getClaimBatchSize();
+        int perZone = burst / ZONES.size();
+        int expectedClaims = ZONES.size() * ((perZone + 1 + batchSize - 1) / batchSize);
+        verify(queueRepository, times(expectedClaims)).claimQueued(any());
+        verify(eventPublisher, times(expectedClaims)).publishEvent(any(DeferredNotificationsReleasedEvent.class));
+        verify(queueRepository, times(expectedClaims)).completeClaimed(any());
+        assertTrue(elapsedMs < 5_000, "Bulk release of " + burst + " notifications took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void testReleaseDue_PipelineFailure_ShouldRequeueClaimedEntries() {
+        // Given
+        stubQueueWrites();
+        when(queueRepository.claimQueued(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new IllegalStateException("pipeline down"))
+                .when(eventPublisher).publishEvent(any(DeferredNotificationsReleasedEvent.class));
+        deferralService.deferIfQuiet(notification(7L, NotificationPriority.NORMAL), quietPreferences("UTC"), NOW);
+
+        // When
+        int released = deferralService.releaseDue(NOW.plus(Duration.ofDays(1)));
+
+        // Then
+        assertEquals(0, released);
+        verify(queueRepository).requeueClaimed(new long[]{1L});
+        verify(queueRepository, never()).completeClaimed(any());
+        assertEquals(1, deferralService.getDeferredCount());
+    }
+
+    @Test
+    void testReleaseDue_ShouldPublishNotificationIdsOfClaimedEntriesOnly() {
+        // Given
+        stubQueueWrites();
+        when(queueRepository.claimQueued(any())).thenReturn(new long[]{2L});
+        deferralService.deferIfQuiet(notification(7L, NotificationPriority.NORMAL), quietPreferences("UTC"), NOW);
+        deferralService.deferIfQuiet(notification(8L, NotificationPriority.NORMAL), quietPreferences("UTC"), NOW);
+
+        // When
+        int released = deferralService.releaseDue(NOW.plus(Duration.ofDays(1)));
+
+        // Then
+        assertEquals(1, released);
+        verify(eventPublisher).publishEvent(argThat((DeferredNotificationsReleasedEvent event) ->
+                Arrays.equals(new long[]{8L}, event.getNotificationIds())));
+        verify(queueRepository).completeClaimed(new long[]{2L});
+    }
+
+    @Test
+    void testSweepOverdue_EntriesLeftByAnotherInstance_ShouldClaimAndReleaseByReleaseTime() {
+        // Given
+        LocalDateTime first = LocalDateTime.ofInstant(NOW.minus(Duration.ofHours(2)), ZoneId.systemDefault());
+        LocalDateTime second = first.plusMinutes(30);
+        when(queueRepository.findDueQueueKeys(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(
+                new Object[]{1L, 7L, first}, new Object[]{2L, 8L, first}, new Object[]{3L, 9L, second}));
+        when(queueRepository.claimQueued(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        int released = deferralService.sweepOverdue(NOW);
+
+        // Then
+        assertEquals(3, released);
+        verify(queueRepository).requeueStaleClaims(any(LocalDateTime.class));
+        verify(queueRepository).claimQueued(new long[]{1L, 2L});
+        verify(queueRepository).claimQueued(new long[]{3L});
+        verify(eventPublisher).publishEvent(argThat((DeferredNotificationsReleasedEvent event) ->
+                Arrays.equals(new long[]{7L, 8L}, event.getNotificationIds())));
+        verify(queueRepository).completeClaimed(new long[]{3L});
+    }
+
+    private void stubQueueWrites() {
+        AtomicLong ids = new AtomicLong();
+        when(queueRepository.save(any(NotificationQueueEntry.class))).thenAnswer(invocation -> {
+            NotificationQueueEntry entry = invocation.getArgument(0);
+            entry.setId(ids.incrementAndGet());
+            return entry;
+        });
+    }
+
+    private UserNotificationPreferences quietPreferences(String zone) {
+        UserNotificationPreferences preferences = new UserNotificationPreferences(1L);
+        preferences.setQuietHours(LocalTime.of(20, 0), LocalTime.of(10, 0));
+        preferences.setTimezone(ZoneId.of(zone).getId());
+        return preferences;
+    }
+
+    private Notification notification(long id, NotificationPriority priority) {
+        Notification notification = new Notification("event-" + id, NotificationType.EMAIL, "relationship-request", 1L);
+        notification.setId(id);
+        notification.setPriority(priority);
+        return notification;
+    }
+}
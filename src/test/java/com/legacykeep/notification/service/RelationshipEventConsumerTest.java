@@ -3,15 +3,21 @@ package com.legacykeep.notification.service;
 import com.legacykeep.notification.event.dto.RelationshipRequestAcceptedEvent;
 import com.legacykeep.notification.event.dto.RelationshipRequestRejectedEvent;
 import com.legacykeep.notification.event.dto.RelationshipRequestSentEvent;
+import com.legacykeep.notification.model.RelationshipNotification;
+import com.legacykeep.notification.model.RelationshipNotificationKind;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
 
 import java.time.LocalDateTime;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -21,7 +27,10 @@ import static org.mockito.Mockito.*;
 class RelationshipEventConsumerTest {
 
     @Mock
-    private EmailTemplateService emailTemplateService;
+    private RelationshipNotificationCoalescer notificationCoalescer;
+
+    @Mock
+    private Acknowledgment acknowledgment;
 
     @InjectMocks
     private RelationshipEventConsumer relationshipEventConsumer;
@@ -86,36 +95,43 @@ class RelationshipEventConsumerTest {
     void testHandleRelationshipRequestSent_ShouldProcessSuccessfully() {
         // When
         relationshipEventConsumer.handleRelationshipRequestSent(
-                requestSentEvent, "relationship-events", 0, 0L);
+                requestSentEvent, "relationship-events", 0, 0L, acknowledgment);
 
         // Then
-        // Verify that the method completes without throwing exceptions
-        // In a real implementation, we would verify that notifications are sent
-        verify(emailTemplateService, never()).sendWelcomeEmail(any()); // Just to verify mock is working
+        RelationshipNotification notification = captureQueuedNotification();
+        assertEquals(RelationshipNotificationKind.REQUEST_SENT, notification.getKind());
+        assertEquals(200L, notification.getRecipientUserId());
+        assertEquals(100L, notification.getActorUserId());
+        // Acknowledged by the delivery service once persisted
+        verify(acknowledgment, never()).acknowledge();
+        notification.acknowledge();
+        verify(acknowledgment).acknowledge();
     }
 
     @Test
     void testHandleRelationshipRequestAccepted_ShouldProcessSuccessfully() {
         // When
         relationshipEventConsumer.handleRelationshipRequestAccepted(
-                requestAcceptedEvent, "relationship-events", 0, 0L);
+                requestAcceptedEvent, "relationship-events", 0, 0L, acknowledgment);
 
         // Then
-        // Verify that the method completes without throwing exceptions
-        // In a real implementation, we would verify that notifications are sent
-        verify(emailTemplateService, never()).sendWelcomeEmail(any()); // Just to verify mock is working
+        RelationshipNotification notification = captureQueuedNotification();
+        assertEquals(RelationshipNotificationKind.REQUEST_ACCEPTED, notification.getKind());
+        assertEquals(100L, notification.getRecipientUserId());
+        assertEquals(200L, notification.getActorUserId());
     }
 
     @Test
     void testHandleRelationshipRequestRejected_ShouldProcessSuccessfully() {
         // When
         relationshipEventConsumer.handleRelationshipRequestRejected(
-                requestRejectedEvent, "relationship-events", 0, 0L);
+                requestRejectedEvent, "relationship-events", 0, 0L, acknowledgment);
 
         // Then
-        // Verify that the method completes without throwing exceptions
-        // In a real implementation, we would verify that notifications are sent
-        verify(emailTemplateService, never()).sendWelcomeEmail(any()); // Just to verify mock is working
+        RelationshipNotification notification = captureQueuedNotification();
+        assertEquals(RelationshipNotificationKind.REQUEST_REJECTED, notification.getKind());
+        assertEquals(100L, notification.getRecipientUserId());
+        assertEquals(200L, notification.getActorUserId());
     }
 
     @Test
@@ -128,10 +144,16 @@ class RelationshipEventConsumerTest {
         // When & Then
         // The method should handle exceptions gracefully and log errors
         relationshipEventConsumer.handleRelationshipRequestSent(
-                invalidEvent, "relationship-events", 0, 0L);
+                invalidEvent, "relationship-events", 0, 0L, acknowledgment);
 
         // Verify that the method completes without throwing exceptions
-        verify(emailTemplateService, never()).sendWelcomeEmail(any());
+        verify(notificationCoalescer, never()).add(any());
+        verify(acknowledgment).acknowledge();
     }
-}
 
+    private RelationshipNotification captureQueuedNotification() {
+        ArgumentCaptor<RelationshipNotification> captor = ArgumentCaptor.forClass(RelationshipNotification.class);
+        verify(notificationCoalescer).add(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,135 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.event.RelationshipNotificationsCoalescedEvent;
+import com.legacykeep.notification.model.RelationshipNotification;
+import com.legacykeep.notification.model.RelationshipNotificationKind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for RelationshipNotificationCoalescer.
+ */
+@ExtendWith(MockitoExtension.class)
+class RelationshipNotificationCoalescerTest {
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private NotificationConfig notificationConfig;
+    private RelationshipNotificationCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        notificationConfig = new NotificationConfig();
+        notificationConfig.getCoalescing().setMaxBatchSize(5);
+        notificationConfig.getCoalescing().setMaxPendingRecipients(100);
+        coalescer = new RelationshipNotificationCoalescer(eventPublisher, notificationConfig);
+    }
+
+    @Test
+    void testFlushExpired_BurstForOneRecipient_ShouldPublishSingleCombinedEvent() {
+        // Given
+        for (long requester = 1; requester <= 3; requester++) {
+            coalescer.add(notification(200L, requester, RelationshipNotificationKind.REQUEST_SENT));
+        }
+        verifyNoInteractions(eventPublisher);
+
+        // When
+        int flushed = coalescer.flushExpired(afterWindow());
+
+        // Then
+        assertEquals(1, flushed);
+        RelationshipNotificationsCoalescedEvent event = captureEvents(1).get(0);
+        assertEquals(200L, event.getRecipientUserId());
+        assertEquals(3, event.getNotifications().size());
+        assertEquals("3 new relationship requests", event.getSummary());
+        assertEquals(0, coalescer.getOpenWindowCount());
+    }
+
+    @Test
+    void testAdd_DifferentKinds_ShouldUseSeparateWindows() {
+        // Given
+        coalescer.add(notification(200L, 1L, RelationshipNotificationKind.REQUEST_SENT));
+        coalescer.add(notification(200L, 1L, RelationshipNotificationKind.REQUEST_ACCEPTED));
+
+        // When
+        coalescer.flushExpired(afterWindow());
+
+        // Then
+        List<RelationshipNotificationsCoalescedEvent> events = captureEvents(2);
+        assertEquals("New relationship request", events.get(0).getSummary());
+        assertEquals("Your relationship request was accepted", events.get(1).getSummary());
+    }
+
+    @Test
+    void testAdd_SizeThresholdReached_ShouldFlushBeforeWindowExpires() {
+        // When
+        for (long requester = 1; requester <= 5; requester++) {
+            coalescer.add(notification(200L, requester, RelationshipNotificationKind.REQUEST_SENT));
+        }
+
+        // Then
+        assertEquals(5, captureEvents(1).get(0).getNotifications().size());
+        assertEquals(0, coalescer.getOpenWindowCount());
+    }
+
+    @Test
+    void testAdd_TooManyOpenWindows_ShouldFlushOldestFirst() {
+        // When
+        for (long recipient = 1; recipient <= 150; recipient++) {
+            coalescer.add(notification(recipient, 999L, RelationshipNotificationKind.REQUEST_SENT));
+        }
+
+        // Then
+        assertEquals(100, coalescer.getOpenWindowCount());
+        List<RelationshipNotificationsCoalescedEvent> events = captureEvents(50);
+        assertEquals(1L, events.get(0).getRecipientUserId());
+        assertEquals(50L, events.get(49).getRecipientUserId());
+    }
+
+    @Test
+    void testAdd_CoalescingDisabled_ShouldPublishImmediately() {
+        // Given
+        notificationConfig.getCoalescing().setEnabled(false);
+
+        // When
+        coalescer.add(notification(200L, 1L, RelationshipNotificationKind.REQUEST_REJECTED));
+
+        // Then
+        assertEquals(1, captureEvents(1).get(0).getNotifications().size());
+    }
+
+    private long afterWindow() {
+        return System.nanoTime() + Duration.ofMillis(notificationConfig.getCoalescing().getWindowMs() + 1).toNanos();
+    }
+
+    private List<RelationshipNotificationsCoalescedEvent> captureEvents(int expected) {
+        ArgumentCaptor<RelationshipNotificationsCoalescedEvent> captor =
+                ArgumentCaptor.forClass(RelationshipNotificationsCoalescedEvent.class);
+        verify(eventPublisher, times(expected)).publishEvent(captor.capture());
+        verifyNoMoreInteractions(eventPublisher);
+        return captor.getAllValues();
+    }
+
+    private RelationshipNotification notification(Long recipient, Long actor, RelationshipNotificationKind kind) {
+        return RelationshipNotification.builder()
+                .eventId("event-" + recipient + "-" + actor)
+                .kind(kind)
+                .recipientUserId(recipient)
+                .actorUserId(actor)
+                .relationshipTypeName("Cousin")
+                .build();
+    }
+}
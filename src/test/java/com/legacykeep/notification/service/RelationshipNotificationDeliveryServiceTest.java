@@ -0,0 +1,397 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.Notification;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.NotificationDelivery;
+import com.legacykeep.notification.entity.NotificationStatus;
+import com.legacykeep.notification.entity.NotificationType;
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+import com.legacykeep.notification.event.DeferredNotificationsReleasedEvent;
+import com.legacykeep.notification.event.RelationshipNotificationsCoalescedEvent;
+import com.legacykeep.notification.model.RecipientContact;
+import com.legacykeep.notification.model.RelationshipNotification;
+import com.legacykeep.notification.model.RelationshipNotificationKind;
+import com.legacykeep.notification.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for RelationshipNotificationDeliveryService.
+ */
+@ExtendWith(MockitoExtension.class)
+class RelationshipNotificationDeliveryServiceTest {
+
+    @Mock
+    private NotificationPreferenceService preferenceService;
+
+    @Mock
+    private RecipientContactService contactService;
+
+    @Mock
+    private DailyDigestService digestService;
+
+    @Mock
+    private QuietHoursDeferralService deferralService;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationFanOutService fanOutService;
+
+    @Mock
+    private TemplateEngine templateEngine;
+
+    private RelationshipNotificationDeliveryService deliveryService;
+
+    @BeforeEach
+    void setUp() {
+        deliveryService = new RelationshipNotificationDeliveryService(preferenceService, contactService, digestService,
+                deferralService, notificationRepository, fanOutService, templateEngine, new NotificationConfig());
+    }
+
+    @Test
+    void testDeliver_BatchOfEvents_ShouldResolveInBulkAndFanOutOnce() {
+        // Given
+        stubPersistence();
+        stubFanOut(NotificationStatus.SENT);
+        when(templateEngine.process(anyString(), any(IContext.class))).thenReturn("<html></html>");
+        List<RelationshipNotificationsCoalescedEvent> batch = new ArrayList<>();
+        Map<Long, UserNotificationPreferences> preferences = new HashMap<>();
+        Map<Long, RecipientContact> contacts = new HashMap<>();
+        for (long recipient = 1; recipient <= 50; recipient++) {
+            batch.add(event(recipient, RelationshipNotificationKind.REQUEST_SENT, 1000L, 1001L));
+            preferences.put(recipient, new UserNotificationPreferences(recipient));
+            contacts.put(recipient, new RecipientContact(recipient, "user" + recipient + "@example.com", "User " + recipient));
+        }
+        contacts.put(1000L, new RecipientContact(1000L, "grandma@example.com", "Grandma"));
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(preferences);
+        when(contactService.getContacts(anyCollection())).thenReturn(contacts);
+        when(deferralService.deferIfQuiet(any(), any(), any(Instant.class))).thenReturn(Optional.empty());
+
+        // When
+        int created = deliveryService.deliver(batch);
+
+        // Then
+        assertEquals(50, created);
+        verify(preferenceService, times(1)).getPreferences(anyCollection());
+        verify(contactService, times(1)).getContacts(argThat((Collection<Long> ids) -> ids.size() == 52));
+
+        ArgumentCaptor<IContext> context = ArgumentCaptor.forClass(IContext.class);
+        verify(templateEngine, times(50)).process(anyString(), context.capture());
+        List<?> items = (List<?>) context.getValue().getVariable("items");
+        assertEquals(2, items.size());
+        assertEquals("Grandma sent you a Cousin relationship request",
+                ((RelationshipNotificationDeliveryService.RelationshipLine) items.get(0)).getDescription());
+
+        ArgumentCaptor<List<Notification>> fannedOut = notificationsCaptor();
+        verify(fanOutService, times(1)).fanOut(fannedOut.capture());
+        assertEquals(50, fannedOut.getValue().size());
+        Notification notification = fannedOut.getValue().get(0);
+        assertEquals("2 new relationship requests", notification.getSubject());
+        assertEquals("<html></html>", notification.getContent());
+        assertTrue(notification.getTextContent().startsWith("Grandma sent you a Cousin relationship request\n"));
+        assertEquals(NotificationStatus.SENT, notification.getStatus());
+        verify(notificationRepository).updateOutcomes(fannedOut.getValue());
+    }
+
+    @Test
+    void testDeliver_DigestEligibleEvent_ShouldOnlyGoToInbox() {
+        // Given
+        stubPersistence();
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, new UserNotificationPreferences(1L)));
+        when(contactService.getContacts(anyCollection()))
+                .thenReturn(Map.of(1L, new RecipientContact(1L, "user@example.com", "User")));
+        when(digestService.accept(eq(1L), anyString(), anyString(), any(), anyString(), any())).thenReturn(true);
+        when(fanOutService.fanOut(anyList(), anySet())).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        // When
+        int created = deliveryService.deliver(List.of(event(1L, RelationshipNotificationKind.REQUEST_REJECTED, 2L, 3L)));
+
+        // Then
+        assertEquals(1, created);
+        verify(digestService, times(2)).accept(eq(1L), anyString(), anyString(), any(), anyString(), any());
+        verify(fanOutService).fanOut(anyList(), eq(EnumSet.of(NotificationChannel.IN_APP)));
+        verify(fanOutService, never()).fanOut(anyList());
+        verify(notificationRepository).updateOutcomes(argThat((Collection<Notification> settled) ->
+                settled.size() == 1 && settled.iterator().next().getStatus() == NotificationStatus.SENT));
+        verifyNoInteractions(deferralService);
+    }
+
+    @Test
+    void testDeliver_UnknownContact_ShouldFanOutWithoutEmailAddress() {
+        // Given
+        stubPersistence();
+        stubFanOut(NotificationStatus.SENT);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of());
+        when(contactService.getContacts(anyCollection())).thenReturn(Map.of());
+
+        // When
+        int created = deliveryService.deliver(List.of(event(1L, RelationshipNotificationKind.REQUEST_SENT, 2L)));
+
+        // Then
+        assertEquals(1, created);
+        ArgumentCaptor<List<Notification>> fannedOut = notificationsCaptor();
+        verify(fanOutService).fanOut(fannedOut.capture());
+        assertNull(fannedOut.getValue().get(0).getRecipientEmail());
+        assertEquals("A family member sent you a Cousin relationship request", fannedOut.getValue().get(0).getTextContent());
+        verifyNoInteractions(templateEngine, digestService, deferralService);
+    }
+
+    @Test
+    void testDeliver_QuietHours_ShouldDeferInsteadOfFanningOut() {
+        // Given
+        stubPersistence();
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, new UserNotificationPreferences(1L)));
+        when(contactService.getContacts(anyCollection()))
+                .thenReturn(Map.of(1L, new RecipientContact(1L, "user@example.com", "User")));
+        when(templateEngine.process(anyString(), any(IContext.class))).thenReturn("<html></html>");
+        when(deferralService.deferIfQuiet(any(), any(), any(Instant.class)))
+                .thenReturn(Optional.of(Instant.parse("2026-01-15T08:00:00Z")));
+
+        // When
+        int created = deliveryService.deliver(List.of(event(1L, RelationshipNotificationKind.REQUEST_SENT, 2L)));
+
+        // Then
+        assertEquals(1, created);
+        verifyNoInteractions(fanOutService);
+        verify(notificationRepository).insertNew(anyCollection());
+        verify(notificationRepository).updateOutcomes(argThat((Collection<Notification> deferred) -> deferred.size() == 1));
+    }
+
+    @Test
+    void testDeliver_RedeliveredEvent_ShouldNotSendAgain() {
+        // Given
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, new UserNotificationPreferences(1L)));
+        when(contactService.getContacts(anyCollection()))
+                .thenReturn(Map.of(1L, new RecipientContact(1L, "user@example.com", "User")));
+        when(templateEngine.process(anyString(), any(IContext.class))).thenReturn("<html></html>");
+        when(notificationRepository.insertNew(anyCollection())).thenReturn(List.of());
+
+        // When
+        int created = deliveryService.deliver(List.of(event(1L, RelationshipNotificationKind.REQUEST_SENT, 2L)));
+
+        // Then
+        assertEquals(0, created);
+        verifyNoInteractions(fanOutService, deferralService, digestService);
+    }
+
+    @Test
+    void testDispatchPending_ShouldAcknowledgeRecordsOnlyAfterPersisting() {
+        // Given
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, new UserNotificationPreferences(1L)));
+        when(contactService.getContacts(anyCollection()))
+                .thenReturn(Map.of(1L, new RecipientContact(1L, "user@example.com", "User")));
+        when(templateEngine.process(anyString(), any(IContext.class))).thenReturn("<html></html>");
+        when(notificationRepository.insertNew(anyCollection()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenReturn(List.of());
+        deliveryService.onNotificationsCoalesced(acknowledgedEvent(acknowledgment));
+
+        // When
+        deliveryService.dispatchPending();
+
+        // Then
+        verify(acknowledgment, never()).acknowledge();
+        assertEquals(1, deliveryService.getPendingCount());
+
+        // When
+        deliveryService.dispatchPending();
+
+        // Then
+        verify(acknowledgment).acknowledge();
+        assertEquals(0, deliveryService.getPendingCount());
+    }
+
+    @Test
+    void testDispatchPending_RepeatedFailures_ShouldAcknowledgeAfterMaxAttempts() {
+        // Given
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+        when(preferenceService.getPreferences(anyCollection())).thenThrow(new IllegalStateException("unavailable"));
+        deliveryService.onNotificationsCoalesced(acknowledgedEvent(acknowledgment));
+        int maxAttempts = new NotificationConfig().getRelationship().getMaxDeliveryAttempts();
+
+        // When
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            deliveryService.dispatchPending();
+        }
+
+        // Then
+        verify(acknowledgment, never()).acknowledge();
+
+        // When
+        deliveryService.dispatchPending();
+
+        // Then
+        verify(acknowledgment).acknowledge();
+        assertEquals(0, deliveryService.getPendingCount());
+    }
+
+    @Test
+    void testDispatchPending_FailureAfterInsert_ShouldDispatchStoredNotificationOnRetry() {
+        // Given
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+        stubFanOut(NotificationStatus.SENT);
+        when(preferenceService.getPreferences(anyCollection())).thenReturn(Map.of(1L, new UserNotificationPreferences(1L)));
+        when(contactService.getContacts(anyCollection()))
+                .thenReturn(Map.of(1L, new RecipientContact(1L, "user@example.com", "User")));
+        when(templateEngine.process(anyString(), any(IContext.class))).thenReturn("<html></html>");
+        when(notificationRepository.insertNew(anyCollection())).thenAnswer(invocation -> {
+            List<Notification> saved = new ArrayList<>(invocation.<Collection<Notification>>getArgument(0));
+            saved.forEach(n -> n.setId(1L));
+            return saved;
+        }).thenReturn(List.of());
+        when(deferralService.deferIfQuiet(any(), any(), any(Instant.class)))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenReturn(Optional.empty());
+        Notification stored = new Notification("event-1-2", NotificationType.EMAIL,
+                RelationshipNotificationDeliveryService.TEMPLATE_ID, 1L);
+        stored.setId(1L);
+        when(notificationRepository.findByEventIdInAndStatus(Set.of("event-1-2"), NotificationStatus.PENDING))
+                .thenReturn(List.of(stored));
+        deliveryService.onNotificationsCoalesced(acknowledgedEvent(acknowledgment));
+
+        // When
+        deliveryService.dispatchPending();
+        deliveryService.dispatchPending();
+
+        // Then
+        verify(fanOutService, times(1)).fanOut(List.of(stored));
+        assertEquals(NotificationStatus.SENT, stored.getStatus());
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void testSweepStalePending_ShouldDispatchClaimedNotifications() {
+        // Given
+        stubFanOut(NotificationStatus.SENT);
+        Notification stale = released(1L);
+        when(notificationRepository.claimStalePending(eq(RelationshipNotificationDeliveryService.TEMPLATE_ID),
+                any(LocalDateTime.class), any(LocalDateTime.class), anyInt())).thenReturn(List.of(1L));
+        when(notificationRepository.findAllById(List.of(1L))).thenReturn(List.of(stale));
+
+        // When
+        deliveryService.sweepStalePending();
+
+        // Then
+        assertEquals(NotificationStatus.SENT, stale.getStatus());
+        verify(notificationRepository).updateOutcomes(List.of(stale));
+    }
+
+    @Test
+    void testOnDeferredNotificationsReleased_ShouldFanOutAndRecordOutcomes() {
+        // Given
+        Notification delivered = released(1L);
+        Notification failed = released(2L);
+        Notification noChannel = released(3L);
+        when(notificationRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(delivered, failed, noChannel));
+        when(fanOutService.fanOut(anyList())).thenReturn(CompletableFuture.completedFuture(List.of(
+                delivery(1L, NotificationChannel.EMAIL, "SMTP down"),
+                delivery(1L, NotificationChannel.PUSH, null),
+                delivery(2L, NotificationChannel.EMAIL, "SMTP down"))));
+
+        // When
+        deliveryService.onDeferredNotificationsReleased(
+                new DeferredNotificationsReleasedEvent(Instant.parse("2026-01-15T08:00:00Z"), new long[]{1L, 2L, 3L}));
+
+        // Then
+        assertEquals(NotificationStatus.SENT, delivered.getStatus());
+        assertEquals(NotificationStatus.FAILED, failed.getStatus());
+        assertEquals("SMTP down", failed.getFailureReason());
+        assertEquals(NotificationStatus.CANCELLED, noChannel.getStatus());
+        verify(notificationRepository).updateOutcomes(List.of(delivered, failed, noChannel));
+    }
+
+    private void stubPersistence() {
+        AtomicLong ids = new AtomicLong();
+        when(notificationRepository.insertNew(anyCollection())).thenAnswer(invocation -> {
+            List<Notification> saved = new ArrayList<>(invocation.<Collection<Notification>>getArgument(0));
+            saved.forEach(n -> n.setId(ids.incrementAndGet()));
+            return saved;
+        });
+    }
+
+    private void stubFanOut(NotificationStatus status) {
+        when(fanOutService.fanOut(anyList())).thenAnswer(invocation -> {
+            List<NotificationDelivery> deliveries = new ArrayList<>();
+            for (Notification notification : invocation.<List<Notification>>getArgument(0)) {
+                deliveries.add(new NotificationDelivery(notification.getId(), NotificationChannel.IN_APP, status));
+            }
+            return CompletableFuture.completedFuture(deliveries);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<List<Notification>> notificationsCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private Notification released(Long id) {
+        Notification notification = new Notification("event-" + id, NotificationType.EMAIL,
+                RelationshipNotificationDeliveryService.TEMPLATE_ID, 1L);
+        notification.setId(id);
+        return notification;
+    }
+
+    private NotificationDelivery delivery(Long notificationId, NotificationChannel channel, String failureReason) {
+        NotificationDelivery delivery = new NotificationDelivery(notificationId, channel);
+        if (failureReason != null) {
+            delivery.markAsFailed(failureReason);
+        } else {
+            delivery.markAsSent();
+        }
+        return delivery;
+    }
+
+    private RelationshipNotificationsCoalescedEvent acknowledgedEvent(Acknowledgment acknowledgment) {
+        RelationshipNotification notification = RelationshipNotification.builder()
+                .eventId("event-1-2")
+                .kind(RelationshipNotificationKind.REQUEST_SENT)
+                .recipientUserId(1L)
+                .actorUserId(2L)
+                .acknowledgment(acknowledgment)
+                .build();
+        return new RelationshipNotificationsCoalescedEvent(1L, RelationshipNotificationKind.REQUEST_SENT, List.of(notification));
+    }
+
+    private RelationshipNotificationsCoalescedEvent event(Long recipient, RelationshipNotificationKind kind, Long... actors) {
+        List<RelationshipNotification> notifications = new ArrayList<>();
+        for (Long actor : actors) {
+            notifications.add(RelationshipNotification.builder()
+                    .eventId("event-" + recipient + "-" + actor)
+                    .kind(kind)
+                    .recipientUserId(recipient)
+                    .actorUserId(actor)
+                    .relationshipTypeName("Cousin")
+                    .build());
+        }
+        return new RelationshipNotificationsCoalescedEvent(recipient, kind, notifications);
+    }
+}
@@ -0,0 +1,98 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.model.SmsMessage;
+import com.legacykeep.notification.model.SmsSendResult;
+import com.legacykeep.notification.service.impl.FakeSmsProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for SmsDeliveryService.
+ */
+class SmsDeliveryServiceTest {
+
+    private NotificationConfig config;
+    private FakeSmsProvider smsProvider;
+    private SmsDeliveryService smsDeliveryService;
+
+    @BeforeEach
+    void setUp() {
+        config = new NotificationConfig();
+        config.getSms().setEnabled(true);
+        config.getSms().setMaxBatchSize(2);
+        config.getRetry().setInitialDelay(1);
+        config.getRetry().setMaxDelay(5);
+        smsProvider = new FakeSmsProvider(config);
+        smsDeliveryService = new SmsDeliveryService(smsProvider, config, Runnable::run);
+    }
+
+    @Test
+    void testSend_ShouldSubmitInProviderBatchesAndRejectInvalidNumbers() throws Exception {
+        // Given
+        List<SmsMessage> messages = List.of(
+                message("+15550001", "a"), message("+15550002", "b"), message("+15550003", "c"), message("5550004", "d"));
+
+        // When
+        SmsSendResult result = smsDeliveryService.send(messages).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(3, result.getAcceptedCount());
+        assertEquals(3, result.getSegmentCount());
+        assertEquals(List.of(messages.get(3)), result.getRejectedMessages());
+        assertEquals(2, smsProvider.getSubmissionCount());
+    }
+
+    @Test
+    void testSend_ProviderUnavailable_ShouldRetryWithBackoffUntilAccepted() throws Exception {
+        // Given
+        smsProvider.failNextSubmissions(2);
+
+        // When
+        SmsSendResult result = smsDeliveryService.send(message("+15550001", "Your code is 123456")).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(1, result.getAcceptedCount());
+        assertEquals(0, result.getFailureCount());
+        assertEquals(3, smsProvider.getSubmissionCount());
+    }
+
+    @Test
+    void testSend_RetriesExhausted_ShouldReportFailedMessages() throws Exception {
+        // Given
+        smsProvider.failNextSubmissions(10);
+
+        // When
+        SmsSendResult result = smsDeliveryService.send(message("+15550001", "hello")).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(0, result.getAcceptedCount());
+        assertEquals(1, result.getFailedMessages().size());
+        assertEquals(config.getRetry().getMaxAttempts(), smsProvider.getSubmissionCount());
+    }
+
+    @Test
+    void testSend_TooManySegments_ShouldRejectWithoutSubmitting() throws Exception {
+        // Given
+        List<SmsMessage> messages = new ArrayList<>();
+        messages.add(message("+15550001", "x".repeat(153 * 3 + 1)));
+        messages.add(message("+15550002", ""));
+
+        // When
+        SmsSendResult result = smsDeliveryService.send(messages).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(2, result.getRejectedMessages().size());
+        assertEquals(0, smsProvider.getSubmissionCount());
+    }
+
+    private SmsMessage message(String to, String body) {
+        return SmsMessage.builder().to(to).body(body).reference(to).build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.NotificationTemplate;
+import com.legacykeep.notification.entity.NotificationType;
+import com.legacykeep.notification.model.BroadcastTemplate;
+import com.legacykeep.notification.model.RenderedTemplate;
+import com.legacykeep.notification.repository.NotificationTemplateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for TemplateRegistryService.
+ */
+@ExtendWith(MockitoExtension.class)
+class TemplateRegistryServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private NotificationTemplateRepository templateRepository;
+
+    private TemplateRegistryService registry;
+
+    @BeforeEach
+    void setUp() {
+        NotificationConfig config = new NotificationConfig();
+        registry = new TemplateRegistryService(templateRepository, new TemplateLocalizer(config), config);
+    }
+
+    @Test
+    void testRender_ShouldUseCompiledTemplatesWithoutQueryingPerRender() {
+        // Given
+        NotificationTemplate inline = template("story-shared", "{{userName}} shared a story", "<p>Hi {{userName}}, {{ title }}</p>", T0);
+        NotificationTemplate view = template("password-reset", "Reset - {{userName}}", "email/auth/password-reset", T0);
+        view.setContentTemplate("Reset here: {{resetUrl}}");
+        when(templateRepository.findByIsActiveTrue()).thenReturn(List.of(inline, view));
+        registry.reloadAll();
+
+        // When
+        RenderedTemplate html = registry.render("story-shared", Map.of("userName", "Tom & Jerry", "title", "<b>")).orElseThrow();
+        RenderedTemplate viewBacked = registry.render("password-reset", Map.of("userName", "Ann", "resetUrl", "https://x/r")).orElseThrow();
+
+        // Then
+        assertEquals("Tom & Jerry shared a story", html.getSubject());
+        assertEquals("<p>Hi Tom &amp; Jerry, &lt;b&gt;</p>", html.getBody());
+        assertTrue(html.isHtml());
+        assertEquals("Reset - Ann", viewBacked.getSubject());
+        assertEquals("email/auth/password-reset", viewBacked.getViewName());
+        assertEquals("Reset here: https://x/r", viewBacked.getBody());
+        assertTrue(registry.render("missing", Map.of()).isEmpty());
+        verify(templateRepository, times(1)).findByIsActiveTrue();
+        verifyNoMoreInteractions(templateRepository);
+    }
+
+    @Test
+    void testReloadChanged_ShouldRecompileOnlyChangedRowsAndDropDeactivated() {
+        // Given
+        NotificationTemplate welcome = template("welcome-email", "Welcome", "<p>v1</p>", T0);
+        NotificationTemplate otp = template("otp", "Code", "<p>{{otpCode}}</p>", T0.minusMinutes(1));
+        when(templateRepository.findByIsActiveTrue()).thenReturn(List.of(welcome, otp));
+        registry.reloadAll();
+
+        NotificationTemplate edited = template("welcome-email", "Welcome", "<p>v2</p>", T0.plusMinutes(1));
+        NotificationTemplate deactivated = template("otp", "Code", "<p>{{otpCode}}</p>", T0.plusMinutes(2));
+        deactivated.setIsActive(false);
+        when(templateRepository.findByUpdatedAtGreaterThanEqual(any(LocalDateTime.class)))
+                .thenReturn(List.of(welcome, edited, deactivated))
+                .thenReturn(List.of(deactivated));
+
+        // When
+        int changed = registry.reloadChanged();
+        int unchanged = registry.reloadChanged();
+
+        // Then
+        assertEquals(2, changed);
+        assertEquals(0, unchanged);
+        assertEquals("<p>v2</p>", registry.render("welcome-email", Map.of()).orElseThrow().getBody());
+        assertTrue(registry.find("otp").isEmpty());
+        assertEquals(1, registry.size());
+        verify(templateRepository).findByUpdatedAtGreaterThanEqual(T0.minusSeconds(5));
+        verify(templateRepository).findByUpdatedAtGreaterThanEqual(T0.plusMinutes(2).minusSeconds(5));
+    }
+
+    @Test
+    void testRender_ShouldSelectVariantCompiledForRecipientLanguage() {
+        // Given
+        NotificationTemplate welcome = template("welcome-email", "Welcome, {{userName}}", "<p>Welcome</p>", T0);
+        NotificationTemplate untranslated = template("story-shared", "New story", "<p>{{title}}</p>", T0);
+        when(templateRepository.findByIsActiveTrue()).thenReturn(List.of(welcome, untranslated));
+        registry.reloadAll();
+
+        // When
+        Map<String, String> variables = Map.of("userName", "Ana", "title", "Summer");
+        RenderedTemplate spanish = registry.render("welcome-email", "es", variables).orElseThrow();
+        RenderedTemplate regional = registry.render("welcome-email", "FR-ca", variables).orElseThrow();
+        RenderedTemplate unsupported = registry.render("welcome-email", "de", variables).orElseThrow();
+
+        // Then
+        assertEquals("🎉 ¡Bienvenido a LegacyKeep, Ana!", spanish.getSubject());
+        assertTrue(spanish.getBody().contains("lang=\"es\""));
+        assertEquals("🎉 Bienvenue sur LegacyKeep, Ana !", regional.getSubject());
+        assertEquals("Welcome, Ana", unsupported.getSubject());
+        assertSame(registry.find("story-shared").orElseThrow(), registry.find("story-shared", "es").orElseThrow());
+    }
+
+    @Test
+    void testPrepareBroadcast_ShouldBindSharedAndUniformVariablesOnce() {
+        // Given
+        NotificationTemplate announcement = template("maintenance", "Maintenance on {{date}}",
+                "<p>Hi {{userName}}, {{familyName}}: {{details}}</p>", T0);
+        when(templateRepository.findByIsActiveTrue()).thenReturn(List.of(announcement));
+        registry.reloadAll();
+        List<Map<String, String>> recipients = List.of(
+                Map.of("userName", "Ana", "familyName", "Silva"),
+                Map.of("userName", "Ben", "familyName", "Silva"));
+
+        // When
+        BroadcastTemplate broadcast = registry.prepareBroadcast("maintenance", null,
+                Map.of("date", "May 1", "details", "<b>down 2h</b>"), recipients).orElseThrow();
+        List<RenderedTemplate> rendered = registry.renderBroadcast("maintenance", null,
+                Map.of("date", "May 1", "details", "<b>down 2h</b>"), recipients);
+
+        // Then
+        assertEquals(0, broadcast.getSubject().getSlotCount());
+        assertEquals(1, broadcast.getBody().getSlotCount());
+        assertEquals("Maintenance on May 1", rendered.get(1).getSubject());
+        assertEquals("<p>Hi Ben, Silva: &lt;b&gt;down 2h&lt;/b&gt;</p>", rendered.get(1).getBody());
+        assertTrue(registry.renderBroadcast("missing", null, Map.of(), recipients).isEmpty());
+    }
+
+    private NotificationTemplate template(String templateId, String subject, String html, LocalDateTime updatedAt) {
+        NotificationTemplate template = new NotificationTemplate(templateId, templateId, null,
+                NotificationType.EMAIL, NotificationChannel.EMAIL, subject, null, html);
+        template.setUpdatedAt(updatedAt);
+        return template;
+    }
+}
@@ -0,0 +1,122 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.model.AbTest;
+import com.legacykeep.notification.model.TemplateVariant;
+import com.legacykeep.notification.repository.TemplateVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for TemplateVersionRouter.
+ */
+@ExtendWith(MockitoExtension.class)
+class TemplateVersionRouterTest {
+
+    @Mock
+    private TemplateVersionRepository versionRepository;
+
+    @Mock
+    private TemplateRegistryService templateRegistry;
+
+    private TemplateVersionRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new TemplateVersionRouter(versionRepository, templateRegistry, new TemplateLocalizer(new NotificationConfig()));
+    }
+
+    @Test
+    void testSelect_ShouldBeStablePerUserAndFollowWeights() {
+        // Given
+        when(versionRepository.findActiveVariants()).thenReturn(List.of(
+                variant("welcome-email", "1.0", 3, true), variant("welcome-email", "2.0", 1, false)));
+        when(versionRepository.findRunningTests()).thenReturn(List.of());
+        router.reload();
+
+        // When
+        Map<String, Integer> counts = new HashMap<>();
+        for (long userId = 1; userId <= 10_000; userId++) {
+            counts.merge(router.select("welcome-email", userId, null).getVersion(), 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(router.select("welcome-email", 42L, "en"), router.select("welcome-email", 42L, "en"));
+        assertEquals(7500, counts.get("1.0"), 300);
+        assertEquals(2500, counts.get("2.0"), 300);
+        assertNull(router.select("password-reset", 42L, "en"));
+        verify(versionRepository, times(1)).findActiveVariants();
+    }
+
+    @Test
+    void testFlush_ShouldAddSendCountsOfRunningTestsInOneBatch() {
+        // Given
+        when(versionRepository.findActiveVariants()).thenReturn(List.of(
+                variant("welcome-email", "1.0", 1, true),
+                variant("welcome-email", "2.0", 1, false),
+                variant("welcome-email", "3.0", 5, false)));
+        when(versionRepository.findRunningTests()).thenReturn(List.of(new AbTest("t1", "welcome-email", "1.0", "2.0")));
+        router.reload();
+
+        // When
+        long sentA = 0;
+        for (long userId = 1; userId <= 1000; userId++) {
+            String version = router.select("welcome-email", userId, null).getVersion();
+            assertNotEquals("3.0", version);
+            if (version.equals("1.0")) {
+                sentA++;
+            }
+        }
+        int flushed = router.flush();
+
+        // Then
+        assertEquals(1, flushed);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(versionRepository).addSentCounts(rows.capture());
+        assertArrayEquals(new Object[]{sentA, 1000 - sentA, "t1"}, rows.getValue().get(0));
+        assertEquals(0, router.flush());
+    }
+
+    @Test
+    void testFlush_Failure_ShouldKeepCountsForNextFlush() {
+        // Given
+        when(versionRepository.findActiveVariants()).thenReturn(List.of(
+                variant("welcome-email", "1.0", 1, true), variant("welcome-email", "2.0", 0, false)));
+        when(versionRepository.findRunningTests()).thenReturn(List.of(new AbTest("t1", "welcome-email", "1.0", "2.0")));
+        router.reload();
+        router.select("welcome-email", 1L, null);
+        router.select("welcome-email", 2L, "es");
+        doThrow(new RuntimeException("connection reset")).doNothing().when(versionRepository).addSentCounts(anyList());
+
+        // When
+        int failed = router.flush();
+        int retried = router.flush();
+
+        // Then
+        assertEquals(0, failed);
+        assertEquals(1, retried);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(versionRepository, times(2)).addSentCounts(rows.capture());
+        assertArrayEquals(new Object[]{2L, 0L, "t1"}, rows.getAllValues().get(1).get(0));
+    }
+
+    private TemplateVariant variant(String templateId, String version, int weight, boolean isDefault) {
+        return new TemplateVariant(templateId, NotificationChannel.EMAIL, version, null,
+                "Welcome " + version, null, "<p>" + version + "</p>", weight, isDefault);
+    }
+}
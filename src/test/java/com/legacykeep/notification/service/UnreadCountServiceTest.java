@@ -0,0 +1,127 @@
+package com.legacykeep.notification.service;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.repository.InboxUnreadCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for UnreadCountService.
+ */
+@ExtendWith(MockitoExtension.class)
+class UnreadCountServiceTest {
+
+    @Mock
+    private InboxUnreadCountRepository unreadCountRepository;
+
+    private UnreadCountService unreadCountService;
+
+    @BeforeEach
+    void setUp() {
+        unreadCountService = new UnreadCountService(unreadCountRepository, new NotificationConfig(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testGet_ShouldAddPendingDeltasToCheckpointedValuesLoadedOnce() {
+        // Given
+        when(unreadCountRepository.findAll(anyCollection())).thenReturn(new HashMap<>(Map.of(1L, 5L)));
+        unreadCountService.add(Map.of(1L, 2L, 2L, 1L));
+
+        // When
+        Map<Long, Long> counts = unreadCountService.get(List.of(1L, 2L, 3L));
+        Map<Long, Long> again = unreadCountService.get(List.of(1L, 2L, 3L));
+
+        // Then
+        assertEquals(Map.of(1L, 7L, 2L, 1L, 3L, 0L), counts);
+        assertEquals(counts, again);
+        verify(unreadCountRepository, times(1)).findAll(anyCollection());
+    }
+
+    @Test
+    void testCheckpoint_ShouldWriteDeltasInOneBatchAndKeepCountsStable() {
+        // Given
+        when(unreadCountRepository.findAll(anyCollection())).thenReturn(new HashMap<>(Map.of(1L, 5L)));
+        unreadCountService.get(List.of(1L));
+        unreadCountService.add(Map.of(1L, 3L, 2L, 1L));
+        unreadCountService.add(Map.of(1L, -1L));
+
+        // When
+        int written = unreadCountService.checkpoint();
+
+        // Then
+        assertEquals(2, written);
+        verify(unreadCountRepository).addAll(Map.of(1L, 2L, 2L, 1L));
+        assertEquals(0, unreadCountService.getPendingCount());
+        assertEquals(7L, unreadCountService.get(List.of(1L)).get(1L));
+        assertEquals(0, unreadCountService.checkpoint());
+    }
+
+    @Test
+    void testCheckpoint_Failure_ShouldKeepDeltasForNextCheckpoint() {
+        // Given
+        unreadCountService.add(Map.of(1L, 4L));
+        doThrow(new RuntimeException("Database unavailable"))
+                .doNothing()
+                .when(unreadCountRepository).addAll(anyMap());
+
+        // When
+        int failed = unreadCountService.checkpoint();
+        int retried = unreadCountService.checkpoint();
+
+        // Then
+        assertEquals(0, failed);
+        assertEquals(1, retried);
+        verify(unreadCountRepository, times(2)).addAll(Map.of(1L, 4L));
+    }
+
+    @Test
+    void testCheckpoint_ReadBeforeInsert_ShouldClampOnlyWhenRead() {
+        // Given
+        when(unreadCountRepository.findAll(anyCollection())).thenReturn(new HashMap<>(Map.of(1L, 0L)));
+        unreadCountService.get(List.of(1L));
+        unreadCountService.add(Map.of(1L, -1L));
+        unreadCountService.checkpoint();
+
+        // When
+        long whileOutOfOrder = unreadCountService.get(List.of(1L)).get(1L);
+        unreadCountService.add(Map.of(1L, 1L));
+        unreadCountService.checkpoint();
+
+        // Then
+        assertEquals(0L, whileOutOfOrder);
+        assertEquals(0L, unreadCountService.get(List.of(1L)).get(1L));
+        verify(unreadCountRepository).addAll(Map.of(1L, -1L));
+        verify(unreadCountRepository).addAll(Map.of(1L, 1L));
+    }
+
+    @Test
+    void testReconcileDrifted_ShouldRecountSettledNegativeCountersAndReloadThem() {
+        // Given
+        when(unreadCountRepository.findDrifted(any(LocalDateTime.class), anyInt())).thenReturn(List.of(1L));
+        when(unreadCountRepository.recount(List.of(1L))).thenReturn(1);
+        when(unreadCountRepository.findAll(anyCollection()))
+                .thenReturn(new HashMap<>(Map.of(1L, -2L)))
+                .thenReturn(new HashMap<>(Map.of(1L, 3L)));
+        unreadCountService.get(List.of(1L));
+
+        // When
+        int recounted = unreadCountService.reconcileDrifted();
+
+        // Then
+        assertEquals(1, recounted);
+        assertEquals(3L, unreadCountService.get(List.of(1L)).get(1L));
+    }
+}
@@ -0,0 +1,154 @@
+package com.legacykeep.notification.service.impl;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.DeviceType;
+import com.legacykeep.notification.entity.UserDevice;
+import com.legacykeep.notification.event.dto.UserDevicesChangedEvent;
+import com.legacykeep.notification.repository.UserDeviceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for DeviceRegistryServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class DeviceRegistryServiceImplTest {
+
+    @Mock
+    private UserDeviceRepository userDeviceRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private DeviceRegistryServiceImpl deviceRegistry;
+
+    @BeforeEach
+    void setUp() {
+        NotificationConfig config = new NotificationConfig();
+        config.getDevice().setPruneBatchSize(2);
+        deviceRegistry = new DeviceRegistryServiceImpl(userDeviceRepository, kafkaTemplate, config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testGetActiveTokens_Batch_ShouldLoadMissesWithOneQueryAndCacheEmptyUsers() {
+        // Given
+        when(userDeviceRepository.findActiveTokensByUserIds(anyCollection())).thenReturn(List.of(
+                new Object[]{1L, "a1"}, new Object[]{1L, "a2"}, new Object[]{2L, "b1"}));
+
+        // When
+        Map<Long, List<String>> tokens = deviceRegistry.getActiveTokens(List.of(1L, 2L, 3L));
+        List<String> cached = deviceRegistry.getActiveTokens(3L);
+
+        // Then
+        assertEquals(List.of("a1", "a2"), tokens.get(1L));
+        assertEquals(List.of("b1"), tokens.get(2L));
+        assertEquals(List.of(), tokens.get(3L));
+        assertEquals(List.of(), cached);
+        verify(userDeviceRepository, times(1)).findActiveTokensByUserIds(anyCollection());
+    }
+
+    @Test
+    void testRegisterDevice_KnownToken_ShouldReactivateAndEvictUser() {
+        // Given
+        UserDevice existing = new UserDevice(1L, "a1", DeviceType.IOS);
+        existing.setIsActive(false);
+        when(userDeviceRepository.findByUserIdAndDeviceToken(1L, "a1")).thenReturn(Optional.of(existing));
+        when(userDeviceRepository.save(any(UserDevice.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userDeviceRepository.findActiveTokensByUserIds(anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.<Object[]>of(new Object[]{1L, "a1"}));
+        assertEquals(List.of(), deviceRegistry.getActiveTokens(1L));
+
+        // When
+        UserDevice device = new UserDevice(1L, "a1", DeviceType.IOS);
+        device.setAppVersion("2.1.0");
+        deviceRegistry.registerDevice(device);
+
+        // Then
+        assertTrue(existing.getIsActive());
+        assertEquals("2.1.0", existing.getAppVersion());
+        assertEquals(List.of("a1"), deviceRegistry.getActiveTokens(1L));
+        verify(kafkaTemplate).send(eq("notification.devices.changed"), eq("1"), any(UserDevicesChangedEvent.class));
+    }
+
+    @Test
+    void testUnregisterDevice_InTransaction_ShouldPublishChangeAfterCommit() {
+        // Given
+        UserDevice existing = new UserDevice(1L, "a1", DeviceType.ANDROID);
+        when(userDeviceRepository.findByUserIdAndDeviceToken(1L, "a1")).thenReturn(Optional.of(existing));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            deviceRegistry.unregisterDevice(1L, "a1");
+
+            // Then
+            assertFalse(existing.getIsActive());
+            verifyNoInteractions(kafkaTemplate);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(kafkaTemplate).send(eq("notification.devices.changed"), eq("1"), any(UserDevicesChangedEvent.class));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testReportInvalidTokens_ShouldHideTokensAndPruneInBatches() {
+        // Given
+        when(userDeviceRepository.findActiveTokensByUserIds(anyCollection())).thenReturn(List.of(
+                new Object[]{1L, "a1"}, new Object[]{1L, "dead-1"}, new Object[]{2L, "dead-2"}, new Object[]{2L, "dead-3"}));
+        deviceRegistry.getActiveTokens(List.of(1L, 2L));
+        List<Collection<String>> batches = new ArrayList<>();
+        when(userDeviceRepository.findUserIdsByDeviceTokens(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(userDeviceRepository.deactivateByDeviceTokens(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> batch = invocation.getArgument(0);
+            batches.add(batch);
+            return batch.size();
+        });
+
+        // When
+        deviceRegistry.reportInvalidTokens(List.of("dead-1", "dead-2", "dead-3", "dead-1"));
+        Map<Long, List<String>> beforePrune = deviceRegistry.getActiveTokens(List.of(1L, 2L));
+        int deactivated = deviceRegistry.pruneInvalidTokens();
+
+        // Then
+        assertEquals(List.of("a1"), beforePrune.get(1L));
+        assertEquals(List.of(), beforePrune.get(2L));
+        assertEquals(3, deactivated);
+        assertEquals(List.of(List.of("dead-1", "dead-2"), List.of("dead-3")), batches);
+        assertEquals(0, deviceRegistry.pruneInvalidTokens());
+    }
+
+    @Test
+    void testRegisterDevice_ReportedInvalidToken_ShouldNotBePruned() {
+        // Given
+        UserDevice device = new UserDevice(1L, "dead-1", DeviceType.IOS);
+        when(userDeviceRepository.findByUserIdAndDeviceToken(1L, "dead-1")).thenReturn(Optional.empty());
+        when(userDeviceRepository.save(device)).thenReturn(device);
+        deviceRegistry.reportInvalidTokens(List.of("dead-1"));
+
+        // When
+        deviceRegistry.registerDevice(device);
+        int deactivated = deviceRegistry.pruneInvalidTokens();
+
+        // Then
+        assertEquals(0, deactivated);
+        verify(userDeviceRepository, never()).deactivateByDeviceTokens(anyCollection());
+    }
+}
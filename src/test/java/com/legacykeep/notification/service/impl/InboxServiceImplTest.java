@@ -0,0 +1,127 @@
+package com.legacykeep.notification.service.impl;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.dto.InboxPage;
+import com.legacykeep.notification.entity.InboxItem;
+import com.legacykeep.notification.event.InboxItemsStoredEvent;
+import com.legacykeep.notification.model.InboxCursor;
+import com.legacykeep.notification.repository.InboxItemRepository;
+import com.legacykeep.notification.service.UnreadCountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for InboxServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class InboxServiceImplTest {
+
+    @Mock
+    private InboxItemRepository inboxItemRepository;
+
+    @Mock
+    private UnreadCountService unreadCountService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private InboxServiceImpl inboxService;
+
+    @BeforeEach
+    void setUp() {
+        inboxService = new InboxServiceImpl(inboxItemRepository, unreadCountService, new NotificationConfig(), eventPublisher);
+    }
+
+    @Test
+    void testDeliver_ShouldSkipStoredEventsAndIncrementUnreadPerRecipient() {
+        // Given
+        when(inboxItemRepository.findExistingEventIds(anyCollection())).thenReturn(List.of("e2"));
+        when(inboxItemRepository.saveAll(anyCollection())).thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0)));
+
+        // When
+        List<InboxItem> saved = inboxService.deliver(List.of(
+                item("e1", 1L), item("e2", 1L), item("e3", 1L), item("e3", 1L), item("e4", 2L)));
+
+        // Then
+        assertEquals(List.of("e1", "e3", "e4"), saved.stream().map(InboxItem::getEventId).toList());
+        verify(unreadCountService).add(Map.of(1L, 2L, 2L, 1L));
+        verify(eventPublisher).publishEvent(any(InboxItemsStoredEvent.class));
+    }
+
+    @Test
+    void testGetPage_ShouldFetchOneExtraRowAndContinueFromCursor() {
+        // Given
+        LocalDateTime base = LocalDateTime.of(2024, 5, 1, 12, 0, 0, 123_456_000);
+        List<InboxItem> rows = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            InboxItem item = item("e" + i, 1L);
+            item.setId(100L - i);
+            item.setCreatedAt(base.minusSeconds(i));
+            rows.add(item);
+        }
+        when(inboxItemRepository.findFirstPage(1L, 4)).thenReturn(rows);
+        when(unreadCountService.get(List.of(1L))).thenReturn(Map.of(1L, 7L));
+
+        // When
+        InboxPage first = inboxService.getPage(1L, null, 3);
+        InboxCursor cursor = InboxCursor.decode(first.getNextCursor());
+        inboxService.getPage(1L, first.getNextCursor(), 3);
+
+        // Then
+        assertEquals(3, first.getItems().size());
+        assertEquals(7L, first.getUnreadCount());
+        assertEquals(98L, cursor.getId());
+        assertEquals(base.minusSeconds(2), cursor.getCreatedAt());
+        verify(inboxItemRepository).findPageBefore(1L, base.minusSeconds(2), 98L, 4);
+    }
+
+    @Test
+    void testGetPage_LastPage_ShouldHaveNoCursorAndRejectMalformedCursor() {
+        // Given
+        when(inboxItemRepository.findFirstPage(eq(2L), anyInt())).thenReturn(List.of());
+        when(unreadCountService.get(List.of(2L))).thenReturn(Map.of(2L, 0L));
+
+        // When
+        InboxPage page = inboxService.getPage(2L, "", 0);
+
+        // Then
+        assertNull(page.getNextCursor());
+        assertEquals(0L, page.getUnreadCount());
+        verify(inboxItemRepository).findFirstPage(2L, 21);
+        assertThrows(IllegalArgumentException.class, () -> inboxService.getPage(2L, "not-a-cursor", 10));
+    }
+
+    @Test
+    void testMarkRead_ShouldDecrementByItemsThatWereUnread() {
+        // Given
+        when(inboxItemRepository.markRead(eq(1L), anyCollection(), any(LocalDateTime.class))).thenReturn(2);
+        when(inboxItemRepository.markAllRead(eq(1L), any(LocalDateTime.class))).thenReturn(3);
+
+        // When
+        int marked = inboxService.markRead(1L, List.of(10L, 11L, 12L));
+        int markedAll = inboxService.markAllRead(1L);
+
+        // Then
+        assertEquals(2, marked);
+        assertEquals(3, markedAll);
+        verify(unreadCountService).add(Map.of(1L, -2L));
+        verify(unreadCountService).add(Map.of(1L, -3L));
+    }
+
+    private InboxItem item(String eventId, Long recipientId) {
+        return new InboxItem(eventId, recipientId, "RELATIONSHIP_REQUEST", "New relationship request");
+    }
+}
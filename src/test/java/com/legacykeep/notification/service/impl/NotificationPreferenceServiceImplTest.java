@@ -0,0 +1,126 @@
+package com.legacykeep.notification.service.impl;
+
+import com.legacykeep.notification.config.NotificationConfig;
+import com.legacykeep.notification.entity.NotificationChannel;
+import com.legacykeep.notification.entity.UserNotificationPreferences;
+import com.legacykeep.notification.repository.PreferenceSnapshotRepository;
+import com.legacykeep.notification.repository.UserNotificationPreferencesRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for NotificationPreferenceServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationPreferenceServiceImplTest {
+
+    @Mock
+    private UserNotificationPreferencesRepository preferencesRepository;
+
+    @Mock
+    private PreferenceSnapshotRepository snapshotRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private NotificationPreferenceServiceImpl preferenceService;
+
+    @BeforeEach
+    void setUp() {
+        preferenceService = new NotificationPreferenceServiceImpl(
+                preferencesRepository, snapshotRepository, kafkaTemplate, new NotificationConfig(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testGetPreferences_ShouldQueryDatabaseOncePerUser() {
+        // Given
+        UserNotificationPreferences preferences = new UserNotificationPreferences(100L);
+        preferences.disableChannel(NotificationChannel.EMAIL);
+        when(preferencesRepository.findByUserId(100L)).thenReturn(Optional.of(preferences));
+
+        // When
+        boolean first = preferenceService.isChannelEnabled(100L, NotificationChannel.EMAIL);
+        boolean second = preferenceService.isChannelEnabled(100L, NotificationChannel.EMAIL);
+
+        // Then
+        assertFalse(first);
+        assertFalse(second);
+        verify(preferencesRepository, times(1)).findByUserId(100L);
+    }
+
+    @Test
+    void testGetPreferences_WithoutStoredPreferences_ShouldCacheDefaults() {
+        // Given
+        when(preferencesRepository.findByUserId(200L)).thenReturn(Optional.empty());
+
+        // When
+        UserNotificationPreferences first = preferenceService.getPreferences(200L);
+        UserNotificationPreferences second = preferenceService.getPreferences(200L);
+
+        // Then
+        assertEquals(200L, first.getUserId());
+        assertTrue(first.getEmailEnabled());
+        assertNotSame(first, second);
+        verify(preferencesRepository, times(1)).findByUserId(200L);
+    }
+
+    @Test
+    void testGetPreferences_ChangedDefaults_ShouldNotLeakToOtherUsers() {
+        // Given
+        when(preferencesRepository.findByUserId(anyLong())).thenReturn(Optional.empty());
+
+        // When
+        preferenceService.getPreferences(200L).setEmailEnabled(false);
+
+        // Then
+        assertTrue(preferenceService.getPreferences(200L).getEmailEnabled());
+        assertTrue(preferenceService.getPreferences(201L).getEmailEnabled());
+    }
+
+    @Test
+    void testGetPreferences_Batch_ShouldLoadMissesWithSingleQuery() {
+        // Given
+        UserNotificationPreferences stored = new UserNotificationPreferences(1L);
+        when(preferencesRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(stored));
+
+        // When
+        Map<Long, UserNotificationPreferences> result = preferenceService.getPreferences(List.of(1L, 2L, 3L));
+
+        // Then
+        assertEquals(3, result.size());
+        assertSame(stored, result.get(1L));
+        assertEquals(2L, result.get(2L).getUserId());
+        verify(preferencesRepository, times(1)).findByUserIdIn(anyCollection());
+        verify(preferencesRepository, never()).findByUserId(anyLong());
+    }
+
+    @Test
+    void testUpdatePreferences_ShouldEvictAndPublishInvalidation() {
+        // Given
+        UserNotificationPreferences preferences = new UserNotificationPreferences(300L);
+        when(preferencesRepository.findByUserId(300L)).thenReturn(Optional.of(preferences));
+        when(preferencesRepository.save(preferences)).thenReturn(preferences);
+        preferenceService.getPreferences(300L);
+
+        // When
+        preferenceService.updatePreferences(preferences);
+        preferenceService.getPreferences(300L);
+
+        // Then
+        verify(preferencesRepository, times(2)).findByUserId(300L);
+        verify(kafkaTemplate).send(eq("notification.preferences.changed"), eq("300"), any());
+    }
+}